@@ -0,0 +1,12 @@
+package com.kentcarmine.multitopicforum.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Handles configuration related to scheduled tasks.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
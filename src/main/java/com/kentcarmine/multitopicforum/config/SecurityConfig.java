@@ -57,11 +57,12 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                 .antMatchers("/login").permitAll()
                 .antMatchers("/logout").permitAll()
                 .antMatchers("/users/*").permitAll()
-                .antMatchers("/users", "/users?*", "/processSearchUsers").permitAll()
+                .antMatchers("/users", "/users?*", "/processSearchUsers", "/autocompleteUsernames").permitAll()
                 .antMatchers("/registerUser", "/processUserRegistration", "/registrationConfirm").permitAll()
                 .antMatchers("/processChangePassword", "/changePassword",
                         "/processResetPasswordStarterForm", "/resetPassword", "/resendRegistrationEmail").permitAll()
                 .antMatchers("/administration").hasAnyAuthority("MODERATOR", "ADMINISTRATOR", "SUPER_ADMINISTRATOR")
+                .antMatchers("/administration/**").hasAnyAuthority("ADMINISTRATOR", "SUPER_ADMINISTRATOR")
                 .antMatchers("/createNewForum", "/processNewForumCreation").hasAnyAuthority("ADMINISTRATOR", "SUPER_ADMINISTRATOR")
                 .antMatchers("/forums").permitAll()
                 .antMatchers("/searchTopicForums**").permitAll()
@@ -71,11 +72,12 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                 .antMatchers("/forum/**").permitAll()
                 .antMatchers("/processSearchThreads/*", "/searchForumThreads/**").permitAll()
                 .antMatchers("/handleVoteAjax").authenticated()
-                .antMatchers("/deletePostAjax", "/restorePostAjax").hasAnyAuthority("MODERATOR", "ADMINISTRATOR", "SUPER_ADMINISTRATOR")
+                .antMatchers("/deletePostAjax", "/restorePostAjax", "/deletePostsAjax", "/restorePostsAjax").hasAnyAuthority("MODERATOR", "ADMINISTRATOR", "SUPER_ADMINISTRATOR")
                 .antMatchers("/promoteUserAjax, /demoteUserAjax", "/promoteUserButton/*", "/demoteUserButton/*").hasAnyAuthority("ADMINISTRATOR", "SUPER_ADMINISTRATOR")
                 .antMatchers("/lockTopicThread/*", "/unlockTopicThread/*").hasAnyAuthority("MODERATOR", "ADMINISTRATOR", "SUPER_ADMINISTRATOR")
                 .antMatchers("/manageUserDiscipline/*", "/processCreateUserDiscipline", "/rescindDiscipline").authenticated()
                 .antMatchers("/manageUserDiscipline/*", "/processCreateUserDiscipline", "/rescindDiscipline").hasAnyAuthority("MODERATOR", "ADMINISTRATOR", "SUPER_ADMINISTRATOR")
+                .antMatchers("/trendingThreads", "/recentActivity").permitAll()
                 .antMatchers("/").permitAll()
                 .and()
                 .formLogin()
@@ -1,16 +1,52 @@
 package com.kentcarmine.multitopicforum.controllers;
 
+import com.kentcarmine.multitopicforum.dtos.RequestCoalescingStatsDto;
+import com.kentcarmine.multitopicforum.dtos.UserVoteIndexStatsDto;
+import com.kentcarmine.multitopicforum.services.TopicThreadService;
+import com.kentcarmine.multitopicforum.services.UserVoteIndexService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 
+import java.util.List;
+
 /**
  * Controller for handling administrative actions performed by Moderators, Admins, or SuperAdmins.
  */
 @Controller
 public class AdministrationController {
 
+    private final TopicThreadService topicThreadService;
+    private final UserVoteIndexService userVoteIndexService;
+
+    @Autowired
+    public AdministrationController(TopicThreadService topicThreadService, UserVoteIndexService userVoteIndexService) {
+        this.topicThreadService = topicThreadService;
+        this.userVoteIndexService = userVoteIndexService;
+    }
+
     @GetMapping("/administration")
     public String showAdministrationPage() {
         return "administration-home-page";
     }
+
+    /**
+     * Handles an administrator's request for the counters of the loads that concurrent requests share, such as how many
+     * requests for a page of posts were served by another request's load.
+     */
+    @GetMapping(value = "/administration/requestCoalescingStats", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<RequestCoalescingStatsDto>> getRequestCoalescingStats() {
+        return ResponseEntity.ok(List.of(topicThreadService.getPostPageLoadStats()));
+    }
+
+    /**
+     * Handles an administrator's request for the size of the in-memory per-user vote index, including an estimate of the
+     * heap it occupies.
+     */
+    @GetMapping(value = "/administration/userVoteIndexStats", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<UserVoteIndexStatsDto> getUserVoteIndexStats() {
+        return ResponseEntity.ok(userVoteIndexService.getStats());
+    }
 }
@@ -1,36 +1,85 @@
 package com.kentcarmine.multitopicforum.controllers;
 
+import com.kentcarmine.multitopicforum.dtos.RecentActivityPageDto;
+import com.kentcarmine.multitopicforum.dtos.TrendingThreadDto;
+import com.kentcarmine.multitopicforum.services.ActivityFeedService;
 import com.kentcarmine.multitopicforum.services.MessageService;
+import com.kentcarmine.multitopicforum.services.TrendingThreadService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
+import java.util.List;
+
 /**
  * Controller that handles displaying the homepage and other base pages
  */
 @Controller
 public class HomeController {
 
+    private static final int MAX_TRENDING_THREADS = 100;
+
     private MessageService messageService;
+    private TrendingThreadService trendingThreadService;
+    private ActivityFeedService activityFeedService;
 
     private String requestForumName;
 
     @Autowired
-    public HomeController(MessageService messageService) {
+    public HomeController(MessageService messageService, TrendingThreadService trendingThreadService,
+                          ActivityFeedService activityFeedService) {
+        this.trendingThreadService = trendingThreadService;
+        this.activityFeedService = activityFeedService;
         this.requestForumName = messageService.getMessage("com.kentcarmine.multitopicforum.requestTopicForumCreationForum.name");
     }
 
     @GetMapping("/")
     public String getHomePage(Model model) {
         model.addAttribute("requestForumName", requestForumName);
+        model.addAttribute("trendingEnabled", trendingThreadService.isEnabled());
+        model.addAttribute("trendingThreads",
+                trendingThreadService.getTrendingThreads(trendingThreadService.getHomePageSize()));
+        model.addAttribute("recentPosts", activityFeedService.getRecentPosts(activityFeedService.getHomePageSize()));
 
         return "home";
     }
 
+    /**
+     * Get the highest scoring threads in the trending threads ranking, highest first.
+     */
+    @GetMapping(value = "/trendingThreads", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<TrendingThreadDto>> getTrendingThreads(@RequestParam(required = false) Integer limit) {
+        if (limit == null) {
+            limit = trendingThreadService.getHomePageSize();
+        }
+
+        if (limit < 1 || limit > MAX_TRENDING_THREADS) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+
+        return ResponseEntity.ok(trendingThreadService.getTrendingThreads(limit));
+    }
+
+    /**
+     * Get the given page of the recent activity feed, newest post first.
+     */
+    @GetMapping(value = "/recentActivity", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<RecentActivityPageDto> getRecentActivity(@RequestParam(required = false) Integer page) {
+        RecentActivityPageDto recentActivityPage = activityFeedService.getRecentPostsPage(page == null ? 1 : page);
+        if (recentActivityPage == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+
+        return ResponseEntity.ok(recentActivityPage);
+    }
+
     @GetMapping("/forbidden")
     @ResponseStatus(HttpStatus.UNAUTHORIZED)
     public String getAccessDeniedPage() {
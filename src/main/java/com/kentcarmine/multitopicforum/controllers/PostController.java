@@ -4,6 +4,7 @@ import com.kentcarmine.multitopicforum.dtos.*;
 import com.kentcarmine.multitopicforum.exceptions.ForumNotFoundException;
 import com.kentcarmine.multitopicforum.exceptions.PageNotFoundException;
 import com.kentcarmine.multitopicforum.exceptions.TopicThreadNotFoundException;
+import com.kentcarmine.multitopicforum.helpers.PostIdHelper;
 import com.kentcarmine.multitopicforum.model.Post;
 import com.kentcarmine.multitopicforum.model.TopicThread;
 import com.kentcarmine.multitopicforum.model.User;
@@ -23,6 +24,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.servlet.ModelAndView;
 
 import javax.validation.Valid;
+import java.util.List;
 
 /**
  * Controller that handles requests related to Posts.
@@ -33,6 +35,9 @@ public class PostController {
     @Value("${spring.data.web.pageable.default-page-size}")
     private int POSTS_PER_PAGE;
 
+    @Value("${com.kentcarmine.multitopicforum.posts.bulk-moderation.max-posts}")
+    private int MAX_BULK_MODERATION_POSTS;
+
     private final ForumService forumService;
     private final UserService userService;
     private final TopicThreadService topicThreadService;
@@ -92,13 +97,14 @@ public class PostController {
             mv.addObject("threadIsLocked", thread.isLocked());
 
             mv.addObject("posts", posts);
+            mv.addObject("voteCounts", postVoteService.generateVoteCountMap(posts.getContent()));
 
             User loggedInUser = userService.getLoggedInUser();
 
             if (loggedInUser != null) {
 //                System.out.println("### in addPostToThread(). has loggedInUser case");
                 mv.addObject("loggedInUser", loggedInUser);
-                mv.addObject("voteMap", postVoteService.generateVoteMap(loggedInUser, thread));
+                mv.addObject("voteMap", postVoteService.generateVoteMap(loggedInUser, PostIdHelper.getPostIds(posts.getContent())));
                 mv.addObject("canLock", topicThreadService.canUserLockThread(loggedInUser, thread));
                 mv.addObject("canUnlock", topicThreadService.canUserUnlockThread(loggedInUser, thread));
             }
@@ -175,4 +181,76 @@ public class PostController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new RestorePostResponseDto(msg, postToRestore.getId()));
         }
     }
+
+    /**
+     * Handles processing of AJAX submission of a request to delete many posts at once. Responds with the result for each
+     * requested post.
+     */
+    @PostMapping(value = "/deletePostsAjax", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkModeratePostsResponseDto> processDeletePosts(@RequestBody BulkModeratePostsSubmissionDto bulkModeratePostsSubmissionDto) {
+        ResponseEntity<BulkModeratePostsResponseDto> invalidResponse = validateBulkModeration(bulkModeratePostsSubmissionDto);
+        if (invalidResponse != null) {
+            return invalidResponse;
+        }
+
+        User loggedInUser = userService.getLoggedInUserIfNotDisciplined();
+        if (loggedInUser == null) {
+            String msg = messageService.getMessage("Exception.authority.insufficient");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new BulkModeratePostsResponseDto(msg, List.of()));
+        }
+
+        List<PostModerationResultDto> results = postService.deletePosts(bulkModeratePostsSubmissionDto.getPostIds(), loggedInUser);
+
+        String msg = messageService.getMessage("Post.bulk.deleted.success",
+                countResults(results, PostModerationResultDto.Status.DELETED), results.size());
+        return ResponseEntity.status(HttpStatus.OK).body(new BulkModeratePostsResponseDto(msg, results));
+    }
+
+    /**
+     * Handles processing of AJAX submission of a request to restore many deleted posts at once. Responds with the result
+     * for each requested post.
+     */
+    @PostMapping(value = "/restorePostsAjax", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkModeratePostsResponseDto> processRestorePosts(@RequestBody BulkModeratePostsSubmissionDto bulkModeratePostsSubmissionDto) {
+        ResponseEntity<BulkModeratePostsResponseDto> invalidResponse = validateBulkModeration(bulkModeratePostsSubmissionDto);
+        if (invalidResponse != null) {
+            return invalidResponse;
+        }
+
+        User loggedInUser = userService.getLoggedInUserIfNotDisciplined();
+        if (loggedInUser == null) {
+            String msg = messageService.getMessage("Exception.authority.insufficient");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new BulkModeratePostsResponseDto(msg, List.of()));
+        }
+
+        List<PostModerationResultDto> results = postService.restorePosts(bulkModeratePostsSubmissionDto.getPostIds(), loggedInUser);
+
+        String msg = messageService.getMessage("Post.bulk.restored.success",
+                countResults(results, PostModerationResultDto.Status.RESTORED), results.size());
+        return ResponseEntity.status(HttpStatus.OK).body(new BulkModeratePostsResponseDto(msg, results));
+    }
+
+    /**
+     * Helper method that checks that a bulk moderation request names at least one post and no more posts than are
+     * allowed in one request.
+     *
+     * @return the error response to send, or null if the request is valid
+     */
+    private ResponseEntity<BulkModeratePostsResponseDto> validateBulkModeration(BulkModeratePostsSubmissionDto dto) {
+        if (dto.getPostIds() == null || dto.getPostIds().isEmpty() || dto.getPostIds().contains(null)) {
+            String msg = messageService.getMessage("Exception.post.bulk.empty");
+            return ResponseEntity.badRequest().body(new BulkModeratePostsResponseDto(msg, List.of()));
+        }
+
+        if (dto.getPostIds().size() > MAX_BULK_MODERATION_POSTS) {
+            String msg = messageService.getMessage("Exception.post.bulk.tooMany", MAX_BULK_MODERATION_POSTS);
+            return ResponseEntity.badRequest().body(new BulkModeratePostsResponseDto(msg, List.of()));
+        }
+
+        return null;
+    }
+
+    private long countResults(List<PostModerationResultDto> results, PostModerationResultDto.Status status) {
+        return results.stream().filter(result -> result.getStatus() == status).count();
+    }
 }
@@ -60,7 +60,7 @@ public class PostVoteController {
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
         } else {
 //            System.out.println("### In processVoteSubmission(). Error case 2");
-            response = new PostVoteResponseDto(post.getId(), postVote.isUpvote(), postVote.isDownvote(), false, post.getVoteCount());
+            response = new PostVoteResponseDto(post.getId(), postVote.isUpvote(), postVote.isDownvote(), false, postVoteService.getVoteCount(post));
             return ResponseEntity.badRequest().body(response);
         }
     }
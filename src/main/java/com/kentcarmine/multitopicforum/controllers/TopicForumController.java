@@ -3,11 +3,15 @@ package com.kentcarmine.multitopicforum.controllers;
 import com.kentcarmine.multitopicforum.dtos.*;
 import com.kentcarmine.multitopicforum.exceptions.ForumNotFoundException;
 import com.kentcarmine.multitopicforum.exceptions.PageNotFoundException;
+import com.kentcarmine.multitopicforum.helpers.PageValidator;
 import com.kentcarmine.multitopicforum.helpers.URLEncoderDecoderHelper;
 import com.kentcarmine.multitopicforum.model.TopicForum;
 import com.kentcarmine.multitopicforum.model.TopicThread;
+import com.kentcarmine.multitopicforum.model.User;
 import com.kentcarmine.multitopicforum.services.ForumService;
+import com.kentcarmine.multitopicforum.services.ReadMarkerService;
 import com.kentcarmine.multitopicforum.services.TopicThreadService;
+import com.kentcarmine.multitopicforum.services.UserService;
 import org.hibernate.cfg.NotYetImplementedException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -18,11 +22,13 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.servlet.ModelAndView;
 
 import javax.servlet.ServletRequest;
 import javax.validation.Valid;
 import java.io.UnsupportedEncodingException;
+import java.util.Date;
 import java.util.SortedSet;
 import java.util.stream.Collectors;
 
@@ -37,11 +43,16 @@ public class TopicForumController {
 
     private final ForumService forumService;
     private final TopicThreadService topicThreadService;
+    private final UserService userService;
+    private final ReadMarkerService readMarkerService;
 
     @Autowired
-    public TopicForumController(ForumService forumService, TopicThreadService topicThreadService) {
+    public TopicForumController(ForumService forumService, TopicThreadService topicThreadService,
+                                UserService userService, ReadMarkerService readMarkerService) {
         this.forumService = forumService;
         this.topicThreadService = topicThreadService;
+        this.userService = userService;
+        this.readMarkerService = readMarkerService;
     }
 
     /**
@@ -55,7 +66,7 @@ public class TopicForumController {
                                  @RequestParam(required = false) String search,
                                  @RequestParam(required = false) String searchError) throws UnsupportedEncodingException {
 
-        Page<TopicForumViewDto> forums;
+        Page<TopicForumViewDtoLight> forums;
         if (search == null || search.equals("") || request.getParameterMap().containsKey("searchError")) {
             forums = forumService.getForumsAsViewDtosPaginated(page, resultsPerPage);
         } else {
@@ -107,16 +118,25 @@ public class TopicForumController {
      * Show the root page of the given forum, if it exists, or an error page, if it doesnt.
      */
     @GetMapping("/forum/{name}")
-    public String showForum(Model model, @PathVariable String name, @RequestParam(required = false, defaultValue = "1") int page) {
+    public String showForum(Model model, ServletWebRequest webRequest, @PathVariable String name,
+                            @RequestParam(required = false, defaultValue = "1") int page) {
         TopicForum forum = forumService.getForumByName(name);
 
         if (forum == null) {
             throw new ForumNotFoundException();
         }
 
+        User loggedInUser = userService.getLoggedInUser();
+
+        PageValidator pageValidator = new PageValidator("forum-" + forum.getName(),
+                getForumPageLastModifiedAt(forum, loggedInUser), loggedInUser);
+        if (pageValidator.checkNotModified(webRequest)) {
+            return null;
+        }
+
         TopicForumViewDtoLight forumDto = forumService.getTopicForumViewDtoLightForTopicForum(forum);
 
-        Page<TopicThreadViewDtoLight> threadsPage = topicThreadService.getTopicThreadViewDtosLightByForumPaginated(forum, page, resultsPerPage);
+        Page<TopicThreadViewDtoLight> threadsPage = topicThreadService.getTopicThreadViewDtosLightByForumPaginated(forum, page, resultsPerPage, loggedInUser);
 
         if (threadsPage == null) {
             throw new PageNotFoundException();
@@ -160,4 +180,18 @@ public class TopicForumController {
 
         return bindingResult;
     }
+
+    /**
+     * Helper method that gets the last modified time of the page of the given forum as seen by the given user. A
+     * logged in user's page also shows which threads they have read, so it changes when they read a thread.
+     */
+    private Date getForumPageLastModifiedAt(TopicForum forum, User loggedInUser) {
+        Date lastModifiedAt = forum.getLastModifiedAt();
+        if (lastModifiedAt == null || loggedInUser == null || !readMarkerService.isEnabled()) {
+            return lastModifiedAt;
+        }
+
+        Date lastMarkedAt = readMarkerService.getLastMarkedAt(loggedInUser);
+        return lastMarkedAt.after(lastModifiedAt) ? lastMarkedAt : lastModifiedAt;
+    }
 }
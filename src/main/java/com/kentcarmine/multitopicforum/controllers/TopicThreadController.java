@@ -4,7 +4,11 @@ import com.kentcarmine.multitopicforum.dtos.*;
 import com.kentcarmine.multitopicforum.exceptions.ForumNotFoundException;
 import com.kentcarmine.multitopicforum.exceptions.PageNotFoundException;
 import com.kentcarmine.multitopicforum.exceptions.TopicThreadNotFoundException;
+import com.kentcarmine.multitopicforum.helpers.PostIdHelper;
+import com.kentcarmine.multitopicforum.helpers.PageValidator;
+import com.kentcarmine.multitopicforum.helpers.PostCursor;
 import com.kentcarmine.multitopicforum.helpers.URLEncoderDecoderHelper;
+import com.kentcarmine.multitopicforum.model.ArchivedThread;
 import com.kentcarmine.multitopicforum.model.Post;
 import com.kentcarmine.multitopicforum.model.TopicForum;
 import com.kentcarmine.multitopicforum.model.TopicThread;
@@ -15,16 +19,24 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import javax.servlet.ServletRequest;
 import javax.validation.Valid;
 import java.io.UnsupportedEncodingException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.SortedSet;
+import java.util.stream.Collectors;
 
 /**
  * Controller for TopicThread-related actions
@@ -35,21 +47,31 @@ public class TopicThreadController {
     @Value("${spring.data.web.pageable.default-page-size}")
     private int POSTS_PER_PAGE;
 
+    @Value("${com.kentcarmine.multitopicforum.posts.seek-pagination-threshold}")
+    private int SEEK_PAGINATION_THRESHOLD;
+
     private final ForumService forumService;
     private final UserService userService;
     private final TopicThreadService topicThreadService;
     private final PostVoteService postVoteService;
     private final DisciplineService disciplineService;
+    private final ThreadStreamService threadStreamService;
+    private final ThreadArchiveService threadArchiveService;
+    private final ReadMarkerService readMarkerService;
 
     @Autowired
     public TopicThreadController(ForumService forumService, UserService userService,
                                  TopicThreadService topicThreadService, PostVoteService postVoteService,
-                                 DisciplineService disciplineService) {
+                                 DisciplineService disciplineService, ThreadStreamService threadStreamService,
+                                 ThreadArchiveService threadArchiveService, ReadMarkerService readMarkerService) {
         this.forumService = forumService;
         this.userService = userService;
         this.topicThreadService = topicThreadService;
         this.postVoteService = postVoteService;
         this.disciplineService = disciplineService;
+        this.threadStreamService = threadStreamService;
+        this.threadArchiveService = threadArchiveService;
+        this.readMarkerService = readMarkerService;
     }
 
     /**
@@ -100,7 +122,7 @@ public class TopicThreadController {
             String searchText = URLEncoderDecoderHelper.decode(search);
 
 //            SortedSet<TopicThreadViewDto> threads = topicThreadService.searchTopicThreads(name, search);
-            Page<TopicThreadViewDtoLight> threads = topicThreadService.searchTopicThreadsAsViewDtos(name, searchText,
+            Slice<TopicThreadViewDtoLight> threads = topicThreadService.searchTopicThreadsAsViewDtos(name, searchText,
                     page, POSTS_PER_PAGE);
 
             if (threads == null) {
@@ -155,11 +177,16 @@ public class TopicThreadController {
     }
 
     /**
-     * Display a page that shows a given thread and all its posts
+     * Display a page that shows a given thread and all its posts. Deep pages may be requested with an "after" or
+     * "before" cursor (see PostCursor), in which case they are read with keyset pagination. Threads that have been
+     * archived are shown read-only from the archive.
      */
     @GetMapping("/forum/{forumName}/show/{threadId}")
-    public String showThread(Model model, @PathVariable String forumName, @PathVariable Long threadId,
-                             @RequestParam(required = false, defaultValue = "1") int page) {
+    public String showThread(Model model, ServletWebRequest webRequest, @PathVariable String forumName,
+                             @PathVariable Long threadId,
+                             @RequestParam(required = false, defaultValue = "1") int page,
+                             @RequestParam(required = false) String after,
+                             @RequestParam(required = false) String before) {
         if (!forumService.isForumWithNameExists(forumName)) {
             throw new ForumNotFoundException();
         }
@@ -167,10 +194,25 @@ public class TopicThreadController {
         TopicThread thread = topicThreadService.getThreadByForumNameAndId(forumName, threadId);
 
         if (thread == null) {
-            throw new TopicThreadNotFoundException();
+            ArchivedThread archivedThread = threadArchiveService.getArchivedThread(forumName, threadId);
+            if (archivedThread == null) {
+                throw new TopicThreadNotFoundException();
+            }
+
+            return showArchivedThread(model, webRequest, forumName, archivedThread, page);
+        }
+
+        User loggedInUser = userService.getLoggedInUser();
+        disciplineService.handleDisciplinedUser(loggedInUser);
+
+        PageValidator pageValidator = new PageValidator("thread-" + thread.getId(), thread.getLastModifiedAt(),
+                loggedInUser);
+        if (pageValidator.checkNotModified(webRequest)) {
+            return null;
         }
 
-        Page<Post> posts = topicThreadService.getPostPageByThread(thread, page, POSTS_PER_PAGE);
+        Page<Post> posts = topicThreadService.getPostPageByThread(thread, page, POSTS_PER_PAGE,
+                PostCursor.parse(after), PostCursor.parse(before));
         if (posts == null) {
             throw new PageNotFoundException();
         }
@@ -180,9 +222,14 @@ public class TopicThreadController {
         model.addAttribute("threadId", threadId);
         model.addAttribute("threadIsLocked", thread.isLocked());
         model.addAttribute("posts", posts);
+        model.addAttribute("voteCounts", postVoteService.generateVoteCountMap(posts.getContent()));
+        model.addAttribute("seekPaginationThreshold", SEEK_PAGINATION_THRESHOLD);
 
-        User loggedInUser = userService.getLoggedInUser();
-        disciplineService.handleDisciplinedUser(loggedInUser);
+        if (posts.hasContent()) {
+            List<Post> postList = posts.getContent();
+            model.addAttribute("previousPageCursor", PostCursor.of(postList.get(0)).toString());
+            model.addAttribute("nextPageCursor", PostCursor.of(postList.get(postList.size() - 1)).toString());
+        }
 
         if (loggedInUser != null) {
             PostCreationDto dto = new PostCreationDto();
@@ -190,14 +237,93 @@ public class TopicThreadController {
             model.addAttribute("postCreationDto", dto);
 
             model.addAttribute("loggedInUser", loggedInUser);
-            model.addAttribute("voteMap", postVoteService.generateVoteMap(loggedInUser, thread));
+            model.addAttribute("voteMap", postVoteService.generateVoteMap(loggedInUser, PostIdHelper.getPostIds(posts.getContent())));
             model.addAttribute("canLock", topicThreadService.canUserLockThread(loggedInUser, thread));
             model.addAttribute("canUnlock", topicThreadService.canUserUnlockThread(loggedInUser, thread));
+
+            if (posts.hasContent()) {
+                readMarkerService.markRead(loggedInUser, thread.getId(), Collections.max(PostIdHelper.getPostIds(posts.getContent())));
+            }
+        }
+
+        return "topic-thread-page";
+    }
+
+    /**
+     * Helper method that displays a page of an archived thread. Archived threads never change, so the page has no
+     * voting, moderation, reply or live update controls.
+     */
+    private String showArchivedThread(Model model, ServletWebRequest webRequest, String forumName,
+                                      ArchivedThread archivedThread, int page) {
+        User loggedInUser = userService.getLoggedInUser();
+        disciplineService.handleDisciplinedUser(loggedInUser);
+
+        PageValidator pageValidator = new PageValidator("archived-thread-" + archivedThread.getId(),
+                archivedThread.getArchivedAt(), loggedInUser);
+        if (pageValidator.checkNotModified(webRequest)) {
+            return null;
+        }
+
+        Page<Post> posts = threadArchiveService.getPostPageByArchivedThread(archivedThread, page, POSTS_PER_PAGE);
+        if (posts == null) {
+            throw new PageNotFoundException();
         }
 
+        Map<Long, Integer> voteCounts = posts.getContent().stream()
+                .collect(Collectors.toMap(Post::getId, Post::getVoteCount));
+
+        model.addAttribute("forumName", forumName);
+        model.addAttribute("threadTitle", archivedThread.getTitle());
+        model.addAttribute("threadId", archivedThread.getId());
+        model.addAttribute("threadIsLocked", archivedThread.isLocked());
+        model.addAttribute("threadIsArchived", true);
+        model.addAttribute("posts", posts);
+        model.addAttribute("voteCounts", voteCounts);
+        // Archived threads are only paged by offset, so every page link is a plain page number
+        model.addAttribute("seekPaginationThreshold", Integer.MAX_VALUE);
+
         return "topic-thread-page";
     }
 
+    /**
+     * Handles an open thread page's AJAX request for the posts made in the thread after the post at the given cursor
+     * (see PostCursor), so that they can be appended to the page without reloading it.
+     */
+    @GetMapping(value = "/forum/{forumName}/show/{threadId}/postsSince", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<NewPostsResponseDto> getNewPosts(@PathVariable String forumName, @PathVariable Long threadId,
+                                                           @RequestParam String after) {
+        PostCursor cursor = PostCursor.parse(after);
+        if (cursor == null) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        TopicThread thread = topicThreadService.getThreadByForumNameAndId(forumName, threadId);
+        if (thread == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok(topicThreadService.getNewPostsInThread(thread, cursor, POSTS_PER_PAGE));
+    }
+
+    /**
+     * Open a Server-Sent Event stream of the posts created, voted on, deleted and restored in the given thread, for an
+     * open page of the thread to update itself from.
+     */
+    @GetMapping(value = "/forum/{forumName}/show/{threadId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamThreadUpdates(@PathVariable String forumName, @PathVariable Long threadId) {
+        TopicThread thread = topicThreadService.getThreadByForumNameAndId(forumName, threadId);
+        if (thread == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        SseEmitter emitter = threadStreamService.subscribe(thread.getId());
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+
+        return ResponseEntity.ok(emitter);
+    }
+
     /**
      * Helper route that redirects to the correct thread page and it's pagination page showing the post with the given
      * ID
@@ -211,7 +337,14 @@ public class TopicThreadController {
         TopicThread thread = topicThreadService.getThreadByForumNameAndId(forumName, threadId);
 
         if (thread == null) {
-            throw new TopicThreadNotFoundException();
+            ArchivedThread archivedThread = threadArchiveService.getArchivedThread(forumName, threadId);
+            if (archivedThread == null) {
+                throw new TopicThreadNotFoundException();
+            }
+
+            int postPage = threadArchiveService.getPostPageNumberOnArchivedThread(postId);
+            return "redirect:/forum/" + forumName + "/show/" + archivedThread.getId() + "?page=" + postPage
+                    + "#post_id_" + postId;
         }
 
         int postPage = topicThreadService.getPostPageNumberOnThreadByPostId(postId);
@@ -292,5 +425,4 @@ public class TopicThreadController {
             return "redirect:/forum/" + forum.getName() + "/show/" + threadId + "?unlockThreadError" + pageUrlParamAppend;
         }
     }
-
 }
@@ -11,9 +11,13 @@ import com.kentcarmine.multitopicforum.model.User;
 import com.kentcarmine.multitopicforum.services.DisciplineService;
 import com.kentcarmine.multitopicforum.services.TopicThreadService;
 import com.kentcarmine.multitopicforum.services.UserService;
+import com.kentcarmine.multitopicforum.services.UsernameIndexService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -25,6 +29,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import javax.servlet.ServletRequest;
 import javax.validation.Valid;
 import java.io.UnsupportedEncodingException;
+import java.util.List;
 import java.util.SortedSet;
 
 /**
@@ -34,6 +39,8 @@ import java.util.SortedSet;
 @Controller
 public class UserController {
 
+    private static final int MAX_AUTOCOMPLETE_USERNAMES = 50;
+
     @Value("${spring.data.web.pageable.default-page-size}")
     private int USERS_PER_PAGE;
 
@@ -43,12 +50,15 @@ public class UserController {
     private final UserService userService;
     private final DisciplineService disciplineService;
     private final TopicThreadService topicThreadService;
+    private final UsernameIndexService usernameIndexService;
 
     @Autowired
-    public UserController(UserService userService, DisciplineService disciplineService, TopicThreadService topicThreadService) {
+    public UserController(UserService userService, DisciplineService disciplineService, TopicThreadService topicThreadService,
+                          UsernameIndexService usernameIndexService) {
         this.userService = userService;
         this.disciplineService = disciplineService;
         this.topicThreadService = topicThreadService;
+        this.usernameIndexService = usernameIndexService;
     }
 
     /**
@@ -129,4 +139,21 @@ public class UserController {
         String searchText = URLEncoderDecoderHelper.encode(userSearchDto.getSearchText().trim());
         return "redirect:/users?search=" + searchText;
     }
+
+    /**
+     * Get the usernames starting with the given prefix, ignoring case, in ascending order.
+     */
+    @GetMapping(value = "/autocompleteUsernames", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<String>> autocompleteUsernames(@RequestParam String prefix,
+                                                              @RequestParam(required = false) Integer limit) {
+        if (limit == null) {
+            limit = usernameIndexService.getAutocompleteSize();
+        }
+
+        if (limit < 1 || limit > MAX_AUTOCOMPLETE_USERNAMES) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+
+        return ResponseEntity.ok(usernameIndexService.autocompleteUsernames(prefix.trim(), limit));
+    }
 }
@@ -1,11 +1,14 @@
 package com.kentcarmine.multitopicforum.converters;
 
 import com.kentcarmine.multitopicforum.dtos.*;
+import com.kentcarmine.multitopicforum.helpers.PostCursor;
 import com.kentcarmine.multitopicforum.model.Post;
 import com.kentcarmine.multitopicforum.model.TopicForum;
 import com.kentcarmine.multitopicforum.model.TopicThread;
+import com.kentcarmine.multitopicforum.model.User;
 import org.springframework.stereotype.Component;
 
+import java.util.Date;
 import java.util.Set;
 import java.util.SortedSet;
 
@@ -30,19 +33,40 @@ public class ForumHierarchyConverter {
     }
 
     public TopicForumViewDtoLight convertForumLight(TopicForum forum) {
-        PostViewDto postViewDto = convertPost(forum.getMostRecentPost(), null);
+        return convertForumSummary(forum.getName(), forum.getDescription(), forum.getNumThreads(),
+                forum.getLastPostThreadId(), forum.getLastPostThreadTitle(), forum.getLastPostId(),
+                forum.getLastPostUsername(), forum.getLastActivityAt());
+    }
 
-        Post post = forum.getMostRecentPost();
-        TopicThread mostRecentUpdatedThread = null;
-        if (post != null) {
-            mostRecentUpdatedThread = post.getThread();
+    public TopicForumViewDtoLight convertForumRow(TopicForumRowDto row) {
+        if (row == null) {
+            return null;
         }
 
-        TopicThreadViewDtoLight topicThreadViewDto = convertThreadLight(mostRecentUpdatedThread, null);
-        if (postViewDto != null) {
-            postViewDto.setThread(topicThreadViewDto);
+        return convertForumSummary(row.getName(), row.getDescription(), row.getThreadCount(),
+                row.getLastPostThreadId(), row.getLastPostThreadTitle(), row.getLastPostId(),
+                row.getLastPostUsername(), row.getLastActivityAt());
+    }
+
+    /**
+     * Helper method that builds a TopicForumViewDtoLight from the denormalized aggregates stored on a TopicForum. The
+     * most recent post, if any, is a summary whose thread only has an ID and title.
+     */
+    private TopicForumViewDtoLight convertForumSummary(String name, String description, int numThreads,
+                                                       Long lastPostThreadId, String lastPostThreadTitle,
+                                                       Long lastPostId, String lastPostUsername, Date lastActivityAt) {
+        TopicThreadViewDtoLight topicThreadViewDto = null;
+        PostViewDto postViewDto = null;
+
+        if (lastPostThreadId != null) {
+            topicThreadViewDto = new TopicThreadViewDtoLight(lastPostThreadTitle, null);
+            topicThreadViewDto.setId(lastPostThreadId);
+
+            postViewDto = convertPostSummary(lastPostId, lastPostUsername, lastActivityAt, topicThreadViewDto);
+            topicThreadViewDto.setLastPost(postViewDto);
         }
-        TopicForumViewDtoLight forumDto = new TopicForumViewDtoLight(forum.getName(), forum.getDescription(), forum.getNumThreads(), postViewDto);
+
+        TopicForumViewDtoLight forumDto = new TopicForumViewDtoLight(name, description, numThreads, postViewDto);
         if (topicThreadViewDto != null) {
             topicThreadViewDto.setForum(forumDto);
         }
@@ -92,8 +116,51 @@ public class ForumHierarchyConverter {
         dto.setUpdatedAt(thread.getUpdatedAt());
 
         dto.setPostCount(thread.getPostCount());
-        dto.setFirstPost(convertPost(thread.getFirstPost(), dto));
-        dto.setLastPost(convertPost(thread.getLastPost(), dto));
+        dto.setFirstPost(convertPostSummary(thread.getFirstPostId(), thread.getFirstPostUsername(),
+                thread.getFirstPostedAt(), dto));
+        dto.setLastPost(convertPostSummary(thread.getLastPostId(), thread.getLastPostUsername(),
+                thread.getLastPostedAt(), dto));
+
+        return dto;
+    }
+
+    public TopicThreadViewDtoLight convertThreadRow(TopicThreadRowDto row, TopicForumViewDtoLight forumViewDto) {
+        if (row == null) {
+            return null;
+        }
+
+        TopicThreadViewDtoLight dto = new TopicThreadViewDtoLight(row.getTitle(), forumViewDto);
+        dto.setId(row.getId());
+        dto.setLocked(row.isLocked());
+        dto.setCreatedAt(row.getCreatedAt());
+        dto.setUpdatedAt(row.getUpdatedAt());
+
+        dto.setPostCount(row.getPostCount());
+        dto.setFirstPost(convertPostSummary(row.getFirstPostId(), row.getFirstPostUsername(), row.getFirstPostedAt(),
+                dto));
+        dto.setLastPost(convertPostSummary(row.getLastPostId(), row.getLastPostUsername(), row.getLastPostedAt(),
+                dto));
+
+        return dto;
+    }
+
+    /**
+     * Helper method that builds a PostViewDto from the denormalized post summary stored on a TopicThread, without
+     * loading the post itself. The resulting DTO has no content and its user only has a username.
+     */
+    private PostViewDto convertPostSummary(Long postId, String username, Date postedAt,
+                                           AbstractTopicThreadViewDto threadViewDto) {
+        if (postId == null) {
+            return null;
+        }
+
+        User poster = new User();
+        poster.setUsername(username);
+
+        PostViewDto dto = new PostViewDto(null, postedAt);
+        dto.setId(postId);
+        dto.setUser(poster);
+        dto.setThread(threadViewDto);
 
         return dto;
     }
@@ -112,9 +179,23 @@ public class ForumHierarchyConverter {
         dto.setDeletedBy(post.getDeletedBy());
         dto.setPostedAt(post.getPostedAt());
         dto.setUser(post.getUser());
-        dto.setPostVotes(post.getPostVotes());
+        dto.setVoteCount(post.getVoteCount());
         dto.setThread(threadViewDto);
 
         return dto;
     }
+
+    /**
+     * Convert the given post into the DTO sent to open thread pages to append to the page. The content of a deleted
+     * post is left out.
+     */
+    public NewPostDto convertNewPost(Post post) {
+        if (post == null) {
+            return null;
+        }
+
+        return new NewPostDto(post.getId(), post.getUser().getUsername(), post.getUser().getPostCount(),
+                post.isDeleted() ? null : post.getContent(), post.isDeleted(), post.getVoteCount(),
+                post.getDisplayPostedAt(), PostCursor.of(post).toString());
+    }
 }
@@ -0,0 +1,46 @@
+package com.kentcarmine.multitopicforum.dtos;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO modeling the response to a bulk delete or restore request sent from the server to the client, with one result per
+ * requested post.
+ */
+public class BulkModeratePostsResponseDto {
+    private String message;
+    private List<PostModerationResultDto> results;
+
+    public BulkModeratePostsResponseDto() {
+        this.results = new ArrayList<>();
+    }
+
+    public BulkModeratePostsResponseDto(String message, List<PostModerationResultDto> results) {
+        this.message = message;
+        this.results = results;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public List<PostModerationResultDto> getResults() {
+        return results;
+    }
+
+    public void setResults(List<PostModerationResultDto> results) {
+        this.results = results;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkModeratePostsResponseDto{" +
+                "message='" + message + '\'' +
+                ", results=" + results +
+                '}';
+    }
+}
@@ -0,0 +1,34 @@
+package com.kentcarmine.multitopicforum.dtos;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO modeling data sent by the client to delete or restore many posts at once.
+ */
+public class BulkModeratePostsSubmissionDto {
+    private List<Long> postIds;
+
+    public BulkModeratePostsSubmissionDto() {
+        this.postIds = new ArrayList<>();
+    }
+
+    public BulkModeratePostsSubmissionDto(List<Long> postIds) {
+        this.postIds = postIds;
+    }
+
+    public List<Long> getPostIds() {
+        return postIds;
+    }
+
+    public void setPostIds(List<Long> postIds) {
+        this.postIds = postIds;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkModeratePostsSubmissionDto{" +
+                "postIds=" + postIds +
+                '}';
+    }
+}
@@ -0,0 +1,111 @@
+package com.kentcarmine.multitopicforum.dtos;
+
+/**
+ * Models a post sent to an open thread page so that it can be appended to the page without reloading it. The content
+ * of a deleted post is not sent.
+ */
+public class NewPostDto {
+    private Long id;
+    private String username;
+    private int userPostCount;
+    private String content;
+    private boolean deleted;
+    private int voteCount;
+    private String displayPostedAt;
+    private String cursor;
+
+    public NewPostDto() {
+    }
+
+    public NewPostDto(Long id, String username, int userPostCount, String content, boolean deleted, int voteCount,
+                      String displayPostedAt, String cursor) {
+        this.id = id;
+        this.username = username;
+        this.userPostCount = userPostCount;
+        this.content = content;
+        this.deleted = deleted;
+        this.voteCount = voteCount;
+        this.displayPostedAt = displayPostedAt;
+        this.cursor = cursor;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public int getUserPostCount() {
+        return userPostCount;
+    }
+
+    public void setUserPostCount(int userPostCount) {
+        this.userPostCount = userPostCount;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(boolean deleted) {
+        this.deleted = deleted;
+    }
+
+    public int getVoteCount() {
+        return voteCount;
+    }
+
+    public void setVoteCount(int voteCount) {
+        this.voteCount = voteCount;
+    }
+
+    public String getDisplayPostedAt() {
+        return displayPostedAt;
+    }
+
+    public void setDisplayPostedAt(String displayPostedAt) {
+        this.displayPostedAt = displayPostedAt;
+    }
+
+    /**
+     * Get the position of this post within its thread, in the URL form of a PostCursor.
+     *
+     * @return the position of this post within its thread
+     */
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    @Override
+    public String toString() {
+        return "NewPostDto{" +
+                "id=" + id +
+                ", username='" + username + '\'' +
+                ", deleted=" + deleted +
+                ", voteCount=" + voteCount +
+                ", cursor='" + cursor + '\'' +
+                '}';
+    }
+}
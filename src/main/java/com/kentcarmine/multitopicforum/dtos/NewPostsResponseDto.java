@@ -0,0 +1,73 @@
+package com.kentcarmine.multitopicforum.dtos;
+
+import java.util.List;
+
+/**
+ * Models data sent when responding to an open thread page's request for the posts made since the last post it shows.
+ * The cursor is the position of the last post sent, or the position the request was made from if there are no new
+ * posts, and should be used for the page's next request.
+ */
+public class NewPostsResponseDto {
+    private List<NewPostDto> posts;
+    private String cursor;
+    private boolean hasMore;
+    private boolean threadLocked;
+
+    public NewPostsResponseDto() {
+    }
+
+    public NewPostsResponseDto(List<NewPostDto> posts, String cursor, boolean hasMore, boolean threadLocked) {
+        this.posts = posts;
+        this.cursor = cursor;
+        this.hasMore = hasMore;
+        this.threadLocked = threadLocked;
+    }
+
+    public List<NewPostDto> getPosts() {
+        return posts;
+    }
+
+    public void setPosts(List<NewPostDto> posts) {
+        this.posts = posts;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    /**
+     * Determine if there are more new posts than were sent in this response, in which case the page is no longer the
+     * last page of the thread.
+     *
+     * @return true if there are more new posts than were sent, false otherwise
+     */
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public boolean isThreadLocked() {
+        return threadLocked;
+    }
+
+    public void setThreadLocked(boolean threadLocked) {
+        this.threadLocked = threadLocked;
+    }
+
+    @Override
+    public String toString() {
+        return "NewPostsResponseDto{" +
+                "posts=" + posts +
+                ", cursor='" + cursor + '\'' +
+                ", hasMore=" + hasMore +
+                ", threadLocked=" + threadLocked +
+                '}';
+    }
+}
@@ -0,0 +1,46 @@
+package com.kentcarmine.multitopicforum.dtos;
+
+/**
+ * DTO modeling the outcome of deleting or restoring a single post as part of a bulk moderation request.
+ */
+public class PostModerationResultDto {
+
+    public enum Status {
+        DELETED, RESTORED, UNCHANGED, NOT_FOUND, UNAUTHORIZED
+    }
+
+    private Long postId;
+    private Status status;
+
+    public PostModerationResultDto() {
+    }
+
+    public PostModerationResultDto(Long postId, Status status) {
+        this.postId = postId;
+        this.status = status;
+    }
+
+    public Long getPostId() {
+        return postId;
+    }
+
+    public void setPostId(Long postId) {
+        this.postId = postId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    @Override
+    public String toString() {
+        return "PostModerationResultDto{" +
+                "postId=" + postId +
+                ", status=" + status +
+                '}';
+    }
+}
@@ -1,15 +1,12 @@
 package com.kentcarmine.multitopicforum.dtos;
 
 import com.kentcarmine.multitopicforum.model.PostUpdatedTimable;
-import com.kentcarmine.multitopicforum.model.PostVote;
 import com.kentcarmine.multitopicforum.model.User;
 
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import java.util.Date;
-import java.util.HashSet;
 import java.util.Objects;
-import java.util.Set;
 
 public class PostViewDto implements Comparable<PostViewDto>, PostUpdatedTimable {
 //    private static final int ABBREVIATED_CONTENT_LENGTH = 50;
@@ -31,19 +28,17 @@ public class PostViewDto implements Comparable<PostViewDto>, PostUpdatedTimable
     private Date deletedAt;
     private User deletedBy;
 
-    private Set<PostVote> postVotes;
+    private int voteCount;
 
     private String creationTimeDifferenceMessage;
 
     public PostViewDto() {
-        postVotes = new HashSet<>();
         deleted = false;
     }
 
     public PostViewDto(String content, Date postedAt) {
         this.content = content;
         this.postedAt = postedAt;
-        this.postVotes = new HashSet<>();
         deleted = false;
     }
 
@@ -111,26 +106,17 @@ public class PostViewDto implements Comparable<PostViewDto>, PostUpdatedTimable
         this.deletedBy = deletedBy;
     }
 
-    public Set<PostVote> getPostVotes() {
-        return postVotes;
-    }
-
-    public void setPostVotes(Set<PostVote> postVotes) {
-        this.postVotes = postVotes;
-    }
-
     /**
      * Get the sum of the total vote values for this post.
      *
      * @return the sum of the total vote values for this post.
      */
     public int getVoteCount() {
-        int sum = 0;
-        for (PostVote vote : getPostVotes()) {
-            sum += vote.getPostVoteState().getValue();
-        }
+        return voteCount;
+    }
 
-        return sum;
+    public void setVoteCount(int voteCount) {
+        this.voteCount = voteCount;
     }
 
 //    public String getAbbreviatedContent() {
@@ -0,0 +1,52 @@
+package com.kentcarmine.multitopicforum.dtos;
+
+/**
+ * Lightweight projection of a Post containing only its ID and its denormalized upvote and downvote totals.
+ */
+public class PostVoteCountsDto {
+    private Long postId;
+    private int upvoteCount;
+    private int downvoteCount;
+
+    public PostVoteCountsDto() {
+    }
+
+    public PostVoteCountsDto(Long postId, int upvoteCount, int downvoteCount) {
+        this.postId = postId;
+        this.upvoteCount = upvoteCount;
+        this.downvoteCount = downvoteCount;
+    }
+
+    public Long getPostId() {
+        return postId;
+    }
+
+    public void setPostId(Long postId) {
+        this.postId = postId;
+    }
+
+    public int getUpvoteCount() {
+        return upvoteCount;
+    }
+
+    public void setUpvoteCount(int upvoteCount) {
+        this.upvoteCount = upvoteCount;
+    }
+
+    public int getDownvoteCount() {
+        return downvoteCount;
+    }
+
+    public void setDownvoteCount(int downvoteCount) {
+        this.downvoteCount = downvoteCount;
+    }
+
+    @Override
+    public String toString() {
+        return "PostVoteCountsDto{" +
+                "postId=" + postId +
+                ", upvoteCount=" + upvoteCount +
+                ", downvoteCount=" + downvoteCount +
+                '}';
+    }
+}
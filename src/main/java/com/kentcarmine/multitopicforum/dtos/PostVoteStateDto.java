@@ -0,0 +1,43 @@
+package com.kentcarmine.multitopicforum.dtos;
+
+import com.kentcarmine.multitopicforum.model.PostVoteState;
+
+/**
+ * Lightweight projection of a PostVote containing only the ID of the voted-on post and the state of the vote.
+ */
+public class PostVoteStateDto {
+    private Long postId;
+    private PostVoteState postVoteState;
+
+    public PostVoteStateDto() {
+    }
+
+    public PostVoteStateDto(Long postId, PostVoteState postVoteState) {
+        this.postId = postId;
+        this.postVoteState = postVoteState;
+    }
+
+    public Long getPostId() {
+        return postId;
+    }
+
+    public void setPostId(Long postId) {
+        this.postId = postId;
+    }
+
+    public PostVoteState getPostVoteState() {
+        return postVoteState;
+    }
+
+    public void setPostVoteState(PostVoteState postVoteState) {
+        this.postVoteState = postVoteState;
+    }
+
+    @Override
+    public String toString() {
+        return "PostVoteStateDto{" +
+                "postId=" + postId +
+                ", postVoteState=" + postVoteState +
+                '}';
+    }
+}
@@ -0,0 +1,45 @@
+package com.kentcarmine.multitopicforum.dtos;
+
+import java.util.List;
+
+/**
+ * Models one page of the recent activity feed, newest post first.
+ */
+public class RecentActivityPageDto {
+    private List<RecentPostDto> posts;
+    private int page;
+    private boolean hasMore;
+
+    public RecentActivityPageDto() {
+    }
+
+    public RecentActivityPageDto(List<RecentPostDto> posts, int page, boolean hasMore) {
+        this.posts = posts;
+        this.page = page;
+        this.hasMore = hasMore;
+    }
+
+    public List<RecentPostDto> getPosts() {
+        return posts;
+    }
+
+    public void setPosts(List<RecentPostDto> posts) {
+        this.posts = posts;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
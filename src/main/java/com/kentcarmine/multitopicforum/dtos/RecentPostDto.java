@@ -0,0 +1,108 @@
+package com.kentcarmine.multitopicforum.dtos;
+
+import java.util.Date;
+
+/**
+ * Models a post in the recent activity feed, with the thread and forum it was posted in and its content abbreviated.
+ */
+public class RecentPostDto {
+    private Long postId;
+    private Long threadId;
+    private String forumName;
+    private String threadTitle;
+    private String username;
+    private String content;
+    private Date postedAt;
+    private boolean deleted;
+
+    public RecentPostDto() {
+    }
+
+    public RecentPostDto(Long postId, Long threadId, String forumName, String threadTitle, String username,
+                         String content, Date postedAt) {
+        this.postId = postId;
+        this.threadId = threadId;
+        this.forumName = forumName;
+        this.threadTitle = threadTitle;
+        this.username = username;
+        this.content = content;
+        this.postedAt = postedAt;
+    }
+
+    public Long getPostId() {
+        return postId;
+    }
+
+    public void setPostId(Long postId) {
+        this.postId = postId;
+    }
+
+    public Long getThreadId() {
+        return threadId;
+    }
+
+    public void setThreadId(Long threadId) {
+        this.threadId = threadId;
+    }
+
+    public String getForumName() {
+        return forumName;
+    }
+
+    public void setForumName(String forumName) {
+        this.forumName = forumName;
+    }
+
+    public String getThreadTitle() {
+        return threadTitle;
+    }
+
+    public void setThreadTitle(String threadTitle) {
+        this.threadTitle = threadTitle;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public Date getPostedAt() {
+        return postedAt;
+    }
+
+    public void setPostedAt(Date postedAt) {
+        this.postedAt = postedAt;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(boolean deleted) {
+        this.deleted = deleted;
+    }
+
+    @Override
+    public String toString() {
+        return "RecentPostDto{" +
+                "postId=" + postId +
+                ", threadId=" + threadId +
+                ", forumName='" + forumName + '\'' +
+                ", threadTitle='" + threadTitle + '\'' +
+                ", username='" + username + '\'' +
+                ", postedAt=" + postedAt +
+                ", deleted=" + deleted +
+                '}';
+    }
+}
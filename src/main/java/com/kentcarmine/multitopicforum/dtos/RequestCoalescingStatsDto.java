@@ -0,0 +1,64 @@
+package com.kentcarmine.multitopicforum.dtos;
+
+/**
+ * DTO holding the counters of a SingleFlight: how many loads it ran, how many requests shared another request's load
+ * instead of running their own, and how many loads are currently in flight.
+ */
+public class RequestCoalescingStatsDto {
+    private String name;
+    private long loads;
+    private long coalescedRequests;
+    private int inFlightLoads;
+
+    public RequestCoalescingStatsDto() {
+    }
+
+    public RequestCoalescingStatsDto(String name, long loads, long coalescedRequests, int inFlightLoads) {
+        this.name = name;
+        this.loads = loads;
+        this.coalescedRequests = coalescedRequests;
+        this.inFlightLoads = inFlightLoads;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getLoads() {
+        return loads;
+    }
+
+    public void setLoads(long loads) {
+        this.loads = loads;
+    }
+
+    public long getCoalescedRequests() {
+        return coalescedRequests;
+    }
+
+    public void setCoalescedRequests(long coalescedRequests) {
+        this.coalescedRequests = coalescedRequests;
+    }
+
+    public int getInFlightLoads() {
+        return inFlightLoads;
+    }
+
+    public void setInFlightLoads(int inFlightLoads) {
+        this.inFlightLoads = inFlightLoads;
+    }
+
+    @Override
+    public String toString() {
+        return "RequestCoalescingStatsDto{" +
+                "name='" + name + '\'' +
+                ", loads=" + loads +
+                ", coalescedRequests=" + coalescedRequests +
+                ", inFlightLoads=" + inFlightLoads +
+                '}';
+    }
+}
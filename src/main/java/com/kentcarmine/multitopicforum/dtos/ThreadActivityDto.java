@@ -0,0 +1,66 @@
+package com.kentcarmine.multitopicforum.dtos;
+
+import java.util.Date;
+
+/**
+ * Lightweight projection of a Post containing only its thread's ID, forum name and title and the time it was posted,
+ * used to replay recent posts into the trending threads ranking.
+ */
+public class ThreadActivityDto {
+    private Long threadId;
+    private String forumName;
+    private String title;
+    private Date postedAt;
+
+    public ThreadActivityDto() {
+    }
+
+    public ThreadActivityDto(Long threadId, String forumName, String title, Date postedAt) {
+        this.threadId = threadId;
+        this.forumName = forumName;
+        this.title = title;
+        this.postedAt = postedAt;
+    }
+
+    public Long getThreadId() {
+        return threadId;
+    }
+
+    public void setThreadId(Long threadId) {
+        this.threadId = threadId;
+    }
+
+    public String getForumName() {
+        return forumName;
+    }
+
+    public void setForumName(String forumName) {
+        this.forumName = forumName;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public Date getPostedAt() {
+        return postedAt;
+    }
+
+    public void setPostedAt(Date postedAt) {
+        this.postedAt = postedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "ThreadActivityDto{" +
+                "threadId=" + threadId +
+                ", forumName='" + forumName + '\'' +
+                ", title='" + title + '\'' +
+                ", postedAt=" + postedAt +
+                '}';
+    }
+}
@@ -0,0 +1,108 @@
+package com.kentcarmine.multitopicforum.dtos;
+
+import java.util.Date;
+
+/**
+ * Flat, read-only projection of a TopicForum containing only the columns shown in the forum directory: its name,
+ * description, thread count and a summary of its most recent post. It is selected directly by a constructor expression
+ * query, so building it never loads the forum's threads or posts.
+ */
+public class TopicForumRowDto {
+    private String name;
+    private String description;
+    private int threadCount;
+    private Date lastActivityAt;
+    private Long lastPostId;
+    private String lastPostUsername;
+    private Long lastPostThreadId;
+    private String lastPostThreadTitle;
+
+    public TopicForumRowDto() {
+    }
+
+    public TopicForumRowDto(String name, String description, int threadCount, Date lastActivityAt, Long lastPostId,
+                            String lastPostUsername, Long lastPostThreadId, String lastPostThreadTitle) {
+        this.name = name;
+        this.description = description;
+        this.threadCount = threadCount;
+        this.lastActivityAt = lastActivityAt;
+        this.lastPostId = lastPostId;
+        this.lastPostUsername = lastPostUsername;
+        this.lastPostThreadId = lastPostThreadId;
+        this.lastPostThreadTitle = lastPostThreadTitle;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    public void setThreadCount(int threadCount) {
+        this.threadCount = threadCount;
+    }
+
+    public Date getLastActivityAt() {
+        return lastActivityAt;
+    }
+
+    public void setLastActivityAt(Date lastActivityAt) {
+        this.lastActivityAt = lastActivityAt;
+    }
+
+    public Long getLastPostId() {
+        return lastPostId;
+    }
+
+    public void setLastPostId(Long lastPostId) {
+        this.lastPostId = lastPostId;
+    }
+
+    public String getLastPostUsername() {
+        return lastPostUsername;
+    }
+
+    public void setLastPostUsername(String lastPostUsername) {
+        this.lastPostUsername = lastPostUsername;
+    }
+
+    public Long getLastPostThreadId() {
+        return lastPostThreadId;
+    }
+
+    public void setLastPostThreadId(Long lastPostThreadId) {
+        this.lastPostThreadId = lastPostThreadId;
+    }
+
+    public String getLastPostThreadTitle() {
+        return lastPostThreadTitle;
+    }
+
+    public void setLastPostThreadTitle(String lastPostThreadTitle) {
+        this.lastPostThreadTitle = lastPostThreadTitle;
+    }
+
+    @Override
+    public String toString() {
+        return "TopicForumRowDto{" +
+                "name='" + name + '\'' +
+                ", threadCount=" + threadCount +
+                ", lastActivityAt=" + lastActivityAt +
+                ", lastPostId=" + lastPostId +
+                '}';
+    }
+}
@@ -0,0 +1,153 @@
+package com.kentcarmine.multitopicforum.dtos;
+
+import java.util.Date;
+
+/**
+ * Flat, read-only projection of a TopicThread containing only the columns needed to show it in a thread listing. It is
+ * selected directly by a constructor expression query, so building it never loads the thread's forum, locking user or
+ * posts.
+ */
+public class TopicThreadRowDto {
+    private Long id;
+    private String title;
+    private boolean locked;
+    private Date createdAt;
+    private Date updatedAt;
+    private int postCount;
+    private Long firstPostId;
+    private String firstPostUsername;
+    private Date firstPostedAt;
+    private Long lastPostId;
+    private String lastPostUsername;
+    private Date lastPostedAt;
+
+    public TopicThreadRowDto() {
+    }
+
+    public TopicThreadRowDto(Long id, String title, boolean locked, Date createdAt, Date updatedAt, int postCount,
+                             Long firstPostId, String firstPostUsername, Date firstPostedAt, Long lastPostId,
+                             String lastPostUsername, Date lastPostedAt) {
+        this.id = id;
+        this.title = title;
+        this.locked = locked;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.postCount = postCount;
+        this.firstPostId = firstPostId;
+        this.firstPostUsername = firstPostUsername;
+        this.firstPostedAt = firstPostedAt;
+        this.lastPostId = lastPostId;
+        this.lastPostUsername = lastPostUsername;
+        this.lastPostedAt = lastPostedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public boolean isLocked() {
+        return locked;
+    }
+
+    public void setLocked(boolean locked) {
+        this.locked = locked;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Date getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Date updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public int getPostCount() {
+        return postCount;
+    }
+
+    public void setPostCount(int postCount) {
+        this.postCount = postCount;
+    }
+
+    public Long getFirstPostId() {
+        return firstPostId;
+    }
+
+    public void setFirstPostId(Long firstPostId) {
+        this.firstPostId = firstPostId;
+    }
+
+    public String getFirstPostUsername() {
+        return firstPostUsername;
+    }
+
+    public void setFirstPostUsername(String firstPostUsername) {
+        this.firstPostUsername = firstPostUsername;
+    }
+
+    public Date getFirstPostedAt() {
+        return firstPostedAt;
+    }
+
+    public void setFirstPostedAt(Date firstPostedAt) {
+        this.firstPostedAt = firstPostedAt;
+    }
+
+    public Long getLastPostId() {
+        return lastPostId;
+    }
+
+    public void setLastPostId(Long lastPostId) {
+        this.lastPostId = lastPostId;
+    }
+
+    public String getLastPostUsername() {
+        return lastPostUsername;
+    }
+
+    public void setLastPostUsername(String lastPostUsername) {
+        this.lastPostUsername = lastPostUsername;
+    }
+
+    public Date getLastPostedAt() {
+        return lastPostedAt;
+    }
+
+    public void setLastPostedAt(Date lastPostedAt) {
+        this.lastPostedAt = lastPostedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "TopicThreadRowDto{" +
+                "id=" + id +
+                ", title='" + title + '\'' +
+                ", locked=" + locked +
+                ", createdAt=" + createdAt +
+                ", updatedAt=" + updatedAt +
+                ", postCount=" + postCount +
+                ", firstPostId=" + firstPostId +
+                ", lastPostId=" + lastPostId +
+                '}';
+    }
+}
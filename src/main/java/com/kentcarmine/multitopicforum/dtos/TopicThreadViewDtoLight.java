@@ -18,6 +18,8 @@ public class TopicThreadViewDtoLight extends AbstractTopicThreadViewDto {
 
     private int postCount;
 
+    private boolean unread;
+
     public TopicThreadViewDtoLight() {
         super();
     }
@@ -57,4 +59,15 @@ public class TopicThreadViewDtoLight extends AbstractTopicThreadViewDto {
         return lastPost;
     }
 
+    /**
+     * Whether the thread has posts the viewing user has not read. Always false for anonymous users.
+     */
+    public boolean isUnread() {
+        return unread;
+    }
+
+    public void setUnread(boolean unread) {
+        this.unread = unread;
+    }
+
 }
@@ -0,0 +1,63 @@
+package com.kentcarmine.multitopicforum.dtos;
+
+/**
+ * DTO for a thread in the trending threads ranking, with its current decayed score.
+ */
+public class TrendingThreadDto {
+    private Long threadId;
+    private String forumName;
+    private String title;
+    private double score;
+
+    public TrendingThreadDto() {
+    }
+
+    public TrendingThreadDto(Long threadId, String forumName, String title, double score) {
+        this.threadId = threadId;
+        this.forumName = forumName;
+        this.title = title;
+        this.score = score;
+    }
+
+    public Long getThreadId() {
+        return threadId;
+    }
+
+    public void setThreadId(Long threadId) {
+        this.threadId = threadId;
+    }
+
+    public String getForumName() {
+        return forumName;
+    }
+
+    public void setForumName(String forumName) {
+        this.forumName = forumName;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+
+    @Override
+    public String toString() {
+        return "TrendingThreadDto{" +
+                "threadId=" + threadId +
+                ", forumName='" + forumName + '\'' +
+                ", title='" + title + '\'' +
+                ", score=" + score +
+                '}';
+    }
+}
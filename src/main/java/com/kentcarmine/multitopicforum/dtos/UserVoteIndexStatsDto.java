@@ -0,0 +1,64 @@
+package com.kentcarmine.multitopicforum.dtos;
+
+/**
+ * DTO holding the size of the in-memory per-user vote index: how many users' votes it holds, how many votes that is in
+ * total, an estimate of the heap those votes occupy, and how many users' votes have been loaded from the database.
+ */
+public class UserVoteIndexStatsDto {
+    private int indexedUsers;
+    private long indexedVotes;
+    private long memoryFootprintBytes;
+    private long loads;
+
+    public UserVoteIndexStatsDto() {
+    }
+
+    public UserVoteIndexStatsDto(int indexedUsers, long indexedVotes, long memoryFootprintBytes, long loads) {
+        this.indexedUsers = indexedUsers;
+        this.indexedVotes = indexedVotes;
+        this.memoryFootprintBytes = memoryFootprintBytes;
+        this.loads = loads;
+    }
+
+    public int getIndexedUsers() {
+        return indexedUsers;
+    }
+
+    public void setIndexedUsers(int indexedUsers) {
+        this.indexedUsers = indexedUsers;
+    }
+
+    public long getIndexedVotes() {
+        return indexedVotes;
+    }
+
+    public void setIndexedVotes(long indexedVotes) {
+        this.indexedVotes = indexedVotes;
+    }
+
+    public long getMemoryFootprintBytes() {
+        return memoryFootprintBytes;
+    }
+
+    public void setMemoryFootprintBytes(long memoryFootprintBytes) {
+        this.memoryFootprintBytes = memoryFootprintBytes;
+    }
+
+    public long getLoads() {
+        return loads;
+    }
+
+    public void setLoads(long loads) {
+        this.loads = loads;
+    }
+
+    @Override
+    public String toString() {
+        return "UserVoteIndexStatsDto{" +
+                "indexedUsers=" + indexedUsers +
+                ", indexedVotes=" + indexedVotes +
+                ", memoryFootprintBytes=" + memoryFootprintBytes +
+                ", loads=" + loads +
+                '}';
+    }
+}
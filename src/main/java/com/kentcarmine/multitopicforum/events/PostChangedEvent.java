@@ -0,0 +1,55 @@
+package com.kentcarmine.multitopicforum.events;
+
+import com.kentcarmine.multitopicforum.model.Post;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Event fired when a post is created, voted on, deleted or restored, so that open pages of its thread can be updated.
+ */
+public class PostChangedEvent extends ApplicationEvent {
+
+    /**
+     * The kinds of change to a post, each with the name of the event sent to open thread pages when it happens.
+     */
+    public enum ChangeType {
+        CREATED("post-created"),
+        VOTED("post-voted"),
+        DELETED("post-deleted"),
+        RESTORED("post-restored");
+
+        private final String streamEventName;
+
+        ChangeType(String streamEventName) {
+            this.streamEventName = streamEventName;
+        }
+
+        public String getStreamEventName() {
+            return streamEventName;
+        }
+    }
+
+    private Post post;
+    private ChangeType changeType;
+
+    public PostChangedEvent(Object source, Post post, ChangeType changeType) {
+        super(source);
+        this.post = post;
+        this.changeType = changeType;
+    }
+
+    public Post getPost() {
+        return post;
+    }
+
+    public void setPost(Post post) {
+        this.post = post;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    public void setChangeType(ChangeType changeType) {
+        this.changeType = changeType;
+    }
+}
@@ -0,0 +1,34 @@
+package com.kentcarmine.multitopicforum.events;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Event fired when something shown on a TopicThread's page, or on the listing of its TopicForum, changes: a thread is
+ * created, a post is added, deleted or restored, or the thread is locked or unlocked.
+ */
+public class ThreadContentChangedEvent extends ApplicationEvent {
+    private String forumName;
+    private Long threadId;
+
+    public ThreadContentChangedEvent(Object source, String forumName, Long threadId) {
+        super(source);
+        this.forumName = forumName;
+        this.threadId = threadId;
+    }
+
+    public String getForumName() {
+        return forumName;
+    }
+
+    public void setForumName(String forumName) {
+        this.forumName = forumName;
+    }
+
+    public Long getThreadId() {
+        return threadId;
+    }
+
+    public void setThreadId(Long threadId) {
+        this.threadId = threadId;
+    }
+}
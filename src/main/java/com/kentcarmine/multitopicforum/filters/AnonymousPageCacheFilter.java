@@ -0,0 +1,176 @@
+package com.kentcarmine.multitopicforum.filters;
+
+import com.kentcarmine.multitopicforum.helpers.AuthenticationFacade;
+import com.kentcarmine.multitopicforum.helpers.CachedPage;
+import com.kentcarmine.multitopicforum.helpers.PageValidator;
+import com.kentcarmine.multitopicforum.services.PageCacheService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.csrf.CsrfToken;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.LocaleResolver;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Filter that serves forum and thread pages to anonymous users from the PageCacheService, and caches the pages it
+ * renders for them. Runs after the Spring Security filter chain, so the user's authentication is already known.
+ *
+ * Each user has their own CSRF token, so the token is replaced with a placeholder before a page is cached and the
+ * placeholder is replaced with the requesting user's token when it is served. A page with a session ID written into its
+ * links is never cached.
+ *
+ * A conditional request for a cached page is answered with 304 Not Modified using the validator the page was rendered
+ * with, which stays current for as long as the page is cached.
+ */
+@Component
+public class AnonymousPageCacheFilter extends OncePerRequestFilter {
+
+    public static final String CACHE_STATUS_HEADER = "X-Page-Cache";
+
+    private static final String THREAD_PAGE_PATTERN = "/forum/{forumName}/show/{threadId}";
+    private static final String FORUM_PAGE_PATTERN = "/forum/{forumName}";
+    private static final String CSRF_PLACEHOLDER = "__PAGE_CACHE_CSRF_TOKEN__";
+    private static final String SESSION_ID_PATH_PARAMETER = ";jsessionid=";
+
+    private final PageCacheService pageCacheService;
+    private final AuthenticationFacade authenticationFacade;
+    private final LocaleResolver localeResolver;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    @Autowired
+    public AnonymousPageCacheFilter(PageCacheService pageCacheService, AuthenticationFacade authenticationFacade,
+                                    LocaleResolver localeResolver) {
+        this.pageCacheService = pageCacheService;
+        this.authenticationFacade = authenticationFacade;
+        this.localeResolver = localeResolver;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !pageCacheService.isEnabled() || !"GET".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = urlPathHelper.getPathWithinApplication(request);
+
+        String forumName;
+        Long threadId = null;
+        if (pathMatcher.match(THREAD_PAGE_PATTERN, path)) {
+            Map<String, String> vars = pathMatcher.extractUriTemplateVariables(THREAD_PAGE_PATTERN, path);
+            forumName = vars.get("forumName");
+            try {
+                threadId = Long.parseLong(vars.get("threadId"));
+            } catch (NumberFormatException e) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+        } else if (pathMatcher.match(FORUM_PAGE_PATTERN, path)) {
+            forumName = pathMatcher.extractUriTemplateVariables(FORUM_PAGE_PATTERN, path).get("forumName");
+        } else {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (!isAnonymous()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String key = getCacheKey(request, path);
+        CsrfToken csrfToken = (CsrfToken) request.getAttribute(CsrfToken.class.getName());
+
+        CachedPage cachedPage = pageCacheService.getPage(key);
+        if (cachedPage != null) {
+            PageValidator validator = cachedPage.getValidator();
+            if (validator != null && validator.checkNotModified(new ServletWebRequest(request, response))) {
+                response.setHeader(CACHE_STATUS_HEADER, "HIT");
+                return;
+            }
+
+            writeCachedPage(cachedPage, csrfToken, response);
+            return;
+        }
+
+        long generation = pageCacheService.getGeneration();
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        responseWrapper.setHeader(CACHE_STATUS_HEADER, "MISS");
+
+        try {
+            filterChain.doFilter(request, responseWrapper);
+
+            if (isCacheable(responseWrapper)) {
+                String body = new String(responseWrapper.getContentAsByteArray(), responseWrapper.getCharacterEncoding());
+                if (!body.toLowerCase().contains(SESSION_ID_PATH_PARAMETER)) {
+                    if (csrfToken != null) {
+                        body = body.replace(csrfToken.getToken(), CSRF_PLACEHOLDER);
+                    }
+
+                    PageValidator validator = (PageValidator) request.getAttribute(PageValidator.REQUEST_ATTRIBUTE);
+                    pageCacheService.putPage(key, new CachedPage(forumName, threadId, responseWrapper.getContentType(),
+                            body, System.currentTimeMillis(), validator), generation);
+                }
+            }
+        } finally {
+            responseWrapper.copyBodyToResponse();
+        }
+    }
+
+    /**
+     * Helper method that writes the given cached page to the response, filling in the requesting user's CSRF token
+     */
+    private void writeCachedPage(CachedPage cachedPage, CsrfToken csrfToken, HttpServletResponse response)
+            throws IOException {
+        String body = cachedPage.getBody();
+        if (csrfToken != null && body.contains(CSRF_PLACEHOLDER)) {
+            body = body.replace(CSRF_PLACEHOLDER, csrfToken.getToken());
+        }
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(cachedPage.getContentType());
+        response.setHeader(CACHE_STATUS_HEADER, "HIT");
+        response.getWriter().write(body);
+    }
+
+    /**
+     * Helper method that builds the cache key of a request from its locale, path and query string, since each of them
+     * changes the rendered page.
+     */
+    private String getCacheKey(HttpServletRequest request, String path) {
+        String key = localeResolver.resolveLocale(request) + " " + path;
+        if (request.getQueryString() != null) {
+            key = key + "?" + request.getQueryString();
+        }
+
+        return key;
+    }
+
+    private boolean isAnonymous() {
+        Authentication auth = authenticationFacade.getAuthentication();
+        return auth == null || auth instanceof AnonymousAuthenticationToken || !auth.isAuthenticated();
+    }
+
+    private boolean isCacheable(ContentCachingResponseWrapper response) {
+        return response.getStatus() == HttpStatus.OK.value()
+                && response.getContentType() != null
+                && response.getContentType().startsWith(MediaType.TEXT_HTML_VALUE)
+                && response.getHeader("Location") == null;
+    }
+}
@@ -1,6 +1,7 @@
 package com.kentcarmine.multitopicforum.handlers;
 
 import com.kentcarmine.multitopicforum.model.User;
+import com.kentcarmine.multitopicforum.services.UserActivityService;
 import com.kentcarmine.multitopicforum.services.UserService;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.web.DefaultRedirectStrategy;
@@ -14,7 +15,7 @@ import java.io.IOException;
 
 /**
  * Handler that allows a user who successfully logs in to automatically redirect to their home page, or their
- * disciplinary status page if they are currently banned or suspended.
+ * disciplinary status page if they are currently banned or suspended. The login is recorded as activity of the user.
  */
 @Component
 public class LoginAuthenticationSuccessHandler implements AuthenticationSuccessHandler {
@@ -23,14 +24,18 @@ public class LoginAuthenticationSuccessHandler implements AuthenticationSuccessH
 
     private UserService userService;
 
-    public LoginAuthenticationSuccessHandler(UserService userService) {
+    private UserActivityService userActivityService;
+
+    public LoginAuthenticationSuccessHandler(UserService userService, UserActivityService userActivityService) {
         this.userService = userService;
+        this.userActivityService = userActivityService;
     }
 
     @Override
     public void onAuthenticationSuccess(HttpServletRequest req, HttpServletResponse res, Authentication auth) throws IOException {
         String loggedInUserName = auth.getName();
         User user = userService.getUser(loggedInUserName);
+        userActivityService.recordActivity(user);
 
         if (user != null && user.isBannedOrSuspended()) {
             System.out.println("### in onAuthenticationSuccess banned case. User = " + user);
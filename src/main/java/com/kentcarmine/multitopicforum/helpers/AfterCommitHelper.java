@@ -0,0 +1,31 @@
+package com.kentcarmine.multitopicforum.helpers;
+
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Helper class that defers updates of in-memory state (counters, indexes and the like) until the transaction that made
+ * the matching database change has committed, so that a rolled back change never shows up in memory.
+ */
+public class AfterCommitHelper {
+
+    /**
+     * Run the given action once the current transaction commits. The action is not run if the transaction rolls back,
+     * and is run straight away if there is no transaction.
+     *
+     * @param action the action to run
+     */
+    public static void runAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
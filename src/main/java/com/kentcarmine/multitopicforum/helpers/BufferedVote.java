@@ -0,0 +1,91 @@
+package com.kentcarmine.multitopicforum.helpers;
+
+import com.kentcarmine.multitopicforum.model.PostVoteState;
+
+/**
+ * A vote that has been accepted but not yet written to the post_vote table (see VoteBufferService). Buffered votes are
+ * written to the vote journal, if there is one, as tab separated lines.
+ */
+public class BufferedVote {
+
+    private static final String SEPARATOR = "\t";
+
+    private final Long postId;
+    private final Long threadId;
+    private final String username;
+    private final PostVoteState postVoteState;
+    private final long votedAtMillis;
+
+    public BufferedVote(Long postId, Long threadId, String username, PostVoteState postVoteState, long votedAtMillis) {
+        this.postId = postId;
+        this.threadId = threadId;
+        this.username = username;
+        this.postVoteState = postVoteState;
+        this.votedAtMillis = votedAtMillis;
+    }
+
+    /**
+     * Parse a buffered vote from its journal form.
+     *
+     * @param line the journal line to parse
+     * @return the parsed BufferedVote, or null if the line is not a valid buffered vote
+     */
+    public static BufferedVote parse(String line) {
+        String[] parts = line.split(SEPARATOR);
+        if (parts.length != 5) {
+            return null;
+        }
+
+        try {
+            return new BufferedVote(Long.parseLong(parts[0]), Long.parseLong(parts[1]), parts[2],
+                    PostVoteState.valueOf(parts[3]), Long.parseLong(parts[4]));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Get the key identifying the vote of this vote's user on this vote's post. A user has at most one vote per post.
+     *
+     * @return the key of this vote
+     */
+    public String getKey() {
+        return postId + SEPARATOR + username;
+    }
+
+    public Long getPostId() {
+        return postId;
+    }
+
+    public Long getThreadId() {
+        return threadId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public PostVoteState getPostVoteState() {
+        return postVoteState;
+    }
+
+    public long getVotedAtMillis() {
+        return votedAtMillis;
+    }
+
+    public String toJournalLine() {
+        return postId + SEPARATOR + threadId + SEPARATOR + username + SEPARATOR + postVoteState.name() + SEPARATOR
+                + votedAtMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "BufferedVote{" +
+                "postId=" + postId +
+                ", threadId=" + threadId +
+                ", username='" + username + '\'' +
+                ", postVoteState=" + postVoteState +
+                ", votedAtMillis=" + votedAtMillis +
+                '}';
+    }
+}
@@ -0,0 +1,76 @@
+package com.kentcarmine.multitopicforum.helpers;
+
+/**
+ * A rendered HTML page held in the anonymous page cache, along with the forum and thread it was rendered from so that
+ * it can be evicted when they change. The threadId is null for forum pages. The validator, if the page had one, lets
+ * conditional requests for a cached page be answered with 304 Not Modified.
+ */
+public class CachedPage {
+    private final String forumName;
+    private final Long threadId;
+    private final String contentType;
+    private final String body;
+    private final long cachedAtMillis;
+    private final PageValidator validator;
+
+    public CachedPage(String forumName, Long threadId, String contentType, String body, long cachedAtMillis,
+                      PageValidator validator) {
+        this.forumName = forumName;
+        this.threadId = threadId;
+        this.contentType = contentType;
+        this.body = body;
+        this.cachedAtMillis = cachedAtMillis;
+        this.validator = validator;
+    }
+
+    public String getForumName() {
+        return forumName;
+    }
+
+    public Long getThreadId() {
+        return threadId;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public long getCachedAtMillis() {
+        return cachedAtMillis;
+    }
+
+    public PageValidator getValidator() {
+        return validator;
+    }
+
+    /**
+     * Determine if this page shows content of the given thread in the given forum, either because it is that thread's
+     * page or because it is a page of the forum's thread listing.
+     *
+     * @param forumName the name of the forum
+     * @param threadId the ID of the thread
+     * @return true if this page shows content of the given thread, false otherwise
+     */
+    public boolean showsThread(String forumName, Long threadId) {
+        if (!this.forumName.equalsIgnoreCase(forumName)) {
+            return false;
+        }
+
+        return this.threadId == null || this.threadId.equals(threadId);
+    }
+
+    @Override
+    public String toString() {
+        return "CachedPage{" +
+                "forumName='" + forumName + '\'' +
+                ", threadId=" + threadId +
+                ", contentType='" + contentType + '\'' +
+                ", cachedAtMillis=" + cachedAtMillis +
+                ", validator=" + validator +
+                '}';
+    }
+}
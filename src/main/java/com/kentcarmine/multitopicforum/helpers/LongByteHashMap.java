@@ -0,0 +1,163 @@
+package com.kentcarmine.multitopicforum.helpers;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map from primitive long keys to primitive byte values. Avoids the boxing overhead of a
+ * HashMap<Long, Integer> for small, short-lived lookup tables such as the vote states of the posts on a single page.
+ * Keys that are not present map to the configured default value. Not thread safe.
+ */
+public class LongByteHashMap {
+    private static final int MIN_CAPACITY = 8;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private final byte defaultValue;
+
+    private long[] keys;
+    private byte[] values;
+    private boolean[] used;
+    private int size;
+
+    public LongByteHashMap() {
+        this(MIN_CAPACITY, (byte) 0);
+    }
+
+    public LongByteHashMap(int expectedSize, byte defaultValue) {
+        this.defaultValue = defaultValue;
+        int capacity = tableSizeFor((int) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR));
+        this.keys = new long[capacity];
+        this.values = new byte[capacity];
+        this.used = new boolean[capacity];
+        this.size = 0;
+    }
+
+    /**
+     * Get the value associated with the given key, or the default value if the key is not present.
+     *
+     * @param key the key to look up
+     * @return the value associated with the given key, or the default value if the key is not present
+     */
+    public byte get(long key) {
+        int idx = indexOf(key);
+        return idx < 0 ? defaultValue : values[idx];
+    }
+
+    public boolean containsKey(long key) {
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * Associate the given value with the given key, replacing any existing value.
+     *
+     * @param key the key
+     * @param value the value to associate with the key
+     */
+    public void put(long key, byte value) {
+        if ((size + 1) > keys.length * LOAD_FACTOR) {
+            resize(keys.length * 2);
+        }
+
+        int mask = keys.length - 1;
+        int idx = hash(key) & mask;
+        while (used[idx]) {
+            if (keys[idx] == key) {
+                values[idx] = value;
+                return;
+            }
+            idx = (idx + 1) & mask;
+        }
+
+        used[idx] = true;
+        keys[idx] = key;
+        values[idx] = value;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public byte getDefaultValue() {
+        return defaultValue;
+    }
+
+    /**
+     * Get the keys currently present in this map, in no particular order.
+     *
+     * @return the keys currently present in this map
+     */
+    public long[] keys() {
+        long[] result = new long[size];
+        int pos = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) {
+                result[pos++] = keys[i];
+            }
+        }
+        return result;
+    }
+
+    private int indexOf(long key) {
+        int mask = keys.length - 1;
+        int idx = hash(key) & mask;
+        while (used[idx]) {
+            if (keys[idx] == key) {
+                return idx;
+            }
+            idx = (idx + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void resize(int newCapacity) {
+        long[] oldKeys = keys;
+        byte[] oldValues = values;
+        boolean[] oldUsed = used;
+
+        keys = new long[newCapacity];
+        values = new byte[newCapacity];
+        used = new boolean[newCapacity];
+        size = 0;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    /**
+     * Helper method that spreads the bits of the key so that sequential ids do not cluster in the table.
+     */
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int tableSizeFor(int minCapacity) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < minCapacity) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("LongByteHashMap{");
+        long[] presentKeys = keys();
+        Arrays.sort(presentKeys);
+        for (int i = 0; i < presentKeys.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(presentKeys[i]).append('=').append(get(presentKeys[i]));
+        }
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,90 @@
+package com.kentcarmine.multitopicforum.helpers;
+
+import com.kentcarmine.multitopicforum.model.User;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.web.csrf.CsrfToken;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+/**
+ * Validators (ETag and Last-Modified) for a page whose content only changes when its last modified time changes or when
+ * a different user views it. The ETag also covers the requesting session's CSRF token, since it is embedded in the
+ * page's forms.
+ */
+public class PageValidator {
+
+    public static final String REQUEST_ATTRIBUTE = PageValidator.class.getName();
+
+    private static final String ANONYMOUS_VIEWER = "anonymous";
+
+    private final String resource;
+    private final Date lastModifiedAt;
+    private final String viewer;
+
+    public PageValidator(String resource, Date lastModifiedAt, User viewer) {
+        this.resource = resource;
+        this.lastModifiedAt = lastModifiedAt;
+        this.viewer = viewer == null ? ANONYMOUS_VIEWER : viewer.getUsername() + ":" + viewer.getHighestAuthority();
+    }
+
+    public String getResource() {
+        return resource;
+    }
+
+    public Date getLastModifiedAt() {
+        return lastModifiedAt;
+    }
+
+    public boolean isAnonymousViewer() {
+        return ANONYMOUS_VIEWER.equals(viewer);
+    }
+
+    /**
+     * Check whether the client already has the current version of the page, setting the validator and Cache-Control
+     * headers on the response. If this returns true the response status has been set to 304 Not Modified and the page
+     * should not be rendered.
+     *
+     * @param webRequest the current request
+     * @return true if the client's copy of the page is current, false otherwise
+     */
+    public boolean checkNotModified(ServletWebRequest webRequest) {
+        if (lastModifiedAt == null) {
+            return false;
+        }
+
+        webRequest.setAttribute(REQUEST_ATTRIBUTE, this, RequestAttributes.SCOPE_REQUEST);
+
+        if (webRequest.getResponse() != null) {
+            webRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL,
+                    CacheControl.noCache().cachePrivate().getHeaderValue());
+        }
+
+        CsrfToken csrfToken = (CsrfToken) webRequest.getAttribute(CsrfToken.class.getName(),
+                RequestAttributes.SCOPE_REQUEST);
+
+        return webRequest.checkNotModified(getETag(csrfToken), lastModifiedAt.getTime());
+    }
+
+    /**
+     * Helper method that builds the weak ETag of the page for the given CSRF token
+     */
+    private String getETag(CsrfToken csrfToken) {
+        String raw = resource + "|" + lastModifiedAt.getTime() + "|" + viewer + "|"
+                + (csrfToken == null ? "" : csrfToken.getToken());
+        return "W/\"" + DigestUtils.md5DigestAsHex(raw.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    @Override
+    public String toString() {
+        return "PageValidator{" +
+                "resource='" + resource + '\'' +
+                ", lastModifiedAt=" + lastModifiedAt +
+                ", viewer='" + viewer + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,63 @@
+package com.kentcarmine.multitopicforum.helpers;
+
+import com.kentcarmine.multitopicforum.model.Post;
+
+import java.util.Date;
+
+/**
+ * Helper class representing the position of a post within its thread, as used by keyset (seek) pagination. Posts on a
+ * thread are ordered by posting time and then by ID, so the pair uniquely identifies a position. Cursors are passed in
+ * URLs in the form "{postedAt in milliseconds}_{id}".
+ */
+public class PostCursor {
+
+    private static final String SEPARATOR = "_";
+
+    private final Date postedAt;
+    private final Long id;
+
+    public PostCursor(Date postedAt, Long id) {
+        this.postedAt = postedAt;
+        this.id = id;
+    }
+
+    public static PostCursor of(Post post) {
+        return new PostCursor(post.getPostedAt(), post.getId());
+    }
+
+    /**
+     * Parse a cursor from its URL form.
+     *
+     * @param cursorStr the cursor string to parse
+     * @return the parsed PostCursor, or null if cursorStr is null or not a valid cursor
+     */
+    public static PostCursor parse(String cursorStr) {
+        if (cursorStr == null) {
+            return null;
+        }
+
+        String[] parts = cursorStr.split(SEPARATOR);
+        if (parts.length != 2) {
+            return null;
+        }
+
+        try {
+            return new PostCursor(new Date(Long.parseLong(parts[0])), Long.parseLong(parts[1]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public Date getPostedAt() {
+        return postedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return postedAt.getTime() + SEPARATOR + id;
+    }
+}
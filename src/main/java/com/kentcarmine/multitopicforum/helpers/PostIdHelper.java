@@ -0,0 +1,23 @@
+package com.kentcarmine.multitopicforum.helpers;
+
+import com.kentcarmine.multitopicforum.model.Post;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Helper class that handles getting the IDs of posts
+ */
+public class PostIdHelper {
+
+    /**
+     * Gets the IDs of the given posts, in the same order.
+     *
+     * @param posts the posts (typically the page of posts being displayed)
+     * @return the IDs of the given posts
+     */
+    public static List<Long> getPostIds(Collection<Post> posts) {
+        return posts.stream().map(Post::getId).collect(Collectors.toList());
+    }
+}
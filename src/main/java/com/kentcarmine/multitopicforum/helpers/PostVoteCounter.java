@@ -0,0 +1,91 @@
+package com.kentcarmine.multitopicforum.helpers;
+
+import com.kentcarmine.multitopicforum.model.PostVoteState;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory vote totals of a single post. Uses LongAdders, which spread concurrent updates across striped cells, so that
+ * many users voting on the same post at once do not contend on a single counter. Tracks both the post's total upvotes
+ * and downvotes and the votes recorded since the totals were last checkpointed to the database.
+ */
+public class PostVoteCounter {
+    private final LongAdder upvotes = new LongAdder();
+    private final LongAdder downvotes = new LongAdder();
+    private final LongAdder pendingUpvotes = new LongAdder();
+    private final LongAdder pendingDownvotes = new LongAdder();
+
+    public PostVoteCounter(int upvoteCount, int downvoteCount) {
+        upvotes.add(upvoteCount);
+        downvotes.add(downvoteCount);
+    }
+
+    /**
+     * Record a newly cast vote with the given state.
+     *
+     * @param postVoteState the state of the new vote
+     */
+    public void recordVote(PostVoteState postVoteState) {
+        if (postVoteState.isUpvote()) {
+            upvotes.increment();
+            pendingUpvotes.increment();
+        } else if (postVoteState.isDownvote()) {
+            downvotes.increment();
+            pendingDownvotes.increment();
+        }
+    }
+
+    /**
+     * Record the given numbers of newly cast upvotes and downvotes.
+     */
+    public void recordVotes(int upvoteCount, int downvoteCount) {
+        upvotes.add(upvoteCount);
+        downvotes.add(downvoteCount);
+        pendingUpvotes.add(upvoteCount);
+        pendingDownvotes.add(downvoteCount);
+    }
+
+    public int getUpvoteCount() {
+        return upvotes.intValue();
+    }
+
+    public int getDownvoteCount() {
+        return downvotes.intValue();
+    }
+
+    public int getVoteCount() {
+        return (int) (upvotes.sum() - downvotes.sum());
+    }
+
+    /**
+     * Get the number of upvotes recorded since the last checkpoint, and reset that number to zero.
+     */
+    public int takePendingUpvotes() {
+        return (int) pendingUpvotes.sumThenReset();
+    }
+
+    /**
+     * Get the number of downvotes recorded since the last checkpoint, and reset that number to zero.
+     */
+    public int takePendingDownvotes() {
+        return (int) pendingDownvotes.sumThenReset();
+    }
+
+    /**
+     * Return votes taken by a checkpoint that failed to the number of votes recorded since the last checkpoint.
+     */
+    public void restorePendingVotes(int upvoteCount, int downvoteCount) {
+        pendingUpvotes.add(upvoteCount);
+        pendingDownvotes.add(downvoteCount);
+    }
+
+    @Override
+    public String toString() {
+        return "PostVoteCounter{" +
+                "upvotes=" + upvotes +
+                ", downvotes=" + downvotes +
+                ", pendingUpvotes=" + pendingUpvotes +
+                ", pendingDownvotes=" + pendingDownvotes +
+                '}';
+    }
+}
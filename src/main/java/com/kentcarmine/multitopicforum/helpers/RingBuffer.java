@@ -0,0 +1,80 @@
+package com.kentcarmine.multitopicforum.helpers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-size buffer that holds the most recently added items. Once full, each added item overwrites the oldest, so
+ * adding an item and reading the buffer cost the same however many items have been added. Not thread safe; callers
+ * must synchronize access themselves.
+ */
+public class RingBuffer<T> {
+    private final Object[] items;
+    private int next = 0;
+    private int size = 0;
+
+    public RingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+
+        this.items = new Object[capacity];
+    }
+
+    /**
+     * Add the given item, overwriting the oldest item if the buffer is full.
+     *
+     * @param item the item to add
+     */
+    public void add(T item) {
+        items[next] = item;
+        next = (next + 1) % items.length;
+        if (size < items.length) {
+            size++;
+        }
+    }
+
+    /**
+     * Get the item at the given position, counting back from the most recently added item at position 0.
+     *
+     * @param index the position of the item, from newest
+     * @return the item at the given position
+     */
+    @SuppressWarnings("unchecked")
+    public T getNewest(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+
+        return (T) items[Math.floorMod(next - 1 - index, items.length)];
+    }
+
+    /**
+     * Get every item held, most recently added first.
+     *
+     * @return every item held, most recently added first
+     */
+    public List<T> toListNewestFirst() {
+        List<T> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(getNewest(i));
+        }
+        return list;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return items.length;
+    }
+
+    public void clear() {
+        for (int i = 0; i < items.length; i++) {
+            items[i] = null;
+        }
+        next = 0;
+        size = 0;
+    }
+}
@@ -0,0 +1,80 @@
+package com.kentcarmine.multitopicforum.helpers;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key, so that while a load of a key is in flight, other callers asking for that
+ * key wait for it and share its result (or its exception) instead of running the load again. Nothing is kept once a
+ * load completes, so this is not a cache: a caller arriving after a load finishes starts a new one. Results are shared
+ * between threads, so they must not be modified by callers.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the loaded values
+ */
+public class SingleFlight<K, V> {
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlightLoads = new ConcurrentHashMap<>();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder coalescedRequests = new LongAdder();
+
+    /**
+     * Get the value for the given key, either by running the given loader or, if a load of the key is already in
+     * flight, by waiting for that load.
+     *
+     * @param key the key to load
+     * @param loader the loader to run if no load of the key is in flight
+     * @return the loaded value
+     */
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> load = new CompletableFuture<>();
+        CompletableFuture<V> inFlightLoad = inFlightLoads.putIfAbsent(key, load);
+
+        if (inFlightLoad != null) {
+            coalescedRequests.increment();
+            return await(inFlightLoad);
+        }
+
+        loads.increment();
+        try {
+            V value = loader.get();
+            load.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightLoads.remove(key, load);
+        }
+    }
+
+    public long getLoadCount() {
+        return loads.sum();
+    }
+
+    public long getCoalescedRequestCount() {
+        return coalescedRequests.sum();
+    }
+
+    public int getInFlightLoadCount() {
+        return inFlightLoads.size();
+    }
+
+    /**
+     * Helper method that waits for the given load and rethrows the exception it failed with, if any.
+     */
+    private V await(CompletableFuture<V> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.kentcarmine.multitopicforum.helpers;
+
+/**
+ * Trending score of a single thread, held as a forward-decayed sum: each activity adds its weight scaled up by how long
+ * after the landmark time it happened, rather than every older activity being scaled down as time passes. Scores
+ * therefore only change when their thread is active, and the order of two untouched scores never changes. The decayed
+ * score at a given time is the held score scaled down by the time since the landmark.
+ */
+public class TrendingThreadScore {
+    private final Long threadId;
+    private final String forumName;
+    private String title;
+    private double score;
+
+    public TrendingThreadScore(Long threadId, String forumName, String title) {
+        this.threadId = threadId;
+        this.forumName = forumName;
+        this.title = title;
+    }
+
+    public Long getThreadId() {
+        return threadId;
+    }
+
+    public String getForumName() {
+        return forumName;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+
+    /**
+     * Add the given forward-decayed weight to the score.
+     *
+     * @param weight the weight of the activity, already scaled by its time since the landmark
+     */
+    public void add(double weight) {
+        score += weight;
+    }
+
+    @Override
+    public String toString() {
+        return "TrendingThreadScore{" +
+                "threadId=" + threadId +
+                ", forumName='" + forumName + '\'' +
+                ", title='" + title + '\'' +
+                ", score=" + score +
+                '}';
+    }
+}
@@ -0,0 +1,132 @@
+package com.kentcarmine.multitopicforum.helpers;
+
+import java.util.Arrays;
+
+/**
+ * Immutable index of the votes a single user has made, held as a sorted array of voted-on post IDs and a parallel array
+ * of vote states, so that a user who has voted on thousands of posts costs about nine bytes per vote rather than a boxed
+ * map entry per vote. Lookups are binary searches. Recording a vote returns a new index and leaves this one unchanged,
+ * so an index can be read by many threads without locking.
+ */
+public class UserVoteIndex {
+    private static final UserVoteIndex EMPTY = new UserVoteIndex(new long[0], new byte[0]);
+
+    // Estimated sizes in bytes of an object header, an array header, and a reference on a 64 bit JVM with compressed
+    // object pointers
+    private static final int OBJECT_HEADER_BYTES = 12;
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int REFERENCE_BYTES = 4;
+
+    private final long[] postIds;
+    private final byte[] voteStates;
+
+    private UserVoteIndex(long[] postIds, byte[] voteStates) {
+        this.postIds = postIds;
+        this.voteStates = voteStates;
+    }
+
+    public static UserVoteIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Build an index holding the votes in the given map from post IDs to vote states.
+     *
+     * @param votes map from the IDs of voted-on posts to the states of the votes
+     * @return an index holding the given votes
+     */
+    public static UserVoteIndex of(LongByteHashMap votes) {
+        if (votes.isEmpty()) {
+            return EMPTY;
+        }
+
+        long[] postIds = votes.keys();
+        Arrays.sort(postIds);
+
+        byte[] voteStates = new byte[postIds.length];
+        for (int i = 0; i < postIds.length; i++) {
+            voteStates[i] = votes.get(postIds[i]);
+        }
+
+        return new UserVoteIndex(postIds, voteStates);
+    }
+
+    /**
+     * Get the state of the vote on the post with the given ID, or the given default value if there is no such vote.
+     *
+     * @param postId the ID of the post
+     * @param defaultValue the value to return if there is no vote on the post
+     * @return the state of the vote on the post, or the default value if there is no such vote
+     */
+    public byte getVoteState(long postId, byte defaultValue) {
+        int idx = Arrays.binarySearch(postIds, postId);
+        return idx < 0 ? defaultValue : voteStates[idx];
+    }
+
+    public boolean containsVote(long postId) {
+        return Arrays.binarySearch(postIds, postId) >= 0;
+    }
+
+    /**
+     * Get an index holding the votes in this index plus the given vote, replacing any vote on the same post.
+     *
+     * @param postId the ID of the voted-on post
+     * @param voteState the state of the vote
+     * @return an index holding the votes in this index plus the given vote
+     */
+    public UserVoteIndex withVote(long postId, byte voteState) {
+        int idx = Arrays.binarySearch(postIds, postId);
+        if (idx >= 0) {
+            if (voteStates[idx] == voteState) {
+                return this;
+            }
+
+            byte[] newVoteStates = voteStates.clone();
+            newVoteStates[idx] = voteState;
+            return new UserVoteIndex(postIds, newVoteStates);
+        }
+
+        int insertAt = -(idx + 1);
+        long[] newPostIds = new long[postIds.length + 1];
+        byte[] newVoteStates = new byte[voteStates.length + 1];
+
+        System.arraycopy(postIds, 0, newPostIds, 0, insertAt);
+        System.arraycopy(voteStates, 0, newVoteStates, 0, insertAt);
+        newPostIds[insertAt] = postId;
+        newVoteStates[insertAt] = voteState;
+        System.arraycopy(postIds, insertAt, newPostIds, insertAt + 1, postIds.length - insertAt);
+        System.arraycopy(voteStates, insertAt, newVoteStates, insertAt + 1, voteStates.length - insertAt);
+
+        return new UserVoteIndex(newPostIds, newVoteStates);
+    }
+
+    public int size() {
+        return postIds.length;
+    }
+
+    /**
+     * Get an estimate of the number of bytes of heap this index occupies.
+     *
+     * @return an estimate of the number of bytes of heap this index occupies
+     */
+    public long getMemoryFootprintBytes() {
+        return align(OBJECT_HEADER_BYTES + 2 * REFERENCE_BYTES)
+                + align(ARRAY_HEADER_BYTES + (long) Long.BYTES * postIds.length)
+                + align(ARRAY_HEADER_BYTES + (long) voteStates.length);
+    }
+
+    /**
+     * Helper method that rounds the given size up to the 8 byte alignment of objects on the heap.
+     */
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    @Override
+    public String toString() {
+        return "UserVoteIndex{" +
+                "size=" + size() +
+                ", memoryFootprintBytes=" + getMemoryFootprintBytes() +
+                '}';
+    }
+}
@@ -0,0 +1,141 @@
+package com.kentcarmine.multitopicforum.helpers;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Index of usernames for case-insensitive substring and prefix searches. Usernames are held in case-insensitive order,
+ * so that the usernames starting with a prefix are found with one seek and a walk forward, and every three character
+ * sequence (trigram) of each lower-cased username maps to the usernames containing it, so that a substring search only
+ * checks the usernames containing the rarest trigram of the search terms rather than every username. Usernames can be
+ * added while the index is being searched.
+ */
+public class UsernameIndex {
+    private static final int GRAM_LENGTH = 3;
+
+    // Case-insensitive order, with case variants of the same name in natural (upper case first) order so that no two
+    // distinct usernames compare equal
+    private static final Comparator<String> USERNAME_ORDER =
+            String.CASE_INSENSITIVE_ORDER.thenComparing(Comparator.naturalOrder());
+
+    private final NavigableSet<String> usernames = new ConcurrentSkipListSet<>(USERNAME_ORDER);
+    private final Map<String, Set<String>> usernamesByGram = new ConcurrentHashMap<>();
+
+    /**
+     * Add the given username to the index. Adding a username that is already held has no effect.
+     *
+     * @param username the username to add
+     */
+    public void add(String username) {
+        if (username == null || !usernames.add(username)) {
+            return;
+        }
+
+        for (String gram : getGrams(toLowerCase(username))) {
+            usernamesByGram.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(username);
+        }
+    }
+
+    /**
+     * Get every username containing all of the given search terms, ignoring case, in descending case-insensitive order.
+     * Blank terms match every username.
+     *
+     * @param searchTerms the search terms
+     * @return every username containing all of the given search terms, in descending case-insensitive order
+     */
+    public List<String> search(Collection<String> searchTerms) {
+        List<String> terms = new ArrayList<>();
+        for (String term : searchTerms) {
+            if (!term.isBlank()) {
+                terms.add(toLowerCase(term));
+            }
+        }
+
+        Collection<String> candidates = usernames;
+        for (String term : terms) {
+            for (String gram : getGrams(term)) {
+                Set<String> gramUsernames = usernamesByGram.get(gram);
+                if (gramUsernames == null) {
+                    return new ArrayList<>();
+                }
+
+                if (gramUsernames.size() < candidates.size()) {
+                    candidates = gramUsernames;
+                }
+            }
+        }
+
+        List<String> results = new ArrayList<>();
+        for (String username : candidates) {
+            if (containsAll(toLowerCase(username), terms)) {
+                results.add(username);
+            }
+        }
+
+        results.sort(USERNAME_ORDER.reversed());
+        return results;
+    }
+
+    /**
+     * Get up to the given number of usernames starting with the given prefix, ignoring case, in ascending
+     * case-insensitive order.
+     *
+     * @param prefix the prefix
+     * @param limit the maximum number of usernames to return
+     * @return up to the given number of usernames starting with the given prefix
+     */
+    public List<String> findByPrefix(String prefix, int limit) {
+        String lowerCasePrefix = toLowerCase(prefix);
+        List<String> results = new ArrayList<>();
+
+        // The upper case form of the prefix sorts before every username starting with any case variant of it
+        for (String username : usernames.tailSet(prefix.toUpperCase(Locale.ROOT), true)) {
+            if (results.size() >= limit || !toLowerCase(username).startsWith(lowerCasePrefix)) {
+                break;
+            }
+            results.add(username);
+        }
+
+        return results;
+    }
+
+    public int size() {
+        return usernames.size();
+    }
+
+    /**
+     * Helper method that gets the distinct trigrams of the given lower-cased string, or none if it is shorter than a
+     * trigram.
+     */
+    private static Set<String> getGrams(String str) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= str.length(); i++) {
+            grams.add(str.substring(i, i + GRAM_LENGTH));
+        }
+
+        return grams;
+    }
+
+    private static boolean containsAll(String lowerCaseUsername, List<String> lowerCaseTerms) {
+        for (String term : lowerCaseTerms) {
+            if (!lowerCaseUsername.contains(term)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static String toLowerCase(String str) {
+        return str.toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public String toString() {
+        return "UsernameIndex{" +
+                "size=" + size() +
+                ", grams=" + usernamesByGram.size() +
+                '}';
+    }
+}
@@ -0,0 +1,64 @@
+package com.kentcarmine.multitopicforum.listeners;
+
+import com.kentcarmine.multitopicforum.converters.ForumHierarchyConverter;
+import com.kentcarmine.multitopicforum.events.PostChangedEvent;
+import com.kentcarmine.multitopicforum.model.Post;
+import com.kentcarmine.multitopicforum.services.ActivityFeedService;
+import com.kentcarmine.multitopicforum.services.ThreadStreamService;
+import com.kentcarmine.multitopicforum.services.TrendingThreadService;
+import com.kentcarmine.multitopicforum.services.UserActivityService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Listener that processes PostChangedEvents. Pushes the changed post to the open pages of its thread once the change
+ * has been committed, records new posts and votes in the trending threads ranking, keeps the recent activity feed up to
+ * date, and records new posts as activity of their authors.
+ */
+@Component
+public class PostChangedListener {
+
+    private final ThreadStreamService threadStreamService;
+    private final ForumHierarchyConverter forumHierarchyConverter;
+    private final TrendingThreadService trendingThreadService;
+    private final ActivityFeedService activityFeedService;
+    private final UserActivityService userActivityService;
+
+    @Autowired
+    public PostChangedListener(ThreadStreamService threadStreamService,
+                               ForumHierarchyConverter forumHierarchyConverter,
+                               TrendingThreadService trendingThreadService,
+                               ActivityFeedService activityFeedService,
+                               UserActivityService userActivityService) {
+        this.threadStreamService = threadStreamService;
+        this.forumHierarchyConverter = forumHierarchyConverter;
+        this.trendingThreadService = trendingThreadService;
+        this.activityFeedService = activityFeedService;
+        this.userActivityService = userActivityService;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        Post post = event.getPost();
+        threadStreamService.publish(post.getThread().getId(), event.getChangeType().getStreamEventName(),
+                forumHierarchyConverter.convertNewPost(post));
+
+        switch (event.getChangeType()) {
+            case CREATED:
+                trendingThreadService.recordPost(post);
+                activityFeedService.recordPost(post);
+                userActivityService.recordActivity(post.getUser(), post.getPostedAt());
+                break;
+            case VOTED:
+                trendingThreadService.recordVote(post);
+                break;
+            case DELETED:
+                activityFeedService.setPostDeleted(post.getId(), true);
+                break;
+            case RESTORED:
+                activityFeedService.setPostDeleted(post.getId(), false);
+                break;
+        }
+    }
+}
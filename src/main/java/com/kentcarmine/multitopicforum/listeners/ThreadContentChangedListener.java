@@ -0,0 +1,27 @@
+package com.kentcarmine.multitopicforum.listeners;
+
+import com.kentcarmine.multitopicforum.events.ThreadContentChangedEvent;
+import com.kentcarmine.multitopicforum.services.PageCacheService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Listener that processes ThreadContentChangedEvents. Evicts the cached pages showing the changed thread once the
+ * change has been committed, so that the next request renders them from the new data.
+ */
+@Component
+public class ThreadContentChangedListener {
+
+    private final PageCacheService pageCacheService;
+
+    @Autowired
+    public ThreadContentChangedListener(PageCacheService pageCacheService) {
+        this.pageCacheService = pageCacheService;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onThreadContentChanged(ThreadContentChangedEvent event) {
+        pageCacheService.evictThread(event.getForumName(), event.getThreadId());
+    }
+}
@@ -0,0 +1,169 @@
+package com.kentcarmine.multitopicforum.model;
+
+import javax.persistence.*;
+import java.util.Date;
+
+/**
+ * Entity that models a post of an archived thread (see ArchivedThread). Archived posts keep the ID they had while live
+ * and the vote totals they had when archived. Their individual votes are not kept.
+ */
+@Entity
+@Table(name = "archived_post",
+        indexes = @Index(name = "idx_archived_post_thread_posted_at", columnList = "thread_id, postedAt, id"))
+public class ArchivedPost {
+
+    // Copied from the live post rather than generated
+    @Id
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "thread_id")
+    private ArchivedThread thread;
+
+    @Column(columnDefinition = "text")
+    private String content;
+
+    @ManyToOne
+    @JoinColumn(name = "username")
+    private User user;
+
+    private Date postedAt;
+
+    private boolean deleted;
+
+    private Date deletedAt;
+
+    @ManyToOne
+    @JoinColumn(name = "deleted_by_username")
+    private User deletedBy;
+
+    private int upvoteCount;
+
+    private int downvoteCount;
+
+    private int voteScore;
+
+    public ArchivedPost() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public ArchivedThread getThread() {
+        return thread;
+    }
+
+    public void setThread(ArchivedThread thread) {
+        this.thread = thread;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    public Date getPostedAt() {
+        return postedAt;
+    }
+
+    public void setPostedAt(Date postedAt) {
+        this.postedAt = postedAt;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(boolean deleted) {
+        this.deleted = deleted;
+    }
+
+    public Date getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(Date deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
+    public User getDeletedBy() {
+        return deletedBy;
+    }
+
+    public void setDeletedBy(User deletedBy) {
+        this.deletedBy = deletedBy;
+    }
+
+    public int getUpvoteCount() {
+        return upvoteCount;
+    }
+
+    public void setUpvoteCount(int upvoteCount) {
+        this.upvoteCount = upvoteCount;
+    }
+
+    public int getDownvoteCount() {
+        return downvoteCount;
+    }
+
+    public void setDownvoteCount(int downvoteCount) {
+        this.downvoteCount = downvoteCount;
+    }
+
+    public int getVoteScore() {
+        return voteScore;
+    }
+
+    public void setVoteScore(int voteScore) {
+        this.voteScore = voteScore;
+    }
+
+    /**
+     * Build a transient Post holding this archived post's details, belonging to the given transient thread, for display
+     * with the same views as a live post. The result must not be saved.
+     *
+     * @param topicThread the transient thread built from this post's archived thread
+     * @return a transient Post holding this archived post's details
+     */
+    public Post toPost(TopicThread topicThread) {
+        Post post = new Post(content, postedAt);
+        post.setId(id);
+        post.setThread(topicThread);
+        post.setUser(user);
+        post.setDeleted(deleted);
+        post.setDeletedAt(deletedAt);
+        post.setDeletedBy(deletedBy);
+        post.setUpvoteCount(upvoteCount);
+        post.setDownvoteCount(downvoteCount);
+        post.setVoteCount(voteScore);
+        return post;
+    }
+
+    @Override
+    public String toString() {
+        return "ArchivedPost{" +
+                "id=" + id +
+                ", threadId=" + (thread == null ? null : thread.getId()) +
+                ", user=" + (user == null ? null : user.getUsername()) +
+                ", postedAt=" + postedAt +
+                ", deleted=" + deleted +
+                ", voteScore=" + voteScore +
+                '}';
+    }
+}
@@ -0,0 +1,134 @@
+package com.kentcarmine.multitopicforum.model;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import java.util.Date;
+
+/**
+ * Entity that models a topic thread that has been moved out of the live thread table by the archival job (see
+ * ThreadArchiveService), because it had been inactive for longer than the configured age. Archived threads keep the ID
+ * they had while live, so links to them keep working, and are only ever read.
+ */
+@Entity
+@Table(name = "archived_thread")
+public class ArchivedThread {
+
+    // Copied from the live thread rather than generated
+    @Id
+    private Long id;
+
+    private String title;
+
+    @ManyToOne
+    @JoinColumn(name = "forumName")
+    @NotNull
+    private TopicForum forum;
+
+    private boolean locked;
+
+    private Date createdAt;
+
+    private Date updatedAt;
+
+    private Date archivedAt;
+
+    private int postCount;
+
+    public ArchivedThread() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public TopicForum getForum() {
+        return forum;
+    }
+
+    public void setForum(TopicForum forum) {
+        this.forum = forum;
+    }
+
+    public boolean isLocked() {
+        return locked;
+    }
+
+    public void setLocked(boolean locked) {
+        this.locked = locked;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Date getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Date updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Date getArchivedAt() {
+        return archivedAt;
+    }
+
+    public void setArchivedAt(Date archivedAt) {
+        this.archivedAt = archivedAt;
+    }
+
+    public int getPostCount() {
+        return postCount;
+    }
+
+    public void setPostCount(int postCount) {
+        this.postCount = postCount;
+    }
+
+    /**
+     * Build a transient TopicThread holding this archived thread's details, for display with the same views as a live
+     * thread. The result must not be saved.
+     *
+     * @return a transient TopicThread holding this archived thread's details
+     */
+    public TopicThread toTopicThread() {
+        TopicThread thread = new TopicThread(title, forum);
+        thread.setId(id);
+        thread.setLocked(locked);
+        thread.setCreatedAt(createdAt);
+        thread.setUpdatedAt(updatedAt);
+        thread.setPostCount(postCount);
+        thread.setLastModifiedAt(archivedAt);
+        return thread;
+    }
+
+    @Override
+    public String toString() {
+        return "ArchivedThread{" +
+                "id=" + id +
+                ", title='" + title + '\'' +
+                ", forum=" + (forum == null ? null : forum.getName()) +
+                ", locked=" + locked +
+                ", createdAt=" + createdAt +
+                ", updatedAt=" + updatedAt +
+                ", archivedAt=" + archivedAt +
+                ", postCount=" + postCount +
+                '}';
+    }
+}
@@ -1,5 +1,6 @@
 package com.kentcarmine.multitopicforum.model;
 
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.beans.factory.annotation.Value;
 
 import javax.persistence.*;
@@ -17,6 +18,7 @@ import java.util.*;
  * Entity that models a single forum Post within a TopicThread.
  */
 @Entity
+@Table(indexes = @Index(name = "idx_post_thread_posted_at", columnList = "thread_id, postedAt, id"))
 public class Post implements Comparable<Post>, PostUpdatedTimable {
     private static final String DATE_TIME_FORMAT_STRING = "MM-dd-yyyy, HH:mm";
 
@@ -51,6 +53,19 @@ public class Post implements Comparable<Post>, PostUpdatedTimable {
     @OneToMany(mappedBy = "post", fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     private Set<PostVote> postVotes;
 
+    // Totals of the votes in post_vote, incremented by VoteCounterService checkpoints and reconciled periodically
+    @ColumnDefault("0")
+    @Column(updatable = false)
+    private int upvoteCount;
+
+    @ColumnDefault("0")
+    @Column(updatable = false)
+    private int downvoteCount;
+
+    @ColumnDefault("0")
+    @Column(updatable = false)
+    private int voteScore;
+
     public Post() {
         postVotes = new HashSet<>();
         deleted = false;
@@ -117,8 +132,45 @@ public class Post implements Comparable<Post>, PostUpdatedTimable {
         this.postVotes = postVotes;
     }
 
+    /**
+     * Add the given PostVote to this post and apply its value to this post's vote totals.
+     *
+     * @param postVote the vote to add
+     */
     public void addPostVote(PostVote postVote) {
         postVotes.add(postVote);
+        applyVote(postVote.getPostVoteState());
+    }
+
+    /**
+     * Apply a newly cast vote with the given state to this post's in-memory vote totals.
+     *
+     * @param postVoteState the state of the new vote
+     */
+    public void applyVote(PostVoteState postVoteState) {
+        if (postVoteState.isUpvote()) {
+            upvoteCount++;
+        } else if (postVoteState.isDownvote()) {
+            downvoteCount++;
+        }
+
+        voteScore = upvoteCount - downvoteCount;
+    }
+
+    public int getUpvoteCount() {
+        return upvoteCount;
+    }
+
+    public void setUpvoteCount(int upvoteCount) {
+        this.upvoteCount = upvoteCount;
+    }
+
+    public int getDownvoteCount() {
+        return downvoteCount;
+    }
+
+    public void setDownvoteCount(int downvoteCount) {
+        this.downvoteCount = downvoteCount;
     }
 
     public boolean isDeleted() {
@@ -146,17 +198,17 @@ public class Post implements Comparable<Post>, PostUpdatedTimable {
     }
 
     /**
-     * Get the sum of the total vote values for this post.
+     * Get the sum of the total vote values for this post. This is read from the denormalized vote score, so it does not
+     * require the post's votes to be loaded.
      *
      * @return the sum of the total vote values for this post.
      */
     public int getVoteCount() {
-        int sum = 0;
-        for (PostVote vote : getPostVotes()) {
-            sum += vote.getPostVoteState().getValue();
-        }
+        return voteScore;
+    }
 
-        return sum;
+    public void setVoteCount(int voteScore) {
+        this.voteScore = voteScore;
     }
 
     /**
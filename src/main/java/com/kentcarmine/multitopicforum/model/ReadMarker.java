@@ -0,0 +1,66 @@
+package com.kentcarmine.multitopicforum.model;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Entity for modeling how far a user has read a thread, as the ID of the latest post of the thread the user has been
+ * shown. A single narrow row is kept per user and thread, keyed by the username and thread ID. The thread is not mapped
+ * as a relationship, so that markers do not have to be loaded or deleted with their thread.
+ */
+@Entity
+@IdClass(ReadMarkerId.class)
+@Table(name = "read_marker")
+public class ReadMarker {
+
+    @Id
+    private String username;
+
+    @Id
+    private Long threadId;
+
+    @NotNull
+    private Long lastReadPostId;
+
+    public ReadMarker() {
+    }
+
+    public ReadMarker(String username, Long threadId, Long lastReadPostId) {
+        this.username = username;
+        this.threadId = threadId;
+        this.lastReadPostId = lastReadPostId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public Long getThreadId() {
+        return threadId;
+    }
+
+    public void setThreadId(Long threadId) {
+        this.threadId = threadId;
+    }
+
+    public Long getLastReadPostId() {
+        return lastReadPostId;
+    }
+
+    public void setLastReadPostId(Long lastReadPostId) {
+        this.lastReadPostId = lastReadPostId;
+    }
+
+    @Override
+    public String toString() {
+        return "ReadMarker{" +
+                "username='" + username + '\'' +
+                ", threadId=" + threadId +
+                ", lastReadPostId=" + lastReadPostId +
+                '}';
+    }
+}
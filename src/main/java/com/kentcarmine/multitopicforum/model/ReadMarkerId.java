@@ -0,0 +1,58 @@
+package com.kentcarmine.multitopicforum.model;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Composite ID of a ReadMarker: the user who read the thread and the ID of the thread.
+ */
+public class ReadMarkerId implements Serializable {
+    private String username;
+    private Long threadId;
+
+    public ReadMarkerId() {
+    }
+
+    public ReadMarkerId(String username, Long threadId) {
+        this.username = username;
+        this.threadId = threadId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public Long getThreadId() {
+        return threadId;
+    }
+
+    public void setThreadId(Long threadId) {
+        this.threadId = threadId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ReadMarkerId that = (ReadMarkerId) o;
+        return Objects.equals(username, that.username) &&
+                Objects.equals(threadId, that.threadId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(username, threadId);
+    }
+
+    @Override
+    public String toString() {
+        return "ReadMarkerId{" +
+                "username='" + username + '\'' +
+                ", threadId=" + threadId +
+                '}';
+    }
+}
@@ -2,6 +2,7 @@ package com.kentcarmine.multitopicforum.model;
 
 import com.kentcarmine.multitopicforum.annotations.ValidCharacters;
 import com.kentcarmine.multitopicforum.helpers.ThreadUpdateTimeComparator;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.Formula;
 import org.hibernate.annotations.SortComparator;
 
@@ -36,6 +37,34 @@ public class TopicForum {
     @OneToMany(mappedBy = "forum", cascade = CascadeType.ALL)
     private SortedSet<TopicThread> threads;
 
+    // Thread and post counts and latest post of this forum's live threads, shown in forum listings
+    @ColumnDefault("0")
+    @Column(updatable = false)
+    private int threadCount;
+
+    @ColumnDefault("0")
+    @Column(updatable = false)
+    private int postCount;
+
+    @Column(updatable = false)
+    private Date lastActivityAt;
+
+    @Column(updatable = false)
+    private Long lastPostId;
+
+    @Column(updatable = false)
+    private String lastPostUsername;
+
+    @Column(updatable = false)
+    private Long lastPostThreadId;
+
+    @Column(updatable = false)
+    private String lastPostThreadTitle;
+
+    // Time this forum's page last changed, used to answer conditional GETs of it
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(insertable = false, updatable = false)
+    private Date lastModifiedAt;
 
     public TopicForum() {
         this.threads = new TreeSet<>(new ThreadUpdateTimeComparator());
@@ -77,11 +106,99 @@ public class TopicForum {
     }
 
     public int getNumThreads() {
-        return this.threads.size();
+        return threadCount;
     }
 
     public boolean hasThreads() {
-        return !this.threads.isEmpty();
+        return threadCount > 0;
+    }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    public void setThreadCount(int threadCount) {
+        this.threadCount = threadCount;
+    }
+
+    public int getPostCount() {
+        return postCount;
+    }
+
+    public void setPostCount(int postCount) {
+        this.postCount = postCount;
+    }
+
+    public Date getLastActivityAt() {
+        return lastActivityAt;
+    }
+
+    public void setLastActivityAt(Date lastActivityAt) {
+        this.lastActivityAt = lastActivityAt;
+    }
+
+    public Long getLastPostId() {
+        return lastPostId;
+    }
+
+    public void setLastPostId(Long lastPostId) {
+        this.lastPostId = lastPostId;
+    }
+
+    public String getLastPostUsername() {
+        return lastPostUsername;
+    }
+
+    public void setLastPostUsername(String lastPostUsername) {
+        this.lastPostUsername = lastPostUsername;
+    }
+
+    public Long getLastPostThreadId() {
+        return lastPostThreadId;
+    }
+
+    public void setLastPostThreadId(Long lastPostThreadId) {
+        this.lastPostThreadId = lastPostThreadId;
+    }
+
+    public String getLastPostThreadTitle() {
+        return lastPostThreadTitle;
+    }
+
+    public void setLastPostThreadTitle(String lastPostThreadTitle) {
+        this.lastPostThreadTitle = lastPostThreadTitle;
+    }
+
+    public Date getLastModifiedAt() {
+        return lastModifiedAt;
+    }
+
+    public void setLastModifiedAt(Date lastModifiedAt) {
+        this.lastModifiedAt = lastModifiedAt;
+    }
+
+    /**
+     * Update the in-memory aggregates of this forum to account for a newly created thread. The persisted aggregates
+     * must be updated separately, through TopicForumRepository.incrementThreadCount().
+     */
+    public void recordNewThread() {
+        this.threadCount++;
+    }
+
+    /**
+     * Update the in-memory aggregates of this forum to account for the given newly created post. The persisted
+     * aggregates must be updated separately, through TopicForumRepository.recordNewPost().
+     *
+     * @param post the newly created post
+     */
+    public void recordNewPost(Post post) {
+        this.postCount++;
+        this.lastActivityAt = post.getPostedAt();
+        this.lastPostId = post.getId();
+        this.lastPostUsername = post.getUser().getUsername();
+        this.lastPostThreadId = post.getThread().getId();
+        this.lastPostThreadTitle = post.getThread().getTitle();
+        this.lastModifiedAt = post.getPostedAt();
     }
 
     public Post getMostRecentPost() {
@@ -1,5 +1,6 @@
 package com.kentcarmine.multitopicforum.model;
 
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.SortNatural;
 
 import javax.persistence.*;
@@ -42,6 +43,34 @@ public class TopicThread implements ThreadUpdatedTimeable {
     private Date createdAt;
     private Date updatedAt;
 
+    // Post count and first and last posts of this thread, shown in thread listings
+    @ColumnDefault("0")
+    @Column(updatable = false)
+    private int postCount;
+
+    @Column(updatable = false)
+    private Long firstPostId;
+
+    @Column(updatable = false)
+    private String firstPostUsername;
+
+    @Column(updatable = false)
+    private Date firstPostedAt;
+
+    @Column(updatable = false)
+    private Long lastPostId;
+
+    @Column(updatable = false)
+    private String lastPostUsername;
+
+    @Column(updatable = false)
+    private Date lastPostedAt;
+
+    // Time this thread's page last changed, used to answer conditional GETs of it
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(insertable = false, updatable = false)
+    private Date lastModifiedAt;
+
     public TopicThread() {
         this.posts = new TreeSet<>();
     }
@@ -78,7 +107,88 @@ public class TopicThread implements ThreadUpdatedTimeable {
     }
 
     public int getPostCount() {
-        return this.posts.size();
+        return postCount;
+    }
+
+    public void setPostCount(int postCount) {
+        this.postCount = postCount;
+    }
+
+    public Long getFirstPostId() {
+        return firstPostId;
+    }
+
+    public void setFirstPostId(Long firstPostId) {
+        this.firstPostId = firstPostId;
+    }
+
+    public String getFirstPostUsername() {
+        return firstPostUsername;
+    }
+
+    public void setFirstPostUsername(String firstPostUsername) {
+        this.firstPostUsername = firstPostUsername;
+    }
+
+    public Date getFirstPostedAt() {
+        return firstPostedAt;
+    }
+
+    public void setFirstPostedAt(Date firstPostedAt) {
+        this.firstPostedAt = firstPostedAt;
+    }
+
+    public Long getLastPostId() {
+        return lastPostId;
+    }
+
+    public void setLastPostId(Long lastPostId) {
+        this.lastPostId = lastPostId;
+    }
+
+    public String getLastPostUsername() {
+        return lastPostUsername;
+    }
+
+    public void setLastPostUsername(String lastPostUsername) {
+        this.lastPostUsername = lastPostUsername;
+    }
+
+    public Date getLastPostedAt() {
+        return lastPostedAt;
+    }
+
+    public void setLastPostedAt(Date lastPostedAt) {
+        this.lastPostedAt = lastPostedAt;
+    }
+
+    public Date getLastModifiedAt() {
+        return lastModifiedAt;
+    }
+
+    public void setLastModifiedAt(Date lastModifiedAt) {
+        this.lastModifiedAt = lastModifiedAt;
+    }
+
+    /**
+     * Update the in-memory post summary of this thread to account for the given newly created post. The persisted
+     * summary must be updated separately, through TopicThreadRepository.recordNewPost().
+     *
+     * @param post the newly created post
+     */
+    public void recordNewPost(Post post) {
+        this.postCount++;
+
+        if (this.firstPostId == null) {
+            this.firstPostId = post.getId();
+            this.firstPostUsername = post.getUser().getUsername();
+            this.firstPostedAt = post.getPostedAt();
+        }
+
+        this.lastPostId = post.getId();
+        this.lastPostUsername = post.getUser().getUsername();
+        this.lastPostedAt = post.getPostedAt();
+        this.lastModifiedAt = post.getPostedAt();
     }
 
     public Post getFirstPost() {
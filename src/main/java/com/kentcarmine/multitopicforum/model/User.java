@@ -4,6 +4,7 @@ import com.kentcarmine.multitopicforum.annotations.ValidCharacters;
 import com.kentcarmine.multitopicforum.annotations.ValidEmail;
 import com.kentcarmine.multitopicforum.annotations.ValidUsername;
 import com.kentcarmine.multitopicforum.helpers.ReverseDateOrderPostComparator;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.SortComparator;
 import org.hibernate.annotations.SortNatural;
 
@@ -41,6 +42,16 @@ public class User {
     @OneToMany(mappedBy = "user")
     private SortedSet<Post> posts;
 
+    // Number of posts this user has made, including posts in archived threads, shown next to each of their posts on
+    // thread pages and above the post list on their profile page
+    @ColumnDefault("0")
+    @Column(updatable = false)
+    private int postCount;
+
+    // Time of this user's latest post, vote or login, shown on their profile page. Written by UserActivityService only
+    @Column(updatable = false)
+    private Date lastActiveAt;
+
     @OneToMany(mappedBy = "user", fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     private Set<PostVote> postVotes;
 
@@ -243,7 +254,19 @@ public class User {
     }
 
     public int getPostCount() {
-        return posts.size();
+        return postCount;
+    }
+
+    public void setPostCount(int postCount) {
+        this.postCount = postCount;
+    }
+
+    public Date getLastActiveAt() {
+        return lastActiveAt;
+    }
+
+    public void setLastActiveAt(Date lastActiveAt) {
+        this.lastActiveAt = lastActiveAt;
     }
 
     public Set<Discipline> getDisciplines() {
@@ -333,15 +356,11 @@ public class User {
     }
 
     /**
-    * Gets the Date of the most recent activity (ie. posting) by this user.
+    * Gets the Date of the most recent activity (ie. posting, voting or logging in) by this user, or null if the user has
+    * never been active.
     */
     public Date getMostRecentActivityDate() {
-        if (posts.isEmpty()) {
-            return null;
-        }
-
-        Post latestPost = posts.first();
-        return latestPost.getPostedAt();
+        return lastActiveAt;
     }
 
     @Override
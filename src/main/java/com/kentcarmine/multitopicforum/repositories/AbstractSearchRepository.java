@@ -1,10 +1,24 @@
 package com.kentcarmine.multitopicforum.repositories;
 
+import org.springframework.data.domain.*;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
 import java.util.*;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
 /**
- * Abstract class containing helper methods for searching for text in a SQL database.
+ * Abstract class containing helper methods for searching for text in a SQL database and for running paginated Criteria
+ * queries.
  */
 public class AbstractSearchRepository {
 
@@ -50,4 +64,114 @@ public class AbstractSearchRepository {
 
         return results;
     }
+
+    /**
+     * Helper method that runs a paginated Criteria query for the entities matching the given specification. The total
+     * number of matching entities is found with a separate COUNT query built from the same specification, which is
+     * skipped entirely when the total can be worked out from the requested page itself.
+     *
+     * @param entityManager the EntityManager to run the queries with
+     * @param domainClass the class of the entity to query for
+     * @param spec the specification that builds the predicate to filter by
+     * @param sort the order to return the entities in
+     * @param pageable the page to return
+     * @return the requested Page of entities matching the given specification
+     */
+    protected <T> Page<T> findPage(EntityManager entityManager, Class<T> domainClass, Specification<T> spec, Sort sort,
+                                   Pageable pageable) {
+        return findPage(entityManager, domainClass, domainClass, (root, criteriaBuilder) -> root, spec, sort, pageable);
+    }
+
+    /**
+     * Helper method that runs a paginated Criteria query for the entities matching the given specification, selecting
+     * each of them into a projection rather than loading the entities themselves. Counting works as in the entity
+     * version of findPage.
+     *
+     * @param entityManager the EntityManager to run the queries with
+     * @param domainClass the class of the entity to query for
+     * @param resultClass the class of the projection to return
+     * @param selection builds the selection of the projection from the root entity, usually a constructor expression
+     * @param spec the specification that builds the predicate to filter by
+     * @param sort the order to return the results in
+     * @param pageable the page to return
+     * @return the requested Page of projections of the entities matching the given specification
+     */
+    protected <T, R> Page<R> findPage(EntityManager entityManager, Class<T> domainClass, Class<R> resultClass,
+                                      BiFunction<Root<T>, CriteriaBuilder, Selection<? extends R>> selection,
+                                      Specification<T> spec, Sort sort, Pageable pageable) {
+        TypedQuery<R> query = createSelectQuery(entityManager, domainClass, resultClass, selection, spec, sort);
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize());
+
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable,
+                () -> executeCountQuery(entityManager, domainClass, spec));
+    }
+
+    /**
+     * Helper method that runs a Criteria query for a Slice of the entities matching the given specification. No COUNT
+     * query is run; instead one extra row is fetched to find out whether there is a next Slice.
+     *
+     * @param entityManager the EntityManager to run the query with
+     * @param domainClass the class of the entity to query for
+     * @param spec the specification that builds the predicate to filter by
+     * @param sort the order to return the entities in
+     * @param pageable the slice to return
+     * @return the requested Slice of entities matching the given specification
+     */
+    protected <T> Slice<T> findSlice(EntityManager entityManager, Class<T> domainClass, Specification<T> spec, Sort sort,
+                                     Pageable pageable) {
+        TypedQuery<T> query = createSelectQuery(entityManager, domainClass, domainClass, (root, criteriaBuilder) -> root,
+                spec, sort);
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize() + 1);
+
+        List<T> content = query.getResultList();
+        boolean hasNext = content.size() > pageable.getPageSize();
+        if (hasNext) {
+            content = new ArrayList<>(content.subList(0, pageable.getPageSize()));
+        }
+
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    /**
+     * Helper method that builds the select query for the given selection of the entities matching the given
+     * specification, in the given order
+     */
+    private <T, R> TypedQuery<R> createSelectQuery(EntityManager entityManager, Class<T> domainClass,
+                                                   Class<R> resultClass,
+                                                   BiFunction<Root<T>, CriteriaBuilder, Selection<? extends R>> selection,
+                                                   Specification<T> spec, Sort sort) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<R> query = criteriaBuilder.createQuery(resultClass);
+        Root<T> root = query.from(domainClass);
+
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        query.select(selection.apply(root, criteriaBuilder)).orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+
+        return entityManager.createQuery(query);
+    }
+
+    /**
+     * Helper method that counts the entities matching the given specification, building the predicate against a fresh
+     * root so it can be reused independently of the select query.
+     */
+    private <T> long executeCountQuery(EntityManager entityManager, Class<T> domainClass, Specification<T> spec) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<T> root = query.from(domainClass);
+
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        query.select(criteriaBuilder.count(root));
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
 }
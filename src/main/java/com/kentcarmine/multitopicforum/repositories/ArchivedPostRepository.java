@@ -0,0 +1,48 @@
+package com.kentcarmine.multitopicforum.repositories;
+
+import com.kentcarmine.multitopicforum.model.ArchivedPost;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+
+/**
+ * Repository that provides database access to ArchivedPosts.
+ */
+@Repository
+public interface ArchivedPostRepository extends PagingAndSortingRepository<ArchivedPost, Long> {
+
+    /**
+     * Find the requested Page of the posts of the archived thread with the given ID, with the users who made and deleted
+     * them.
+     */
+    @Query(value = "SELECT p FROM ArchivedPost p JOIN FETCH p.user LEFT JOIN FETCH p.deletedBy " +
+            "WHERE p.thread.id = :threadId",
+            countQuery = "SELECT COUNT(p) FROM ArchivedPost p WHERE p.thread.id = :threadId")
+    Page<ArchivedPost> findAllByThreadId(@Param("threadId") Long threadId, Pageable pageable);
+
+    /**
+     * Count the posts of the archived thread with the given ID that come before the given position in posting order.
+     */
+    @Query("SELECT COUNT(p) FROM ArchivedPost p WHERE p.thread.id = :threadId " +
+            "AND (p.postedAt < :postedAt OR (p.postedAt = :postedAt AND p.id < :postId))")
+    long countPostsBeforeInThread(@Param("threadId") Long threadId, @Param("postedAt") Date postedAt,
+                                  @Param("postId") Long postId);
+
+    /**
+     * Copy the posts of the live thread with the given ID into the archived post table, keeping their IDs and vote
+     * totals. Written as native SQL because the copy is made between tables of different entities.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO archived_post (id, thread_id, content, username, posted_at, deleted, deleted_at, " +
+            "deleted_by_username, upvote_count, downvote_count, vote_score) " +
+            "SELECT p.id, p.thread_id, p.content, p.username, p.posted_at, p.deleted, p.deleted_at, " +
+            "p.deleted_by_username, p.upvote_count, p.downvote_count, p.vote_score " +
+            "FROM post p WHERE p.thread_id = :threadId", nativeQuery = true)
+    int copyFromThread(@Param("threadId") Long threadId);
+}
@@ -0,0 +1,30 @@
+package com.kentcarmine.multitopicforum.repositories;
+
+import com.kentcarmine.multitopicforum.model.ArchivedThread;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+
+/**
+ * Repository that provides database access to ArchivedThreads.
+ */
+@Repository
+public interface ArchivedThreadRepository extends CrudRepository<ArchivedThread, Long> {
+
+    ArchivedThread findByIdAndForumName(Long id, String forumName);
+
+    /**
+     * Copy the live thread with the given ID into the archived thread table, keeping its ID. Written as native SQL
+     * because the copy is made between tables of different entities.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO archived_thread (id, title, forum_name, locked, created_at, updated_at, archived_at, " +
+            "post_count) " +
+            "SELECT t.id, t.title, t.forum_name, t.is_locked, t.created_at, t.updated_at, :archivedAt, t.post_count " +
+            "FROM topic_thread t WHERE t.id = :threadId", nativeQuery = true)
+    int copyFromTopicThread(@Param("threadId") Long threadId, @Param("archivedAt") Date archivedAt);
+}
@@ -0,0 +1,9 @@
+package com.kentcarmine.multitopicforum.repositories;
+
+import com.kentcarmine.multitopicforum.helpers.BufferedVote;
+
+import java.util.List;
+
+public interface CustomPostVoteRepository {
+    List<BufferedVote> saveBufferedVotes(List<BufferedVote> votes);
+}
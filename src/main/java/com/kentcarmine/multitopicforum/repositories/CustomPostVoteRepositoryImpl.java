@@ -0,0 +1,78 @@
+package com.kentcarmine.multitopicforum.repositories;
+
+import com.kentcarmine.multitopicforum.helpers.BufferedVote;
+import com.kentcarmine.multitopicforum.model.PostVoteState;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CustomPostVoteRepositoryImpl implements CustomPostVoteRepository {
+
+    private static final String UPDATE_NO_VOTE_SQL = "UPDATE post_vote SET post_vote_state = ? " +
+            "WHERE username = ? AND post_id = ? AND post_vote_state = ?";
+
+    private static final String INSERT_IF_ABSENT_SQL = "INSERT INTO post_vote (post_vote_state, username, post_id) " +
+            "SELECT ?, ?, p.id FROM post p WHERE p.id = ? " +
+            "AND NOT EXISTS (SELECT 1 FROM post_vote WHERE username = ? AND post_id = ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Write the given buffered votes to the post_vote table using JDBC batches. A vote replaces its user's existing NONE
+     * vote on its post, if there is one, and is otherwise inserted unless its user already has a vote on its post, so
+     * writing the same votes twice has no further effect. A vote on a post that no longer exists, because its thread
+     * was archived after the vote was accepted, is not written. Must be called in a transaction.
+     *
+     * @param votes the votes to write
+     * @return the votes that were written
+     */
+    @Override
+    public List<BufferedVote> saveBufferedVotes(List<BufferedVote> votes) {
+        List<BufferedVote> savedVotes = new ArrayList<>();
+        if (votes.isEmpty()) {
+            return savedVotes;
+        }
+
+        int[] updateCounts = jdbcTemplate.batchUpdate(UPDATE_NO_VOTE_SQL, toBatchArgs(votes, false));
+
+        List<BufferedVote> votesToInsert = new ArrayList<>();
+        for (int i = 0; i < votes.size(); i++) {
+            if (updateCounts[i] == 0) {
+                votesToInsert.add(votes.get(i));
+            } else {
+                savedVotes.add(votes.get(i));
+            }
+        }
+
+        if (!votesToInsert.isEmpty()) {
+            int[] insertCounts = jdbcTemplate.batchUpdate(INSERT_IF_ABSENT_SQL, toBatchArgs(votesToInsert, true));
+            for (int i = 0; i < votesToInsert.size(); i++) {
+                if (insertCounts[i] != 0) {
+                    savedVotes.add(votesToInsert.get(i));
+                }
+            }
+        }
+
+        return savedVotes;
+    }
+
+    /**
+     * Helper method that builds the arguments of the update or insert statement for each of the given votes
+     */
+    private List<Object[]> toBatchArgs(List<BufferedVote> votes, boolean isInsert) {
+        List<Object[]> batchArgs = new ArrayList<>(votes.size());
+        for (BufferedVote vote : votes) {
+            if (isInsert) {
+                batchArgs.add(new Object[]{vote.getPostVoteState().name(), vote.getUsername(), vote.getPostId(),
+                        vote.getUsername(), vote.getPostId()});
+            } else {
+                batchArgs.add(new Object[]{vote.getPostVoteState().name(), vote.getUsername(), vote.getPostId(),
+                        PostVoteState.NONE.name()});
+            }
+        }
+        return batchArgs;
+    }
+}
@@ -2,12 +2,12 @@ package com.kentcarmine.multitopicforum.repositories;
 
 import com.kentcarmine.multitopicforum.model.User;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
-import javax.persistence.TypedQuery;
 import javax.persistence.criteria.*;
 import java.util.ArrayList;
 import java.util.List;
@@ -21,32 +21,17 @@ public class CustomSearchUserRepositoryImpl extends AbstractSearchRepository imp
     public Page<User> findAllUsersByUsernamesLikeIgnoreCaseCustom(String searchText, Pageable pageable) {
         Set<String> searchTerms = splitAndEscapeSearchTerms(searchText);
 
-        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-        CriteriaQuery<User> query = criteriaBuilder.createQuery(User.class);
-        Root<User> userRoot = query.from(User.class);
+        Specification<User> usernameLike = (userRoot, query, criteriaBuilder) -> {
+            Path<String> usernamePath = userRoot.get("username");
 
-        Path<String> usernamePath = userRoot.get("username");
+            List<Predicate> predicates = new ArrayList<>();
+            for (String term : searchTerms) {
+                predicates.add(criteriaBuilder.like(criteriaBuilder.lower(usernamePath), '%' + term.toLowerCase() + '%'));
+            }
 
-        List<Predicate> predicates = new ArrayList<>();
-        for (String term : searchTerms) {
-            Predicate usernameLike = criteriaBuilder.like(criteriaBuilder.lower(usernamePath), '%' + term.toLowerCase() + '%');
-            predicates.add(usernameLike);
-        }
+            return criteriaBuilder.and(predicates.toArray(new Predicate[predicates.size()]));
+        };
 
-        CriteriaQuery<User> fullQuery = query.select(userRoot)
-                .where(criteriaBuilder.and(predicates.toArray(new Predicate[predicates.size()])))
-//                .orderBy(criteriaBuilder.desc(titlePath));
-                .orderBy(criteriaBuilder.desc(usernamePath));
-
-        TypedQuery<User> typedQuery = entityManager.createQuery(fullQuery);
-
-        int totalElements = typedQuery.getResultList().size();
-
-        typedQuery.setFirstResult(pageable.getPageNumber() * pageable.getPageSize());
-        typedQuery.setMaxResults(pageable.getPageSize());
-
-        Page<User> result = new PageImpl<User>(typedQuery.getResultList(), pageable, totalElements);
-
-        return result;
+        return findPage(entityManager, User.class, usernameLike, Sort.by("username").descending(), pageable);
     }
 }
@@ -1,14 +1,24 @@
 package com.kentcarmine.multitopicforum.repositories;
 
+import com.kentcarmine.multitopicforum.dtos.PostVoteCountsDto;
+import com.kentcarmine.multitopicforum.dtos.RecentPostDto;
+import com.kentcarmine.multitopicforum.dtos.ThreadActivityDto;
 import com.kentcarmine.multitopicforum.model.Post;
+import com.kentcarmine.multitopicforum.model.PostVoteState;
+import com.kentcarmine.multitopicforum.model.TopicForum;
 import com.kentcarmine.multitopicforum.model.TopicThread;
 import com.kentcarmine.multitopicforum.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
@@ -26,4 +36,138 @@ public interface PostRepository extends PagingAndSortingRepository<Post, Long> {
     Post findFirstByThreadOrderByPostedAtDesc(TopicThread thread);
 
     Post findFirstByThreadOrderByPostedAtAsc(TopicThread thread);
+
+    int countByThread(TopicThread thread);
+
+    int countByThreadForum(TopicForum forum);
+
+    Post findFirstByThreadForumOrderByPostedAtDesc(TopicForum forum);
+
+    /**
+     * Count the posts in the given thread that come before the post with the given posting time and ID, when the
+     * posts of the thread are ordered by posting time and then by ID.
+     */
+    @Query("SELECT COUNT(p) FROM Post p WHERE p.thread.id = :threadId " +
+            "AND (p.postedAt < :postedAt OR (p.postedAt = :postedAt AND p.id < :postId))")
+    long countPostsBeforeInThread(@Param("threadId") Long threadId, @Param("postedAt") Date postedAt,
+                                  @Param("postId") Long postId);
+
+    /**
+     * Get up to a page of the posts in the given thread that come after the given position, in posting order. Used for
+     * keyset pagination; the Pageable is only used to limit the number of results.
+     */
+    @Query("SELECT p FROM Post p WHERE p.thread = :thread " +
+            "AND (p.postedAt > :postedAt OR (p.postedAt = :postedAt AND p.id > :postId)) " +
+            "ORDER BY p.postedAt ASC, p.id ASC")
+    List<Post> findPostsInThreadAfter(@Param("thread") TopicThread thread, @Param("postedAt") Date postedAt,
+                                      @Param("postId") Long postId, Pageable pageable);
+
+    /**
+     * Get up to a page of the posts in the given thread that come before the given position, in reverse posting order.
+     * Used for keyset pagination; the Pageable is only used to limit the number of results.
+     */
+    @Query("SELECT p FROM Post p WHERE p.thread = :thread " +
+            "AND (p.postedAt < :postedAt OR (p.postedAt = :postedAt AND p.id < :postId)) " +
+            "ORDER BY p.postedAt DESC, p.id DESC")
+    List<Post> findPostsInThreadBefore(@Param("thread") TopicThread thread, @Param("postedAt") Date postedAt,
+                                       @Param("postId") Long postId, Pageable pageable);
+
+    /**
+     * Get the most recent posts in the given thread, in reverse posting order. Used for keyset pagination; the Pageable
+     * is only used to limit the number of results.
+     */
+    @Query("SELECT p FROM Post p WHERE p.thread = :thread ORDER BY p.postedAt DESC, p.id DESC")
+    List<Post> findLatestPostsInThread(@Param("thread") TopicThread thread, Pageable pageable);
+
+    /**
+     * Atomically add the given number of upvotes and downvotes to the denormalized vote totals of the post with the
+     * given ID.
+     */
+    @Modifying
+    @Query("UPDATE Post p SET p.upvoteCount = p.upvoteCount + :upvotes, " +
+            "p.downvoteCount = p.downvoteCount + :downvotes, " +
+            "p.voteScore = p.voteScore + :upvotes - :downvotes " +
+            "WHERE p.id = :postId")
+    int incrementVoteCounts(@Param("postId") Long postId, @Param("upvotes") int upvotes,
+                            @Param("downvotes") int downvotes);
+
+    /**
+     * Find the posts with the given IDs, along with their authors, the users who deleted them, and their threads and
+     * forums, in a single query.
+     */
+    @Query("SELECT p FROM Post p JOIN FETCH p.user LEFT JOIN FETCH p.deletedBy JOIN FETCH p.thread t " +
+            "JOIN FETCH t.forum WHERE p.id IN :postIds")
+    List<Post> findAllForModerationByIdIn(@Param("postIds") Collection<Long> postIds);
+
+    /**
+     * Flag every post with one of the given IDs that is not already deleted as deleted by the given user at the given
+     * time. Clears the persistence context afterwards, as any loaded copies of those posts are stale.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Post p SET p.deleted = true, p.deletedBy = :deletedBy, p.deletedAt = :deletedAt " +
+            "WHERE p.id IN :postIds AND p.deleted = false")
+    int markDeleted(@Param("postIds") Collection<Long> postIds, @Param("deletedBy") User deletedBy,
+                    @Param("deletedAt") Date deletedAt);
+
+    /**
+     * Restore every deleted post with one of the given IDs. Clears the persistence context afterwards, as any loaded
+     * copies of those posts are stale.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Post p SET p.deleted = false, p.deletedBy = NULL, p.deletedAt = NULL " +
+            "WHERE p.id IN :postIds AND p.deleted = true")
+    int markRestored(@Param("postIds") Collection<Long> postIds);
+
+    /**
+     * Delete every post of the thread with the given ID. The votes on the posts must be deleted first.
+     */
+    @Modifying
+    @Query("DELETE FROM Post p WHERE p.thread.id = :threadId")
+    int deleteAllByThreadId(@Param("threadId") Long threadId);
+
+    /**
+     * Find the IDs and denormalized vote totals of every post in the threads with the given IDs.
+     */
+    @Query("SELECT new com.kentcarmine.multitopicforum.dtos.PostVoteCountsDto(p.id, p.upvoteCount, p.downvoteCount) " +
+            "FROM Post p WHERE p.thread.id IN :threadIds")
+    List<PostVoteCountsDto> findVoteCountsByThreadIds(@Param("threadIds") Collection<Long> threadIds);
+
+    /**
+     * Find the thread, forum name and posting time of every post that is not deleted and was posted at or after the
+     * given time.
+     */
+    @Query("SELECT new com.kentcarmine.multitopicforum.dtos.ThreadActivityDto(t.id, f.name, t.title, p.postedAt) " +
+            "FROM Post p JOIN p.thread t JOIN t.forum f WHERE p.postedAt >= :since AND p.deleted = false")
+    List<ThreadActivityDto> findThreadActivitySince(@Param("since") Date since);
+
+    /**
+     * Find the most recent posts that are not deleted, newest first, with only the first contentLength characters of
+     * their content.
+     */
+    @Query("SELECT new com.kentcarmine.multitopicforum.dtos.RecentPostDto(p.id, t.id, f.name, t.title, u.username, " +
+            "SUBSTRING(p.content, 1, :contentLength), p.postedAt) " +
+            "FROM Post p JOIN p.thread t JOIN t.forum f JOIN p.user u WHERE p.deleted = false " +
+            "ORDER BY p.postedAt DESC, p.id DESC")
+    List<RecentPostDto> findLatestPosts(@Param("contentLength") int contentLength, Pageable pageable);
+
+    /**
+     * Recompute the denormalized upvote and downvote totals of every post whose totals do not match the votes stored
+     * in the post_vote table.
+     */
+    @Modifying
+    @Query("UPDATE Post p SET " +
+            "p.upvoteCount = (SELECT COUNT(pv) FROM PostVote pv WHERE pv.post = p AND pv.postVoteState = :upvote), " +
+            "p.downvoteCount = (SELECT COUNT(pv) FROM PostVote pv WHERE pv.post = p AND pv.postVoteState = :downvote) " +
+            "WHERE p.upvoteCount <> (SELECT COUNT(pv) FROM PostVote pv WHERE pv.post = p AND pv.postVoteState = :upvote) " +
+            "OR p.downvoteCount <> (SELECT COUNT(pv) FROM PostVote pv WHERE pv.post = p AND pv.postVoteState = :downvote)")
+    int reconcileUpvoteAndDownvoteCounts(@Param("upvote") PostVoteState upvote,
+                                         @Param("downvote") PostVoteState downvote);
+
+    /**
+     * Recompute the denormalized vote score of every post whose score does not match its upvote and downvote totals.
+     */
+    @Modifying
+    @Query("UPDATE Post p SET p.voteScore = p.upvoteCount - p.downvoteCount " +
+            "WHERE p.voteScore <> p.upvoteCount - p.downvoteCount")
+    int reconcileVoteScores();
 }
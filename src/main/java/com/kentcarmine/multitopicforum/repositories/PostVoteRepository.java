@@ -1,17 +1,38 @@
 package com.kentcarmine.multitopicforum.repositories;
 
+import com.kentcarmine.multitopicforum.dtos.PostVoteStateDto;
 import com.kentcarmine.multitopicforum.model.Post;
 import com.kentcarmine.multitopicforum.model.PostVote;
 import com.kentcarmine.multitopicforum.model.User;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
-public interface PostVoteRepository extends CrudRepository<PostVote, Long> {
+public interface PostVoteRepository extends CrudRepository<PostVote, Long>, CustomPostVoteRepository {
 
     PostVote findByUserAndPost(User user, Post post);
 
     List<PostVote> findAllByUser(User user);
 
     List<PostVote> findAllByPost(Post post);
+
+    /**
+     * Delete every vote on the posts of the thread with the given ID.
+     */
+    @Modifying
+    @Query("DELETE FROM PostVote pv WHERE pv.post.id IN (SELECT p.id FROM Post p WHERE p.thread.id = :threadId)")
+    int deleteAllByThreadId(@Param("threadId") Long threadId);
+
+    @Query("SELECT new com.kentcarmine.multitopicforum.dtos.PostVoteStateDto(pv.post.id, pv.postVoteState) " +
+            "FROM PostVote pv WHERE pv.user = :user")
+    List<PostVoteStateDto> findAllVoteStatesByUser(@Param("user") User user);
+
+    @Query("SELECT new com.kentcarmine.multitopicforum.dtos.PostVoteStateDto(pv.post.id, pv.postVoteState) " +
+            "FROM PostVote pv WHERE pv.user = :user AND pv.post.id IN :postIds")
+    List<PostVoteStateDto> findVoteStatesByUserAndPostIds(@Param("user") User user,
+                                                          @Param("postIds") Collection<Long> postIds);
 }
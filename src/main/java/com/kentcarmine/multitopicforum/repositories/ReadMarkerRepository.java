@@ -0,0 +1,23 @@
+package com.kentcarmine.multitopicforum.repositories;
+
+import com.kentcarmine.multitopicforum.model.ReadMarker;
+import com.kentcarmine.multitopicforum.model.ReadMarkerId;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ReadMarkerRepository extends CrudRepository<ReadMarker, ReadMarkerId> {
+
+    List<ReadMarker> findAllByUsernameAndThreadIdIn(String username, Collection<Long> threadIds);
+
+    /**
+     * Delete every user's marker of the thread with the given ID.
+     */
+    @Modifying
+    @Query("DELETE FROM ReadMarker m WHERE m.threadId = :threadId")
+    int deleteAllByThreadId(@Param("threadId") Long threadId);
+}
@@ -1,5 +1,6 @@
 package com.kentcarmine.multitopicforum.repositories;
 
+import com.kentcarmine.multitopicforum.dtos.TopicForumRowDto;
 import com.kentcarmine.multitopicforum.model.TopicForum;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -10,4 +11,6 @@ public interface SearchTopicForumRepository {
     List<TopicForum> searchTopicForums(String searchText);
 
     Page<TopicForum> searchTopicForumsPaginated(String searchText, Pageable page);
+
+    Page<TopicForumRowDto> searchTopicForumRowsPaginated(String searchText, Pageable page);
 }
@@ -1,13 +1,14 @@
 package com.kentcarmine.multitopicforum.repositories;
 
+import com.kentcarmine.multitopicforum.dtos.TopicForumRowDto;
 import com.kentcarmine.multitopicforum.model.TopicForum;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
-import javax.persistence.TypedQuery;
 import javax.persistence.criteria.*;
 import java.util.*;
 
@@ -16,6 +17,8 @@ import java.util.*;
  */
 public class SearchTopicForumRepositoryImpl extends AbstractSearchRepository implements SearchTopicForumRepository {
 
+    private static final Sort NAME_ASCENDING = Sort.by("name").ascending();
+
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -29,36 +32,27 @@ public class SearchTopicForumRepositoryImpl extends AbstractSearchRepository imp
      */
     @Override
     public Page<TopicForum> searchTopicForumsPaginated(String searchText, Pageable page) {
-        Set<String> searchTerms = splitAndEscapeSearchTerms(searchText);
-
-        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-        CriteriaQuery<TopicForum> query = criteriaBuilder.createQuery(TopicForum.class);
-        Root<TopicForum> topicForumRoot = query.from(TopicForum.class);
-
-        Path<String> namePath = topicForumRoot.get("name");
-        Path<String> descriptionPath = topicForumRoot.get("description");
-
-        Expression<String> totalTextExpr = criteriaBuilder.concat(criteriaBuilder.concat(namePath, " "), descriptionPath);
-
-        List<Predicate> predicates = new ArrayList<>();
-        for (String term : searchTerms) {
-            predicates.add(criteriaBuilder.like(criteriaBuilder.lower(totalTextExpr), '%' + term.toLowerCase() + '%'));
-        }
-
-        CriteriaQuery<TopicForum> fullQuery = query.select(topicForumRoot)
-                .where(criteriaBuilder.and(predicates.toArray(new Predicate[predicates.size()])))
-                .orderBy(criteriaBuilder.asc(topicForumRoot.get("name")));
-
-        TypedQuery<TopicForum> typedQuery = entityManager.createQuery(fullQuery);
-
-        int totalElements = typedQuery.getResultList().size();
-
-        typedQuery.setFirstResult(page.getPageNumber() * page.getPageSize());
-        typedQuery.setMaxResults(page.getPageSize());
-
-        Page<TopicForum> result = new PageImpl<TopicForum>(typedQuery.getResultList(), page, totalElements);
+        return findPage(entityManager, TopicForum.class, nameOrDescriptionSearchSpec(searchText), NAME_ASCENDING, page);
+    }
 
-        return result;
+    /**
+     * Searches for any TopicForums that include all search terms in searchText in their description and name, case
+     * insensitive, and returns the requested Page of rows representing those forums. Only the columns shown in the
+     * forum directory are selected.
+     *
+     * @param searchText a string of space-delimited search terms
+     * @return the requested Page of TopicForumRowDtos representing TopicForums that include all search terms in
+     * searchText in their description and name, case insensitive
+     */
+    @Override
+    public Page<TopicForumRowDto> searchTopicForumRowsPaginated(String searchText, Pageable page) {
+        return findPage(entityManager, TopicForum.class, TopicForumRowDto.class,
+                (topicForumRoot, criteriaBuilder) -> criteriaBuilder.construct(TopicForumRowDto.class,
+                        topicForumRoot.get("name"), topicForumRoot.get("description"),
+                        topicForumRoot.get("threadCount"), topicForumRoot.get("lastActivityAt"),
+                        topicForumRoot.get("lastPostId"), topicForumRoot.get("lastPostUsername"),
+                        topicForumRoot.get("lastPostThreadId"), topicForumRoot.get("lastPostThreadTitle")),
+                nameOrDescriptionSearchSpec(searchText), NAME_ASCENDING, page);
     }
 
     /**
@@ -91,4 +85,26 @@ public class SearchTopicForumRepositoryImpl extends AbstractSearchRepository imp
 
         return entityManager.createQuery(query).getResultList();
     }
+
+    /**
+     * Helper method that builds a specification matching the TopicForums that include all search terms in searchText in
+     * their description and name, case insensitive
+     */
+    private Specification<TopicForum> nameOrDescriptionSearchSpec(String searchText) {
+        Set<String> searchTerms = splitAndEscapeSearchTerms(searchText);
+
+        return (topicForumRoot, query, criteriaBuilder) -> {
+            Path<String> namePath = topicForumRoot.get("name");
+            Path<String> descriptionPath = topicForumRoot.get("description");
+
+            Expression<String> totalTextExpr = criteriaBuilder.concat(criteriaBuilder.concat(namePath, " "), descriptionPath);
+
+            List<Predicate> predicates = new ArrayList<>();
+            for (String term : searchTerms) {
+                predicates.add(criteriaBuilder.like(criteriaBuilder.lower(totalTextExpr), '%' + term.toLowerCase() + '%'));
+            }
+
+            return criteriaBuilder.and(predicates.toArray(new Predicate[predicates.size()]));
+        };
+    }
 }
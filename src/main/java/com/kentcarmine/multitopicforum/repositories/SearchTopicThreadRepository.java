@@ -3,11 +3,14 @@ package com.kentcarmine.multitopicforum.repositories;
 import com.kentcarmine.multitopicforum.model.TopicThread;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 public interface SearchTopicThreadRepository {
 
     Page<TopicThread> searchForTopicThreadsInForum(String forumName, String searchText, Pageable pageable);
 
+    Slice<TopicThread> searchForTopicThreadsInForumAsSlice(String forumName, String searchText, Pageable pageable);
+
     Page<TopicThread> getAllTopicThreadsPaginated(String forumName, Pageable pageable);
 
 }
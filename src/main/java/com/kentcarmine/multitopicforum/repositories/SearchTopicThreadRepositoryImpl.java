@@ -1,14 +1,14 @@
 package com.kentcarmine.multitopicforum.repositories;
 
-import com.kentcarmine.multitopicforum.model.Post;
 import com.kentcarmine.multitopicforum.model.TopicThread;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
-import javax.persistence.TypedQuery;
 import javax.persistence.criteria.*;
 import java.util.ArrayList;
 import java.util.List;
@@ -16,65 +16,46 @@ import java.util.Set;
 
 public class SearchTopicThreadRepositoryImpl extends AbstractSearchRepository implements SearchTopicThreadRepository {
 
+    private static final Sort MOST_RECENTLY_UPDATED_FIRST = Sort.by("updatedAt").descending();
+
     @PersistenceContext
     private EntityManager entityManager;
 
     public Page<TopicThread> searchForTopicThreadsInForum(String forumName, String searchText, Pageable pageable) {
-        Set<String> searchTerms = splitAndEscapeSearchTerms(searchText);
-
-        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-        CriteriaQuery<TopicThread> query = criteriaBuilder.createQuery(TopicThread.class);
-        Root<TopicThread> topicThreadRoot = query.from(TopicThread.class);
-
-        Path<String> titlePath = topicThreadRoot.get("title");
-        Path<String> forumNamePath = topicThreadRoot.get("forum").get("name");
-
-        List<Predicate> predicates = new ArrayList<>();
-        for (String term : searchTerms) {
-            Predicate forumNameEquals = criteriaBuilder.equal(forumNamePath, forumName);
-            Predicate titleLike = criteriaBuilder.like(criteriaBuilder.lower(titlePath), '%' + term.toLowerCase() + '%');
-            predicates.add(criteriaBuilder.and(titleLike, forumNameEquals));
-        }
-
-        CriteriaQuery<TopicThread> fullQuery = query.select(topicThreadRoot)
-                .where(criteriaBuilder.and(predicates.toArray(new Predicate[predicates.size()])))
-//                .orderBy(criteriaBuilder.desc(titlePath));
-                .orderBy(criteriaBuilder.desc(topicThreadRoot.get("updatedAt")));
-
-        TypedQuery<TopicThread> typedQuery = entityManager.createQuery(fullQuery);
-
-        int totalElements = typedQuery.getResultList().size();
-
-        typedQuery.setFirstResult(pageable.getPageNumber() * pageable.getPageSize());
-        typedQuery.setMaxResults(pageable.getPageSize());
-
-        Page<TopicThread> result = new PageImpl<TopicThread>(typedQuery.getResultList(), pageable, totalElements);
+        return findPage(entityManager, TopicThread.class, titleSearchSpec(forumName, searchText),
+                MOST_RECENTLY_UPDATED_FIRST, pageable);
+    }
 
-        return result;
+    public Slice<TopicThread> searchForTopicThreadsInForumAsSlice(String forumName, String searchText, Pageable pageable) {
+        return findSlice(entityManager, TopicThread.class, titleSearchSpec(forumName, searchText),
+                MOST_RECENTLY_UPDATED_FIRST, pageable);
     }
 
     public Page<TopicThread> getAllTopicThreadsPaginated(String forumName, Pageable pageable) {
-        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-        CriteriaQuery<TopicThread> query = criteriaBuilder.createQuery(TopicThread.class);
-        Root<TopicThread> topicThreadRoot = query.from(TopicThread.class);
-
-        Path<String> forumNamePath = topicThreadRoot.get("forum").get("name");
+        Specification<TopicThread> inForum = (topicThreadRoot, query, criteriaBuilder) ->
+                criteriaBuilder.equal(topicThreadRoot.get("forum").get("name"), forumName);
 
-        Predicate forumNamePredicate = criteriaBuilder.equal(forumNamePath, forumName);
-
-        CriteriaQuery<TopicThread> fullQuery = query.select(topicThreadRoot)
-                .where(forumNamePredicate)
-                .orderBy(criteriaBuilder.desc(topicThreadRoot.get("updatedAt")));
-
-        TypedQuery<TopicThread> typedQuery = entityManager.createQuery(fullQuery);
+        return findPage(entityManager, TopicThread.class, inForum, MOST_RECENTLY_UPDATED_FIRST, pageable);
+    }
 
-        int totalElements = typedQuery.getResultList().size();
+    /**
+     * Helper method that builds a specification matching the TopicThreads in the given forum whose titles include all
+     * search terms in searchText, case insensitive
+     */
+    private Specification<TopicThread> titleSearchSpec(String forumName, String searchText) {
+        Set<String> searchTerms = splitAndEscapeSearchTerms(searchText);
 
-        typedQuery.setFirstResult(pageable.getPageNumber() * pageable.getPageSize());
-        typedQuery.setMaxResults(pageable.getPageSize());
+        return (topicThreadRoot, query, criteriaBuilder) -> {
+            Path<String> titlePath = topicThreadRoot.get("title");
+            Path<String> forumNamePath = topicThreadRoot.get("forum").get("name");
 
-        Page<TopicThread> result = new PageImpl<>(typedQuery.getResultList(), pageable, totalElements);
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(criteriaBuilder.equal(forumNamePath, forumName));
+            for (String term : searchTerms) {
+                predicates.add(criteriaBuilder.like(criteriaBuilder.lower(titlePath), '%' + term.toLowerCase() + '%'));
+            }
 
-        return result;
+            return criteriaBuilder.and(predicates.toArray(new Predicate[predicates.size()]));
+        };
     }
 }
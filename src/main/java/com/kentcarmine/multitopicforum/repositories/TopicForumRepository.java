@@ -1,12 +1,17 @@
 package com.kentcarmine.multitopicforum.repositories;
 
+import com.kentcarmine.multitopicforum.dtos.TopicForumRowDto;
 import com.kentcarmine.multitopicforum.model.TopicForum;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -20,5 +25,89 @@ public interface TopicForumRepository extends PagingAndSortingRepository<TopicFo
 
     Page<TopicForum> findAll(Pageable pageable);
 
+    /**
+     * Find the requested Page of rows representing all forums, for the forum directory. Only the forum's own columns are
+     * selected, so no threads or posts are loaded.
+     */
+    @Query(value = "SELECT new com.kentcarmine.multitopicforum.dtos.TopicForumRowDto(f.name, f.description, " +
+            "f.threadCount, f.lastActivityAt, f.lastPostId, f.lastPostUsername, f.lastPostThreadId, " +
+            "f.lastPostThreadTitle) FROM TopicForum f",
+            countQuery = "SELECT COUNT(f) FROM TopicForum f")
+    Page<TopicForumRowDto> findAllForumRows(Pageable pageable);
+
     Page<TopicForum> findByNameLikeIgnoreCaseOrDescriptionLikeIgnoreCase(String searchTerm, String duplicateSearchTerm, Pageable pageable);
+
+    /**
+     * Atomically add one to the denormalized thread count of the forum with the given name.
+     */
+    @Modifying
+    @Query("UPDATE TopicForum f SET f.threadCount = f.threadCount + 1 WHERE f.name = :forumName")
+    int incrementThreadCount(@Param("forumName") String forumName);
+
+    /**
+     * Atomically update the denormalized aggregates of the forum with the given name to account for a newly created
+     * post.
+     */
+    @Modifying
+    @Query("UPDATE TopicForum f SET f.postCount = f.postCount + 1, f.lastActivityAt = :postedAt, " +
+            "f.lastPostId = :postId, f.lastPostUsername = :username, " +
+            "f.lastPostThreadId = :threadId, f.lastPostThreadTitle = :threadTitle, f.lastModifiedAt = :postedAt " +
+            "WHERE f.name = :forumName")
+    int recordNewPost(@Param("forumName") String forumName, @Param("threadId") Long threadId,
+                      @Param("threadTitle") String threadTitle, @Param("postId") Long postId,
+                      @Param("username") String username, @Param("postedAt") Date postedAt);
+
+    /**
+     * Atomically update the denormalized thread and post counts of the forum with the given name to account for one of
+     * its threads, with the given number of posts, being archived.
+     */
+    @Modifying
+    @Query("UPDATE TopicForum f SET f.threadCount = f.threadCount - 1, f.postCount = f.postCount - :postCount " +
+            "WHERE f.name = :forumName")
+    int recordThreadArchived(@Param("forumName") String forumName, @Param("postCount") int postCount);
+
+    /**
+     * Overwrite the denormalized latest post of the forum with the given name.
+     */
+    @Modifying
+    @Query("UPDATE TopicForum f SET f.lastActivityAt = :lastActivityAt, f.lastPostId = :lastPostId, " +
+            "f.lastPostUsername = :lastPostUsername, f.lastPostThreadId = :lastPostThreadId, " +
+            "f.lastPostThreadTitle = :lastPostThreadTitle " +
+            "WHERE f.name = :forumName")
+    int updateLastPost(@Param("forumName") String forumName, @Param("lastActivityAt") Date lastActivityAt,
+                       @Param("lastPostId") Long lastPostId, @Param("lastPostUsername") String lastPostUsername,
+                       @Param("lastPostThreadId") Long lastPostThreadId,
+                       @Param("lastPostThreadTitle") String lastPostThreadTitle);
+
+    /**
+     * Overwrite the denormalized aggregates of the forum with the given name.
+     */
+    @Modifying
+    @Query("UPDATE TopicForum f SET f.threadCount = :threadCount, f.postCount = :postCount, " +
+            "f.lastActivityAt = :lastActivityAt, f.lastPostId = :lastPostId, f.lastPostUsername = :lastPostUsername, " +
+            "f.lastPostThreadId = :lastPostThreadId, f.lastPostThreadTitle = :lastPostThreadTitle, " +
+            "f.lastModifiedAt = CURRENT_TIMESTAMP " +
+            "WHERE f.name = :forumName")
+    int updateAggregates(@Param("forumName") String forumName, @Param("threadCount") int threadCount,
+                         @Param("postCount") int postCount, @Param("lastActivityAt") Date lastActivityAt,
+                         @Param("lastPostId") Long lastPostId, @Param("lastPostUsername") String lastPostUsername,
+                         @Param("lastPostThreadId") Long lastPostThreadId,
+                         @Param("lastPostThreadTitle") String lastPostThreadTitle);
+
+    /**
+     * Record that something shown on the page of the forum with the given name changed at the given time.
+     */
+    @Modifying
+    @Query("UPDATE TopicForum f SET f.lastModifiedAt = :modifiedAt WHERE f.name = :forumName")
+    int markModified(@Param("forumName") String forumName, @Param("modifiedAt") Date modifiedAt);
+
+    /**
+     * Find every forum whose denormalized thread or post count does not match the live threads and posts it contains,
+     * or whose denormalized latest post is no longer live. Archived threads and posts are not counted.
+     */
+    @Query("SELECT f FROM TopicForum f " +
+            "WHERE f.threadCount <> (SELECT COUNT(t) FROM TopicThread t WHERE t.forum = f) " +
+            "OR f.postCount <> (SELECT COUNT(p) FROM Post p WHERE p.thread.forum = f) " +
+            "OR (f.lastPostId IS NOT NULL AND NOT EXISTS (SELECT p FROM Post p WHERE p.id = f.lastPostId))")
+    List<TopicForum> findForumsWithStaleAggregates();
 }
@@ -1,10 +1,22 @@
 package com.kentcarmine.multitopicforum.repositories;
 
+import com.kentcarmine.multitopicforum.dtos.TopicThreadRowDto;
+import com.kentcarmine.multitopicforum.model.TopicForum;
 import com.kentcarmine.multitopicforum.model.TopicThread;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -14,4 +26,91 @@ import java.util.List;
 public interface TopicThreadRepository extends PagingAndSortingRepository<TopicThread, Long>, SearchTopicThreadRepository {
 
     List<TopicThread> findByTitleLikeIgnoreCaseAndForumNameIsIgnoreCase(String title, String forumName);
+
+    int countByForum(TopicForum forum);
+
+    /**
+     * Find the requested Page of rows representing the threads in the forum with the given name, most recently updated
+     * first. Only the thread's own columns are selected, so no associated entities are loaded.
+     */
+    @Query(value = "SELECT new com.kentcarmine.multitopicforum.dtos.TopicThreadRowDto(t.id, t.title, t.isLocked, " +
+            "t.createdAt, t.updatedAt, t.postCount, t.firstPostId, t.firstPostUsername, t.firstPostedAt, " +
+            "t.lastPostId, t.lastPostUsername, t.lastPostedAt) " +
+            "FROM TopicThread t WHERE t.forum.name = :forumName ORDER BY t.updatedAt DESC, t.id DESC",
+            countQuery = "SELECT COUNT(t) FROM TopicThread t WHERE t.forum.name = :forumName")
+    Page<TopicThreadRowDto> findThreadRowsByForumName(@Param("forumName") String forumName, Pageable pageable);
+
+    /**
+     * Atomically update the denormalized post summary of the thread with the given ID to account for a newly created
+     * post. The first post fields are only set if the thread did not already have a first post.
+     */
+    @Modifying
+    @Query("UPDATE TopicThread t SET t.postCount = t.postCount + 1, " +
+            "t.firstPostId = COALESCE(t.firstPostId, :postId), " +
+            "t.firstPostUsername = COALESCE(t.firstPostUsername, :username), " +
+            "t.firstPostedAt = COALESCE(t.firstPostedAt, :postedAt), " +
+            "t.lastPostId = :postId, t.lastPostUsername = :username, t.lastPostedAt = :postedAt, " +
+            "t.lastModifiedAt = :postedAt " +
+            "WHERE t.id = :threadId")
+    int recordNewPost(@Param("threadId") Long threadId, @Param("postId") Long postId,
+                      @Param("username") String username, @Param("postedAt") Date postedAt);
+
+    /**
+     * Overwrite the denormalized post summary of the thread with the given ID.
+     */
+    @Modifying
+    @Query("UPDATE TopicThread t SET t.postCount = :postCount, " +
+            "t.firstPostId = :firstPostId, t.firstPostUsername = :firstPostUsername, t.firstPostedAt = :firstPostedAt, " +
+            "t.lastPostId = :lastPostId, t.lastPostUsername = :lastPostUsername, t.lastPostedAt = :lastPostedAt, " +
+            "t.lastModifiedAt = CURRENT_TIMESTAMP " +
+            "WHERE t.id = :threadId")
+    int updatePostSummary(@Param("threadId") Long threadId, @Param("postCount") int postCount,
+                          @Param("firstPostId") Long firstPostId, @Param("firstPostUsername") String firstPostUsername,
+                          @Param("firstPostedAt") Date firstPostedAt, @Param("lastPostId") Long lastPostId,
+                          @Param("lastPostUsername") String lastPostUsername, @Param("lastPostedAt") Date lastPostedAt);
+
+    /**
+     * Record that something shown on the page of the thread with the given ID changed at the given time.
+     */
+    @Modifying
+    @Query("UPDATE TopicThread t SET t.lastModifiedAt = :modifiedAt WHERE t.id = :threadId")
+    int markModified(@Param("threadId") Long threadId, @Param("modifiedAt") Date modifiedAt);
+
+    /**
+     * Record that something shown on the pages of the threads with the given IDs changed at the given time.
+     */
+    @Modifying
+    @Query("UPDATE TopicThread t SET t.lastModifiedAt = :modifiedAt WHERE t.id IN :threadIds")
+    int markAllModified(@Param("threadIds") Collection<Long> threadIds, @Param("modifiedAt") Date modifiedAt);
+
+    /**
+     * Find the IDs of the requested number of threads whose pages changed most recently.
+     */
+    @Query("SELECT t.id FROM TopicThread t ORDER BY t.lastModifiedAt DESC, t.id DESC")
+    List<Long> findRecentlyModifiedThreadIds(Pageable pageable);
+
+    /**
+     * Find the IDs of the requested number of threads that have not been updated since the given time, least recently
+     * updated first.
+     */
+    @Query("SELECT t.id FROM TopicThread t WHERE t.updatedAt < :inactiveSince ORDER BY t.updatedAt ASC, t.id ASC")
+    List<Long> findIdsOfThreadsInactiveSince(@Param("inactiveSince") Date inactiveSince, Pageable pageable);
+
+    /**
+     * Find the thread with the given ID and lock its row until the end of the transaction, so that no post can be added
+     * to it while it is being archived.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM TopicThread t JOIN FETCH t.forum WHERE t.id = :threadId")
+    TopicThread findByIdForArchival(@Param("threadId") Long threadId);
+
+    @Modifying
+    @Query("DELETE FROM TopicThread t WHERE t.id = :threadId")
+    int deleteThreadById(@Param("threadId") Long threadId);
+
+    /**
+     * Find every thread whose denormalized post count does not match the number of posts it contains.
+     */
+    @Query("SELECT t FROM TopicThread t WHERE t.postCount <> (SELECT COUNT(p) FROM Post p WHERE p.thread = t)")
+    List<TopicThread> findThreadsWithStalePostSummary();
 }
@@ -2,10 +2,16 @@ package com.kentcarmine.multitopicforum.repositories;
 
 import com.kentcarmine.multitopicforum.model.User;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 
 @Repository
@@ -16,4 +22,49 @@ public interface UserRepository extends PagingAndSortingRepository<User, String>
 
     List<User> findByUsernameLikeIgnoreCase(String searchText);
 
+    List<User> findAllByUsernameIn(Collection<String> usernames);
+
+    @Query("SELECT u.username FROM User u")
+    List<String> findAllUsernames();
+
+    /**
+     * Get the usernames matching the given lower case LIKE pattern, ignoring case, in ascending order.
+     */
+    @Query("SELECT u.username FROM User u WHERE LOWER(u.username) LIKE :pattern ESCAPE '\\' ORDER BY u.username")
+    List<String> findUsernamesLikeIgnoreCase(@Param("pattern") String pattern, Pageable pageable);
+
+    /**
+     * Atomically add one to the denormalized post count of the user with the given username.
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.postCount = u.postCount + 1 WHERE u.username = :username")
+    int incrementPostCount(@Param("username") String username);
+
+    /**
+     * Recompute the denormalized post count of every user whose count does not match the number of posts they have
+     * made. Posts in archived threads are counted too, since they are still shown under their author.
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.postCount = (SELECT COUNT(p) FROM Post p WHERE p.user = u) + " +
+            "(SELECT COUNT(a) FROM ArchivedPost a WHERE a.user = u) " +
+            "WHERE u.postCount <> (SELECT COUNT(p) FROM Post p WHERE p.user = u) + " +
+            "(SELECT COUNT(a) FROM ArchivedPost a WHERE a.user = u)")
+    int reconcilePostCounts();
+
+    /**
+     * Set the last active time of the user with the given username, unless it is already later than the given time.
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.lastActiveAt = :lastActiveAt " +
+            "WHERE u.username = :username AND (u.lastActiveAt IS NULL OR u.lastActiveAt < :lastActiveAt)")
+    int updateLastActiveAt(@Param("username") String username, @Param("lastActiveAt") Date lastActiveAt);
+
+    /**
+     * Set the last active time of every user who has none but has made posts to the time of their latest post.
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.lastActiveAt = (SELECT MAX(p.postedAt) FROM Post p WHERE p.user = u) " +
+            "WHERE u.lastActiveAt IS NULL AND EXISTS (SELECT p FROM Post p WHERE p.user = u)")
+    int backfillLastActiveAt();
+
 }
@@ -0,0 +1,21 @@
+package com.kentcarmine.multitopicforum.services;
+
+import com.kentcarmine.multitopicforum.dtos.RecentActivityPageDto;
+import com.kentcarmine.multitopicforum.dtos.RecentPostDto;
+import com.kentcarmine.multitopicforum.model.Post;
+
+import java.util.List;
+
+public interface ActivityFeedService {
+    void recordPost(Post post);
+
+    void setPostDeleted(Long postId, boolean deleted);
+
+    List<RecentPostDto> getRecentPosts(int limit);
+
+    RecentActivityPageDto getRecentPostsPage(int page);
+
+    int getHomePageSize();
+
+    int warmLoad();
+}
@@ -0,0 +1,186 @@
+package com.kentcarmine.multitopicforum.services;
+
+import com.kentcarmine.multitopicforum.dtos.RecentActivityPageDto;
+import com.kentcarmine.multitopicforum.dtos.RecentPostDto;
+import com.kentcarmine.multitopicforum.helpers.RingBuffer;
+import com.kentcarmine.multitopicforum.model.Post;
+import com.kentcarmine.multitopicforum.repositories.PostRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Service that holds the most recent posts across all forums in a fixed-size in-memory RingBuffer, so that the recent
+ * activity feed can be served without querying or sorting the post table. New posts are added as they are created, and
+ * the buffer is filled with the latest posts at startup. Deleted posts stay in the buffer but are left out of the feed
+ * until they are restored.
+ */
+@Service
+public class ActivityFeedServiceImpl implements ActivityFeedService {
+
+    @Value("${com.kentcarmine.multitopicforum.activity-feed.capacity}")
+    private int CAPACITY;
+
+    @Value("${com.kentcarmine.multitopicforum.activity-feed.page-size}")
+    private int PAGE_SIZE;
+
+    @Value("${com.kentcarmine.multitopicforum.activity-feed.home-page-size}")
+    private int HOME_PAGE_SIZE;
+
+    @Value("${Post.abbreviatedContent.length}")
+    private int ABBREVIATED_CONTENT_LENGTH;
+
+    private final PostRepository postRepository;
+
+    private RingBuffer<RecentPostDto> recentPosts;
+
+    @Autowired
+    public ActivityFeedServiceImpl(PostRepository postRepository) {
+        this.postRepository = postRepository;
+    }
+
+    /**
+     * Add the given newly created post to the feed.
+     *
+     * @param post the created post
+     */
+    @Override
+    public void recordPost(Post post) {
+        RecentPostDto recentPost = new RecentPostDto(post.getId(), post.getThread().getId(),
+                post.getThread().getForum().getName(), post.getThread().getTitle(), post.getUser().getUsername(),
+                post.getAbbreviatedContent(ABBREVIATED_CONTENT_LENGTH), post.getPostedAt());
+
+        synchronized (this) {
+            getRecentPostsBuffer().add(recentPost);
+        }
+    }
+
+    /**
+     * Mark the post with the given ID as deleted or restored, if it is in the feed.
+     *
+     * @param postId the ID of the post
+     * @param deleted true if the post was deleted, false if it was restored
+     */
+    @Override
+    public synchronized void setPostDeleted(Long postId, boolean deleted) {
+        RingBuffer<RecentPostDto> buffer = getRecentPostsBuffer();
+        for (int i = 0; i < buffer.size(); i++) {
+            RecentPostDto recentPost = buffer.getNewest(i);
+            if (recentPost.getPostId().equals(postId)) {
+                recentPost.setDeleted(deleted);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Get up to the given number of the most recent posts that are not deleted, newest first.
+     *
+     * @param limit the maximum number of posts to get
+     * @return the most recent posts, newest first
+     */
+    @Override
+    public List<RecentPostDto> getRecentPosts(int limit) {
+        List<RecentPostDto> posts = getVisibleRecentPosts();
+        return new ArrayList<>(posts.subList(0, Math.min(limit, posts.size())));
+    }
+
+    /**
+     * Get the given page of the feed, or null if the page number is invalid. Pages hold the configured number of posts
+     * and are numbered from 1.
+     *
+     * @param page the number of the page
+     * @return the given page of the feed, or null if the page number is invalid
+     */
+    @Override
+    public RecentActivityPageDto getRecentPostsPage(int page) {
+        List<RecentPostDto> posts = getVisibleRecentPosts();
+        int start = (page - 1) * PAGE_SIZE;
+        if (page < 1 || (start >= posts.size() && page > 1)) {
+            return null;
+        }
+
+        int end = Math.min(start + PAGE_SIZE, posts.size());
+        return new RecentActivityPageDto(new ArrayList<>(posts.subList(start, end)), page, end < posts.size());
+    }
+
+    @Override
+    public int getHomePageSize() {
+        return HOME_PAGE_SIZE;
+    }
+
+    /**
+     * Fill the feed with the latest posts, keeping any posts added to it since startup.
+     *
+     * @return the number of posts loaded
+     */
+    @Override
+    public int warmLoad() {
+        // One character more than is shown is loaded, so that abbreviated content is marked as such
+        List<RecentPostDto> latestPosts = postRepository.findLatestPosts(ABBREVIATED_CONTENT_LENGTH + 1,
+                PageRequest.of(0, CAPACITY));
+        for (RecentPostDto post : latestPosts) {
+            post.setContent(abbreviate(post.getContent()));
+        }
+
+        synchronized (this) {
+            RingBuffer<RecentPostDto> buffer = getRecentPostsBuffer();
+            List<RecentPostDto> addedPosts = buffer.toListNewestFirst();
+            Set<Long> addedPostIds = new HashSet<>();
+            for (RecentPostDto post : addedPosts) {
+                addedPostIds.add(post.getPostId());
+            }
+
+            buffer.clear();
+            for (int i = latestPosts.size() - 1; i >= 0; i--) {
+                if (!addedPostIds.contains(latestPosts.get(i).getPostId())) {
+                    buffer.add(latestPosts.get(i));
+                }
+            }
+            for (int i = addedPosts.size() - 1; i >= 0; i--) {
+                buffer.add(addedPosts.get(i));
+            }
+        }
+
+        return latestPosts.size();
+    }
+
+    /**
+     * Helper method that gets the posts in the feed that are not deleted, newest first.
+     */
+    private synchronized List<RecentPostDto> getVisibleRecentPosts() {
+        RingBuffer<RecentPostDto> buffer = getRecentPostsBuffer();
+        List<RecentPostDto> posts = new ArrayList<>(buffer.size());
+        for (int i = 0; i < buffer.size(); i++) {
+            RecentPostDto recentPost = buffer.getNewest(i);
+            if (!recentPost.isDeleted()) {
+                posts.add(recentPost);
+            }
+        }
+        return posts;
+    }
+
+    /**
+     * Helper method that gets the buffer, creating it on first use once its capacity has been injected.
+     */
+    private synchronized RingBuffer<RecentPostDto> getRecentPostsBuffer() {
+        if (recentPosts == null) {
+            recentPosts = new RingBuffer<>(CAPACITY);
+        }
+        return recentPosts;
+    }
+
+    /**
+     * Helper method that abbreviates the given content in the same way as Post.getAbbreviatedContent.
+     */
+    private String abbreviate(String content) {
+        if (content.length() <= ABBREVIATED_CONTENT_LENGTH) {
+            return content;
+        } else {
+            return content.substring(0, ABBREVIATED_CONTENT_LENGTH) + "...";
+        }
+    }
+}
@@ -2,7 +2,6 @@ package com.kentcarmine.multitopicforum.services;
 
 
 import com.kentcarmine.multitopicforum.dtos.TopicForumDto;
-import com.kentcarmine.multitopicforum.dtos.TopicForumViewDto;
 import com.kentcarmine.multitopicforum.dtos.TopicForumViewDtoLight;
 import com.kentcarmine.multitopicforum.exceptions.DuplicateForumNameException;
 import com.kentcarmine.multitopicforum.model.TopicForum;
@@ -24,11 +23,13 @@ public interface ForumService {
 
     TopicForum createForum(TopicForum topicForum) throws DuplicateForumNameException;
 
-    Page<TopicForumViewDto> getForumsAsViewDtosPaginated(int pageNum, int resultsPerPage);
+    Page<TopicForumViewDtoLight> getForumsAsViewDtosPaginated(int pageNum, int resultsPerPage);
 
     Page<TopicForum> searchTopicForumsWithCustomQuery(String searchText, int page, int resultsPerPage);
 
-    Page<TopicForumViewDto> searchTopicForumsForViewDtosWithCustomQuery(String searchText, int page, int resultsPerPage);
+    Page<TopicForumViewDtoLight> searchTopicForumsForViewDtosWithCustomQuery(String searchText, int page, int resultsPerPage);
 
     TopicForumViewDtoLight getTopicForumViewDtoLightForTopicForum(TopicForum topicForum);
+
+    int reconcileForumAggregates();
 }
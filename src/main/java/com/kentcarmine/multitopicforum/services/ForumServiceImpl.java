@@ -5,9 +5,12 @@ import com.kentcarmine.multitopicforum.converters.TopicForumDtoToTopicForumConve
 import com.kentcarmine.multitopicforum.dtos.*;
 import com.kentcarmine.multitopicforum.exceptions.DuplicateForumNameException;
 import com.kentcarmine.multitopicforum.helpers.SearchParserHelper;
+import com.kentcarmine.multitopicforum.model.Post;
 import com.kentcarmine.multitopicforum.model.TopicForum;
 import com.kentcarmine.multitopicforum.model.TopicThread;
+import com.kentcarmine.multitopicforum.repositories.PostRepository;
 import com.kentcarmine.multitopicforum.repositories.TopicForumRepository;
+import com.kentcarmine.multitopicforum.repositories.TopicThreadRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.*;
@@ -25,16 +28,21 @@ import java.util.stream.Collectors;
 public class ForumServiceImpl implements ForumService {
 
     private final TopicForumRepository topicForumRepository;
+    private final TopicThreadRepository topicThreadRepository;
+    private final PostRepository postRepository;
     private final TopicForumDtoToTopicForumConverter topicForumDtoToTopicForumConverter;
     private final ForumHierarchyConverter forumHierarchyConverter;
     private final TimeCalculatorService timeCalculatorService;
 
     @Autowired
-    public ForumServiceImpl(TopicForumRepository topicForumRepository,
+    public ForumServiceImpl(TopicForumRepository topicForumRepository, TopicThreadRepository topicThreadRepository,
+                            PostRepository postRepository,
                             TopicForumDtoToTopicForumConverter topicForumDtoToTopicForumConverter,
                             ForumHierarchyConverter forumHeirarchyConverter,
                             TimeCalculatorService timeCalculatorService) {
         this.topicForumRepository = topicForumRepository;
+        this.topicThreadRepository = topicThreadRepository;
+        this.postRepository = postRepository;
         this.topicForumDtoToTopicForumConverter = topicForumDtoToTopicForumConverter;
         this.forumHierarchyConverter = forumHeirarchyConverter;
         this.timeCalculatorService = timeCalculatorService;
@@ -84,14 +92,14 @@ public class ForumServiceImpl implements ForumService {
      * @return a Page that is a slice of all forums as ForumViewDtos sorted in alphabetical order by name (ignoring case)
      */
     @Override
-    public Page<TopicForumViewDto> getForumsAsViewDtosPaginated(int pageNum, int resultsPerPage) {
+    public Page<TopicForumViewDtoLight> getForumsAsViewDtosPaginated(int pageNum, int resultsPerPage) {
         if (pageNum - 1 < 0) {
             return null;
         }
 
         Pageable pageReq = PageRequest.of(pageNum - 1, resultsPerPage,
                 Sort.by(Sort.Order.by("name").ignoreCase()).ascending());
-        Page<TopicForum> forumPage = topicForumRepository.findAll(pageReq);
+        Page<TopicForumRowDto> forumPage = topicForumRepository.findAllForumRows(pageReq);
 
 //        if (pageNum > forumPage.getTotalPages()) {
 //            return null;
@@ -101,19 +109,7 @@ public class ForumServiceImpl implements ForumService {
             return null;
         }
 
-        List<TopicForumViewDto> forumDtoList = new ArrayList<>();
-
-        for (TopicForum forum : forumPage) {
-            TopicForumViewDto forumDto = forumHierarchyConverter.convertForum(forum);
-            String mostRecentUpdateMsg = timeCalculatorService.getTimeSinceForumUpdatedMessage(forumDto);
-            forumDto.setUpdateTimeDifferenceMessage(mostRecentUpdateMsg);
-            forumDtoList.add(forumDto);
-        }
-
-        Page<TopicForumViewDto> forumViewDtoPage =
-                new PageImpl<TopicForumViewDto>(forumDtoList, pageReq, forumPage.getTotalElements());
-
-        return forumViewDtoPage;
+        return convertForumRowsToViewDtos(forumPage);
     }
 
     /**
@@ -126,25 +122,39 @@ public class ForumServiceImpl implements ForumService {
      * page number, or null if no such page exists.
      */
     @Override
-    public Page<TopicForumViewDto> searchTopicForumsForViewDtosWithCustomQuery(String searchText, int page, int resultsPerPage) {
-        Page<TopicForum> entityResults = searchTopicForumsWithCustomQuery(searchText, page, resultsPerPage);
-
-        if (entityResults == null) {
+    public Page<TopicForumViewDtoLight> searchTopicForumsForViewDtosWithCustomQuery(String searchText, int page, int resultsPerPage) {
+        if (page - 1 < 0) {
             return null;
         }
 
-        List<TopicForumViewDto> topicForumViewDtoList = new ArrayList<>();
+        PageRequest pageReq = PageRequest.of(page - 1, resultsPerPage, Sort.by(Sort.Order.by("name").ignoreCase()).descending());
+        Page<TopicForumRowDto> rowResults = topicForumRepository.searchTopicForumRowsPaginated(searchText, pageReq);
 
-        for (TopicForum forum : entityResults) {
-            TopicForumViewDto dto = forumHierarchyConverter.convertForum(forum);
-            String mostRecentUpdateMsg = timeCalculatorService.getTimeSinceForumUpdatedMessage(dto);
-            dto.setUpdateTimeDifferenceMessage(mostRecentUpdateMsg);
-            topicForumViewDtoList.add(dto);
+        if (rowResults.getTotalElements() > 0 && page > rowResults.getTotalPages()) {
+            return null;
         }
 
-        Page<TopicForumViewDto> dtoResults = new PageImpl<TopicForumViewDto>(topicForumViewDtoList, entityResults.getPageable(), entityResults.getTotalElements());
+        return convertForumRowsToViewDtos(rowResults);
+    }
 
-        return dtoResults;
+    /**
+     * Helper method that converts a Page of TopicForumRowDtos into a Page of TopicForumViewDtoLights, including the
+     * message describing how long ago each forum was last updated.
+     *
+     * @param rows the Page of TopicForumRowDtos to convert
+     * @return the Page of TopicForumViewDtoLights representing rows
+     */
+    private Page<TopicForumViewDtoLight> convertForumRowsToViewDtos(Page<TopicForumRowDto> rows) {
+        List<TopicForumViewDtoLight> forumDtoList = new ArrayList<>();
+
+        for (TopicForumRowDto row : rows) {
+            TopicForumViewDtoLight forumDto = forumHierarchyConverter.convertForumRow(row);
+            String mostRecentUpdateMsg = timeCalculatorService.getTimeSinceForumUpdatedMessage(forumDto);
+            forumDto.setUpdateTimeDifferenceMessage(mostRecentUpdateMsg);
+            forumDtoList.add(forumDto);
+        }
+
+        return new PageImpl<TopicForumViewDtoLight>(forumDtoList, rows.getPageable(), rows.getTotalElements());
     }
 
     /**
@@ -188,16 +198,16 @@ public class ForumServiceImpl implements ForumService {
         if (mostRecentPost != null) {
             threadViewDto = mostRecentPost.getThread();
 
-            threadViewDto.setCreationTimeDifferenceMessage(timeCalculatorService.getTimeSinceThreadCreationMessage(threadViewDto));
-            threadViewDto.setUpdateTimeDifferenceMessage(timeCalculatorService.getTimeSinceThreadUpdatedMessage(threadViewDto));
-
             PostViewDto firstPost = threadViewDto.getFirstPost();
             PostViewDto lastPost = threadViewDto.getLastPost();
 
             if (firstPost != null) {
+                threadViewDto.setCreationTimeDifferenceMessage(timeCalculatorService.getTimeSinceThreadCreationMessage(threadViewDto));
                 firstPost.setCreationTimeDifferenceMessage(timeCalculatorService.getTimeSincePostCreationMessage(firstPost));
             }
 
+            threadViewDto.setUpdateTimeDifferenceMessage(timeCalculatorService.getTimeSinceThreadUpdatedMessage(threadViewDto));
+
             if (lastPost != null) {
                 lastPost.setCreationTimeDifferenceMessage(timeCalculatorService.getTimeSincePostCreationMessage(lastPost));
             }
@@ -205,4 +215,34 @@ public class ForumServiceImpl implements ForumService {
 
         return forumViewDto;
     }
+
+    /**
+     * Recomputes the denormalized aggregates (thread count, post count and most recent post) of every TopicForum whose
+     * thread or post count does not match the threads and posts it contains, for example because they were inserted
+     * without going through the thread and post services.
+     *
+     * @return the number of forums whose aggregates were corrected
+     */
+    @Transactional
+    @Override
+    public int reconcileForumAggregates() {
+        List<TopicForum> staleForums = topicForumRepository.findForumsWithStaleAggregates();
+
+        for (TopicForum forum : staleForums) {
+            int threadCount = topicThreadRepository.countByForum(forum);
+            int postCount = postRepository.countByThreadForum(forum);
+            Post lastPost = postRepository.findFirstByThreadForumOrderByPostedAtDesc(forum);
+
+            if (lastPost == null) {
+                topicForumRepository.updateAggregates(forum.getName(), threadCount, postCount, null, null, null, null,
+                        null);
+            } else {
+                topicForumRepository.updateAggregates(forum.getName(), threadCount, postCount, lastPost.getPostedAt(),
+                        lastPost.getId(), lastPost.getUser().getUsername(), lastPost.getThread().getId(),
+                        lastPost.getThread().getTitle());
+            }
+        }
+
+        return staleForums.size();
+    }
 }
@@ -0,0 +1,19 @@
+package com.kentcarmine.multitopicforum.services;
+
+import com.kentcarmine.multitopicforum.helpers.CachedPage;
+
+public interface PageCacheService {
+    boolean isEnabled();
+
+    CachedPage getPage(String key);
+
+    long getGeneration();
+
+    boolean putPage(String key, CachedPage page, long generation);
+
+    void evictThread(String forumName, Long threadId);
+
+    void clear();
+
+    int size();
+}
@@ -0,0 +1,116 @@
+package com.kentcarmine.multitopicforum.services;
+
+import com.kentcarmine.multitopicforum.helpers.CachedPage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Service that holds rendered forum and thread pages served to anonymous users. The cache is bounded: the least
+ * recently used page is dropped once it holds more than the configured number of pages, and pages older than the
+ * configured time to live are never served.
+ */
+@Service
+public class PageCacheServiceImpl implements PageCacheService {
+
+    @Value("${com.kentcarmine.multitopicforum.page-cache.enabled}")
+    private boolean ENABLED;
+
+    @Value("${com.kentcarmine.multitopicforum.page-cache.max-entries}")
+    private int MAX_ENTRIES;
+
+    @Value("${com.kentcarmine.multitopicforum.page-cache.ttl-seconds}")
+    private long TTL_SECONDS;
+
+    private final Map<String, CachedPage> pages = new LinkedHashMap<String, CachedPage>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedPage> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    // Incremented on every eviction, so that a page rendered before a change is not cached after it
+    private long generation = 0;
+
+    @Override
+    public boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Get the cached page with the given key, or null if there is no such page or it has expired.
+     *
+     * @param key the key of the page
+     * @return the cached page with the given key, or null if there is no such page or it has expired
+     */
+    @Override
+    public synchronized CachedPage getPage(String key) {
+        CachedPage page = pages.get(key);
+        if (page == null) {
+            return null;
+        }
+
+        if (System.currentTimeMillis() - page.getCachedAtMillis() > TTL_SECONDS * 1000) {
+            pages.remove(key);
+            return null;
+        }
+
+        return page;
+    }
+
+    /**
+     * Get the current generation of the cache. A caller about to render a page should get the generation first and
+     * pass it to putPage afterwards.
+     *
+     * @return the current generation of the cache
+     */
+    @Override
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Cache the given page under the given key, unless anything has been evicted since the given generation, in which
+     * case the page may have been rendered from data that has since changed.
+     *
+     * @param key the key of the page
+     * @param page the page to cache
+     * @param generation the generation of the cache when the page started rendering
+     * @return true if the page was cached, false otherwise
+     */
+    @Override
+    public synchronized boolean putPage(String key, CachedPage page, long generation) {
+        if (generation != this.generation) {
+            return false;
+        }
+
+        pages.put(key, page);
+        return true;
+    }
+
+    /**
+     * Evict every cached page that shows content of the given thread in the given forum, which is the thread's own
+     * pages and the pages of the forum's thread listing.
+     *
+     * @param forumName the name of the forum the thread belongs to
+     * @param threadId the ID of the thread
+     */
+    @Override
+    public synchronized void evictThread(String forumName, Long threadId) {
+        generation++;
+        pages.values().removeIf(page -> page.showsThread(forumName, threadId));
+    }
+
+    @Override
+    public synchronized void clear() {
+        generation++;
+        pages.clear();
+    }
+
+    @Override
+    public synchronized int size() {
+        return pages.size();
+    }
+}
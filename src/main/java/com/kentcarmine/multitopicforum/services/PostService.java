@@ -1,10 +1,14 @@
 package com.kentcarmine.multitopicforum.services;
 
 import com.kentcarmine.multitopicforum.dtos.PostCreationDto;
+import com.kentcarmine.multitopicforum.dtos.PostModerationResultDto;
 import com.kentcarmine.multitopicforum.model.Post;
 import com.kentcarmine.multitopicforum.model.TopicThread;
 import com.kentcarmine.multitopicforum.model.User;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface PostService {
     Post addNewPostToThread(PostCreationDto postCreationDto, User creatingUser, TopicThread thread);
 
@@ -14,6 +18,10 @@ public interface PostService {
 
     Post restorePost(Post post);
 
+    List<PostModerationResultDto> deletePosts(Collection<Long> postIds, User deletingUser);
+
+    List<PostModerationResultDto> restorePosts(Collection<Long> postIds, User restoringUser);
+
     String getGetDeletedPostUrl(Post postToDelete);
 
     String getRestoredPostUrl(Post postToRestore);
@@ -1,37 +1,51 @@
 package com.kentcarmine.multitopicforum.services;
 
 import com.kentcarmine.multitopicforum.dtos.PostCreationDto;
+import com.kentcarmine.multitopicforum.dtos.PostModerationResultDto;
+import com.kentcarmine.multitopicforum.events.PostChangedEvent;
+import com.kentcarmine.multitopicforum.events.ThreadContentChangedEvent;
 import com.kentcarmine.multitopicforum.model.Post;
+import com.kentcarmine.multitopicforum.model.TopicForum;
 import com.kentcarmine.multitopicforum.model.TopicThread;
 import com.kentcarmine.multitopicforum.model.User;
 import com.kentcarmine.multitopicforum.repositories.PostRepository;
+import com.kentcarmine.multitopicforum.repositories.TopicForumRepository;
 import com.kentcarmine.multitopicforum.repositories.TopicThreadRepository;
+import com.kentcarmine.multitopicforum.repositories.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.sql.Timestamp;
 import java.time.Instant;
-import java.util.Calendar;
-import java.util.Date;
-import java.util.Optional;
+import java.util.*;
 
 @Service
 public class PostServiceImpl implements PostService {
 
     private final PostRepository postRepository;
     private final TopicThreadRepository threadRepository;
+    private final TopicForumRepository forumRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher applicationEventPublisher;
 
     @Autowired
-    public PostServiceImpl(PostRepository postRepository, TopicThreadRepository threadRepository) {
+    public PostServiceImpl(PostRepository postRepository, TopicThreadRepository threadRepository,
+                           TopicForumRepository forumRepository, UserRepository userRepository,
+                           ApplicationEventPublisher applicationEventPublisher) {
         this.postRepository = postRepository;
         this.threadRepository = threadRepository;
+        this.forumRepository = forumRepository;
+        this.userRepository = userRepository;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
     /**
      * Create and save a new Post with the content within the given PostCreationDto, and belonging to the given User
-     * and TopicThread.
+     * and TopicThread, and update the post summary of the TopicThread, the aggregates of its TopicForum and the post
+     * count of the creating User.
      * @param postCreationDto the DTO containing the post content
      * @param creatingUser the user creating the post
      * @param thread the thread the post should belong to
@@ -51,7 +65,23 @@ public class PostServiceImpl implements PostService {
 
         post.setThread(thread);
 
-        return postRepository.save(post);
+        post = postRepository.save(post);
+
+        threadRepository.recordNewPost(thread.getId(), post.getId(), creatingUser.getUsername(), post.getPostedAt());
+        thread.recordNewPost(post);
+
+        TopicForum forum = thread.getForum();
+        forumRepository.recordNewPost(forum.getName(), thread.getId(), thread.getTitle(), post.getId(),
+                creatingUser.getUsername(), post.getPostedAt());
+        forum.recordNewPost(post);
+
+        userRepository.incrementPostCount(creatingUser.getUsername());
+        creatingUser.setPostCount(creatingUser.getPostCount() + 1);
+
+        publishThreadContentChanged(thread);
+        publishPostChanged(post, PostChangedEvent.ChangeType.CREATED);
+
+        return post;
     }
 
     @Override
@@ -78,7 +108,11 @@ public class PostServiceImpl implements PostService {
             post.setDeleted(true);
             post.setDeletedBy(deletingUser);
             post.setDeletedAt(java.sql.Date.from(Instant.now()));
-            return postRepository.save(post);
+            post = postRepository.save(post);
+            threadRepository.markModified(post.getThread().getId(), getCurrentDate());
+            publishThreadContentChanged(post.getThread());
+            publishPostChanged(post, PostChangedEvent.ChangeType.DELETED);
+            return post;
         } else {
             return post;
         }
@@ -96,7 +130,103 @@ public class PostServiceImpl implements PostService {
         post.setDeleted(false);
         post.setDeletedBy(null);
         post.setDeletedAt(null);
-        return postRepository.save(post);
+        post = postRepository.save(post);
+        threadRepository.markModified(post.getThread().getId(), getCurrentDate());
+        publishThreadContentChanged(post.getThread());
+        publishPostChanged(post, PostChangedEvent.ChangeType.RESTORED);
+        return post;
+    }
+
+    /**
+     * Flag each of the posts with the given IDs that the deleting user has the authority to delete as deleted by that
+     * user at the current time. The posts and their authors are loaded in one query, and every deletion is applied by
+     * one UPDATE statement.
+     *
+     * @param postIds the IDs of the posts to delete
+     * @param deletingUser the user deleting the posts
+     * @return the result for each distinct post ID, in the order given
+     */
+    @Transactional
+    @Override
+    public List<PostModerationResultDto> deletePosts(Collection<Long> postIds, User deletingUser) {
+        Map<Long, Post> posts = getPostsForModeration(postIds);
+        Map<Long, PostModerationResultDto> results = new LinkedHashMap<>();
+        List<Post> postsToDelete = new ArrayList<>();
+
+        for (Long postId : postIds) {
+            Post post = posts.get(postId);
+            if (post == null) {
+                results.put(postId, new PostModerationResultDto(postId, PostModerationResultDto.Status.NOT_FOUND));
+            } else if (!post.isDeletableBy(deletingUser)) {
+                results.put(postId, new PostModerationResultDto(postId, PostModerationResultDto.Status.UNAUTHORIZED));
+            } else if (post.isDeleted()) {
+                results.put(postId, new PostModerationResultDto(postId, PostModerationResultDto.Status.UNCHANGED));
+            } else if (!results.containsKey(postId)) {
+                results.put(postId, new PostModerationResultDto(postId, PostModerationResultDto.Status.DELETED));
+                postsToDelete.add(post);
+            }
+        }
+
+        if (!postsToDelete.isEmpty()) {
+            Date currentDate = getCurrentDate();
+            postRepository.markDeleted(getIds(postsToDelete), deletingUser, currentDate);
+
+            // The UPDATE detached the loaded posts, so changing them here only updates the copies sent with the events
+            for (Post post : postsToDelete) {
+                post.setDeleted(true);
+                post.setDeletedBy(deletingUser);
+                post.setDeletedAt(currentDate);
+            }
+
+            publishModerationChanges(postsToDelete, PostChangedEvent.ChangeType.DELETED, currentDate);
+        }
+
+        return new ArrayList<>(results.values());
+    }
+
+    /**
+     * Restore each of the posts with the given IDs that the restoring user has the authority to restore. The posts and
+     * the users who deleted them are loaded in one query, and every restoration is applied by one UPDATE statement.
+     *
+     * @param postIds the IDs of the posts to restore
+     * @param restoringUser the user restoring the posts
+     * @return the result for each distinct post ID, in the order given
+     */
+    @Transactional
+    @Override
+    public List<PostModerationResultDto> restorePosts(Collection<Long> postIds, User restoringUser) {
+        Map<Long, Post> posts = getPostsForModeration(postIds);
+        Map<Long, PostModerationResultDto> results = new LinkedHashMap<>();
+        List<Post> postsToRestore = new ArrayList<>();
+
+        for (Long postId : postIds) {
+            Post post = posts.get(postId);
+            if (post == null) {
+                results.put(postId, new PostModerationResultDto(postId, PostModerationResultDto.Status.NOT_FOUND));
+            } else if (!post.isDeleted()) {
+                results.put(postId, new PostModerationResultDto(postId, PostModerationResultDto.Status.UNCHANGED));
+            } else if (!post.isRestorableBy(restoringUser)) {
+                results.put(postId, new PostModerationResultDto(postId, PostModerationResultDto.Status.UNAUTHORIZED));
+            } else if (!results.containsKey(postId)) {
+                results.put(postId, new PostModerationResultDto(postId, PostModerationResultDto.Status.RESTORED));
+                postsToRestore.add(post);
+            }
+        }
+
+        if (!postsToRestore.isEmpty()) {
+            postRepository.markRestored(getIds(postsToRestore));
+
+            // The UPDATE detached the loaded posts, so changing them here only updates the copies sent with the events
+            for (Post post : postsToRestore) {
+                post.setDeleted(false);
+                post.setDeletedBy(null);
+                post.setDeletedAt(null);
+            }
+
+            publishModerationChanges(postsToRestore, PostChangedEvent.ChangeType.RESTORED, getCurrentDate());
+        }
+
+        return new ArrayList<>(results.values());
     }
 
     /**
@@ -137,4 +267,63 @@ public class PostServiceImpl implements PostService {
         calendar.setTime(new Timestamp(calendar.getTime().getTime()));
         return new Date(calendar.getTime().getTime());
     }
+
+    /**
+     * Helper method that publishes a ThreadContentChangedEvent for the given thread
+     */
+    private void publishThreadContentChanged(TopicThread thread) {
+        applicationEventPublisher.publishEvent(new ThreadContentChangedEvent(this, thread.getForum().getName(),
+                thread.getId()));
+    }
+
+    /**
+     * Helper method that loads the posts with the given IDs for moderation, mapped by ID.
+     */
+    private Map<Long, Post> getPostsForModeration(Collection<Long> postIds) {
+        Map<Long, Post> posts = new HashMap<>();
+        if (postIds.isEmpty()) {
+            return posts;
+        }
+
+        for (Post post : postRepository.findAllForModerationByIdIn(postIds)) {
+            posts.put(post.getId(), post);
+        }
+
+        return posts;
+    }
+
+    private List<Long> getIds(List<Post> posts) {
+        List<Long> ids = new ArrayList<>(posts.size());
+        for (Post post : posts) {
+            ids.add(post.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Helper method that marks the threads of the given moderated posts as modified once each and publishes the events
+     * for the moderated posts and their threads.
+     */
+    private void publishModerationChanges(List<Post> posts, PostChangedEvent.ChangeType changeType, Date modifiedAt) {
+        Map<Long, TopicThread> threads = new LinkedHashMap<>();
+        for (Post post : posts) {
+            threads.putIfAbsent(post.getThread().getId(), post.getThread());
+        }
+
+        threadRepository.markAllModified(threads.keySet(), modifiedAt);
+
+        for (TopicThread thread : threads.values()) {
+            publishThreadContentChanged(thread);
+        }
+        for (Post post : posts) {
+            publishPostChanged(post, changeType);
+        }
+    }
+
+    /**
+     * Helper method that publishes a PostChangedEvent for the given post
+     */
+    private void publishPostChanged(Post post, PostChangedEvent.ChangeType changeType) {
+        applicationEventPublisher.publishEvent(new PostChangedEvent(this, post, changeType));
+    }
 }
@@ -2,17 +2,24 @@ package com.kentcarmine.multitopicforum.services;
 
 import com.kentcarmine.multitopicforum.dtos.PostVoteResponseDto;
 import com.kentcarmine.multitopicforum.dtos.PostVoteSubmissionDto;
+import com.kentcarmine.multitopicforum.helpers.LongByteHashMap;
 import com.kentcarmine.multitopicforum.model.Post;
 import com.kentcarmine.multitopicforum.model.PostVote;
-import com.kentcarmine.multitopicforum.model.TopicThread;
 import com.kentcarmine.multitopicforum.model.User;
 
+import java.util.Collection;
 import java.util.Map;
 
 public interface PostVoteService {
-    Map<Long, Integer> generateVoteMap(User loggedInUser, TopicThread thread);
+    LongByteHashMap generateVoteMap(User loggedInUser, Collection<Long> postIds);
+
+    Map<Long, Integer> generateVoteCountMap(Collection<Post> posts);
+
+    int getVoteCount(Post post);
 
     PostVote getPostVoteByUserAndPost(User user, Post post);
 
     PostVoteResponseDto handlePostVoteSubmission(User loggedInUser, Post post, PostVoteSubmissionDto postVoteSubmissionDto);
+
+    int reconcileVoteCounts();
 }
@@ -1,14 +1,24 @@
 package com.kentcarmine.multitopicforum.services;
 
 import com.kentcarmine.multitopicforum.dtos.PostVoteResponseDto;
+import com.kentcarmine.multitopicforum.dtos.PostVoteStateDto;
 import com.kentcarmine.multitopicforum.dtos.PostVoteSubmissionDto;
+import com.kentcarmine.multitopicforum.events.PostChangedEvent;
+import com.kentcarmine.multitopicforum.helpers.AfterCommitHelper;
+import com.kentcarmine.multitopicforum.helpers.LongByteHashMap;
+import com.kentcarmine.multitopicforum.helpers.UserVoteIndex;
 import com.kentcarmine.multitopicforum.model.*;
+import com.kentcarmine.multitopicforum.repositories.PostRepository;
 import com.kentcarmine.multitopicforum.repositories.PostVoteRepository;
+import com.kentcarmine.multitopicforum.repositories.TopicThreadRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.HashMap;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Date;
 import java.util.Map;
 
 @Service
@@ -16,30 +26,68 @@ public class PostVoteServiceImpl implements PostVoteService {
 
 
     private final PostVoteRepository postVoteRepository;
+    private final PostRepository postRepository;
+    private final TopicThreadRepository topicThreadRepository;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final VoteBufferService voteBufferService;
+    private final VoteCounterService voteCounterService;
+    private final UserVoteIndexService userVoteIndexService;
+    private final UserActivityService userActivityService;
 
     @Autowired
-    public PostVoteServiceImpl(PostVoteRepository postVoteRepository) {
+    public PostVoteServiceImpl(PostVoteRepository postVoteRepository, PostRepository postRepository,
+                               TopicThreadRepository topicThreadRepository,
+                               ApplicationEventPublisher applicationEventPublisher,
+                               VoteBufferService voteBufferService, VoteCounterService voteCounterService,
+                               UserVoteIndexService userVoteIndexService,
+                               UserActivityService userActivityService) {
         this.postVoteRepository = postVoteRepository;
+        this.postRepository = postRepository;
+        this.topicThreadRepository = topicThreadRepository;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.voteBufferService = voteBufferService;
+        this.voteCounterService = voteCounterService;
+        this.userVoteIndexService = userVoteIndexService;
+        this.userActivityService = userActivityService;
     }
 
     /**
-     * Generates a map from Post IDs to votes made on those posts by the given user. Those values can be 1 (upvote),
-     * 0 (no vote), or -1 (downvote).
+     * Generates a map from the given Post IDs to votes made on those posts by the given user. Those values can be 1
+     * (upvote), 0 (no vote), or -1 (downvote). Posts the user has not voted on map to 0. The votes are read from the
+     * user's in-memory vote index if it is enabled, and otherwise with a single query. Votes still held by the
+     * write-behind vote buffer are included.
      *
      * @param loggedInUser the user to check votes made by
-     * @param thread the TopicThread to get the list of post IDs from
+     * @param postIds the IDs of the posts to get votes for (typically the posts on the page being displayed)
      * @return map from Post IDs to votes made on those posts by the given user
      */
     @Override
-    public Map<Long, Integer> generateVoteMap(User loggedInUser, TopicThread thread) {
-        Map<Long, Integer> voteMap = new HashMap<>();
+    public LongByteHashMap generateVoteMap(User loggedInUser, Collection<Long> postIds) {
+        LongByteHashMap voteMap = new LongByteHashMap(postIds.size(), (byte) PostVoteState.NONE.getValue());
 
-        for (Post post : thread.getPosts()) {
-            PostVote vote = postVoteRepository.findByUserAndPost(loggedInUser, post);
-            if (vote == null) {
-                voteMap.put(post.getId(), PostVoteState.NONE.getValue());
-            } else {
-                voteMap.put(post.getId(), vote.getPostVoteState().getValue());
+        if (loggedInUser == null || postIds.isEmpty()) {
+            return voteMap;
+        }
+
+        if (userVoteIndexService.isEnabled()) {
+            UserVoteIndex voteIndex = userVoteIndexService.getIndex(loggedInUser);
+            for (Long postId : postIds) {
+                if (voteIndex.containsVote(postId)) {
+                    voteMap.put(postId, voteIndex.getVoteState(postId, voteMap.getDefaultValue()));
+                }
+            }
+        } else {
+            for (PostVoteStateDto vote : postVoteRepository.findVoteStatesByUserAndPostIds(loggedInUser, postIds)) {
+                voteMap.put(vote.getPostId(), (byte) vote.getPostVoteState().getValue());
+            }
+        }
+
+        if (voteBufferService.isEnabled()) {
+            for (Long postId : postIds) {
+                PostVoteState bufferedVoteState = voteBufferService.getBufferedVoteState(loggedInUser.getUsername(), postId);
+                if (bufferedVoteState != null) {
+                    voteMap.put(postId, (byte) bufferedVoteState.getValue());
+                }
             }
         }
 
@@ -47,21 +95,54 @@ public class PostVoteServiceImpl implements PostVoteService {
     }
 
     /**
-     * Get the PostVote made by the given user on the given post, or null if no such PostVote exists.
+     * Generates a map from the IDs of the given posts to their current vote totals, read from the in-memory vote
+     * counters.
+     *
+     * @param posts the posts to get vote totals for (typically the posts on the page being displayed)
+     * @return map from post IDs to the current vote totals of those posts
+     */
+    @Override
+    public Map<Long, Integer> generateVoteCountMap(Collection<Post> posts) {
+        return voteCounterService.getVoteCounts(posts);
+    }
+
+    /**
+     * Get the current vote total of the given post, read from the in-memory vote counters.
+     *
+     * @param post the post
+     * @return the current vote total of the post
+     */
+    @Override
+    public int getVoteCount(Post post) {
+        return voteCounterService.getVoteCount(post);
+    }
+
+    /**
+     * Get the PostVote made by the given user on the given post, or null if no such PostVote exists. If the user has a
+     * vote on the post still held by the write-behind vote buffer, an unsaved PostVote with that vote's state is returned.
      * @param user the user owning the PostVote
      * @param post the post owning the PostVote
      * @return the PostVote made by the given user on the given post, or null if no such PostVote exists.
      */
     @Override
     public PostVote getPostVoteByUserAndPost(User user, Post post) {
+        if (voteBufferService.isEnabled()) {
+            PostVoteState bufferedVoteState = voteBufferService.getBufferedVoteState(user.getUsername(), post.getId());
+            if (bufferedVoteState != null) {
+                return new PostVote(bufferedVoteState, user, post);
+            }
+        }
+
         return postVoteRepository.findByUserAndPost(user, post);
     }
 
     /**
      * Processes submission of a PostVote by the given user on the given post with vote values in the
      * postVoteSubmissionDto. Either creates a new vote if no vote by that user on that post exists, or updates that
-     * user's existing vote on that post if it has a value of NONE. Then returns data to the client indicating the
-     * current number of votes on that post and if the user's vote was saved.
+     * user's existing vote on that post if it has a value of NONE. The vote is recorded in the post's in-memory vote
+     * counter, which is later checkpointed to the post's denormalized vote totals. Then returns data to the client
+     * indicating the current number of votes on that post and if the user's vote was saved. If write-behind voting is
+     * enabled, the vote is handed to the vote buffer instead of being saved.
      *
      * @param loggedInUser The user submitting the vote
      * @param post The post the vote is on
@@ -90,18 +171,74 @@ public class PostVoteServiceImpl implements PostVoteService {
             } else {
                 voteState = PostVoteState.NONE;
             }
+
+            if (voteBufferService.isEnabled() && !voteState.isNoVote()) {
+                return handleBufferedVote(loggedInUser, post, voteState);
+            }
+
             postVote.setPostVoteState(voteState);
             postVote = postVoteRepository.save(postVote);
+            int voteCount = voteCounterService.recordVote(post, voteState);
             post.addPostVote(postVote);
+            post.setVoteCount(voteCount);
+
+            if (!voteState.isNoVote()) {
+                Long postId = post.getId();
+                AfterCommitHelper.runAfterCommit(() -> {
+                    userVoteIndexService.recordVote(loggedInUser, postId, voteState);
+                    userActivityService.recordActivity(loggedInUser);
+                });
+                topicThreadRepository.markModified(post.getThread().getId(), Date.from(Instant.now()));
+                applicationEventPublisher.publishEvent(new PostChangedEvent(this, post, PostChangedEvent.ChangeType.VOTED));
+            }
 
             postVoteResponseDto = new PostVoteResponseDto(post.getId(), postVote.isUpvote(), postVote.isDownvote(), true, post.getVoteCount());
 //            System.out.println("### Response: " + postVoteResponseDto);
         } else {
 //            System.out.println("### Invalid vote submission in handlePostVoteSubmission()");
-            postVoteResponseDto = new PostVoteResponseDto(post.getId(), postVote.isUpvote(), postVote.isDownvote(), false, post.getVoteCount());
+            postVoteResponseDto = new PostVoteResponseDto(post.getId(), postVote.isUpvote(), postVote.isDownvote(), false, voteCounterService.getVoteCount(post));
         }
 
         return postVoteResponseDto;
     }
 
+    /**
+     * Helper method that hands the given vote to the write-behind vote buffer and builds the response to the client.
+     */
+    private PostVoteResponseDto handleBufferedVote(User loggedInUser, Post post, PostVoteState voteState) {
+        boolean voteUpdated = voteBufferService.bufferVote(loggedInUser, post, voteState);
+        PostVoteState currentVoteState = voteUpdated
+                ? voteState : voteBufferService.getBufferedVoteState(loggedInUser.getUsername(), post.getId());
+
+        // Only changes the in-memory post (the vote score column is not updatable), so that the VOTED event carries the
+        // current count
+        post.setVoteCount(voteUpdated
+                ? voteCounterService.recordVote(post, voteState) : voteCounterService.getVoteCount(post));
+
+        if (voteUpdated) {
+            Long postId = post.getId();
+            AfterCommitHelper.runAfterCommit(() -> {
+                userVoteIndexService.recordVote(loggedInUser, postId, voteState);
+                userActivityService.recordActivity(loggedInUser);
+            });
+            applicationEventPublisher.publishEvent(new PostChangedEvent(this, post, PostChangedEvent.ChangeType.VOTED));
+        }
+
+        return new PostVoteResponseDto(post.getId(), currentVoteState != null && currentVoteState.isUpvote(),
+                currentVoteState != null && currentVoteState.isDownvote(), voteUpdated, post.getVoteCount());
+    }
+
+    /**
+     * Recomputes the denormalized vote totals stored on each Post from the votes in the post_vote table, correcting any
+     * totals that have drifted (for example, due to votes being inserted without going through this service).
+     *
+     * @return the number of posts whose upvote or downvote totals were corrected
+     */
+    @Transactional
+    @Override
+    public int reconcileVoteCounts() {
+        int correctedPosts = postRepository.reconcileUpvoteAndDownvoteCounts(PostVoteState.UPVOTE, PostVoteState.DOWNVOTE);
+        postRepository.reconcileVoteScores();
+        return correctedPosts;
+    }
 }
@@ -0,0 +1,23 @@
+package com.kentcarmine.multitopicforum.services;
+
+import com.kentcarmine.multitopicforum.model.User;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+
+public interface ReadMarkerService {
+    boolean isEnabled();
+
+    void markRead(User user, Long threadId, Long postId);
+
+    Map<Long, Long> getLastReadPostIds(User user, Collection<Long> threadIds);
+
+    Date getLastMarkedAt(User user);
+
+    int flush();
+
+    void deleteMarkers(Long threadId);
+
+    int getPendingMarkerCount();
+}
@@ -0,0 +1,222 @@
+package com.kentcarmine.multitopicforum.services;
+
+import com.kentcarmine.multitopicforum.helpers.AfterCommitHelper;
+import com.kentcarmine.multitopicforum.model.ReadMarker;
+import com.kentcarmine.multitopicforum.model.ReadMarkerId;
+import com.kentcarmine.multitopicforum.model.User;
+import com.kentcarmine.multitopicforum.repositories.ReadMarkerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service that records how far each user has read each thread, so that thread listings can show which threads have
+ * posts the user has not read. Viewing a page of a thread marks the thread as read up to the latest post on the page.
+ * Marks are held in memory and coalesced to one per user per thread, keeping only the furthest post read, and written
+ * to the read_marker table on a schedule (see ReadMarkerFlushTask) and when the application shuts down, so that page
+ * views do not each issue a write.
+ *
+ * The time each recently active user last marked a thread as read is also kept, bounded to the configured number of
+ * users, so that pages showing read state can be revalidated when it changes.
+ */
+@Service
+public class ReadMarkerServiceImpl implements ReadMarkerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadMarkerServiceImpl.class);
+
+    @Value("${com.kentcarmine.multitopicforum.read-markers.enabled}")
+    private boolean ENABLED;
+
+    @Value("${com.kentcarmine.multitopicforum.read-markers.max-users}")
+    private int MAX_USERS;
+
+    private final ReadMarkerRepository readMarkerRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<ReadMarkerId, Long> pendingMarkers = new ConcurrentHashMap<>();
+
+    private final Map<String, Date> lastMarkedAt = new LinkedHashMap<String, Date>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Date> eldest) {
+            return size() > MAX_USERS;
+        }
+    };
+
+    @Autowired
+    public ReadMarkerServiceImpl(ReadMarkerRepository readMarkerRepository, TransactionTemplate transactionTemplate) {
+        this.readMarkerRepository = readMarkerRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Mark the thread with the given ID as read by the given user up to the post with the given ID. Marking a thread as
+     * read up to an earlier post than it already is has no effect.
+     *
+     * @param user the user who read the thread
+     * @param threadId the ID of the thread
+     * @param postId the ID of the latest post of the thread the user has been shown
+     */
+    @Override
+    public void markRead(User user, Long threadId, Long postId) {
+        if (!ENABLED || user == null || postId == null) {
+            return;
+        }
+
+        pendingMarkers.merge(new ReadMarkerId(user.getUsername(), threadId), postId, Math::max);
+
+        synchronized (lastMarkedAt) {
+            lastMarkedAt.put(user.getUsername(), new Date());
+        }
+    }
+
+    /**
+     * Get a map from the IDs of the given threads to the ID of the latest post of each the given user has read, in a
+     * single query. Threads the user has never read are left out of the map.
+     *
+     * @param user the user
+     * @param threadIds the IDs of the threads (typically the threads on the page being displayed)
+     * @return map from thread IDs to the IDs of the latest posts read
+     */
+    @Override
+    public Map<Long, Long> getLastReadPostIds(User user, Collection<Long> threadIds) {
+        Map<Long, Long> lastReadPostIds = new HashMap<>();
+        if (!ENABLED || user == null || threadIds.isEmpty()) {
+            return lastReadPostIds;
+        }
+
+        for (ReadMarker marker : readMarkerRepository.findAllByUsernameAndThreadIdIn(user.getUsername(), threadIds)) {
+            lastReadPostIds.put(marker.getThreadId(), marker.getLastReadPostId());
+        }
+
+        for (Long threadId : threadIds) {
+            Long pendingPostId = pendingMarkers.get(new ReadMarkerId(user.getUsername(), threadId));
+            if (pendingPostId != null) {
+                lastReadPostIds.merge(threadId, pendingPostId, Math::max);
+            }
+        }
+
+        return lastReadPostIds;
+    }
+
+    /**
+     * Get the time the given user last marked a thread as read. If that is not known, because the user has not marked
+     * a thread as read since startup or was dropped to keep within the configured number of users, the current time is
+     * recorded and returned, so that pages rendered with older read state are not treated as current.
+     *
+     * @param user the user
+     * @return the time the given user last marked a thread as read
+     */
+    @Override
+    public Date getLastMarkedAt(User user) {
+        synchronized (lastMarkedAt) {
+            return lastMarkedAt.computeIfAbsent(user.getUsername(), username -> new Date());
+        }
+    }
+
+    /**
+     * Write every pending marker to the database, in a single transaction. A marker marked again while the flush is in
+     * progress is kept for the next flush. If the write fails, the markers are kept for the next flush.
+     *
+     * @return the number of markers written
+     */
+    @Override
+    public synchronized int flush() {
+        Map<ReadMarkerId, Long> markers = new HashMap<>();
+        for (Map.Entry<ReadMarkerId, Long> entry : pendingMarkers.entrySet()) {
+            markers.put(entry.getKey(), entry.getValue());
+            pendingMarkers.remove(entry.getKey(), entry.getValue());
+        }
+
+        if (markers.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, Map<Long, Long>> markersByUser = new HashMap<>();
+        for (Map.Entry<ReadMarkerId, Long> entry : markers.entrySet()) {
+            markersByUser.computeIfAbsent(entry.getKey().getUsername(), username -> new HashMap<>())
+                    .put(entry.getKey().getThreadId(), entry.getValue());
+        }
+
+        try {
+            transactionTemplate.execute(status -> {
+                for (Map.Entry<String, Map<Long, Long>> userMarkers : markersByUser.entrySet()) {
+                    writeMarkers(userMarkers.getKey(), userMarkers.getValue());
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            logger.error("Could not write " + markers.size() + " read markers", e);
+            for (Map.Entry<ReadMarkerId, Long> entry : markers.entrySet()) {
+                pendingMarkers.merge(entry.getKey(), entry.getValue(), Math::max);
+            }
+            return 0;
+        }
+
+        return markers.size();
+    }
+
+    /**
+     * Delete every user's markers of the thread with the given ID, for a thread that is leaving the live tables. Must be
+     * called in a transaction; markers not yet written are dropped once it commits.
+     *
+     * @param threadId the ID of the thread
+     */
+    @Override
+    public void deleteMarkers(Long threadId) {
+        readMarkerRepository.deleteAllByThreadId(threadId);
+        AfterCommitHelper.runAfterCommit(() ->
+                pendingMarkers.keySet().removeIf(markerId -> threadId.equals(markerId.getThreadId())));
+    }
+
+    @Override
+    public int getPendingMarkerCount() {
+        return pendingMarkers.size();
+    }
+
+    /**
+     * Write the pending markers before the application stops.
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Helper method that writes the given markers of the given user, updating the user's existing markers for the same
+     * threads (loaded in one query) and creating the rest.
+     */
+    private void writeMarkers(String username, Map<Long, Long> lastReadPostIds) {
+        List<ReadMarker> markersToSave = new ArrayList<>();
+        Set<Long> existingThreadIds = new HashSet<>();
+
+        for (ReadMarker marker : readMarkerRepository.findAllByUsernameAndThreadIdIn(username,
+                lastReadPostIds.keySet())) {
+            existingThreadIds.add(marker.getThreadId());
+            Long postId = lastReadPostIds.get(marker.getThreadId());
+            if (postId > marker.getLastReadPostId()) {
+                marker.setLastReadPostId(postId);
+                markersToSave.add(marker);
+            }
+        }
+
+        for (Map.Entry<Long, Long> entry : lastReadPostIds.entrySet()) {
+            if (!existingThreadIds.contains(entry.getKey())) {
+                markersToSave.add(new ReadMarker(username, entry.getKey(), entry.getValue()));
+            }
+        }
+
+        readMarkerRepository.saveAll(markersToSave);
+    }
+}
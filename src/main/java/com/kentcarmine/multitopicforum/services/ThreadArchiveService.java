@@ -0,0 +1,21 @@
+package com.kentcarmine.multitopicforum.services;
+
+import com.kentcarmine.multitopicforum.model.ArchivedThread;
+import com.kentcarmine.multitopicforum.model.Post;
+import org.springframework.data.domain.Page;
+
+import java.util.Date;
+
+public interface ThreadArchiveService {
+    boolean isEnabled();
+
+    int archiveInactiveThreads();
+
+    boolean archiveThread(Long threadId, Date inactiveSince);
+
+    ArchivedThread getArchivedThread(String forumName, Long threadId);
+
+    Page<Post> getPostPageByArchivedThread(ArchivedThread archivedThread, int pageNum, int postsPerPage);
+
+    int getPostPageNumberOnArchivedThread(Long postId);
+}
@@ -0,0 +1,224 @@
+package com.kentcarmine.multitopicforum.services;
+
+import com.kentcarmine.multitopicforum.events.ThreadContentChangedEvent;
+import com.kentcarmine.multitopicforum.model.ArchivedPost;
+import com.kentcarmine.multitopicforum.model.ArchivedThread;
+import com.kentcarmine.multitopicforum.model.Post;
+import com.kentcarmine.multitopicforum.model.TopicForum;
+import com.kentcarmine.multitopicforum.model.TopicThread;
+import com.kentcarmine.multitopicforum.repositories.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service that moves threads that have not been updated for longer than the configured age out of the live thread and
+ * post tables into the archived thread and post tables, which keeps the live tables and their indexes to the threads
+ * that are still active. Archived threads keep their IDs and are served read-only from the archive tables. The votes on
+ * archived posts are dropped, but the posts' vote totals are kept, as are their authors' post counts. The denormalized
+ * thread and post counts of forums only count live threads and posts, so they are reduced as threads are archived.
+ */
+@Service
+public class ThreadArchiveServiceImpl implements ThreadArchiveService {
+
+    @Value("${spring.data.web.pageable.default-page-size}")
+    private int POSTS_PER_PAGE;
+
+    @Value("${com.kentcarmine.multitopicforum.archive.enabled}")
+    private boolean ENABLED;
+
+    @Value("${com.kentcarmine.multitopicforum.archive.inactive-days}")
+    private int INACTIVE_DAYS;
+
+    @Value("${com.kentcarmine.multitopicforum.archive.batch-size}")
+    private int BATCH_SIZE;
+
+    private final TopicForumRepository topicForumRepository;
+    private final TopicThreadRepository topicThreadRepository;
+    private final PostRepository postRepository;
+    private final PostVoteRepository postVoteRepository;
+    private final ArchivedThreadRepository archivedThreadRepository;
+    private final ArchivedPostRepository archivedPostRepository;
+    private final ReadMarkerService readMarkerService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Autowired
+    public ThreadArchiveServiceImpl(TopicForumRepository topicForumRepository,
+                                    TopicThreadRepository topicThreadRepository, PostRepository postRepository,
+                                    PostVoteRepository postVoteRepository,
+                                    ArchivedThreadRepository archivedThreadRepository,
+                                    ArchivedPostRepository archivedPostRepository,
+                                    ReadMarkerService readMarkerService,
+                                    TransactionTemplate transactionTemplate,
+                                    ApplicationEventPublisher applicationEventPublisher) {
+        this.topicForumRepository = topicForumRepository;
+        this.topicThreadRepository = topicThreadRepository;
+        this.postRepository = postRepository;
+        this.postVoteRepository = postVoteRepository;
+        this.archivedThreadRepository = archivedThreadRepository;
+        this.archivedPostRepository = archivedPostRepository;
+        this.readMarkerService = readMarkerService;
+        this.transactionTemplate = transactionTemplate;
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Archive up to the configured batch size of the threads that have not been updated for longer than the configured
+     * number of days, least recently updated first. Each thread is archived in its own transaction.
+     *
+     * @return the number of threads archived
+     */
+    @Override
+    public int archiveInactiveThreads() {
+        Date inactiveSince = Date.from(Instant.now().minus(Duration.ofDays(INACTIVE_DAYS)));
+        List<Long> threadIds = topicThreadRepository.findIdsOfThreadsInactiveSince(inactiveSince,
+                PageRequest.of(0, BATCH_SIZE));
+
+        int archivedThreads = 0;
+        for (Long threadId : threadIds) {
+            if (archiveThread(threadId, inactiveSince)) {
+                archivedThreads++;
+            }
+        }
+
+        return archivedThreads;
+    }
+
+    /**
+     * Move the thread with the given ID and its posts into the archive tables, unless it has been updated since the
+     * given time. The thread's row is locked first, so that no post can be added to it while it is being moved. The
+     * denormalized counts of its forum are reduced and the read markers of the thread are deleted in the same
+     * transaction, and its forum's latest post is recomputed if it was in the thread.
+     *
+     * @param threadId the ID of the thread to archive
+     * @param inactiveSince the time the thread must not have been updated since
+     * @return true if the thread was archived, false otherwise
+     */
+    @Override
+    public boolean archiveThread(Long threadId, Date inactiveSince) {
+        String forumName = transactionTemplate.execute(status -> {
+            TopicThread thread = topicThreadRepository.findByIdForArchival(threadId);
+            if (thread == null || thread.getUpdatedAt() == null || !thread.getUpdatedAt().before(inactiveSince)) {
+                return null;
+            }
+
+            TopicForum forum = thread.getForum();
+            Date archivedAt = Date.from(Instant.now());
+
+            archivedThreadRepository.copyFromTopicThread(threadId, archivedAt);
+            archivedPostRepository.copyFromThread(threadId);
+            postVoteRepository.deleteAllByThreadId(threadId);
+            int archivedPosts = postRepository.deleteAllByThreadId(threadId);
+            topicThreadRepository.deleteThreadById(threadId);
+            readMarkerService.deleteMarkers(threadId);
+
+            topicForumRepository.recordThreadArchived(forum.getName(), archivedPosts);
+            if (threadId.equals(forum.getLastPostThreadId())) {
+                updateLastPost(forum);
+            }
+            topicForumRepository.markModified(forum.getName(), archivedAt);
+
+            return forum.getName();
+        });
+
+        if (forumName == null) {
+            return false;
+        }
+
+        applicationEventPublisher.publishEvent(new ThreadContentChangedEvent(this, forumName, threadId));
+        return true;
+    }
+
+    /**
+     * Helper method that sets the denormalized latest post of the given forum to its latest live post, or clears it if
+     * the forum has no live posts left. Must be called in a transaction.
+     */
+    private void updateLastPost(TopicForum forum) {
+        Post lastPost = postRepository.findFirstByThreadForumOrderByPostedAtDesc(forum);
+
+        if (lastPost == null) {
+            topicForumRepository.updateLastPost(forum.getName(), null, null, null, null, null);
+        } else {
+            topicForumRepository.updateLastPost(forum.getName(), lastPost.getPostedAt(), lastPost.getId(),
+                    lastPost.getUser().getUsername(), lastPost.getThread().getId(), lastPost.getThread().getTitle());
+        }
+    }
+
+    /**
+     * Get the archived thread with the given ID in the forum with the given name, or null if there is no such thread.
+     *
+     * @param forumName the name of the forum the thread belongs to
+     * @param threadId the ID of the thread
+     * @return the archived thread, or null if there is no such thread
+     */
+    @Override
+    public ArchivedThread getArchivedThread(String forumName, Long threadId) {
+        return archivedThreadRepository.findByIdAndForumName(threadId, forumName);
+    }
+
+    /**
+     * Gets Page number pageNum of the posts of the given archived thread, sorted by posting date order. The posts are
+     * returned as transient Posts belonging to a transient TopicThread, so that they can be shown with the same views as
+     * the posts of a live thread, and must not be saved.
+     *
+     * @param archivedThread the archived thread to get posts for
+     * @param pageNum the number of the page to get (will be decremented by 1)
+     * @param postsPerPage the maximum number of posts per page
+     * @return the requested page of posts, or null if the page number is invalid
+     */
+    @Override
+    public Page<Post> getPostPageByArchivedThread(ArchivedThread archivedThread, int pageNum, int postsPerPage) {
+        if (pageNum - 1 < 0) {
+            return null;
+        }
+
+        Pageable pageReq = PageRequest.of(pageNum - 1, postsPerPage, Sort.by("postedAt", "id").ascending());
+        Page<ArchivedPost> postsPage = archivedPostRepository.findAllByThreadId(archivedThread.getId(), pageReq);
+
+        if (pageNum > postsPage.getTotalPages()) {
+            return null;
+        }
+
+        TopicThread thread = archivedThread.toTopicThread();
+        return postsPage.map(archivedPost -> archivedPost.toPost(thread));
+    }
+
+    /**
+     * Get the number of the page of its archived thread that the archived post with the given ID is on.
+     *
+     * @param postId the ID of the archived post
+     * @return the number of the page the post is on, or -1 if there is no such post
+     */
+    @Override
+    public int getPostPageNumberOnArchivedThread(Long postId) {
+        Optional<ArchivedPost> postOpt = archivedPostRepository.findById(postId);
+
+        if (postOpt.isEmpty()) {
+            return -1;
+        }
+
+        ArchivedPost post = postOpt.get();
+        long postIndex = archivedPostRepository.countPostsBeforeInThread(post.getThread().getId(), post.getPostedAt(),
+                post.getId());
+
+        return (int) (postIndex / POSTS_PER_PAGE) + 1;
+    }
+}
@@ -0,0 +1,13 @@
+package com.kentcarmine.multitopicforum.services;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface ThreadStreamService {
+    SseEmitter subscribe(Long threadId);
+
+    void publish(Long threadId, String eventName, Object data);
+
+    void sendHeartbeats();
+
+    int getSubscriberCount();
+}
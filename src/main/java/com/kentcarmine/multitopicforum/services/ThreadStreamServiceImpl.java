@@ -0,0 +1,243 @@
+package com.kentcarmine.multitopicforum.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service that fans out updates to the Server-Sent Event streams of open thread pages. Streams are asynchronous
+ * requests, so an idle stream holds a connection but no request thread. Events are serialized once and queued on each
+ * stream of the thread, and sender threads write each stream's queue in order, so a publishing request never waits on
+ * its readers. Writes block while a reader is not reading (until the servlet container's write timeout), so the sender
+ * pool grows to one thread per stream being written rather than having a fixed size that a few stalled readers could
+ * use up. A stream whose queue is full is too far behind to catch up and is dropped, as are streams that can no longer
+ * be written to.
+ */
+@Service
+public class ThreadStreamServiceImpl implements ThreadStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThreadStreamServiceImpl.class);
+
+    @Value("${com.kentcarmine.multitopicforum.thread-stream.max-subscribers}")
+    private int MAX_SUBSCRIBERS;
+
+    @Value("${com.kentcarmine.multitopicforum.thread-stream.timeout-millis}")
+    private long TIMEOUT_MILLIS;
+
+    @Value("${com.kentcarmine.multitopicforum.thread-stream.queue-capacity}")
+    private int QUEUE_CAPACITY;
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicInteger senderThreadCount = new AtomicInteger();
+    // Each stream is drained by at most one sender at a time, so there are never more senders than open streams
+    private final ExecutorService senders = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "thread-stream-sender-" + senderThreadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public ThreadStreamServiceImpl(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Open a stream of the updates to the thread with the given ID.
+     *
+     * @param threadId the ID of the thread
+     * @return the stream, or null if the maximum number of streams are already open
+     */
+    @Override
+    public SseEmitter subscribe(Long threadId) {
+        if (subscriberCount.incrementAndGet() > MAX_SUBSCRIBERS) {
+            subscriberCount.decrementAndGet();
+            return null;
+        }
+
+        SseEmitter emitter = createEmitter(TIMEOUT_MILLIS);
+        Subscriber subscriber = new Subscriber(threadId, emitter, QUEUE_CAPACITY);
+        subscribers.compute(threadId, (id, threadSubscribers) -> {
+            if (threadSubscribers == null) {
+                threadSubscribers = ConcurrentHashMap.newKeySet();
+            }
+            threadSubscribers.add(subscriber);
+            return threadSubscribers;
+        });
+
+        emitter.onCompletion(() -> removeSubscriber(subscriber));
+        emitter.onTimeout(() -> removeSubscriber(subscriber));
+        emitter.onError(e -> removeSubscriber(subscriber));
+
+        return emitter;
+    }
+
+    /**
+     * Send an event with the given name and data, serialized as JSON, to every open stream of the thread with the given
+     * ID. The event is queued on each stream and sent asynchronously.
+     *
+     * @param threadId the ID of the thread
+     * @param eventName the name of the event
+     * @param data the data of the event
+     */
+    @Override
+    public void publish(Long threadId, String eventName, Object data) {
+        Set<Subscriber> threadSubscribers = subscribers.get(threadId);
+        if (threadSubscribers == null || threadSubscribers.isEmpty()) {
+            return;
+        }
+
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            logger.error("Could not serialize " + eventName + " event for thread " + threadId, e);
+            return;
+        }
+
+        for (Subscriber subscriber : threadSubscribers) {
+            enqueue(subscriber, SseEmitter.event().name(eventName).data(json));
+        }
+    }
+
+    /**
+     * Send a comment to every open stream, so that proxies do not close idle streams and streams whose clients have
+     * gone away are found and dropped.
+     */
+    @Override
+    public void sendHeartbeats() {
+        for (Set<Subscriber> threadSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : threadSubscribers) {
+                enqueue(subscriber, SseEmitter.event().comment("heartbeat"));
+            }
+        }
+    }
+
+    @Override
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+        for (Set<Subscriber> threadSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : threadSubscribers) {
+                subscriber.emitter.complete();
+            }
+        }
+    }
+
+    /**
+     * Create the emitter of a new stream with the given timeout
+     */
+    protected SseEmitter createEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    /**
+     * Helper method that queues the given event on the given stream and makes sure a sender is draining its queue. A
+     * stream whose queue is full is dropped.
+     */
+    private void enqueue(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (!subscriber.queue.offer(event)) {
+            logger.debug("Dropping stream of thread " + subscriber.threadId + " that is too far behind");
+            removeSubscriber(subscriber);
+            subscriber.emitter.complete();
+            return;
+        }
+
+        scheduleDrain(subscriber);
+    }
+
+    /**
+     * Helper method that hands the given stream to a sender, unless one is already draining it
+     */
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.draining.set(false);
+            }
+        }
+    }
+
+    /**
+     * Helper method that sends the queued events of the given stream in order, until its queue is empty or it is
+     * dropped. Only one sender drains a stream at a time.
+     */
+    private void drain(Subscriber subscriber) {
+        SseEmitter.SseEventBuilder event;
+        while ((event = subscriber.queue.poll()) != null) {
+            if (!send(subscriber, event)) {
+                subscriber.queue.clear();
+                break;
+            }
+        }
+
+        subscriber.draining.set(false);
+        if (!subscriber.queue.isEmpty()) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    /**
+     * Helper method that sends the given event to the given stream, dropping the stream if it cannot be written to
+     *
+     * @return true if the event was sent, false if the stream was dropped
+     */
+    private boolean send(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        try {
+            subscriber.emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            removeSubscriber(subscriber);
+            subscriber.emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    /**
+     * Helper method that removes the given stream from the streams of its thread, if it has not been already
+     */
+    private void removeSubscriber(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.threadId, (id, threadSubscribers) -> {
+            if (threadSubscribers.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+            }
+            return threadSubscribers.isEmpty() ? null : threadSubscribers;
+        });
+    }
+
+    /**
+     * An open stream, with the events waiting to be sent to it
+     */
+    private static class Subscriber {
+        private final Long threadId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(Long threadId, SseEmitter emitter, int queueCapacity) {
+            this.threadId = threadId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+    }
+}
@@ -1,8 +1,8 @@
 package com.kentcarmine.multitopicforum.services;
 
+import com.kentcarmine.multitopicforum.dtos.AbstractTopicForumViewDto;
 import com.kentcarmine.multitopicforum.dtos.AbstractTopicThreadViewDto;
 import com.kentcarmine.multitopicforum.dtos.PostViewDto;
-import com.kentcarmine.multitopicforum.dtos.TopicForumViewDto;
 import com.kentcarmine.multitopicforum.dtos.TopicThreadViewDto;
 import com.kentcarmine.multitopicforum.model.User;
 
@@ -17,7 +17,7 @@ public interface TimeCalculatorService {
 
     String getTimeSinceThreadUpdatedMessage(AbstractTopicThreadViewDto threadViewDto);
 
-    String getTimeSinceForumUpdatedMessage(TopicForumViewDto topicForumViewDto);
+    String getTimeSinceForumUpdatedMessage(AbstractTopicForumViewDto topicForumViewDto);
 
     String getTimeSinceUserLastActiveMessage(User user);
 }
@@ -1,8 +1,8 @@
 package com.kentcarmine.multitopicforum.services;
 
+import com.kentcarmine.multitopicforum.dtos.AbstractTopicForumViewDto;
 import com.kentcarmine.multitopicforum.dtos.AbstractTopicThreadViewDto;
 import com.kentcarmine.multitopicforum.dtos.PostViewDto;
-import com.kentcarmine.multitopicforum.dtos.TopicForumViewDto;
 import com.kentcarmine.multitopicforum.dtos.TopicThreadViewDto;
 import com.kentcarmine.multitopicforum.model.User;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -121,11 +121,11 @@ public class TimeCalculatorServiceImpl implements TimeCalculatorService {
     }
 
     @Override
-    public String getTimeSinceForumUpdatedMessage(TopicForumViewDto topicForumViewDto) {
+    public String getTimeSinceForumUpdatedMessage(AbstractTopicForumViewDto topicForumViewDto) {
         if (topicForumViewDto.getNumThreads() < 1) {
             return messageService.getMessage("TopicForum.lastUpdated.never");
         }
-        return getTimeSinceThreadUpdatedMessage(topicForumViewDto.getThreads().first());
+        return getTimeSincePostCreationMessage(topicForumViewDto.getMostRecentPost());
     }
 
     /**
@@ -1,14 +1,18 @@
 package com.kentcarmine.multitopicforum.services;
 
 import com.kentcarmine.multitopicforum.dtos.AbstractTopicThreadViewDto;
+import com.kentcarmine.multitopicforum.dtos.NewPostsResponseDto;
+import com.kentcarmine.multitopicforum.dtos.RequestCoalescingStatsDto;
 import com.kentcarmine.multitopicforum.dtos.TopicThreadCreationDto;
 import com.kentcarmine.multitopicforum.dtos.TopicThreadViewDto;
 import com.kentcarmine.multitopicforum.dtos.TopicThreadViewDtoLight;
+import com.kentcarmine.multitopicforum.helpers.PostCursor;
 import com.kentcarmine.multitopicforum.model.Post;
 import com.kentcarmine.multitopicforum.model.TopicForum;
 import com.kentcarmine.multitopicforum.model.TopicThread;
 import com.kentcarmine.multitopicforum.model.User;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.io.UnsupportedEncodingException;
 import java.util.Set;
@@ -31,15 +35,25 @@ public interface TopicThreadService {
 
     Page<Post> getPostPageByThread(TopicThread thread, int pageNum, int postsPerPage);
 
+    Page<Post> getPostPageByThread(TopicThread thread, int pageNum, int postsPerPage, PostCursor after, PostCursor before);
+
+    NewPostsResponseDto getNewPostsInThread(TopicThread thread, PostCursor after, int maxPosts);
+
+    RequestCoalescingStatsDto getPostPageLoadStats();
+
     Page<Post> getPostPageByUser(User user, int pageNum, int postsPerPage);
 
     int getPostPageNumberOnThreadByPostId(Long postId);
 
-    Page<TopicThread> searchTopicThreadsPaginated(String forumName, String searchText, int pageNum, int threadsPerPage);
+    Slice<TopicThread> searchTopicThreadsPaginated(String forumName, String searchText, int pageNum, int threadsPerPage);
 
-    Page<TopicThreadViewDtoLight> searchTopicThreadsAsViewDtos(String forumName, String searchText, int pageNum, int threadsPerPage);
+    Slice<TopicThreadViewDtoLight> searchTopicThreadsAsViewDtos(String forumName, String searchText, int pageNum, int threadsPerPage);
 
     Page<TopicThreadViewDtoLight> getTopicThreadViewDtosLightByForumPaginated(TopicForum forum, int pageNum, int threadsPerPage);
 
+    Page<TopicThreadViewDtoLight> getTopicThreadViewDtosLightByForumPaginated(TopicForum forum, int pageNum, int threadsPerPage, User viewer);
+
     Page<TopicThread> getTopicThreadsByForumPaginated(TopicForum forum, int pageNum, int threadsPerPage);
+
+    int reconcilePostSummaries();
 }
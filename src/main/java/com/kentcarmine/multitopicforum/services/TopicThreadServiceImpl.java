@@ -2,7 +2,11 @@ package com.kentcarmine.multitopicforum.services;
 
 import com.kentcarmine.multitopicforum.converters.ForumHierarchyConverter;
 import com.kentcarmine.multitopicforum.dtos.*;
+import com.kentcarmine.multitopicforum.events.PostChangedEvent;
+import com.kentcarmine.multitopicforum.events.ThreadContentChangedEvent;
+import com.kentcarmine.multitopicforum.helpers.PostCursor;
 import com.kentcarmine.multitopicforum.helpers.SearchParserHelper;
+import com.kentcarmine.multitopicforum.helpers.SingleFlight;
 import com.kentcarmine.multitopicforum.model.Post;
 import com.kentcarmine.multitopicforum.model.TopicForum;
 import com.kentcarmine.multitopicforum.model.TopicThread;
@@ -10,9 +14,11 @@ import com.kentcarmine.multitopicforum.model.User;
 import com.kentcarmine.multitopicforum.repositories.PostRepository;
 import com.kentcarmine.multitopicforum.repositories.TopicForumRepository;
 import com.kentcarmine.multitopicforum.repositories.TopicThreadRepository;
+import com.kentcarmine.multitopicforum.repositories.UserRepository;
 import org.hibernate.cfg.NotYetImplementedException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,6 +26,8 @@ import org.springframework.transaction.annotation.Transactional;
 import java.io.UnsupportedEncodingException;
 import java.sql.Timestamp;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,24 +36,38 @@ public class TopicThreadServiceImpl implements TopicThreadService {
     @Value("${spring.data.web.pageable.default-page-size}")
     private int POSTS_PER_PAGE;
 
+    @Value("${com.kentcarmine.multitopicforum.posts.seek-pagination-threshold}")
+    private int SEEK_PAGINATION_THRESHOLD;
+
     private final TopicForumRepository topicForumRepository;
     private final TopicThreadRepository topicThreadRepository;
     private final PostRepository postRepository;
+    private final UserRepository userRepository;
     private final ForumService forumService;
     private final ForumHierarchyConverter forumHierarchyConverter;
     private final TimeCalculatorService timeCalculatorService;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final ReadMarkerService readMarkerService;
+
+    private final SingleFlight<String, Page<Long>> postPageLoads = new SingleFlight<>();
 
     @Autowired
     public TopicThreadServiceImpl(TopicForumRepository topicForumRepository,
                                   TopicThreadRepository topicThreadRepository, PostRepository postRepository,
-                                  ForumService forumService, ForumHierarchyConverter forumHierarchyConverter,
-                                  TimeCalculatorService timeCalculatorService) {
+                                  UserRepository userRepository, ForumService forumService,
+                                  ForumHierarchyConverter forumHierarchyConverter,
+                                  TimeCalculatorService timeCalculatorService,
+                                  ApplicationEventPublisher applicationEventPublisher,
+                                  ReadMarkerService readMarkerService) {
         this.topicForumRepository = topicForumRepository;
         this.topicThreadRepository = topicThreadRepository;
         this.postRepository = postRepository;
+        this.userRepository = userRepository;
         this.forumService = forumService;
         this.forumHierarchyConverter = forumHierarchyConverter;
         this.timeCalculatorService = timeCalculatorService;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.readMarkerService = readMarkerService;
     }
 
     /**
@@ -67,11 +89,28 @@ public class TopicThreadServiceImpl implements TopicThreadService {
 //        topicThread.setUpdatedAt(currentDate);
         topicThread = topicThreadRepository.save(topicThread);
 
+        topicForumRepository.incrementThreadCount(owningForum.getName());
+        owningForum.recordNewThread();
+
         Post post = new Post(topicThreadCreationDto.getFirstPostContent(), currentDate);
         post.setThread(topicThread);
         post.setUser(creatingUser);
         post = postRepository.save(post);
 
+        topicThreadRepository.recordNewPost(topicThread.getId(), post.getId(), creatingUser.getUsername(),
+                post.getPostedAt());
+        topicThread.recordNewPost(post);
+
+        topicForumRepository.recordNewPost(owningForum.getName(), topicThread.getId(), topicThread.getTitle(),
+                post.getId(), creatingUser.getUsername(), post.getPostedAt());
+        owningForum.recordNewPost(post);
+
+        userRepository.incrementPostCount(creatingUser.getUsername());
+        creatingUser.setPostCount(creatingUser.getPostCount() + 1);
+
+        publishThreadContentChanged(topicThread);
+        applicationEventPublisher.publishEvent(new PostChangedEvent(this, post, PostChangedEvent.ChangeType.CREATED));
+
         return topicThread;
     }
 
@@ -95,7 +134,7 @@ public class TopicThreadServiceImpl implements TopicThreadService {
     /**
      * Gets Page number pageNum of Posts belonging to the given TopicThread and sorted by posting date order. The page
      * will contain postsPerPage elements (or less, if its the last page). If the given page number does not exist,
-     * returns null
+     * returns null. Concurrent requests for the same page share a single load (see SingleFlight).
      *
      * @param thread The TopicThread to get posts for
      * @param pageNum the number of the page to get (will be decremented by 1)
@@ -104,12 +143,20 @@ public class TopicThreadServiceImpl implements TopicThreadService {
      */
     @Override
     public Page<Post> getPostPageByThread(TopicThread thread, int pageNum, int postsPerPage) {
+        return loadPostPage(getPostPageKey("offset", thread, pageNum, postsPerPage, null, null),
+                () -> loadPostPageByThread(thread, pageNum, postsPerPage));
+    }
+
+    /**
+     * Helper method that loads a page of posts using offset pagination.
+     */
+    private Page<Post> loadPostPageByThread(TopicThread thread, int pageNum, int postsPerPage) {
         if (pageNum - 1 < 0) {
             System.out.println("### Negative page number");
             return null;
         }
 
-        Pageable pageReq = PageRequest.of(pageNum - 1, postsPerPage, Sort.by("postedAt").ascending());
+        Pageable pageReq = PageRequest.of(pageNum - 1, postsPerPage, Sort.by("postedAt", "id").ascending());
         Page<Post> postsPage = postRepository.findAllByThread(thread, pageReq);
 
         if (pageNum > postsPage.getTotalPages()) {
@@ -120,6 +167,181 @@ public class TopicThreadServiceImpl implements TopicThreadService {
         return postsPage;
     }
 
+    /**
+     * Gets Page number pageNum of Posts belonging to the given TopicThread and sorted by posting date order, using
+     * keyset (seek) pagination for pages beyond the seek pagination threshold. Deep pages are located relative to the
+     * given cursor: the page starts just after the "after" cursor, or ends just before the "before" cursor. The last
+     * page of the thread is read backwards from the end of the thread and needs no cursor. The total number of posts
+     * is taken from the thread's stored post count. A cursor is only used if it is where the numbered page starts or
+     * ends, which is checked by counting the posts before it.
+     *
+     * Shallow pages, and deep pages requested without a usable cursor, fall back to offset pagination. Concurrent
+     * requests for the same page share a single load (see SingleFlight).
+     *
+     * @param thread The TopicThread to get posts for
+     * @param pageNum the number of the page to get (will be decremented by 1)
+     * @param postsPerPage the maximum number of posts per page
+     * @param after the position of the last post of the previous page, or null
+     * @param before the position of the first post of the next page, or null
+     * @return the Page of Posts, or null, if the numbered page does not exist
+     */
+    @Override
+    public Page<Post> getPostPageByThread(TopicThread thread, int pageNum, int postsPerPage, PostCursor after,
+                                          PostCursor before) {
+        return loadPostPage(getPostPageKey("seek", thread, pageNum, postsPerPage, after, before),
+                () -> loadPostPageByThread(thread, pageNum, postsPerPage, after, before));
+    }
+
+    /**
+     * Helper method that runs the given load of a page of posts, or shares a concurrent load of the same page. Only the
+     * IDs of the page's posts are shared: the request that ran the load keeps the Posts it loaded, and the requests
+     * that shared it fetch the Posts by ID, so that no managed Post is used by more than one request.
+     */
+    private Page<Post> loadPostPage(String key, Supplier<Page<Post>> loader) {
+        AtomicReference<Page<Post>> loadedPage = new AtomicReference<>();
+        Page<Long> postIdPage = postPageLoads.execute(key, () -> {
+            Page<Post> page = loader.get();
+            loadedPage.set(page);
+            return page == null ? null : page.map(Post::getId);
+        });
+
+        if (postIdPage == null) {
+            return null;
+        } else if (loadedPage.get() != null) {
+            return loadedPage.get();
+        }
+
+        Map<Long, Post> postsById = new HashMap<>();
+        for (Post post : postRepository.findAllById(postIdPage.getContent())) {
+            postsById.put(post.getId(), post);
+        }
+
+        List<Post> posts = new ArrayList<>();
+        for (Long postId : postIdPage) {
+            if (postsById.containsKey(postId)) {
+                posts.add(postsById.get(postId));
+            }
+        }
+
+        return new PageImpl<Post>(posts, postIdPage.getPageable(), postIdPage.getTotalElements());
+    }
+
+    /**
+     * Helper method that loads a page of posts, using keyset pagination where possible.
+     */
+    private Page<Post> loadPostPageByThread(TopicThread thread, int pageNum, int postsPerPage, PostCursor after,
+                                            PostCursor before) {
+        if (pageNum - 1 < 0) {
+            return null;
+        }
+
+        int totalPosts = thread.getPostCount();
+        int totalPages = (totalPosts + postsPerPage - 1) / postsPerPage;
+        boolean isLastPage = pageNum == totalPages;
+
+        if (pageNum <= SEEK_PAGINATION_THRESHOLD || (after == null && before == null && !isLastPage)) {
+            return loadPostPageByThread(thread, pageNum, postsPerPage);
+        }
+
+        if (pageNum > totalPages) {
+            return null;
+        }
+
+        if (!isCursorOnPage(thread, pageNum, postsPerPage, after, before)) {
+            return loadPostPageByThread(thread, pageNum, postsPerPage);
+        }
+
+        List<Post> posts;
+        if (after != null) {
+            posts = postRepository.findPostsInThreadAfter(thread, after.getPostedAt(), after.getId(),
+                    PageRequest.of(0, postsPerPage));
+        } else if (before != null) {
+            posts = new ArrayList<>(postRepository.findPostsInThreadBefore(thread, before.getPostedAt(), before.getId(),
+                    PageRequest.of(0, postsPerPage)));
+            Collections.reverse(posts);
+        } else {
+            int lastPageSize = totalPosts - (totalPages - 1) * postsPerPage;
+            posts = new ArrayList<>(postRepository.findLatestPostsInThread(thread, PageRequest.of(0, lastPageSize)));
+            Collections.reverse(posts);
+        }
+
+        if (posts.isEmpty()) {
+            return null;
+        }
+
+        return new PageImpl<Post>(posts, PageRequest.of(pageNum - 1, postsPerPage), totalPosts);
+    }
+
+    /**
+     * Helper method that checks that the given cursor is the last post of the page before the numbered page ("after")
+     * or the first post of the page after it ("before"). A cursor edited by hand, or one pointing at a post that has
+     * since been deleted, would otherwise show posts from elsewhere in the thread under the requested page number.
+     */
+    private boolean isCursorOnPage(TopicThread thread, int pageNum, int postsPerPage, PostCursor after,
+                                   PostCursor before) {
+        if (after != null) {
+            return postRepository.countPostsBeforeInThread(thread.getId(), after.getPostedAt(), after.getId())
+                    == (long) (pageNum - 1) * postsPerPage - 1;
+        } else if (before != null) {
+            return postRepository.countPostsBeforeInThread(thread.getId(), before.getPostedAt(), before.getId())
+                    == (long) pageNum * postsPerPage;
+        }
+
+        return true;
+    }
+
+    /**
+     * Helper method that builds the key identifying a load of a page of posts. The key includes the thread's last
+     * modified time, so a request made after a change to the thread never shares a load started before the change.
+     */
+    private String getPostPageKey(String mode, TopicThread thread, int pageNum, int postsPerPage, PostCursor after,
+                                  PostCursor before) {
+        Date lastModifiedAt = thread.getLastModifiedAt();
+        return mode + ":" + thread.getId() + ":" + (lastModifiedAt == null ? 0 : lastModifiedAt.getTime()) + ":"
+                + thread.getPostCount() + ":" + pageNum + ":" + postsPerPage + ":" + after + ":" + before;
+    }
+
+    /**
+     * Get the number of post page loads run and the number of requests for a post page that shared another request's
+     * load.
+     *
+     * @return the counters of the post page loads
+     */
+    @Override
+    public RequestCoalescingStatsDto getPostPageLoadStats() {
+        return new RequestCoalescingStatsDto("postPages", postPageLoads.getLoadCount(),
+                postPageLoads.getCoalescedRequestCount(), postPageLoads.getInFlightLoadCount());
+    }
+
+    /**
+     * Gets the posts made in the given thread after the given position, in posting order, for an open page of the
+     * thread to append. If the thread's last post is the post at the given position, there are no new posts and the
+     * posts table is not queried.
+     *
+     * @param thread the TopicThread to get new posts for
+     * @param after the position of the last post shown on the page
+     * @param maxPosts the maximum number of posts to get
+     * @return the response containing up to maxPosts new posts
+     */
+    @Override
+    public NewPostsResponseDto getNewPostsInThread(TopicThread thread, PostCursor after, int maxPosts) {
+        List<NewPostDto> newPosts = new ArrayList<>();
+        boolean hasMore = false;
+
+        if (!after.getId().equals(thread.getLastPostId())) {
+            List<Post> posts = postRepository.findPostsInThreadAfter(thread, after.getPostedAt(), after.getId(),
+                    PageRequest.of(0, maxPosts + 1));
+            hasMore = posts.size() > maxPosts;
+
+            for (Post post : posts.subList(0, Math.min(posts.size(), maxPosts))) {
+                newPosts.add(forumHierarchyConverter.convertNewPost(post));
+            }
+        }
+
+        String cursor = newPosts.isEmpty() ? after.toString() : newPosts.get(newPosts.size() - 1).getCursor();
+        return new NewPostsResponseDto(newPosts, cursor, hasMore, thread.isLocked());
+    }
+
     /**
      * Gets Page number pageNum of Posts belonging to the given User and sorted by posting date order. The page
      * will contain postsPerPage elements (or less, if its the last page). If the given page number does not exist,
@@ -153,9 +375,11 @@ public class TopicThreadServiceImpl implements TopicThreadService {
     }
 
     /**
-     * Helper method that determines the pagination page number (on the user page) of the post with the given ID
-     * @param postId
-     * @return
+     * Helper method that determines the pagination page number (on the thread page) of the post with the given ID, by
+     * counting the posts that precede it on its thread rather than loading the thread's posts.
+     *
+     * @param postId the ID of the post
+     * @return the page number of the post on its thread, or -1 if no such post exists
      */
     @Override
     public int getPostPageNumberOnThreadByPostId(Long postId) {
@@ -167,70 +391,67 @@ public class TopicThreadServiceImpl implements TopicThreadService {
 
         Post post = postOpt.get();
 
-        List<Post> sortedPostsOnThread = post.getThread().getPosts().stream().collect(Collectors.toList());
-        int postIndex = sortedPostsOnThread.indexOf(post);
+        long postIndex = postRepository.countPostsBeforeInThread(post.getThread().getId(), post.getPostedAt(),
+                post.getId());
 
-        int pageNum = (postIndex / POSTS_PER_PAGE) + 1;
+        int pageNum = (int) (postIndex / POSTS_PER_PAGE) + 1;
 
         return pageNum;
     }
 
     /**
-     * Get the Page of TopicThreads belonging to the forum with the given name with the given pageNum index that are
-     * the results of a search with the given search text, up to a maximum of threadsPerPage
+     * Get the Slice of TopicThreads belonging to the forum with the given name with the given pageNum index that are
+     * the results of a search with the given search text, up to a maximum of threadsPerPage. The matching threads are
+     * not counted, since the search results only link to the previous and next pages.
      *
      * @param forumName the forum to search threads for
      * @param searchText the text to search for
      * @param pageNum the number of the page
      * @param threadsPerPage the maximum number of threads per page
-     * @return the Page of TopicThreads resulting from the search, or null, if the pageNum was invalid
+     * @return the Slice of TopicThreads resulting from the search, or null, if the pageNum was invalid
      */
     @Override
-    public Page<TopicThread> searchTopicThreadsPaginated(String forumName, String searchText, int pageNum, int threadsPerPage) {
+    public Slice<TopicThread> searchTopicThreadsPaginated(String forumName, String searchText, int pageNum, int threadsPerPage) {
         if (pageNum - 1 < 0) {
             System.out.println("### Negative page number");
             return null;
         }
 
         Pageable pageReq = PageRequest.of(pageNum - 1, threadsPerPage);
-        Page<TopicThread> threadsPage = topicThreadRepository.searchForTopicThreadsInForum(forumName, searchText, pageReq);
+        Slice<TopicThread> threadsSlice = topicThreadRepository.searchForTopicThreadsInForumAsSlice(forumName, searchText, pageReq);
 
-        if (threadsPage.getTotalElements() == 0) {
-            return new PageImpl<TopicThread>(new ArrayList<TopicThread>());
-        }
-
-        if (pageNum > threadsPage.getTotalPages()) {
+        if (!threadsSlice.hasContent() && pageNum > 1) {
             System.out.println("### Invalid page number");
             return null;
         }
 
-        return threadsPage;
+        return threadsSlice;
     }
 
     /**
-     * Get the Page of TopicThreadViewDtoLight representing TopicThreads belonging to the forum with the given name with
-     * the given pageNum index that are the results of a search with the given search text, up to a maximum of
+     * Get the Slice of TopicThreadViewDtoLight representing TopicThreads belonging to the forum with the given name
+     * with the given pageNum index that are the results of a search with the given search text, up to a maximum of
      * threadsPerPage
      *
      * @param forumName the forum to search threads for
      * @param searchText the text to search for
      * @param pageNum the number of the page
      * @param threadsPerPage the maximum number of threads per page
-     * @return the Page of TopicThreads resulting from the search, or null, if the pageNum was invalid
+     * @return the Slice of TopicThreads resulting from the search, or null, if the pageNum was invalid
      */
     @Override
-    public Page<TopicThreadViewDtoLight> searchTopicThreadsAsViewDtos(String forumName, String searchText, int pageNum, int threadsPerPage) {
-        Page<TopicThread> threadsPage = searchTopicThreadsPaginated(forumName, searchText, pageNum, threadsPerPage);
+    public Slice<TopicThreadViewDtoLight> searchTopicThreadsAsViewDtos(String forumName, String searchText, int pageNum, int threadsPerPage) {
+        Slice<TopicThread> threadsSlice = searchTopicThreadsPaginated(forumName, searchText, pageNum, threadsPerPage);
 
-        if (threadsPage == null) {
+        if (threadsSlice == null) {
             return null;
         }
 
         TopicForum forum = forumService.getForumByName(forumName);
 
-        Page<TopicThreadViewDtoLight> threadsDtoPage = convertThreadsToThreadViewDtos(threadsPage, forum);
+        Slice<TopicThreadViewDtoLight> threadsDtoSlice = convertThreadsToThreadViewDtos(threadsSlice, forum);
 
-        return threadsDtoPage;
+        return threadsDtoSlice;
     }
 
     /**
@@ -275,24 +496,78 @@ public class TopicThreadServiceImpl implements TopicThreadService {
      */
     @Override
     public Page<TopicThreadViewDtoLight> getTopicThreadViewDtosLightByForumPaginated(TopicForum forum, int pageNum, int threadsPerPage) {
-        Page<TopicThread> threads = getTopicThreadsByForumPaginated(forum, pageNum, threadsPerPage);
+        return getTopicThreadViewDtosLightByForumPaginated(forum, pageNum, threadsPerPage, null);
+    }
 
-        if (threads == null) {
+    /**
+     * Get the Page indexed by pageNum consisting of up to threadsPerPage TopicThreadViewDtoLights representing
+     * TopicThreads on the given forum, each flagged as unread if it has posts the given user has not read. The read
+     * markers of the threads on the page are looked up in one batch.
+     *
+     * @param forum the forum to get threads for
+     * @param pageNum the number of the Page to get
+     * @param threadsPerPage the maximum number of threads per page
+     * @param viewer the user viewing the threads, or null if the user is not logged in
+     * @return the Page indexed by pageNum consisting of up to threadsPerPage TopicThreadViewDtoLights representing
+     * TopicThreads on the given forum.
+     */
+    @Override
+    public Page<TopicThreadViewDtoLight> getTopicThreadViewDtosLightByForumPaginated(TopicForum forum, int pageNum,
+                                                                                   int threadsPerPage, User viewer) {
+        if (pageNum - 1 < 0) {
             return null;
         }
 
-        return convertThreadsToThreadViewDtos(threads, forum);
+        Pageable pageReq = PageRequest.of(pageNum - 1, threadsPerPage);
+        Page<TopicThreadRowDto> rowsPage = topicThreadRepository.findThreadRowsByForumName(forum.getName(), pageReq);
+
+        if (rowsPage.getTotalElements() == 0) {
+            return new PageImpl<TopicThreadViewDtoLight>(new ArrayList<TopicThreadViewDtoLight>());
+        }
+
+        if (pageNum > rowsPage.getTotalPages()) {
+            return null;
+        }
+
+        TopicForumViewDtoLight forumViewDto = forumHierarchyConverter.convertForumLight(forum);
+
+        Map<Long, Long> lastReadPostIds = Collections.emptyMap();
+        if (viewer != null) {
+            List<Long> threadIds = new ArrayList<>();
+            for (TopicThreadRowDto row : rowsPage) {
+                threadIds.add(row.getId());
+            }
+            lastReadPostIds = readMarkerService.getLastReadPostIds(viewer, threadIds);
+        }
+
+        List<TopicThreadViewDtoLight> threadDtos = new ArrayList<>();
+
+        for (TopicThreadRowDto row : rowsPage) {
+            TopicThreadViewDtoLight threadDto = forumHierarchyConverter.convertThreadRow(row, forumViewDto);
+            threadDto.setCreationTimeDifferenceMessage(timeCalculatorService.getTimeSinceThreadCreationMessage(threadDto));
+            threadDto.setUpdateTimeDifferenceMessage(timeCalculatorService.getTimeSinceThreadUpdatedMessage(threadDto));
+
+            if (viewer != null && readMarkerService.isEnabled()) {
+                Long lastReadPostId = lastReadPostIds.get(row.getId());
+                threadDto.setUnread(lastReadPostId == null
+                        || (row.getLastPostId() != null && row.getLastPostId() > lastReadPostId));
+            }
+
+            threadDtos.add(threadDto);
+        }
+
+        return new PageImpl<TopicThreadViewDtoLight>(threadDtos, rowsPage.getPageable(), rowsPage.getTotalElements());
     }
 
     /**
-     * Helper method that converts a Page of TopicThreads from the given forum into a Page of TopicThreadViewDtoLights
+     * Helper method that converts a Slice of TopicThreads from the given forum into a Slice of TopicThreadViewDtoLights
      * representing those TopicThreads
      *
-     * @param threads the Page of TopicThreads to convert
+     * @param threads the Slice of TopicThreads to convert
      * @param forum the forum the TopicThreads belong to
-     * @return the page of TopicThreadViewDtoLights representing threads
+     * @return the Slice of TopicThreadViewDtoLights representing threads
      */
-    private Page<TopicThreadViewDtoLight> convertThreadsToThreadViewDtos(Page<TopicThread> threads, TopicForum forum) {
+    private Slice<TopicThreadViewDtoLight> convertThreadsToThreadViewDtos(Slice<TopicThread> threads, TopicForum forum) {
         TopicForumViewDtoLight forumViewDto = forumHierarchyConverter.convertForumLight(forum);
 
         List<TopicThreadViewDtoLight> threadDtos = new ArrayList<>();
@@ -305,9 +580,38 @@ public class TopicThreadServiceImpl implements TopicThreadService {
             threadDtos.add(threadDto);
         }
 
-        Page<TopicThreadViewDtoLight> threadDtoPage = new PageImpl<TopicThreadViewDtoLight>(threadDtos, threads.getPageable(), threads.getTotalElements());
+        Slice<TopicThreadViewDtoLight> threadDtoSlice = new SliceImpl<TopicThreadViewDtoLight>(threadDtos, threads.getPageable(), threads.hasNext());
+
+        return threadDtoSlice;
+    }
+
+    /**
+     * Recomputes the denormalized post summary (post count and first and last posts) of every TopicThread whose post
+     * count does not match the number of posts it contains, for example because its posts were inserted without going
+     * through the post services.
+     *
+     * @return the number of threads whose post summary was corrected
+     */
+    @Transactional
+    @Override
+    public int reconcilePostSummaries() {
+        List<TopicThread> staleThreads = topicThreadRepository.findThreadsWithStalePostSummary();
+
+        for (TopicThread thread : staleThreads) {
+            int postCount = postRepository.countByThread(thread);
+            Post firstPost = postRepository.findFirstByThreadOrderByPostedAtAsc(thread);
+            Post lastPost = postRepository.findFirstByThreadOrderByPostedAtDesc(thread);
+
+            if (firstPost == null || lastPost == null) {
+                topicThreadRepository.updatePostSummary(thread.getId(), postCount, null, null, null, null, null, null);
+            } else {
+                topicThreadRepository.updatePostSummary(thread.getId(), postCount, firstPost.getId(),
+                        firstPost.getUser().getUsername(), firstPost.getPostedAt(), lastPost.getId(),
+                        lastPost.getUser().getUsername(), lastPost.getPostedAt());
+            }
+        }
 
-        return threadDtoPage;
+        return staleThreads.size();
     }
 
     /**
@@ -355,11 +659,14 @@ public class TopicThreadServiceImpl implements TopicThreadService {
      * @param thread the thread to lock
      * @return true if the user succeeded in locking the thread, false otherwise
      */
+    @Transactional
     @Override
     public boolean lockThread(User lockingUser, TopicThread thread) {
         if (canUserLockThread(lockingUser, thread)) {
             thread.lock(lockingUser);
             topicThreadRepository.save(thread);
+            markThreadAndForumModified(thread);
+            publishThreadContentChanged(thread);
             return true;
         } else {
             return false;
@@ -373,11 +680,14 @@ public class TopicThreadServiceImpl implements TopicThreadService {
      * @param thread the thread to unlock
      * @return true if the user succeeded in unlocking the thread, false otherwise
      */
+    @Transactional
     @Override
     public boolean unlockThread(User unlockingUser, TopicThread thread) {
         if (canUserUnlockThread(unlockingUser, thread)) {
             thread.unlock();
             topicThreadRepository.save(thread);
+            markThreadAndForumModified(thread);
+            publishThreadContentChanged(thread);
             return true;
         } else {
             return false;
@@ -409,4 +719,21 @@ public class TopicThreadServiceImpl implements TopicThreadService {
         calendar.setTime(new Timestamp(calendar.getTime().getTime()));
         return new Date(calendar.getTime().getTime());
     }
+
+    /**
+     * Helper method that records that the pages of the given thread and of its forum changed now
+     */
+    private void markThreadAndForumModified(TopicThread thread) {
+        Date currentDate = getCurrentDate();
+        topicThreadRepository.markModified(thread.getId(), currentDate);
+        topicForumRepository.markModified(thread.getForum().getName(), currentDate);
+    }
+
+    /**
+     * Helper method that publishes a ThreadContentChangedEvent for the given thread
+     */
+    private void publishThreadContentChanged(TopicThread thread) {
+        applicationEventPublisher.publishEvent(new ThreadContentChangedEvent(this, thread.getForum().getName(),
+                thread.getId()));
+    }
 }
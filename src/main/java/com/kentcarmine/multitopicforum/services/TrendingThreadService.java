@@ -0,0 +1,24 @@
+package com.kentcarmine.multitopicforum.services;
+
+import com.kentcarmine.multitopicforum.dtos.TrendingThreadDto;
+import com.kentcarmine.multitopicforum.model.Post;
+
+import java.util.List;
+
+public interface TrendingThreadService {
+    boolean isEnabled();
+
+    void recordPost(Post post);
+
+    void recordVote(Post post);
+
+    void recordActivity(Long threadId, String forumName, String title, double weight, long atMillis);
+
+    List<TrendingThreadDto> getTrendingThreads(int limit);
+
+    int getHomePageSize();
+
+    int warmLoad();
+
+    int getTrackedThreadCount();
+}
@@ -0,0 +1,231 @@
+package com.kentcarmine.multitopicforum.services;
+
+import com.kentcarmine.multitopicforum.dtos.ThreadActivityDto;
+import com.kentcarmine.multitopicforum.dtos.TrendingThreadDto;
+import com.kentcarmine.multitopicforum.helpers.TrendingThreadScore;
+import com.kentcarmine.multitopicforum.model.Post;
+import com.kentcarmine.multitopicforum.model.TopicThread;
+import com.kentcarmine.multitopicforum.repositories.PostRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Service that ranks threads across all forums by recent activity. Each new post and vote adds a weight to its thread's
+ * score, and scores decay exponentially, halving every configured half-life. The ranking is kept up to date in memory as
+ * posts and votes arrive, so serving it needs no query.
+ *
+ * Scores are forward-decayed (see TrendingThreadScore), so a score only changes when its thread is active and the
+ * scores can be kept in a sorted set without being re-sorted as time passes. The service is bounded: once it tracks the
+ * configured number of threads, a newly active thread replaces the lowest scoring thread if it would outscore it, and
+ * is dropped otherwise.
+ */
+@Service
+public class TrendingThreadServiceImpl implements TrendingThreadService {
+
+    // Threads whose decayed score has fallen below this are not shown, so that a thread that was last active long ago
+    // does not show as trending while few threads are tracked
+    private static final double MIN_SCORE = 0.05;
+
+    // Forward-decayed weights grow exponentially with the time since the landmark, so the landmark is moved forward and
+    // every score scaled down before they could overflow
+    private static final double MAX_EXPONENT = 200;
+
+    private static final Comparator<TrendingThreadScore> SCORE_ORDER = Comparator
+            .comparingDouble(TrendingThreadScore::getScore)
+            .thenComparing(TrendingThreadScore::getThreadId);
+
+    @Value("${com.kentcarmine.multitopicforum.trending.enabled}")
+    private boolean ENABLED;
+
+    @Value("${com.kentcarmine.multitopicforum.trending.half-life-minutes}")
+    private long HALF_LIFE_MINUTES;
+
+    @Value("${com.kentcarmine.multitopicforum.trending.max-threads}")
+    private int MAX_THREADS;
+
+    @Value("${com.kentcarmine.multitopicforum.trending.post-weight}")
+    private double POST_WEIGHT;
+
+    @Value("${com.kentcarmine.multitopicforum.trending.vote-weight}")
+    private double VOTE_WEIGHT;
+
+    @Value("${com.kentcarmine.multitopicforum.trending.home-page-size}")
+    private int HOME_PAGE_SIZE;
+
+    @Value("${com.kentcarmine.multitopicforum.trending.warm-load-hours}")
+    private long WARM_LOAD_HOURS;
+
+    private final PostRepository postRepository;
+
+    private final Map<Long, TrendingThreadScore> scoresByThreadId = new HashMap<>();
+    private TreeSet<TrendingThreadScore> scores = new TreeSet<>(SCORE_ORDER);
+    private long landmarkMillis = System.currentTimeMillis();
+
+    @Autowired
+    public TrendingThreadServiceImpl(PostRepository postRepository) {
+        this.postRepository = postRepository;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Record the given newly created post as activity on its thread.
+     *
+     * @param post the created post
+     */
+    @Override
+    public void recordPost(Post post) {
+        TopicThread thread = post.getThread();
+        long postedAt = post.getPostedAt() == null ? System.currentTimeMillis() : post.getPostedAt().getTime();
+        recordActivity(thread.getId(), thread.getForum().getName(), thread.getTitle(), POST_WEIGHT, postedAt);
+    }
+
+    /**
+     * Record a vote on the given post as activity on its thread.
+     *
+     * @param post the voted-on post
+     */
+    @Override
+    public void recordVote(Post post) {
+        TopicThread thread = post.getThread();
+        recordActivity(thread.getId(), thread.getForum().getName(), thread.getTitle(), VOTE_WEIGHT,
+                System.currentTimeMillis());
+    }
+
+    /**
+     * Add activity with the given weight, happening at the given time, to the score of the thread with the given ID.
+     *
+     * @param threadId the ID of the thread
+     * @param forumName the name of the forum the thread belongs to
+     * @param title the title of the thread
+     * @param weight the weight of the activity
+     * @param atMillis the time the activity happened, in milliseconds since the epoch
+     */
+    @Override
+    public synchronized void recordActivity(Long threadId, String forumName, String title, double weight,
+                                            long atMillis) {
+        if (!ENABLED) {
+            return;
+        }
+
+        if (getDecayRate() * (atMillis - landmarkMillis) > MAX_EXPONENT) {
+            moveLandmark(atMillis);
+        }
+
+        double decayedWeight = weight * Math.exp(getDecayRate() * (atMillis - landmarkMillis));
+
+        TrendingThreadScore score = scoresByThreadId.get(threadId);
+        if (score != null) {
+            scores.remove(score);
+            score.setTitle(title);
+            score.add(decayedWeight);
+            scores.add(score);
+            return;
+        }
+
+        if (scoresByThreadId.size() >= MAX_THREADS) {
+            TrendingThreadScore lowest = scores.first();
+            if (lowest.getScore() >= decayedWeight) {
+                return;
+            }
+
+            scores.pollFirst();
+            scoresByThreadId.remove(lowest.getThreadId());
+        }
+
+        score = new TrendingThreadScore(threadId, forumName, title);
+        score.add(decayedWeight);
+        scoresByThreadId.put(threadId, score);
+        scores.add(score);
+    }
+
+    /**
+     * Get up to the given number of the highest scoring threads, with their scores decayed to the current time.
+     *
+     * @param limit the maximum number of threads to get
+     * @return the highest scoring threads, highest first
+     */
+    @Override
+    public synchronized List<TrendingThreadDto> getTrendingThreads(int limit) {
+        List<TrendingThreadDto> trendingThreads = new ArrayList<>();
+        double decay = Math.exp(-getDecayRate() * (System.currentTimeMillis() - landmarkMillis));
+
+        for (TrendingThreadScore score : scores.descendingSet()) {
+            double decayedScore = score.getScore() * decay;
+            if (trendingThreads.size() >= limit || decayedScore < MIN_SCORE) {
+                break;
+            }
+
+            trendingThreads.add(new TrendingThreadDto(score.getThreadId(), score.getForumName(), score.getTitle(),
+                    decayedScore));
+        }
+
+        return trendingThreads;
+    }
+
+    @Override
+    public int getHomePageSize() {
+        return HOME_PAGE_SIZE;
+    }
+
+    /**
+     * Replay the posts made within the configured number of hours, so that the ranking does not start empty.
+     *
+     * @return the number of posts replayed
+     */
+    @Override
+    public int warmLoad() {
+        if (!ENABLED) {
+            return 0;
+        }
+
+        Date since = new Date(System.currentTimeMillis() - Duration.ofHours(WARM_LOAD_HOURS).toMillis());
+        List<ThreadActivityDto> activity = postRepository.findThreadActivitySince(since);
+        for (ThreadActivityDto post : activity) {
+            recordActivity(post.getThreadId(), post.getForumName(), post.getTitle(), POST_WEIGHT,
+                    post.getPostedAt().getTime());
+        }
+
+        return activity.size();
+    }
+
+    @Override
+    public synchronized int getTrackedThreadCount() {
+        return scoresByThreadId.size();
+    }
+
+    /**
+     * Helper method that gets the decay rate per millisecond for the configured half-life.
+     */
+    private double getDecayRate() {
+        return Math.log(2) / Duration.ofMinutes(HALF_LIFE_MINUTES).toMillis();
+    }
+
+    /**
+     * Helper method that moves the landmark forward to the given time, scaling every score down to match and dropping
+     * the threads whose scores have decayed below the minimum shown.
+     */
+    private void moveLandmark(long newLandmarkMillis) {
+        double decay = Math.exp(-getDecayRate() * (newLandmarkMillis - landmarkMillis));
+        TreeSet<TrendingThreadScore> rescaledScores = new TreeSet<>(SCORE_ORDER);
+
+        for (TrendingThreadScore score : scores) {
+            score.setScore(score.getScore() * decay);
+            if (score.getScore() < MIN_SCORE) {
+                scoresByThreadId.remove(score.getThreadId());
+            } else {
+                rescaledScores.add(score);
+            }
+        }
+
+        scores = rescaledScores;
+        landmarkMillis = newLandmarkMillis;
+    }
+}
@@ -4,6 +4,7 @@ import com.kentcarmine.multitopicforum.converters.UserDtoToUserConverter;
 import com.kentcarmine.multitopicforum.dtos.UserDto;
 import com.kentcarmine.multitopicforum.exceptions.DuplicateEmailException;
 import com.kentcarmine.multitopicforum.exceptions.DuplicateUsernameException;
+import com.kentcarmine.multitopicforum.helpers.AfterCommitHelper;
 import com.kentcarmine.multitopicforum.model.PasswordResetToken;
 import com.kentcarmine.multitopicforum.model.User;
 import com.kentcarmine.multitopicforum.model.UserRole;
@@ -32,6 +33,7 @@ public class UserAccountServiceImpl implements UserAccountService {
     private final AuthorityRepository authorityRepository;
     private final MessageService messageService;
     private final UserService userService;
+    private final UsernameIndexService usernameIndexService;
 
     @Autowired
     public UserAccountServiceImpl(UserRepository userRepository, UserDtoToUserConverter userDtoToUserConverter,
@@ -39,7 +41,7 @@ public class UserAccountServiceImpl implements UserAccountService {
                                   VerificationTokenRepository verificationTokenRepository,
                                   PasswordResetTokenRepository passwordResetTokenRepository,
                                   AuthorityRepository authorityRepository, MessageService messageService,
-                                  UserService userService) {
+                                  UserService userService, UsernameIndexService usernameIndexService) {
         this.userRepository = userRepository;
         this.userDtoToUserConverter = userDtoToUserConverter;
         this.passwordEncoder = passwordEncoder;
@@ -48,6 +50,7 @@ public class UserAccountServiceImpl implements UserAccountService {
         this.authorityRepository = authorityRepository;
         this.messageService = messageService;
         this.userService = userService;
+        this.usernameIndexService = usernameIndexService;
     }
 
     /**
@@ -64,7 +67,7 @@ public class UserAccountServiceImpl implements UserAccountService {
     }
 
     /**
-     * Saves the given user to persistent storage.
+     * Saves the given user to persistent storage and adds their username to the username index.
      *
      * @param user the user to save
      * @return the created User object
@@ -86,7 +89,11 @@ public class UserAccountServiceImpl implements UserAccountService {
 
         user.addAuthority(UserRole.USER);
 
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        String username = user.getUsername();
+        AfterCommitHelper.runAfterCommit(() -> usernameIndexService.addUsername(username));
+
+        return savedUser;
     }
 
     /**
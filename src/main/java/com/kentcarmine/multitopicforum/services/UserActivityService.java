@@ -0,0 +1,17 @@
+package com.kentcarmine.multitopicforum.services;
+
+import com.kentcarmine.multitopicforum.model.User;
+
+import java.util.Date;
+
+public interface UserActivityService {
+    void recordActivity(User user);
+
+    void recordActivity(User user, Date activeAt);
+
+    int flush();
+
+    int getPendingUserCount();
+
+    int backfillLastActiveAt();
+}
@@ -0,0 +1,127 @@
+package com.kentcarmine.multitopicforum.services;
+
+import com.kentcarmine.multitopicforum.model.User;
+import com.kentcarmine.multitopicforum.repositories.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service that keeps the last active time stored on each User up to date as users post, vote and log in. Activity is
+ * held in memory and coalesced to the latest time per user, and written to the users table on a schedule (see
+ * UserActivityFlushTask) and when the application shuts down, so that each post, vote or login does not also issue an
+ * update of the user's row.
+ */
+@Service
+public class UserActivityServiceImpl implements UserActivityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserActivityServiceImpl.class);
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<String, Date> pendingActivity = new ConcurrentHashMap<>();
+
+    @Autowired
+    public UserActivityServiceImpl(UserRepository userRepository, TransactionTemplate transactionTemplate) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Record that the given user is active now.
+     *
+     * @param user the active user
+     */
+    @Override
+    public void recordActivity(User user) {
+        recordActivity(user, new Date());
+    }
+
+    /**
+     * Record that the given user was active at the given time. Recording an earlier time than one already recorded for
+     * the user has no effect.
+     *
+     * @param user the active user
+     * @param activeAt the time the user was active
+     */
+    @Override
+    public void recordActivity(User user, Date activeAt) {
+        if (user == null || activeAt == null) {
+            return;
+        }
+
+        pendingActivity.merge(user.getUsername(), activeAt, (a, b) -> a.after(b) ? a : b);
+    }
+
+    /**
+     * Write the last active time of every user with pending activity to the database, in a single transaction. Activity
+     * recorded while the flush is in progress is kept for the next flush. If the write fails, the activity is kept for
+     * the next flush.
+     *
+     * @return the number of users whose activity was written
+     */
+    @Override
+    public synchronized int flush() {
+        Map<String, Date> activity = new HashMap<>();
+        for (Map.Entry<String, Date> entry : pendingActivity.entrySet()) {
+            activity.put(entry.getKey(), entry.getValue());
+            pendingActivity.remove(entry.getKey(), entry.getValue());
+        }
+
+        if (activity.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            transactionTemplate.execute(status -> {
+                for (Map.Entry<String, Date> entry : activity.entrySet()) {
+                    userRepository.updateLastActiveAt(entry.getKey(), entry.getValue());
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            logger.error("Could not write the last active times of " + activity.size() + " users", e);
+            for (Map.Entry<String, Date> entry : activity.entrySet()) {
+                pendingActivity.merge(entry.getKey(), entry.getValue(), (a, b) -> a.after(b) ? a : b);
+            }
+            return 0;
+        }
+
+        return activity.size();
+    }
+
+    @Override
+    public int getPendingUserCount() {
+        return pendingActivity.size();
+    }
+
+    /**
+     * Populates the last active time of each user who has none from the time of their latest post, for users who were
+     * last active before the column existed (or whose posts were created by a bootstrap class).
+     *
+     * @return the number of users whose last active time was populated
+     */
+    @Transactional
+    @Override
+    public int backfillLastActiveAt() {
+        return userRepository.backfillLastActiveAt();
+    }
+
+    /**
+     * Write the pending activity before the application stops.
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
@@ -49,4 +49,6 @@ public interface UserService {
     DemoteUserResponseDto getDemoteUserResponseDtoForUser(User demotedUser);
 
     User getLoggedInUserIfNotDisciplined();
+
+    int reconcilePostCounts();
 }
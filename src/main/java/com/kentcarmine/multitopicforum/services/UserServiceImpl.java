@@ -41,18 +41,21 @@ public class UserServiceImpl implements UserService {
     private final UserToUserRankAdjustmentDtoConverter userToUserRankAdjustmentDtoConverter;
     private final MessageService messageService;
     private final TimeCalculatorService timeCalculatorService;
+    private final UsernameIndexService usernameIndexService;
 
     @Autowired
     public UserServiceImpl(UserRepository userRepository, AuthenticationService authenticationService,
                            AuthorityRepository authorityRepository,
                            UserToUserRankAdjustmentDtoConverter userToUserRankAdjustmentDtoConverter,
-                           MessageService messageService, TimeCalculatorService timeCalculatorService) {
+                           MessageService messageService, TimeCalculatorService timeCalculatorService,
+                           UsernameIndexService usernameIndexService) {
         this.userRepository = userRepository;
         this.authenticationService = authenticationService;
         this.authorityRepository = authorityRepository;
         this.userToUserRankAdjustmentDtoConverter = userToUserRankAdjustmentDtoConverter;
         this.messageService = messageService;
         this.timeCalculatorService = timeCalculatorService;
+        this.usernameIndexService = usernameIndexService;
     }
 
     /**
@@ -122,6 +125,16 @@ public class UserServiceImpl implements UserService {
     }
 
 
+    /**
+     * Get the given page of users whose usernames contain all of the space-delimited terms of the given search text,
+     * ignoring case. The matching usernames are found in the in-memory username index once it has been filled, and
+     * only the users on the requested page are loaded; until then the users table is searched.
+     *
+     * @param searchText the search text
+     * @param pageNum the number of the page to get, starting at 1
+     * @param usersPerPage the number of users per page
+     * @return the requested page of matching users, or null if the page number is invalid
+     */
     @Override
     public Page<User> searchForUsersPaginated(String searchText, int pageNum, int usersPerPage) {
         if (pageNum - 1 < 0) {
@@ -130,7 +143,9 @@ public class UserServiceImpl implements UserService {
         }
 
         Pageable pageReq = PageRequest.of(pageNum - 1, usersPerPage);
-        Page<User> usersPage = userRepository.findAllUsersByUsernamesLikeIgnoreCaseCustom(searchText, pageReq);
+        Page<User> usersPage = usernameIndexService.isLoaded()
+                ? getUsersPageByUsernames(usernameIndexService.searchUsernames(searchText), pageReq)
+                : userRepository.findAllUsersByUsernamesLikeIgnoreCaseCustom(searchText, pageReq);
 
         if (usersPage.getTotalElements() == 0) {
             if (pageNum > usersPage.getTotalPages() && pageNum != 1) {
@@ -346,6 +361,46 @@ public class UserServiceImpl implements UserService {
         return loggedInUser;
     }
 
+    /**
+     * Recomputes the denormalized post count stored on each User from the post and archived post tables, correcting any
+     * counts that are missing or have drifted (for example, due to posts being inserted without going through the post
+     * services).
+     *
+     * @return the number of users whose post count was corrected
+     */
+    @Transactional
+    @Override
+    public int reconcilePostCounts() {
+        return userRepository.reconcilePostCounts();
+    }
+
+    /**
+     * Helper method that loads the users on the given page of the given list of usernames, keeping the order of the
+     * list.
+     */
+    private Page<User> getUsersPageByUsernames(List<String> usernames, Pageable pageable) {
+        int fromIndex = (int) Math.min(pageable.getOffset(), usernames.size());
+        int toIndex = Math.min(fromIndex + pageable.getPageSize(), usernames.size());
+        List<String> pageUsernames = usernames.subList(fromIndex, toIndex);
+
+        List<User> users = new ArrayList<>();
+        if (!pageUsernames.isEmpty()) {
+            Map<String, User> usersByUsername = new HashMap<>();
+            for (User user : userRepository.findAllByUsernameIn(pageUsernames)) {
+                usersByUsername.put(user.getUsername(), user);
+            }
+
+            for (String username : pageUsernames) {
+                User user = usersByUsername.get(username);
+                if (user != null) {
+                    users.add(user);
+                }
+            }
+        }
+
+        return new PageImpl<User>(users, pageable, usernames.size());
+    }
+
     /**
      * Helper method that converts a list of Users to a list of UserSearchResultDtos
      *
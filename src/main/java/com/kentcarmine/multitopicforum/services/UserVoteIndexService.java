@@ -0,0 +1,18 @@
+package com.kentcarmine.multitopicforum.services;
+
+import com.kentcarmine.multitopicforum.dtos.UserVoteIndexStatsDto;
+import com.kentcarmine.multitopicforum.helpers.UserVoteIndex;
+import com.kentcarmine.multitopicforum.model.PostVoteState;
+import com.kentcarmine.multitopicforum.model.User;
+
+public interface UserVoteIndexService {
+    boolean isEnabled();
+
+    UserVoteIndex getIndex(User user);
+
+    void recordVote(User user, Long postId, PostVoteState postVoteState);
+
+    UserVoteIndexStatsDto getStats();
+
+    void clear();
+}
@@ -0,0 +1,174 @@
+package com.kentcarmine.multitopicforum.services;
+
+import com.kentcarmine.multitopicforum.dtos.PostVoteStateDto;
+import com.kentcarmine.multitopicforum.dtos.UserVoteIndexStatsDto;
+import com.kentcarmine.multitopicforum.helpers.LongByteHashMap;
+import com.kentcarmine.multitopicforum.helpers.UserVoteIndex;
+import com.kentcarmine.multitopicforum.model.PostVoteState;
+import com.kentcarmine.multitopicforum.model.User;
+import com.kentcarmine.multitopicforum.repositories.PostVoteRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Service that holds the votes of recently active users in memory, in a UserVoteIndex per user, so that showing how a
+ * user voted on the posts of a page needs no query. A user's index is loaded from the database the first time it is
+ * needed and kept up to date as the user votes, including votes recorded while it is being loaded. Votes still held by
+ * the write-behind vote buffer are not in the database yet, so they are merged into an index as it is loaded. The
+ * service is bounded: the index of the least recently used user is dropped once it holds more than the configured
+ * number of users.
+ */
+@Service
+public class UserVoteIndexServiceImpl implements UserVoteIndexService {
+
+    @Value("${com.kentcarmine.multitopicforum.votes.user-index.enabled}")
+    private boolean ENABLED;
+
+    @Value("${com.kentcarmine.multitopicforum.votes.user-index.max-users}")
+    private int MAX_USERS;
+
+    private final PostVoteRepository postVoteRepository;
+    private final VoteBufferService voteBufferService;
+
+    private final Map<String, UserVoteIndex> indexes = new LinkedHashMap<String, UserVoteIndex>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, UserVoteIndex> eldest) {
+            return size() > MAX_USERS;
+        }
+    };
+
+    // Votes recorded for users whose indexes are being loaded, to be applied once the load is done
+    private final Map<String, Map<Long, Byte>> votesDuringLoads = new HashMap<>();
+
+    private final LongAdder loads = new LongAdder();
+
+    @Autowired
+    public UserVoteIndexServiceImpl(PostVoteRepository postVoteRepository, VoteBufferService voteBufferService) {
+        this.postVoteRepository = postVoteRepository;
+        this.voteBufferService = voteBufferService;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Get the index of the votes made by the given user, loading it from the database if it is not already held.
+     *
+     * @param user the user
+     * @return the index of the votes made by the given user
+     */
+    @Override
+    public UserVoteIndex getIndex(User user) {
+        String username = user.getUsername();
+
+        synchronized (this) {
+            UserVoteIndex index = indexes.get(username);
+            if (index != null) {
+                return index;
+            }
+
+            votesDuringLoads.putIfAbsent(username, new LinkedHashMap<>());
+        }
+
+        // Loaded without holding the lock, so that one user's load does not hold up other users' lookups
+        UserVoteIndex loadedIndex = loadIndex(user);
+
+        synchronized (this) {
+            UserVoteIndex index = indexes.get(username);
+            if (index != null) {
+                return index;
+            }
+
+            Map<Long, Byte> votesDuringLoad = votesDuringLoads.remove(username);
+            if (votesDuringLoad != null) {
+                for (Map.Entry<Long, Byte> vote : votesDuringLoad.entrySet()) {
+                    loadedIndex = loadedIndex.withVote(vote.getKey(), vote.getValue());
+                }
+            }
+
+            indexes.put(username, loadedIndex);
+            return loadedIndex;
+        }
+    }
+
+    /**
+     * Record a vote made by the given user on the post with the given ID in the user's index, if the user's index is
+     * held or being loaded. Otherwise the vote is read from the database when the user's index is next loaded. Should
+     * only be called once the vote has been committed.
+     *
+     * @param user the user who made the vote
+     * @param postId the ID of the voted-on post
+     * @param postVoteState the state of the vote
+     */
+    @Override
+    public synchronized void recordVote(User user, Long postId, PostVoteState postVoteState) {
+        byte vote = (byte) postVoteState.getValue();
+
+        UserVoteIndex index = indexes.get(user.getUsername());
+        if (index != null) {
+            indexes.put(user.getUsername(), index.withVote(postId, vote));
+        }
+
+        Map<Long, Byte> votesDuringLoad = votesDuringLoads.get(user.getUsername());
+        if (votesDuringLoad != null) {
+            votesDuringLoad.put(postId, vote);
+        }
+    }
+
+    /**
+     * Get the number of users and votes held, and an estimate of the heap they occupy.
+     *
+     * @return the number of users and votes held, and an estimate of the heap they occupy
+     */
+    @Override
+    public synchronized UserVoteIndexStatsDto getStats() {
+        long indexedVotes = 0;
+        long memoryFootprintBytes = 0;
+        for (UserVoteIndex index : indexes.values()) {
+            indexedVotes += index.size();
+            memoryFootprintBytes += index.getMemoryFootprintBytes();
+        }
+
+        return new UserVoteIndexStatsDto(indexes.size(), indexedVotes, memoryFootprintBytes, loads.sum());
+    }
+
+    @Override
+    public synchronized void clear() {
+        indexes.clear();
+    }
+
+    /**
+     * Helper method that loads the votes made by the given user from the database, with the user's votes still held by
+     * the vote buffer in place of the stored ones. The buffer is read first: a flush writes votes before dropping them
+     * from the buffer, so a vote flushed in between is read from the database. Votes with a state of NONE are left out,
+     * since a post without a vote in the index is treated as not voted on.
+     */
+    private UserVoteIndex loadIndex(User user) {
+        loads.increment();
+
+        Map<Long, PostVoteState> bufferedVotes = voteBufferService.getBufferedVoteStates(user.getUsername());
+        List<PostVoteStateDto> votes = postVoteRepository.findAllVoteStatesByUser(user);
+        LongByteHashMap voteMap = new LongByteHashMap(votes.size(), (byte) PostVoteState.NONE.getValue());
+        for (PostVoteStateDto vote : votes) {
+            if (!vote.getPostVoteState().isNoVote()) {
+                voteMap.put(vote.getPostId(), (byte) vote.getPostVoteState().getValue());
+            }
+        }
+
+        // Only votes other than NONE are buffered
+        for (Map.Entry<Long, PostVoteState> vote : bufferedVotes.entrySet()) {
+            voteMap.put(vote.getKey(), (byte) vote.getValue().getValue());
+        }
+
+        return UserVoteIndex.of(voteMap);
+    }
+}
@@ -0,0 +1,19 @@
+package com.kentcarmine.multitopicforum.services;
+
+import java.util.List;
+
+public interface UsernameIndexService {
+    boolean isEnabled();
+
+    boolean isLoaded();
+
+    void addUsername(String username);
+
+    List<String> searchUsernames(String searchText);
+
+    List<String> autocompleteUsernames(String prefix, int limit);
+
+    int getAutocompleteSize();
+
+    int warmLoad();
+}
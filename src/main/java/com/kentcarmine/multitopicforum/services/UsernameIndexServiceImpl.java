@@ -0,0 +1,127 @@
+package com.kentcarmine.multitopicforum.services;
+
+import com.kentcarmine.multitopicforum.helpers.UsernameIndex;
+import com.kentcarmine.multitopicforum.repositories.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Service that holds every username in memory, in a UsernameIndex, so that user searches and username autocompletion do
+ * not scan the users table. The index is filled from the database at startup (see UsernameIndexWarmLoadTask) and kept
+ * up to date as users register. Until it has been filled, autocompletion is answered from the database instead.
+ */
+@Service
+public class UsernameIndexServiceImpl implements UsernameIndexService {
+
+    @Value("${com.kentcarmine.multitopicforum.users.username-index.enabled}")
+    private boolean ENABLED;
+
+    @Value("${com.kentcarmine.multitopicforum.users.autocomplete.size}")
+    private int AUTOCOMPLETE_SIZE;
+
+    private final UserRepository userRepository;
+
+    private final UsernameIndex usernameIndex = new UsernameIndex();
+
+    private volatile boolean loaded = false;
+
+    @Autowired
+    public UsernameIndexServiceImpl(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Returns true if the index is enabled and holds every username, false otherwise.
+     *
+     * @return true if the index is enabled and holds every username, false otherwise
+     */
+    @Override
+    public boolean isLoaded() {
+        return ENABLED && loaded;
+    }
+
+    @Override
+    public void addUsername(String username) {
+        if (ENABLED) {
+            usernameIndex.add(username);
+        }
+    }
+
+    /**
+     * Get every username in the index containing all of the space-delimited terms of the given search text, ignoring
+     * case, in descending order. Only complete once the index has been filled (see isLoaded).
+     *
+     * @param searchText the search text
+     * @return every username in the index matching the given search text
+     */
+    @Override
+    public List<String> searchUsernames(String searchText) {
+        return usernameIndex.search(List.of(searchText.split(" ")));
+    }
+
+    /**
+     * Get up to the given number of usernames starting with the given prefix, ignoring case, in ascending order.
+     *
+     * @param prefix the prefix
+     * @param limit the maximum number of usernames to return
+     * @return up to the given number of usernames starting with the given prefix
+     */
+    @Override
+    public List<String> autocompleteUsernames(String prefix, int limit) {
+        if (prefix.isBlank()) {
+            return new ArrayList<>();
+        }
+
+        if (isLoaded()) {
+            return usernameIndex.findByPrefix(prefix, limit);
+        }
+
+        return userRepository.findUsernamesLikeIgnoreCase(escapeWildcards(prefix.toLowerCase(Locale.ROOT)) + "%",
+                PageRequest.of(0, limit));
+    }
+
+    @Override
+    public int getAutocompleteSize() {
+        return AUTOCOMPLETE_SIZE;
+    }
+
+    /**
+     * Fill the index with every username in the database. Users registering while it is being filled are added as
+     * well.
+     *
+     * @return the number of usernames held by the index
+     */
+    @Override
+    public int warmLoad() {
+        if (!ENABLED) {
+            return 0;
+        }
+
+        for (String username : userRepository.findAllUsernames()) {
+            usernameIndex.add(username);
+        }
+        loaded = true;
+
+        return usernameIndex.size();
+    }
+
+    /**
+     * Helper method that escapes the special characters of SQL LIKE patterns in the given string.
+     */
+    private String escapeWildcards(String str) {
+        return str.replace("\\", "\\\\")
+                .replace("_", "\\_")
+                .replace("%", "\\%");
+    }
+}
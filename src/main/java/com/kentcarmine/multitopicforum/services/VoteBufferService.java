@@ -0,0 +1,23 @@
+package com.kentcarmine.multitopicforum.services;
+
+import com.kentcarmine.multitopicforum.model.Post;
+import com.kentcarmine.multitopicforum.model.PostVoteState;
+import com.kentcarmine.multitopicforum.model.User;
+
+import java.util.Map;
+
+public interface VoteBufferService {
+    boolean isEnabled();
+
+    boolean bufferVote(User user, Post post, PostVoteState postVoteState);
+
+    PostVoteState getBufferedVoteState(String username, Long postId);
+
+    Map<Long, PostVoteState> getBufferedVoteStates(String username);
+
+    int getBufferedVoteCount();
+
+    int flush();
+
+    int replayJournal();
+}
@@ -0,0 +1,370 @@
+package com.kentcarmine.multitopicforum.services;
+
+import com.kentcarmine.multitopicforum.helpers.BufferedVote;
+import com.kentcarmine.multitopicforum.model.Post;
+import com.kentcarmine.multitopicforum.model.PostVoteState;
+import com.kentcarmine.multitopicforum.model.User;
+import com.kentcarmine.multitopicforum.repositories.PostVoteRepository;
+import com.kentcarmine.multitopicforum.repositories.TopicThreadRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Service that implements write-behind voting. Accepted votes are held in memory, coalesced to one vote per user per
+ * post, and written to the post_vote table in JDBC batches, along with one last modified time update per thread. Vote
+ * totals are kept by VoteCounterService, which counts a vote as soon as it is accepted. Votes are flushed on a schedule
+ * (see VoteBufferFlushTask), as soon as the configured number of votes are waiting, and when the application shuts
+ * down. No more than the configured maximum number of votes are held, so votes are refused while the database cannot
+ * be written to for long enough to fill the buffer.
+ *
+ * If a journal path is configured, each vote is appended to the journal before it is accepted and the journal is
+ * replayed at startup, so that votes accepted but not yet flushed survive a crash of the application. The journal is
+ * flushed to the operating system but not synced to disk.
+ */
+@Service
+public class VoteBufferServiceImpl implements VoteBufferService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VoteBufferServiceImpl.class);
+
+    @Value("${com.kentcarmine.multitopicforum.votes.write-behind.enabled}")
+    private boolean ENABLED;
+
+    @Value("${com.kentcarmine.multitopicforum.votes.write-behind.flush-size}")
+    private int FLUSH_SIZE;
+
+    @Value("${com.kentcarmine.multitopicforum.votes.write-behind.max-buffered-votes}")
+    private int MAX_BUFFERED_VOTES;
+
+    @Value("${com.kentcarmine.multitopicforum.votes.write-behind.journal-path}")
+    private String JOURNAL_PATH;
+
+    private final PostVoteRepository postVoteRepository;
+    private final TopicThreadRepository topicThreadRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<String, BufferedVote> bufferedVotes = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean flushRequested = new AtomicBoolean(false);
+    private final ExecutorService flusher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "vote-buffer-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Object journalLock = new Object();
+    private BufferedWriter journalWriter;
+
+    @Autowired
+    public VoteBufferServiceImpl(PostVoteRepository postVoteRepository, TopicThreadRepository topicThreadRepository,
+                                 TransactionTemplate transactionTemplate) {
+        this.postVoteRepository = postVoteRepository;
+        this.topicThreadRepository = topicThreadRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Accept the given user's vote on the given post, to be written to the database by a later flush.
+     *
+     * @param user the user voting
+     * @param post the post being voted on
+     * @param postVoteState the state of the vote
+     * @return true if the vote was accepted, false if the user already has a buffered vote on the post, the buffer is
+     * full or the vote could not be journaled
+     */
+    @Override
+    public boolean bufferVote(User user, Post post, PostVoteState postVoteState) {
+        if (bufferedVotes.size() >= MAX_BUFFERED_VOTES) {
+            return false;
+        }
+
+        BufferedVote vote = new BufferedVote(post.getId(), post.getThread().getId(), user.getUsername(), postVoteState,
+                System.currentTimeMillis());
+
+        if (bufferedVotes.putIfAbsent(vote.getKey(), vote) != null) {
+            return false;
+        }
+
+        try {
+            appendToJournal(vote);
+        } catch (IOException e) {
+            logger.error("Could not journal " + vote, e);
+            bufferedVotes.remove(vote.getKey(), vote);
+            return false;
+        }
+
+        if (bufferedVotes.size() >= FLUSH_SIZE && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(() -> {
+                flushRequested.set(false);
+                flush();
+            });
+        }
+
+        return true;
+    }
+
+    /**
+     * Get the state of the given user's buffered vote on the post with the given ID.
+     *
+     * @param username the username of the user
+     * @param postId the ID of the post
+     * @return the state of the buffered vote, or null if the user has no buffered vote on the post
+     */
+    @Override
+    public PostVoteState getBufferedVoteState(String username, Long postId) {
+        BufferedVote vote = bufferedVotes.get(new BufferedVote(postId, null, username, PostVoteState.NONE, 0).getKey());
+        return vote == null ? null : vote.getPostVoteState();
+    }
+
+    /**
+     * Get the states of all of the given user's buffered votes.
+     *
+     * @param username the username of the user
+     * @return map from the IDs of the posts the user has buffered votes on to the states of those votes
+     */
+    @Override
+    public Map<Long, PostVoteState> getBufferedVoteStates(String username) {
+        Map<Long, PostVoteState> voteStates = new HashMap<>();
+        for (BufferedVote vote : bufferedVotes.values()) {
+            if (vote.getUsername().equals(username)) {
+                voteStates.put(vote.getPostId(), vote.getPostVoteState());
+            }
+        }
+
+        return voteStates;
+    }
+
+    @Override
+    public int getBufferedVoteCount() {
+        return bufferedVotes.size();
+    }
+
+    /**
+     * Write every buffered vote to the database in a single transaction, then drop them from the buffer and the
+     * journal. If the batch cannot be written, the votes are written one at a time instead, so that a vote that can
+     * never be written does not hold up the others: such a vote is dropped, and the votes that could not be written for
+     * any other reason stay buffered for the next flush.
+     *
+     * @return the number of votes written
+     */
+    @Override
+    public synchronized int flush() {
+        if (bufferedVotes.isEmpty()) {
+            return 0;
+        }
+
+        List<BufferedVote> votes = new ArrayList<>(bufferedVotes.values());
+        List<BufferedVote> doneVotes;
+        int savedVoteCount;
+        try {
+            List<BufferedVote> savedVotes = transactionTemplate.execute(status -> writeVotes(votes));
+            doneVotes = votes;
+            savedVoteCount = savedVotes == null ? 0 : savedVotes.size();
+        } catch (RuntimeException e) {
+            logger.warn("Could not flush " + votes.size() + " buffered votes as one batch, writing them one at a time",
+                    e);
+            doneVotes = new ArrayList<>();
+            savedVoteCount = writeVotesIndividually(votes, doneVotes);
+        }
+
+        if (doneVotes.isEmpty()) {
+            return 0;
+        }
+
+        for (BufferedVote vote : doneVotes) {
+            bufferedVotes.remove(vote.getKey(), vote);
+        }
+
+        try {
+            rewriteJournal();
+        } catch (IOException e) {
+            logger.error("Could not rewrite vote journal", e);
+        }
+
+        return savedVoteCount;
+    }
+
+    /**
+     * Buffer the votes in the journal left by a previous run of the application, and flush them. Votes that were
+     * already written before the previous run stopped are not written again. The votes are not counted by
+     * VoteCounterService; the vote totals are reconciled at startup after the journal is replayed.
+     *
+     * @return the number of votes read from the journal
+     */
+    @Override
+    public int replayJournal() {
+        Path journalPath = getJournalPath();
+        if (journalPath == null || !Files.exists(journalPath)) {
+            return 0;
+        }
+
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(journalPath, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.error("Could not read vote journal " + journalPath, e);
+            return 0;
+        }
+
+        int replayedVotes = 0;
+        for (String line : lines) {
+            BufferedVote vote = BufferedVote.parse(line);
+            if (vote != null && bufferedVotes.putIfAbsent(vote.getKey(), vote) == null) {
+                replayedVotes++;
+            }
+        }
+
+        flush();
+        return replayedVotes;
+    }
+
+    /**
+     * Drain the buffer before the application stops.
+     */
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        flush();
+
+        synchronized (journalLock) {
+            closeJournalWriter();
+        }
+    }
+
+    /**
+     * Helper method that writes the given votes and the thread modification times they cause. Must be called in a
+     * transaction.
+     */
+    private List<BufferedVote> writeVotes(List<BufferedVote> votes) {
+        List<BufferedVote> savedVotes = postVoteRepository.saveBufferedVotes(votes);
+
+        Set<Long> threadIds = new HashSet<>();
+        for (BufferedVote vote : savedVotes) {
+            threadIds.add(vote.getThreadId());
+        }
+
+        Date modifiedAt = Date.from(Instant.now());
+        for (Long threadId : threadIds) {
+            topicThreadRepository.markModified(threadId, modifiedAt);
+        }
+
+        return savedVotes;
+    }
+
+    /**
+     * Helper method that writes each of the given votes in its own transaction, adding the votes that no longer need to
+     * be buffered to doneVotes. A vote that breaks a constraint of the database is dropped. Stops at the first vote that
+     * fails for any other reason, since the database is then most likely unavailable.
+     *
+     * @return the number of votes written
+     */
+    private int writeVotesIndividually(List<BufferedVote> votes, List<BufferedVote> doneVotes) {
+        int savedVoteCount = 0;
+        for (BufferedVote vote : votes) {
+            try {
+                List<BufferedVote> savedVotes = transactionTemplate.execute(status -> writeVotes(List.of(vote)));
+                savedVoteCount += savedVotes == null ? 0 : savedVotes.size();
+                doneVotes.add(vote);
+            } catch (DataIntegrityViolationException e) {
+                logger.error("Dropping buffered vote that cannot be written: " + vote, e);
+                doneVotes.add(vote);
+            } catch (RuntimeException e) {
+                logger.error("Could not flush buffered vote " + vote, e);
+                break;
+            }
+        }
+
+        return savedVoteCount;
+    }
+
+    /**
+     * Helper method that appends the given vote to the journal, if there is one
+     */
+    private void appendToJournal(BufferedVote vote) throws IOException {
+        Path journalPath = getJournalPath();
+        if (journalPath == null) {
+            return;
+        }
+
+        synchronized (journalLock) {
+            if (journalWriter == null) {
+                journalWriter = Files.newBufferedWriter(journalPath, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+
+            journalWriter.write(vote.toJournalLine());
+            journalWriter.newLine();
+            journalWriter.flush();
+        }
+    }
+
+    /**
+     * Helper method that replaces the journal, if there is one, with the votes that are still buffered. A vote buffered
+     * while the journal is rewritten may be journaled twice, which is harmless.
+     */
+    private void rewriteJournal() throws IOException {
+        Path journalPath = getJournalPath();
+        if (journalPath == null) {
+            return;
+        }
+
+        synchronized (journalLock) {
+            closeJournalWriter();
+
+            Path tempPath = journalPath.resolveSibling(journalPath.getFileName() + ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(tempPath, StandardCharsets.UTF_8)) {
+                for (BufferedVote vote : bufferedVotes.values()) {
+                    writer.write(vote.toJournalLine());
+                    writer.newLine();
+                }
+            }
+            Files.move(tempPath, journalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    /**
+     * Helper method that closes the journal writer, if it is open. Must be called while holding the journal lock.
+     */
+    private void closeJournalWriter() {
+        if (journalWriter != null) {
+            try {
+                journalWriter.close();
+            } catch (IOException e) {
+                logger.error("Could not close vote journal", e);
+            }
+            journalWriter = null;
+        }
+    }
+
+    private Path getJournalPath() {
+        return JOURNAL_PATH == null || JOURNAL_PATH.isBlank() ? null : Paths.get(JOURNAL_PATH);
+    }
+}
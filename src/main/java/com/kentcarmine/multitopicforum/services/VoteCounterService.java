@@ -0,0 +1,24 @@
+package com.kentcarmine.multitopicforum.services;
+
+import com.kentcarmine.multitopicforum.model.Post;
+import com.kentcarmine.multitopicforum.model.PostVoteState;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.IntSupplier;
+
+public interface VoteCounterService {
+    int getVoteCount(Post post);
+
+    Map<Long, Integer> getVoteCounts(Collection<Post> posts);
+
+    int recordVote(Post post, PostVoteState postVoteState);
+
+    int checkpoint();
+
+    int reconcile(IntSupplier reconciliation);
+
+    int warmLoad();
+
+    int getCounterCount();
+}
@@ -0,0 +1,230 @@
+package com.kentcarmine.multitopicforum.services;
+
+import com.kentcarmine.multitopicforum.dtos.PostVoteCountsDto;
+import com.kentcarmine.multitopicforum.helpers.AfterCommitHelper;
+import com.kentcarmine.multitopicforum.helpers.PostVoteCounter;
+import com.kentcarmine.multitopicforum.model.Post;
+import com.kentcarmine.multitopicforum.model.PostVoteState;
+import com.kentcarmine.multitopicforum.repositories.PostRepository;
+import com.kentcarmine.multitopicforum.repositories.TopicThreadRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntSupplier;
+
+/**
+ * Service that keeps the vote totals of posts in memory, in a PostVoteCounter per post, so that recording a vote does
+ * not update the post's row and reading a post's total does not need it to be reloaded. The votes recorded since the
+ * last checkpoint are added to the stored totals periodically (see VoteCounterCheckpointTask) and when the application
+ * shuts down.
+ *
+ * A post's counter is created from its stored totals the first time a vote on it is recorded, or at startup for the
+ * posts in the most recently modified threads. Posts without a counter have no votes pending, so their stored totals are
+ * current. Votes are added to the counters only once the transaction that saved them commits.
+ */
+@Service
+public class VoteCounterServiceImpl implements VoteCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VoteCounterServiceImpl.class);
+
+    @Value("${com.kentcarmine.multitopicforum.votes.counters.warm-load-threads}")
+    private int WARM_LOAD_THREADS;
+
+    private final PostRepository postRepository;
+    private final TopicThreadRepository topicThreadRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Replaced as a whole when the stored totals are reconciled
+    private volatile Map<Long, PostVoteCounter> counters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public VoteCounterServiceImpl(PostRepository postRepository, TopicThreadRepository topicThreadRepository,
+                                  TransactionTemplate transactionTemplate) {
+        this.postRepository = postRepository;
+        this.topicThreadRepository = topicThreadRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Get the current vote total of the given post, including votes not yet checkpointed.
+     *
+     * @param post the post
+     * @return the current vote total of the post
+     */
+    @Override
+    public int getVoteCount(Post post) {
+        PostVoteCounter counter = counters.get(post.getId());
+        return counter == null ? post.getVoteCount() : counter.getVoteCount();
+    }
+
+    /**
+     * Generates a map from the IDs of the given posts to their current vote totals.
+     *
+     * @param posts the posts to get vote totals for (typically the posts on the page being displayed)
+     * @return map from post IDs to the current vote totals of those posts
+     */
+    @Override
+    public Map<Long, Integer> getVoteCounts(Collection<Post> posts) {
+        Map<Long, Integer> voteCounts = new HashMap<>();
+
+        for (Post post : posts) {
+            voteCounts.put(post.getId(), getVoteCount(post));
+        }
+
+        return voteCounts;
+    }
+
+    /**
+     * Record a newly cast vote with the given state on the given post. The vote is added to the post's counter once the
+     * current transaction commits. Should be called before the vote is applied to the in-memory totals of the post, as
+     * those are used to create the post's counter if it does not have one.
+     *
+     * @param post the post voted on
+     * @param postVoteState the state of the new vote
+     * @return the post's vote total including the new vote
+     */
+    @Override
+    public int recordVote(Post post, PostVoteState postVoteState) {
+        if (postVoteState.isNoVote()) {
+            return getVoteCount(post);
+        }
+
+        int voteCount = getVoteCount(post) + (postVoteState.isUpvote() ? 1 : -1);
+
+        Long postId = post.getId();
+        int upvoteCount = post.getUpvoteCount();
+        int downvoteCount = post.getDownvoteCount();
+        AfterCommitHelper.runAfterCommit(() -> counters
+                .computeIfAbsent(postId, id -> new PostVoteCounter(upvoteCount, downvoteCount))
+                .recordVote(postVoteState));
+
+        return voteCount;
+    }
+
+    /**
+     * Add the votes recorded since the last checkpoint to the stored vote totals of their posts, in a single
+     * transaction. If that fails, the votes are kept for the next checkpoint.
+     *
+     * @return the number of posts whose stored totals were updated
+     */
+    @Override
+    public synchronized int checkpoint() {
+        Map<Long, PostVoteCounter> counters = this.counters;
+        Map<Long, int[]> pendingVotes = new HashMap<>();
+        for (Map.Entry<Long, PostVoteCounter> entry : counters.entrySet()) {
+            int upvotes = entry.getValue().takePendingUpvotes();
+            int downvotes = entry.getValue().takePendingDownvotes();
+            if (upvotes != 0 || downvotes != 0) {
+                pendingVotes.put(entry.getKey(), new int[]{upvotes, downvotes});
+            }
+        }
+
+        if (pendingVotes.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            transactionTemplate.execute(status -> {
+                for (Map.Entry<Long, int[]> entry : pendingVotes.entrySet()) {
+                    postRepository.incrementVoteCounts(entry.getKey(), entry.getValue()[0], entry.getValue()[1]);
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            logger.error("Could not checkpoint vote totals of " + pendingVotes.size() + " posts", e);
+            for (Map.Entry<Long, int[]> entry : pendingVotes.entrySet()) {
+                counters.get(entry.getKey()).restorePendingVotes(entry.getValue()[0], entry.getValue()[1]);
+            }
+            return 0;
+        }
+
+        return pendingVotes.size();
+    }
+
+    /**
+     * Checkpoint the counters, swap in an empty set of counters so that they are recreated from the reconciled totals,
+     * then run the given reconciliation of the stored vote totals against the post_vote table. Votes recorded in the old
+     * counters after the checkpoint are folded into the new counters once the reconciliation is done.
+     *
+     * @param reconciliation the reconciliation to run
+     * @return the result of the reconciliation
+     */
+    @Override
+    public synchronized int reconcile(IntSupplier reconciliation) {
+        checkpoint();
+
+        Map<Long, PostVoteCounter> replacedCounters = counters;
+        counters = new ConcurrentHashMap<>();
+        try {
+            return reconciliation.getAsInt();
+        } finally {
+            foldPendingVotes(replacedCounters);
+        }
+    }
+
+    /**
+     * Create counters for the posts in the most recently modified threads, which are the posts most likely to be voted
+     * on or viewed soon.
+     *
+     * @return the number of counters created
+     */
+    @Override
+    public int warmLoad() {
+        List<Long> threadIds = topicThreadRepository.findRecentlyModifiedThreadIds(PageRequest.of(0, WARM_LOAD_THREADS));
+        if (threadIds.isEmpty()) {
+            return 0;
+        }
+
+        int loadedCounters = 0;
+        for (PostVoteCountsDto voteCounts : postRepository.findVoteCountsByThreadIds(threadIds)) {
+            PostVoteCounter counter = new PostVoteCounter(voteCounts.getUpvoteCount(), voteCounts.getDownvoteCount());
+            if (counters.putIfAbsent(voteCounts.getPostId(), counter) == null) {
+                loadedCounters++;
+            }
+        }
+
+        return loadedCounters;
+    }
+
+    @Override
+    public int getCounterCount() {
+        return counters.size();
+    }
+
+    /**
+     * Helper method that moves the votes recorded in the given replaced counters since their last checkpoint into the
+     * current counters, so that the next checkpoint writes them
+     */
+    private void foldPendingVotes(Map<Long, PostVoteCounter> replacedCounters) {
+        for (Map.Entry<Long, PostVoteCounter> entry : replacedCounters.entrySet()) {
+            int upvotes = entry.getValue().takePendingUpvotes();
+            int downvotes = entry.getValue().takePendingDownvotes();
+            if (upvotes == 0 && downvotes == 0) {
+                continue;
+            }
+
+            PostVoteCounter counter = counters.putIfAbsent(entry.getKey(), entry.getValue());
+            if (counter == null) {
+                entry.getValue().restorePendingVotes(upvotes, downvotes);
+            } else {
+                counter.recordVotes(upvotes, downvotes);
+            }
+        }
+    }
+
+    /**
+     * Checkpoint the counters before the application stops.
+     */
+    @PreDestroy
+    public void shutdown() {
+        checkpoint();
+    }
+}
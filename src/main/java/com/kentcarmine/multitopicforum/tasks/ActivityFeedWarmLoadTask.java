@@ -0,0 +1,32 @@
+package com.kentcarmine.multitopicforum.tasks;
+
+import com.kentcarmine.multitopicforum.services.ActivityFeedService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Task that fills the recent activity feed with the latest posts once at startup, so that the feed does not start empty
+ * after a restart.
+ */
+@Component
+public class ActivityFeedWarmLoadTask {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityFeedWarmLoadTask.class);
+
+    private final ActivityFeedService activityFeedService;
+
+    @Autowired
+    public ActivityFeedWarmLoadTask(ActivityFeedService activityFeedService) {
+        this.activityFeedService = activityFeedService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmLoadOnStartup() {
+        int loadedPosts = activityFeedService.warmLoad();
+        logger.info("Loaded " + loadedPosts + " posts into the recent activity feed");
+    }
+}
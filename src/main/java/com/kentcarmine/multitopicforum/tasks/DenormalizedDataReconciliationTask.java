@@ -0,0 +1,74 @@
+package com.kentcarmine.multitopicforum.tasks;
+
+import com.kentcarmine.multitopicforum.services.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Task that recomputes the denormalized vote totals, thread post summaries, forum aggregates and user post counts from
+ * the tables they summarize, and fills in missing user last active times. Runs once at startup, so that rows created
+ * before those columns existed, by a bootstrap class, or replayed from the vote journal are shown correctly. Vote totals are also rechecked periodically; buffered
+ * votes are flushed and the in-memory vote counters are checkpointed first, so that the reconciled totals include them.
+ */
+@Component
+public class DenormalizedDataReconciliationTask {
+
+    private static final Logger logger = LoggerFactory.getLogger(DenormalizedDataReconciliationTask.class);
+
+    private final PostVoteService postVoteService;
+    private final VoteBufferService voteBufferService;
+    private final VoteCounterService voteCounterService;
+    private final TopicThreadService topicThreadService;
+    private final ForumService forumService;
+    private final UserService userService;
+    private final UserActivityService userActivityService;
+
+    @Autowired
+    public DenormalizedDataReconciliationTask(PostVoteService postVoteService, VoteBufferService voteBufferService,
+                                              VoteCounterService voteCounterService,
+                                              TopicThreadService topicThreadService, ForumService forumService,
+                                              UserService userService, UserActivityService userActivityService) {
+        this.postVoteService = postVoteService;
+        this.voteBufferService = voteBufferService;
+        this.voteCounterService = voteCounterService;
+        this.topicThreadService = topicThreadService;
+        this.forumService = forumService;
+        this.userService = userService;
+        this.userActivityService = userActivityService;
+    }
+
+    @Order(0)
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        reconcileVoteCounts();
+        logCorrections("post summaries", topicThreadService.reconcilePostSummaries(), "threads");
+        logCorrections("aggregates", forumService.reconcileForumAggregates(), "forums");
+        logCorrections("post counts", userService.reconcilePostCounts(), "users");
+        logCorrections("last active times", userActivityService.backfillLastActiveAt(), "users");
+    }
+
+    @Scheduled(cron = "${com.kentcarmine.multitopicforum.votes.reconciliation.cron}")
+    public void reconcileVoteCounts() {
+        voteBufferService.flush();
+        int correctedPosts = voteCounterService.reconcile(postVoteService::reconcileVoteCounts);
+
+        if (correctedPosts > 0) {
+            logger.warn("Corrected vote totals of " + correctedPosts + " posts");
+        }
+    }
+
+    /**
+     * Helper method that logs how many rows had the given denormalized values corrected, if any did.
+     */
+    private void logCorrections(String values, int correctedRows, String rows) {
+        if (correctedRows > 0) {
+            logger.info("Corrected " + values + " of " + correctedRows + " " + rows);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.kentcarmine.multitopicforum.tasks;
+
+import com.kentcarmine.multitopicforum.services.ReadMarkerService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Task that periodically writes the read markers held in memory to the database.
+ */
+@Component
+public class ReadMarkerFlushTask {
+
+    private final ReadMarkerService readMarkerService;
+
+    @Autowired
+    public ReadMarkerFlushTask(ReadMarkerService readMarkerService) {
+        this.readMarkerService = readMarkerService;
+    }
+
+    @Scheduled(fixedDelayString = "${com.kentcarmine.multitopicforum.read-markers.flush-interval-millis}")
+    public void flushReadMarkers() {
+        if (readMarkerService.isEnabled()) {
+            readMarkerService.flush();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.kentcarmine.multitopicforum.tasks;
+
+import com.kentcarmine.multitopicforum.services.ThreadArchiveService;
+import com.kentcarmine.multitopicforum.services.VoteBufferService;
+import com.kentcarmine.multitopicforum.services.VoteCounterService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Task that periodically moves threads that have been inactive for longer than the configured age into the archive
+ * tables (see ThreadArchiveService). Buffered votes are flushed and the in-memory vote counters are checkpointed first,
+ * so that the archived vote totals include them.
+ */
+@Component
+public class ThreadArchivalTask {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThreadArchivalTask.class);
+
+    private final ThreadArchiveService threadArchiveService;
+    private final VoteBufferService voteBufferService;
+    private final VoteCounterService voteCounterService;
+
+    @Autowired
+    public ThreadArchivalTask(ThreadArchiveService threadArchiveService, VoteBufferService voteBufferService,
+                              VoteCounterService voteCounterService) {
+        this.threadArchiveService = threadArchiveService;
+        this.voteBufferService = voteBufferService;
+        this.voteCounterService = voteCounterService;
+    }
+
+    @Scheduled(cron = "${com.kentcarmine.multitopicforum.archive.cron}")
+    public void archiveInactiveThreads() {
+        if (!threadArchiveService.isEnabled()) {
+            return;
+        }
+
+        voteBufferService.flush();
+        voteCounterService.checkpoint();
+
+        int archivedThreads = threadArchiveService.archiveInactiveThreads();
+
+        if (archivedThreads > 0) {
+            logger.info("Archived " + archivedThreads + " inactive threads");
+        }
+    }
+}
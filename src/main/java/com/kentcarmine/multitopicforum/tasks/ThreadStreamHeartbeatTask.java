@@ -0,0 +1,25 @@
+package com.kentcarmine.multitopicforum.tasks;
+
+import com.kentcarmine.multitopicforum.services.ThreadStreamService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Task that periodically sends a heartbeat on every open thread update stream.
+ */
+@Component
+public class ThreadStreamHeartbeatTask {
+
+    private final ThreadStreamService threadStreamService;
+
+    @Autowired
+    public ThreadStreamHeartbeatTask(ThreadStreamService threadStreamService) {
+        this.threadStreamService = threadStreamService;
+    }
+
+    @Scheduled(fixedDelayString = "${com.kentcarmine.multitopicforum.thread-stream.heartbeat-millis}")
+    public void sendHeartbeats() {
+        threadStreamService.sendHeartbeats();
+    }
+}
@@ -0,0 +1,33 @@
+package com.kentcarmine.multitopicforum.tasks;
+
+import com.kentcarmine.multitopicforum.services.TrendingThreadService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Task that replays recent posts into the trending threads ranking once at startup, so that the ranking does not start
+ * empty after a restart.
+ */
+@Component
+public class TrendingThreadWarmLoadTask {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrendingThreadWarmLoadTask.class);
+
+    private final TrendingThreadService trendingThreadService;
+
+    @Autowired
+    public TrendingThreadWarmLoadTask(TrendingThreadService trendingThreadService) {
+        this.trendingThreadService = trendingThreadService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmLoadOnStartup() {
+        int replayedPosts = trendingThreadService.warmLoad();
+        logger.info("Replayed " + replayedPosts + " posts into the trending threads ranking, tracking "
+                + trendingThreadService.getTrackedThreadCount() + " threads");
+    }
+}
@@ -0,0 +1,25 @@
+package com.kentcarmine.multitopicforum.tasks;
+
+import com.kentcarmine.multitopicforum.services.UserActivityService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Task that periodically writes the user activity held in memory to the last active times stored on each User.
+ */
+@Component
+public class UserActivityFlushTask {
+
+    private final UserActivityService userActivityService;
+
+    @Autowired
+    public UserActivityFlushTask(UserActivityService userActivityService) {
+        this.userActivityService = userActivityService;
+    }
+
+    @Scheduled(fixedDelayString = "${com.kentcarmine.multitopicforum.users.last-active.flush-interval-millis}")
+    public void flushUserActivity() {
+        userActivityService.flush();
+    }
+}
@@ -0,0 +1,33 @@
+package com.kentcarmine.multitopicforum.tasks;
+
+import com.kentcarmine.multitopicforum.services.UsernameIndexService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Task that fills the in-memory username index from the database once at startup.
+ */
+@Component
+public class UsernameIndexWarmLoadTask {
+
+    private static final Logger logger = LoggerFactory.getLogger(UsernameIndexWarmLoadTask.class);
+
+    private final UsernameIndexService usernameIndexService;
+
+    @Autowired
+    public UsernameIndexWarmLoadTask(UsernameIndexService usernameIndexService) {
+        this.usernameIndexService = usernameIndexService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmLoadOnStartup() {
+        if (usernameIndexService.isEnabled()) {
+            int indexedUsernames = usernameIndexService.warmLoad();
+            logger.info("Loaded " + indexedUsernames + " usernames into the username index");
+        }
+    }
+}
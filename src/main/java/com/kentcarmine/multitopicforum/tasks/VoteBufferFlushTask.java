@@ -0,0 +1,46 @@
+package com.kentcarmine.multitopicforum.tasks;
+
+import com.kentcarmine.multitopicforum.services.VoteBufferService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Task that periodically writes the votes held by the write-behind vote buffer to the database. Also replays the vote
+ * journal once at startup, so that votes accepted but not written before the application last stopped are not lost.
+ */
+@Component
+public class VoteBufferFlushTask {
+
+    private static final Logger logger = LoggerFactory.getLogger(VoteBufferFlushTask.class);
+
+    private final VoteBufferService voteBufferService;
+
+    @Autowired
+    public VoteBufferFlushTask(VoteBufferService voteBufferService) {
+        this.voteBufferService = voteBufferService;
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void replayJournalOnStartup() {
+        int replayedVotes = voteBufferService.replayJournal();
+
+        if (replayedVotes > 0) {
+            logger.warn("Replayed " + replayedVotes + " votes from the vote journal");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${com.kentcarmine.multitopicforum.votes.write-behind.flush-interval-millis}")
+    public void flushVotes() {
+        if (voteBufferService.isEnabled()) {
+            voteBufferService.flush();
+        }
+    }
+}
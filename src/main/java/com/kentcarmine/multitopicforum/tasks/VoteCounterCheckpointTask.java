@@ -0,0 +1,41 @@
+package com.kentcarmine.multitopicforum.tasks;
+
+import com.kentcarmine.multitopicforum.services.VoteCounterService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Task that periodically adds the votes held by the in-memory vote counters to the stored vote totals of their posts.
+ * Also loads the counters of recently active posts once at startup, after the stored totals have been reconciled.
+ */
+@Component
+public class VoteCounterCheckpointTask {
+
+    private static final Logger logger = LoggerFactory.getLogger(VoteCounterCheckpointTask.class);
+
+    private final VoteCounterService voteCounterService;
+
+    @Autowired
+    public VoteCounterCheckpointTask(VoteCounterService voteCounterService) {
+        this.voteCounterService = voteCounterService;
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmLoadOnStartup() {
+        int loadedCounters = voteCounterService.warmLoad();
+        logger.info("Loaded vote counters of " + loadedCounters + " posts");
+    }
+
+    @Scheduled(fixedDelayString = "${com.kentcarmine.multitopicforum.votes.counters.checkpoint-interval-millis}")
+    public void checkpointVoteCounters() {
+        voteCounterService.checkpoint();
+    }
+}
@@ -0,0 +1,138 @@
+const NEW_POSTS_POLL_INTERVAL_MILLIS = 15000;
+
+$(document).ready(function() {
+    let container = $("#posts-container");
+    if (window.EventSource && container.attr("data-stream-url")) {
+        openThreadStream(container);
+    } else if (container.attr("data-new-posts-url")) {
+        scheduleNewPostsPoll(container);
+    }
+});
+
+/* Open the thread's update stream. New posts are only appended on the last page of the thread, but the posts already
+ * on the page are updated on any page. Each time the stream (re)connects, posts made while it was disconnected are
+ * requested. If the stream cannot be kept open, falls back to polling for new posts. */
+function openThreadStream(container) {
+    let stream = new EventSource(container.attr("data-stream-url"));
+
+    stream.onopen = function () {
+        if (container.attr("data-new-posts-url")) {
+            requestNewPosts(container, function (resp) {
+                if (resp.hasMore) {
+                    container.removeAttr("data-new-posts-url");
+                }
+            });
+        }
+    };
+
+    stream.onerror = function () {
+        if (stream.readyState === EventSource.CLOSED && container.attr("data-new-posts-url")) {
+            scheduleNewPostsPoll(container);
+        }
+    };
+
+    stream.addEventListener("post-created", function (event) {
+        if (container.attr("data-new-posts-url")) {
+            let post = JSON.parse(event.data);
+            appendNewPost(container, post);
+            container.attr("data-latest-post-cursor", post.cursor);
+        }
+    });
+
+    stream.addEventListener("post-voted", function (event) {
+        let post = JSON.parse(event.data);
+        $(".vote-counter[data-post-id='" + post.id + "']").text(post.voteCount);
+    });
+
+    stream.addEventListener("post-deleted", function (event) {
+        updatePostContent(container, JSON.parse(event.data));
+    });
+
+    stream.addEventListener("post-restored", function (event) {
+        updatePostContent(container, JSON.parse(event.data));
+    });
+}
+
+/* Request the posts made since the last post on the page, append them, and schedule the next request. Requests are
+ * skipped while the page is hidden. */
+function pollForNewPosts(container) {
+    if (document.hidden) {
+        scheduleNewPostsPoll(container);
+        return;
+    }
+
+    requestNewPosts(container, function (resp) {
+        // Once more posts have been made than fit on a page, this page is no longer the last page of the thread
+        if (!resp.hasMore) {
+            scheduleNewPostsPoll(container);
+        }
+    });
+}
+
+function scheduleNewPostsPoll(container) {
+    setTimeout(function () {
+        pollForNewPosts(container);
+    }, NEW_POSTS_POLL_INTERVAL_MILLIS);
+}
+
+/* Request the posts made since the last post on the page and append them */
+function requestNewPosts(container, onDone) {
+    $.ajax({
+        type: "GET",
+        dataType: 'json',
+        url: container.attr("data-new-posts-url"),
+        cache: false,
+        data: { after: container.attr("data-latest-post-cursor") }
+    }).done(function (resp) {
+        resp.posts.forEach(function (post) {
+            appendNewPost(container, post);
+        });
+        container.attr("data-latest-post-cursor", resp.cursor);
+        onDone(resp);
+    }).fail(function (xhr, status, e) {
+        console.log("error getting new posts");
+    });
+}
+
+/* Append the given post to the page, in the same layout as the post fragment shows posts that cannot be voted on */
+function appendNewPost(container, post) {
+    if ($("#post_id_" + post.id).length > 0) {
+        return;
+    }
+
+    let header = $("<div>").addClass("row align-items-center")
+        .append($("<div>").addClass("col pl-2 pr-2").css("max-width", "15rem")
+            .append($("<a>").attr("href", "/users/" + encodeURIComponent(post.username))
+                .addClass("font-weight-bold mr-3 align-middle").text(post.username))
+            .append($("<div>").addClass("text-muted small")
+                .text(container.attr("data-post-count-label").replace("{0}", post.userPostCount))))
+        .append($("<div>").addClass("col").css({"max-width": "16rem", "min-width": "10rem"})
+            .append($("<span>").addClass("vote-counter font-weight-bold align-middle ml-1 mr-1")
+                .attr("data-post-id", post.id).text(post.voteCount)))
+        .append($("<div>").addClass("col"))
+        .append($("<div>").addClass("col text-muted small text-right text-truncate").text(post.displayPostedAt));
+
+    container.append($("<div>").addClass("container-fluid mb-2")
+        .append($("<div>").addClass("row").attr("id", "post_id_" + post.id)
+            .append($("<div>").addClass("card w-100")
+                .append($("<div>").addClass("card-header").append(header))
+                .append(createPostBody(container, post)))));
+}
+
+/* Replace the content of the given post, if it is on the page, to show that it was deleted or restored */
+function updatePostContent(container, post) {
+    let body = $("#post_id_" + post.id + " .card-body");
+    if (body.length > 0) {
+        body.replaceWith(createPostBody(container, post));
+    }
+}
+
+function createPostBody(container, post) {
+    let body = $("<div>").addClass("card-body");
+    if (post.deleted) {
+        body.append($("<div>").addClass("text-warning").text(container.attr("data-deleted-label")));
+    } else {
+        body.append($("<div>").text(post.content));
+    }
+    return body;
+}
@@ -1,7 +1,11 @@
 package com.kentcarmine.multitopicforum.controllers;
 
+import com.kentcarmine.multitopicforum.dtos.RequestCoalescingStatsDto;
+import com.kentcarmine.multitopicforum.dtos.UserVoteIndexStatsDto;
 import com.kentcarmine.multitopicforum.handlers.CustomResponseEntityExceptionHandler;
 import com.kentcarmine.multitopicforum.services.MessageService;
+import com.kentcarmine.multitopicforum.services.TopicThreadService;
+import com.kentcarmine.multitopicforum.services.UserVoteIndexService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -11,6 +15,7 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -25,11 +30,17 @@ class AdministrationControllerTest {
     @Mock
     MessageService messageService;
 
+    @Mock
+    TopicThreadService topicThreadService;
+
+    @Mock
+    UserVoteIndexService userVoteIndexService;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.initMocks(this);
 
-        controller = new AdministrationController();
+        controller = new AdministrationController(topicThreadService, userVoteIndexService);
 
         mockMvc = MockMvcBuilders.standaloneSetup(controller).setControllerAdvice(new CustomResponseEntityExceptionHandler(messageService)).build();
     }
@@ -40,4 +51,26 @@ class AdministrationControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(view().name("administration-home-page"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getRequestCoalescingStats() throws Exception {
+        when(topicThreadService.getPostPageLoadStats()).thenReturn(new RequestCoalescingStatsDto("postPages", 10, 90, 1));
+
+        mockMvc.perform(get("/administration/requestCoalescingStats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("postPages"))
+                .andExpect(jsonPath("$[0].loads").value(10))
+                .andExpect(jsonPath("$[0].coalescedRequests").value(90));
+    }
+
+    @Test
+    void getUserVoteIndexStats() throws Exception {
+        when(userVoteIndexService.getStats()).thenReturn(new UserVoteIndexStatsDto(3, 120, 2048, 4));
+
+        mockMvc.perform(get("/administration/userVoteIndexStats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.indexedUsers").value(3))
+                .andExpect(jsonPath("$.indexedVotes").value(120))
+                .andExpect(jsonPath("$.memoryFootprintBytes").value(2048));
+    }
+}
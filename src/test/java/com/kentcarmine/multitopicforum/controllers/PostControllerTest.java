@@ -2,7 +2,9 @@ package com.kentcarmine.multitopicforum.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jayway.jsonpath.JsonPath;
+import com.kentcarmine.multitopicforum.dtos.BulkModeratePostsSubmissionDto;
 import com.kentcarmine.multitopicforum.dtos.DeletePostSubmissionDto;
+import com.kentcarmine.multitopicforum.dtos.PostModerationResultDto;
 import com.kentcarmine.multitopicforum.dtos.RestorePostSubmissionDto;
 import com.kentcarmine.multitopicforum.exceptions.DisciplinedUserException;
 import com.kentcarmine.multitopicforum.handlers.CustomResponseEntityExceptionHandler;
@@ -16,12 +18,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.sql.Date;
 import java.time.Instant;
+import java.util.List;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.stream.Collectors;
@@ -103,6 +107,7 @@ class PostControllerTest {
         MockitoAnnotations.initMocks(this);
 
         postController = new PostController(forumService, userService, topicThreadService, postService, postVoteService, disciplineService, messageService);
+        ReflectionTestUtils.setField(postController, "MAX_BULK_MODERATION_POSTS", 500);
 
         mockMvc = MockMvcBuilders.standaloneSetup(postController).setControllerAdvice(new CustomResponseEntityExceptionHandler(messageService)).build();
 
@@ -501,6 +506,108 @@ class PostControllerTest {
         verify(postService, times(1)).restorePost(any());
     }
 
+    @Test
+    void processDeletePosts_validDeletion() throws Exception {
+        BulkModeratePostsSubmissionDto req = new BulkModeratePostsSubmissionDto(List.of(5L, 6L));
+        List<PostModerationResultDto> results = List.of(
+                new PostModerationResultDto(5L, PostModerationResultDto.Status.DELETED),
+                new PostModerationResultDto(6L, PostModerationResultDto.Status.NOT_FOUND));
+
+        when(userService.getLoggedInUserIfNotDisciplined()).thenReturn(testModerator);
+        when(postService.deletePosts(any(), any())).thenReturn(results);
+        when(messageService.getMessage("Post.bulk.deleted.success", 1L, 2)).thenReturn("1 of 2 posts deleted.");
+
+        MvcResult result = mockMvc.perform(post("/deletePostsAjax")
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(req)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        String resStr = result.getResponse().getContentAsString();
+
+        String msg = JsonPath.read(resStr, "$.message");
+        assertEquals("1 of 2 posts deleted.", msg);
+
+        String firstStatus = JsonPath.read(resStr, "$.results[0].status");
+        assertEquals("DELETED", firstStatus);
+
+        String secondStatus = JsonPath.read(resStr, "$.results[1].status");
+        assertEquals("NOT_FOUND", secondStatus);
+
+        verify(postService, times(1)).deletePosts(eq(List.of(5L, 6L)), eq(testModerator));
+    }
+
+    @Test
+    void processDeletePosts_noPosts() throws Exception {
+        BulkModeratePostsSubmissionDto req = new BulkModeratePostsSubmissionDto(List.of());
+
+        mockMvc.perform(post("/deletePostsAjax")
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(req)))
+                .andExpect(status().isBadRequest());
+
+        verify(postService, times(0)).deletePosts(any(), any());
+    }
+
+    @Test
+    void processDeletePosts_tooManyPosts() throws Exception {
+        ReflectionTestUtils.setField(postController, "MAX_BULK_MODERATION_POSTS", 2);
+        BulkModeratePostsSubmissionDto req = new BulkModeratePostsSubmissionDto(List.of(5L, 6L, 7L));
+
+        mockMvc.perform(post("/deletePostsAjax")
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(req)))
+                .andExpect(status().isBadRequest());
+
+        verify(postService, times(0)).deletePosts(any(), any());
+    }
+
+    @Test
+    void processDeletePosts_disciplinedUser() throws Exception {
+        BulkModeratePostsSubmissionDto req = new BulkModeratePostsSubmissionDto(List.of(5L));
+
+        when(userService.getLoggedInUserIfNotDisciplined()).thenReturn(null);
+
+        mockMvc.perform(post("/deletePostsAjax")
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(req)))
+                .andExpect(status().isUnauthorized());
+
+        verify(postService, times(0)).deletePosts(any(), any());
+    }
+
+    @Test
+    void processRestorePosts_validRestoration() throws Exception {
+        BulkModeratePostsSubmissionDto req = new BulkModeratePostsSubmissionDto(List.of(5L));
+        List<PostModerationResultDto> results = List.of(
+                new PostModerationResultDto(5L, PostModerationResultDto.Status.RESTORED));
+
+        when(userService.getLoggedInUserIfNotDisciplined()).thenReturn(testAdmin);
+        when(postService.restorePosts(any(), any())).thenReturn(results);
+        when(messageService.getMessage("Post.bulk.restored.success", 1L, 1)).thenReturn("1 of 1 posts restored.");
+
+        MvcResult result = mockMvc.perform(post("/restorePostsAjax")
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(req)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        String resStr = result.getResponse().getContentAsString();
+
+        String msg = JsonPath.read(resStr, "$.message");
+        assertEquals("1 of 1 posts restored.", msg);
+
+        String status = JsonPath.read(resStr, "$.results[0].status");
+        assertEquals("RESTORED", status);
+
+        verify(postService, times(1)).restorePosts(eq(List.of(5L)), eq(testAdmin));
+    }
+
     /**
      * Helper method to convert objects into JSON strings.
      *
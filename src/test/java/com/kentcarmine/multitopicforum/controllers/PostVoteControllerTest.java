@@ -135,6 +135,7 @@ class PostVoteControllerTest {
         when(userService.getLoggedInUserIfNotDisciplined()).thenReturn(testUser);
         when(postService.getPostById(anyLong())).thenReturn(testPost);
         when(postVoteService.getPostVoteByUserAndPost(testUser, testPost)).thenReturn(existingVote);
+        when(postVoteService.getVoteCount(testPost)).thenReturn(1);
 
         MvcResult result = mockMvc.perform(post("/handleVoteAjax")
                 .accept(MediaType.APPLICATION_JSON)
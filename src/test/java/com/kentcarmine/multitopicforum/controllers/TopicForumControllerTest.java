@@ -1,7 +1,6 @@
 package com.kentcarmine.multitopicforum.controllers;
 
 import com.kentcarmine.multitopicforum.converters.ForumHierarchyConverter;
-import com.kentcarmine.multitopicforum.dtos.TopicForumViewDto;
 import com.kentcarmine.multitopicforum.dtos.TopicForumViewDtoLight;
 import com.kentcarmine.multitopicforum.dtos.TopicThreadViewDto;
 import com.kentcarmine.multitopicforum.dtos.TopicThreadViewDtoLight;
@@ -11,6 +10,7 @@ import com.kentcarmine.multitopicforum.helpers.URLEncoderDecoderHelper;
 import com.kentcarmine.multitopicforum.model.*;
 import com.kentcarmine.multitopicforum.services.ForumService;
 import com.kentcarmine.multitopicforum.services.MessageService;
+import com.kentcarmine.multitopicforum.services.ReadMarkerService;
 import com.kentcarmine.multitopicforum.services.TopicThreadService;
 import com.kentcarmine.multitopicforum.services.UserService;
 import org.hamcrest.collection.IsCollectionWithSize;
@@ -22,6 +22,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
@@ -71,6 +72,12 @@ class TopicForumControllerTest {
     @Mock
     MessageService messageService;
 
+    @Mock
+    UserService userService;
+
+    @Mock
+    ReadMarkerService readMarkerService;
+
     ForumHierarchyConverter forumHierarchyConverter;
 
     TopicForum testTopicForum;
@@ -87,7 +94,8 @@ class TopicForumControllerTest {
 
         forumHierarchyConverter = new ForumHierarchyConverter();
 
-        topicForumController = new TopicForumController(forumService, topicThreadService);
+        topicForumController = new TopicForumController(forumService, topicThreadService, userService,
+                readMarkerService);
 
         mockMvc = MockMvcBuilders.standaloneSetup(topicForumController).setControllerAdvice(new CustomResponseEntityExceptionHandler(messageService)).build();
 
@@ -226,7 +234,7 @@ class TopicForumControllerTest {
         Pageable pageReq = PageRequest.of(0, 1);
         Page<TopicThreadViewDtoLight> threadPage = new PageImpl<TopicThreadViewDtoLight>(threadsContent, pageReq, threadsContent.size());
 
-        when(topicThreadService.getTopicThreadViewDtosLightByForumPaginated(any(), anyInt(), anyInt())).thenReturn(threadPage);
+        when(topicThreadService.getTopicThreadViewDtosLightByForumPaginated(any(), anyInt(), anyInt(), any())).thenReturn(threadPage);
 
         mockMvc.perform(get("/forum/" + testTopicForum.getName()))
                 .andExpect(status().isOk())
@@ -234,6 +242,43 @@ class TopicForumControllerTest {
                 .andExpect(model().attributeExists("forum", "topicThreadSearchDto", "threads"));
     }
 
+    @Test
+    void showForum_notModifiedSince() throws Exception {
+        Date lastModifiedAt = new Date(Instant.now().minusSeconds(60).toEpochMilli());
+        testTopicForum.setLastModifiedAt(lastModifiedAt);
+        when(forumService.getForumByName(anyString())).thenReturn(testTopicForum);
+
+        mockMvc.perform(get("/forum/" + testTopicForum.getName())
+                .header(HttpHeaders.IF_MODIFIED_SINCE, lastModifiedAt.getTime() + 1000))
+                .andExpect(status().isNotModified())
+                .andExpect(header().exists(HttpHeaders.ETAG));
+
+        verify(topicThreadService, times(0)).getTopicThreadViewDtosLightByForumPaginated(any(), anyInt(), anyInt(), any());
+    }
+
+    @Test
+    void showForum_modifiedByReadingThread() throws Exception {
+        Date lastModifiedAt = new Date(Instant.now().minusSeconds(60).toEpochMilli());
+        testTopicForum.setLastModifiedAt(lastModifiedAt);
+        TopicForumViewDtoLight topicForumDto = forumHierarchyConverter.convertForumLight(testTopicForum);
+
+        when(userService.getLoggedInUser()).thenReturn(testUser);
+        when(readMarkerService.isEnabled()).thenReturn(true);
+        when(readMarkerService.getLastMarkedAt(testUser)).thenReturn(Date.from(Instant.now()));
+        when(forumService.getForumByName(anyString())).thenReturn(testTopicForum);
+        when(forumService.getTopicForumViewDtoLightForTopicForum(any())).thenReturn(topicForumDto);
+        when(topicThreadService.getTopicThreadViewDtosLightByForumPaginated(any(), anyInt(), anyInt(), any()))
+                .thenReturn(new PageImpl<TopicThreadViewDtoLight>(new ArrayList<>()));
+
+        mockMvc.perform(get("/forum/" + testTopicForum.getName())
+                .header(HttpHeaders.IF_MODIFIED_SINCE, lastModifiedAt.getTime() + 1000))
+                .andExpect(status().isOk())
+                .andExpect(view().name("forum-page"));
+
+        verify(topicThreadService, times(1)).getTopicThreadViewDtosLightByForumPaginated(any(), anyInt(), anyInt(),
+                eq(testUser));
+    }
+
     @Test
     void showForum_nonExistingForum() throws Exception {
         when(forumService.getForumByName(anyString())).thenReturn(null);
@@ -252,7 +297,7 @@ class TopicForumControllerTest {
         when(forumService.getForumByName(anyString())).thenReturn(testTopicForum);
         when(forumService.getTopicForumViewDtoLightForTopicForum(any())).thenReturn(topicForumDto);
 
-        when(topicThreadService.getTopicThreadViewDtosLightByForumPaginated(any(), anyInt(), anyInt())).thenReturn(null);
+        when(topicThreadService.getTopicThreadViewDtosLightByForumPaginated(any(), anyInt(), anyInt(), any())).thenReturn(null);
 
         mockMvc.perform(get("/forum/" + testTopicForum.getName() + "?page=0"))
                 .andExpect(status().isNotFound())
@@ -266,7 +311,7 @@ class TopicForumControllerTest {
         when(forumService.getForumByName(anyString())).thenReturn(testTopicForum);
         when(forumService.getTopicForumViewDtoLightForTopicForum(any())).thenReturn(topicForumDto);
 
-        when(topicThreadService.getTopicThreadViewDtosLightByForumPaginated(any(), anyInt(), anyInt())).thenReturn(null);
+        when(topicThreadService.getTopicThreadViewDtosLightByForumPaginated(any(), anyInt(), anyInt(), any())).thenReturn(null);
 
         mockMvc.perform(get("/forum/" + testTopicForum.getName() + "?page=127"))
                 .andExpect(status().isNotFound())
@@ -297,10 +342,10 @@ class TopicForumControllerTest {
 
     @Test
     void showForumsPage_allForums() throws Exception {
-        List<TopicForumViewDto> forumList = new ArrayList<>();
-        forumList.add(forumHierarchyConverter.convertForum(testTopicForum));
+        List<TopicForumViewDtoLight> forumList = new ArrayList<>();
+        forumList.add(forumHierarchyConverter.convertForumLight(testTopicForum));
 
-        when(forumService.getForumsAsViewDtosPaginated(anyInt(), anyInt())).thenReturn(new PageImpl<TopicForumViewDto>(forumList));
+        when(forumService.getForumsAsViewDtosPaginated(anyInt(), anyInt())).thenReturn(new PageImpl<TopicForumViewDtoLight>(forumList));
 
         mockMvc.perform(get("/forums"))
                 .andExpect(status().isOk())
@@ -317,11 +362,11 @@ class TopicForumControllerTest {
     void showForumsPage_validForumSearch() throws Exception {
         String searchString = URLEncoderDecoderHelper.encode(" \"Description of test \"   ");
 
-        List<TopicForumViewDto> forumList = new ArrayList<>();
-        forumList.add(forumHierarchyConverter.convertForum(testTopicForum));
+        List<TopicForumViewDtoLight> forumList = new ArrayList<>();
+        forumList.add(forumHierarchyConverter.convertForumLight(testTopicForum));
         PageRequest pageReq = PageRequest.of(0, 25);
 
-        Page<TopicForumViewDto> resPage = new PageImpl<TopicForumViewDto>(forumList, pageReq,1);
+        Page<TopicForumViewDtoLight> resPage = new PageImpl<TopicForumViewDtoLight>(forumList, pageReq,1);
         when(forumService.searchTopicForumsForViewDtosWithCustomQuery(anyString(), anyInt(), anyInt())).thenReturn(resPage);
 
         mockMvc.perform(get("/forums?search=" + searchString))
@@ -336,7 +381,7 @@ class TopicForumControllerTest {
 
     @Test
     void showForumsPage_invalidForumSearch() throws Exception {
-        when(forumService.getForumsAsViewDtosPaginated(anyInt(), anyInt())).thenReturn(new PageImpl<TopicForumViewDto>(new ArrayList<>()));
+        when(forumService.getForumsAsViewDtosPaginated(anyInt(), anyInt())).thenReturn(new PageImpl<TopicForumViewDtoLight>(new ArrayList<>()));
 
         mockMvc.perform(get("/forums?searchError"))
                 .andExpect(status().isOk())
@@ -351,10 +396,10 @@ class TopicForumControllerTest {
 
     @Test
     void showForumsPage_emptyStringForumSearch() throws Exception {
-        List<TopicForumViewDto> forumList = new ArrayList<>();
-        forumList.add(forumHierarchyConverter.convertForum(testTopicForum));
+        List<TopicForumViewDtoLight> forumList = new ArrayList<>();
+        forumList.add(forumHierarchyConverter.convertForumLight(testTopicForum));
 
-        when(forumService.getForumsAsViewDtosPaginated(anyInt(), anyInt())).thenReturn(new PageImpl<TopicForumViewDto>(forumList));
+        when(forumService.getForumsAsViewDtosPaginated(anyInt(), anyInt())).thenReturn(new PageImpl<TopicForumViewDtoLight>(forumList));
 
         mockMvc.perform(get("/forums?search="))
                 .andExpect(status().isOk())
@@ -1,29 +1,36 @@
 package com.kentcarmine.multitopicforum.controllers;
 
 import com.kentcarmine.multitopicforum.converters.ForumHierarchyConverter;
+import com.kentcarmine.multitopicforum.dtos.NewPostsResponseDto;
 import com.kentcarmine.multitopicforum.dtos.TopicThreadViewDto;
 import com.kentcarmine.multitopicforum.dtos.TopicThreadViewDtoLight;
 import com.kentcarmine.multitopicforum.exceptions.DisciplinedUserException;
 import com.kentcarmine.multitopicforum.handlers.CustomResponseEntityExceptionHandler;
+import com.kentcarmine.multitopicforum.helpers.LongByteHashMap;
+import com.kentcarmine.multitopicforum.helpers.PostCursor;
 import com.kentcarmine.multitopicforum.helpers.URLEncoderDecoderHelper;
 import com.kentcarmine.multitopicforum.model.*;
 import com.kentcarmine.multitopicforum.services.*;
 import org.hamcrest.collection.IsCollectionWithSize;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.data.domain.*;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.sql.Date;
 import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -73,6 +80,15 @@ class TopicThreadControllerTest {
     @Mock
     DisciplineService disciplineService;
 
+    @Mock
+    ThreadStreamService threadStreamService;
+
+    @Mock
+    ThreadArchiveService threadArchiveService;
+
+    @Mock
+    ReadMarkerService readMarkerService;
+
     ForumHierarchyConverter forumHierarchyConverter;
 
     TopicForum testTopicForum;
@@ -88,7 +104,7 @@ class TopicThreadControllerTest {
         MockitoAnnotations.initMocks(this);
 
         topicThreadController = new TopicThreadController(forumService, userService, topicThreadService,
-                postVoteService, disciplineService);
+                postVoteService, disciplineService, threadStreamService, threadArchiveService, readMarkerService);
 
         forumHierarchyConverter = new ForumHierarchyConverter();
 
@@ -112,9 +128,11 @@ class TopicThreadControllerTest {
         testTopicForumThread = new TopicThread("Test Thread Title", testTopicForum);
         SortedSet<Post> posts = new TreeSet<>();
         Post post = new Post("Test Post Title", Date.from(Instant.now()));
+        post.setId(1L);
         post.setThread(testTopicForumThread);
         post.setUser(testUser);
         Post post2 = new Post("Test Post Title 2", java.util.Date.from(Instant.now().plusSeconds(10)));
+        post2.setId(2L);
         post2.setThread(testTopicForumThread);
         post2.setUser(testUser);
         posts.add(post);
@@ -343,7 +361,7 @@ class TopicThreadControllerTest {
         when(topicThreadService.getThreadByForumNameAndId(anyString(), anyLong())).thenReturn(testTopicForumThread);
 
         Page<Post> page = new PageImpl<Post>(testTopicForumThread.getPosts().stream().collect(Collectors.toList()));
-        when(topicThreadService.getPostPageByThread(any(), anyInt(), anyInt())).thenReturn(page);
+        when(topicThreadService.getPostPageByThread(any(), anyInt(), anyInt(), any(), any())).thenReturn(page);
 
         String url = "/forum/" + testTopicForumThread.getForum().getName() + "/show/" + testTopicForumThread.getId();
         mockMvc.perform(get(url))
@@ -352,10 +370,131 @@ class TopicThreadControllerTest {
                 .andExpect(model().attributeExists("forumName"))
                 .andExpect(model().attributeExists("threadId"))
                 .andExpect(model().attributeExists("threadTitle"))
-                .andExpect(model().attributeExists("posts"))
+                .andExpect(model().attributeExists("posts", "previousPageCursor", "nextPageCursor"))
                 .andExpect(model().attributeDoesNotExist("postCreationDto", "loggedInUser", "voteMap",
                         "canLock", "canUnlock"));
 
+        verify(readMarkerService, times(0)).markRead(any(), any(), any());
+    }
+
+    @Test
+    void showThread_withCursor() throws Exception {
+        when(forumService.isForumWithNameExists(anyString())).thenReturn(true);
+        when(topicThreadService.getThreadByForumNameAndId(anyString(), anyLong())).thenReturn(testTopicForumThread);
+
+        Page<Post> page = new PageImpl<Post>(testTopicForumThread.getPosts().stream().collect(Collectors.toList()));
+        when(topicThreadService.getPostPageByThread(any(), anyInt(), anyInt(), any(), any())).thenReturn(page);
+
+        String url = "/forum/" + testTopicForumThread.getForum().getName() + "/show/" + testTopicForumThread.getId()
+                + "?page=12&after=1580000000000_300";
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(view().name("topic-thread-page"))
+                .andExpect(model().attributeExists("posts"));
+
+        ArgumentCaptor<PostCursor> afterCaptor = ArgumentCaptor.forClass(PostCursor.class);
+        verify(topicThreadService, times(1)).getPostPageByThread(any(), eq(12), anyInt(), afterCaptor.capture(), isNull());
+        assertEquals(1580000000000L, afterCaptor.getValue().getPostedAt().getTime());
+        assertEquals(300L, afterCaptor.getValue().getId());
+    }
+
+    @Test
+    void showThread_notModified() throws Exception {
+        testTopicForumThread.setLastModifiedAt(Date.from(Instant.now()));
+        when(forumService.isForumWithNameExists(anyString())).thenReturn(true);
+        when(topicThreadService.getThreadByForumNameAndId(anyString(), anyLong())).thenReturn(testTopicForumThread);
+
+        Page<Post> page = new PageImpl<Post>(testTopicForumThread.getPosts().stream().collect(Collectors.toList()));
+        when(topicThreadService.getPostPageByThread(any(), anyInt(), anyInt(), any(), any())).thenReturn(page);
+
+        String url = "/forum/" + testTopicForumThread.getForum().getName() + "/show/" + testTopicForumThread.getId();
+        String eTag = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        verify(topicThreadService, times(1)).getPostPageByThread(any(), anyInt(), anyInt(), any(), any());
+    }
+
+    @Test
+    void getNewPosts_valid() throws Exception {
+        NewPostsResponseDto response = new NewPostsResponseDto(new ArrayList<>(), "1580000000000_300", false, false);
+        when(topicThreadService.getThreadByForumNameAndId(anyString(), anyLong())).thenReturn(testTopicForumThread);
+        when(topicThreadService.getNewPostsInThread(any(), any(), anyInt())).thenReturn(response);
+
+        String url = "/forum/" + testTopicForumThread.getForum().getName() + "/show/" + testTopicForumThread.getId()
+                + "/postsSince?after=1580000000000_300";
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.cursor").value("1580000000000_300"));
+
+        ArgumentCaptor<PostCursor> afterCaptor = ArgumentCaptor.forClass(PostCursor.class);
+        verify(topicThreadService, times(1)).getNewPostsInThread(eq(testTopicForumThread), afterCaptor.capture(),
+                anyInt());
+        assertEquals(300L, afterCaptor.getValue().getId());
+    }
+
+    @Test
+    void getNewPosts_invalidCursor() throws Exception {
+        String url = "/forum/" + testTopicForumThread.getForum().getName() + "/show/" + testTopicForumThread.getId()
+                + "/postsSince?after=notACursor";
+        mockMvc.perform(get(url))
+                .andExpect(status().isBadRequest());
+
+        verify(topicThreadService, times(0)).getNewPostsInThread(any(), any(), anyInt());
+    }
+
+    @Test
+    void getNewPosts_noSuchThread() throws Exception {
+        when(topicThreadService.getThreadByForumNameAndId(anyString(), anyLong())).thenReturn(null);
+
+        String url = "/forum/" + testTopicForumThread.getForum().getName() + "/show/" + testTopicForumThread.getId()
+                + "/postsSince?after=1580000000000_300";
+        mockMvc.perform(get(url))
+                .andExpect(status().isNotFound());
+
+        verify(topicThreadService, times(0)).getNewPostsInThread(any(), any(), anyInt());
+    }
+
+    @Test
+    void streamThreadUpdates_valid() throws Exception {
+        when(topicThreadService.getThreadByForumNameAndId(anyString(), anyLong())).thenReturn(testTopicForumThread);
+        when(threadStreamService.subscribe(anyLong())).thenReturn(new SseEmitter());
+
+        String url = "/forum/" + testTopicForumThread.getForum().getName() + "/show/" + testTopicForumThread.getId()
+                + "/stream";
+        mockMvc.perform(get(url))
+                .andExpect(request().asyncStarted());
+
+        verify(threadStreamService, times(1)).subscribe(testTopicForumThread.getId());
+    }
+
+    @Test
+    void streamThreadUpdates_noSuchThread() throws Exception {
+        when(topicThreadService.getThreadByForumNameAndId(anyString(), anyLong())).thenReturn(null);
+
+        String url = "/forum/" + testTopicForumThread.getForum().getName() + "/show/" + testTopicForumThread.getId()
+                + "/stream";
+        mockMvc.perform(get(url))
+                .andExpect(status().isNotFound());
+
+        verify(threadStreamService, times(0)).subscribe(anyLong());
+    }
+
+    @Test
+    void streamThreadUpdates_tooManySubscribers() throws Exception {
+        when(topicThreadService.getThreadByForumNameAndId(anyString(), anyLong())).thenReturn(testTopicForumThread);
+        when(threadStreamService.subscribe(anyLong())).thenReturn(null);
+
+        String url = "/forum/" + testTopicForumThread.getForum().getName() + "/show/" + testTopicForumThread.getId()
+                + "/stream";
+        mockMvc.perform(get(url))
+                .andExpect(status().isServiceUnavailable());
     }
 
     @Test
@@ -363,7 +502,7 @@ class TopicThreadControllerTest {
         when(userService.getLoggedInUser()).thenReturn(testUser);
         when(forumService.isForumWithNameExists(anyString())).thenReturn(true);
         when(topicThreadService.getThreadByForumNameAndId(anyString(), anyLong())).thenReturn(testTopicForumThread);
-        when(topicThreadService.getPostPageByThread(any(), anyInt(), anyInt())).thenReturn(null);
+        when(topicThreadService.getPostPageByThread(any(), anyInt(), anyInt(), any(), any())).thenReturn(null);
 
         String url = "/forum/" + testTopicForumThread.getForum().getName() + "/show/" + testTopicForumThread.getId() + "?page=217";
         mockMvc.perform(get(url))
@@ -372,7 +511,7 @@ class TopicThreadControllerTest {
                 .andExpect(model().attributeDoesNotExist("postCreationDto", "loggedInUser", "voteMap",
                         "canLock", "canUnlock", "posts", "threadTitle", "threadTitle", "threadId", "forumName"));
 
-        verify(topicThreadService, times(1)).getPostPageByThread(any(), anyInt(), anyInt());
+        verify(topicThreadService, times(1)).getPostPageByThread(any(), anyInt(), anyInt(), any(), any());
     }
 
     @Test
@@ -382,7 +521,8 @@ class TopicThreadControllerTest {
         when(topicThreadService.getThreadByForumNameAndId(anyString(), anyLong())).thenReturn(testTopicForumThread);
 
         Page<Post> page = new PageImpl<Post>(testTopicForumThread.getPosts().stream().collect(Collectors.toList()));
-        when(topicThreadService.getPostPageByThread(any(), anyInt(), anyInt())).thenReturn(page);
+        when(topicThreadService.getPostPageByThread(any(), anyInt(), anyInt(), any(), any())).thenReturn(page);
+        when(postVoteService.generateVoteMap(any(), any())).thenReturn(new LongByteHashMap());
 
         String url = "/forum/" + testTopicForumThread.getForum().getName() + "/show/" + testTopicForumThread.getId();
         mockMvc.perform(get(url))
@@ -396,6 +536,8 @@ class TopicThreadControllerTest {
                         "canLock", "canUnlock"))
                 .andExpect(model().attribute("canLock", false))
                 .andExpect(model().attribute("canUnlock", false));
+
+        verify(readMarkerService, times(1)).markRead(testUser, testTopicForumThread.getId(), 2L);
     }
 
     @Test
@@ -408,7 +550,7 @@ class TopicThreadControllerTest {
         when(userService.getLoggedInUser()).thenReturn(testUser);
         when(forumService.isForumWithNameExists(anyString())).thenReturn(true);
         when(topicThreadService.getThreadByForumNameAndId(anyString(), anyLong())).thenReturn(testTopicForumThread);
-        when(topicThreadService.getPostPageByThread(any(), anyInt(), anyInt())).thenReturn(new PageImpl<Post>(new ArrayList<Post>()));
+        when(topicThreadService.getPostPageByThread(any(), anyInt(), anyInt(), any(), any())).thenReturn(new PageImpl<Post>(new ArrayList<Post>()));
 
         String url = "/forum/" + testTopicForumThread.getForum().getName() + "/show/" + testTopicForumThread.getId();
         mockMvc.perform(get(url))
@@ -428,7 +570,7 @@ class TopicThreadControllerTest {
                 .andExpect(view().name("forum-not-found"))
                 .andExpect(model().attributeExists("message"));
 
-        verify(topicThreadService, times(0)).getPostPageByThread(any(), anyInt(), anyInt());
+        verify(topicThreadService, times(0)).getPostPageByThread(any(), anyInt(), anyInt(), any(), any());
     }
 
     @Test
@@ -443,7 +585,58 @@ class TopicThreadControllerTest {
                 .andExpect(view().name("thread-not-found"))
                 .andExpect(model().attributeExists("message"));
 
-        verify(topicThreadService, times(0)).getPostPageByThread(any(), anyInt(), anyInt());
+        verify(topicThreadService, times(0)).getPostPageByThread(any(), anyInt(), anyInt(), any(), any());
+    }
+
+    @Test
+    void showThread_archivedThread() throws Exception {
+        ArchivedThread archivedThread = new ArchivedThread();
+        archivedThread.setId(testTopicForumThread.getId());
+        archivedThread.setTitle(testTopicForumThread.getTitle());
+        archivedThread.setForum(testTopicForum);
+        archivedThread.setArchivedAt(Date.from(Instant.now()));
+
+        Post archivedPost = new Post("archived post content", Date.from(Instant.now()));
+        archivedPost.setId(7L);
+        archivedPost.setUser(testUser);
+        archivedPost.setVoteCount(3);
+        archivedPost.setThread(archivedThread.toTopicThread());
+
+        when(userService.getLoggedInUser()).thenReturn(testUser);
+        when(forumService.isForumWithNameExists(anyString())).thenReturn(true);
+        when(topicThreadService.getThreadByForumNameAndId(anyString(), anyLong())).thenReturn(null);
+        when(threadArchiveService.getArchivedThread(anyString(), anyLong())).thenReturn(archivedThread);
+        when(threadArchiveService.getPostPageByArchivedThread(any(), anyInt(), anyInt()))
+                .thenReturn(new PageImpl<>(List.of(archivedPost)));
+
+        String url = "/forum/" + testTopicForum.getName() + "/show/" + archivedThread.getId();
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(view().name("topic-thread-page"))
+                .andExpect(model().attribute("threadIsArchived", true))
+                .andExpect(model().attribute("threadTitle", archivedThread.getTitle()))
+                .andExpect(model().attribute("voteCounts", Map.of(7L, 3)))
+                .andExpect(model().attributeDoesNotExist("postCreationDto", "loggedInUser", "voteMap"));
+
+        verify(topicThreadService, times(0)).getPostPageByThread(any(), anyInt(), anyInt(), any(), any());
+        verify(postVoteService, times(0)).generateVoteMap(any(), any());
+    }
+
+    @Test
+    void showThread_archivedThread_invalidPageNumber() throws Exception {
+        ArchivedThread archivedThread = new ArchivedThread();
+        archivedThread.setId(testTopicForumThread.getId());
+        archivedThread.setForum(testTopicForum);
+
+        when(forumService.isForumWithNameExists(anyString())).thenReturn(true);
+        when(topicThreadService.getThreadByForumNameAndId(anyString(), anyLong())).thenReturn(null);
+        when(threadArchiveService.getArchivedThread(anyString(), anyLong())).thenReturn(archivedThread);
+        when(threadArchiveService.getPostPageByArchivedThread(any(), anyInt(), anyInt())).thenReturn(null);
+
+        String url = "/forum/" + testTopicForum.getName() + "/show/" + archivedThread.getId() + "?page=9";
+        mockMvc.perform(get(url))
+                .andExpect(status().isNotFound())
+                .andExpect(view().name("general-error-page"));
     }
 
     @Test
@@ -85,6 +85,9 @@ class UserControllerTest {
     @Mock
     TopicThreadService topicThreadService;
 
+    @Mock
+    UsernameIndexService usernameIndexService;
+
     User testUser;
     User testUser2;
     User testAdmin;
@@ -97,7 +100,7 @@ class UserControllerTest {
         MockitoAnnotations.initMocks(this);
         userToUserRankAdjustmentDtoConverter = new UserToUserRankAdjustmentDtoConverter();
 
-        userController = new UserController(userService, disciplineService, topicThreadService);
+        userController = new UserController(userService, disciplineService, topicThreadService, usernameIndexService);
 
         mockMvc = MockMvcBuilders.standaloneSetup(userController).setControllerAdvice(new CustomResponseEntityExceptionHandler(messageService)).build();
 
@@ -295,4 +298,26 @@ class UserControllerTest {
                 .andExpect(model().hasErrors());
     }
 
-}
\ No newline at end of file
+    @Test
+    void autocompleteUsernames() throws Exception {
+        when(usernameIndexService.getAutocompleteSize()).thenReturn(10);
+        when(usernameIndexService.autocompleteUsernames("test", 10))
+                .thenReturn(List.of(TEST_USERNAME, TEST_USERNAME_2));
+
+        mockMvc.perform(get("/autocompleteUsernames").param("prefix", "test"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$", IsCollectionWithSize.hasSize(2)))
+                .andExpect(jsonPath("$[0]").value(TEST_USERNAME));
+    }
+
+    @Test
+    void autocompleteUsernames_invalidLimit() throws Exception {
+        mockMvc.perform(get("/autocompleteUsernames").param("prefix", "test").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/autocompleteUsernames").param("prefix", "test").param("limit", "51"))
+                .andExpect(status().isBadRequest());
+
+        verify(usernameIndexService, times(0)).autocompleteUsernames(any(), anyInt());
+    }
+}
@@ -0,0 +1,50 @@
+package com.kentcarmine.multitopicforum.filters;
+
+import com.kentcarmine.multitopicforum.services.PageCacheService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext
+public class AnonymousPageCacheFilterIT {
+    private static final String FORUM_PAGE_URL = "/forum/Test_Forum_1";
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Autowired
+    PageCacheService pageCacheService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        pageCacheService.clear();
+    }
+
+    /**
+     * When a forum page is first rendered for a visitor without cookies, the cached copy served to every other
+     * anonymous visitor does not carry that visitor's session ID in its links.
+     */
+    @Test
+    void forumPage_coldRequestWithoutCookies() throws Exception {
+        ResponseEntity<String> miss = restTemplate.getForEntity(FORUM_PAGE_URL, String.class);
+
+        assertEquals("MISS", miss.getHeaders().getFirst(AnonymousPageCacheFilter.CACHE_STATUS_HEADER));
+        assertNotNull(miss.getHeaders().getFirst(HttpHeaders.SET_COOKIE));
+        assertFalse(miss.getBody().toLowerCase().contains("jsessionid"));
+
+        ResponseEntity<String> hit = restTemplate.getForEntity(FORUM_PAGE_URL, String.class);
+
+        assertEquals("HIT", hit.getHeaders().getFirst(AnonymousPageCacheFilter.CACHE_STATUS_HEADER));
+        assertFalse(hit.getBody().toLowerCase().contains("jsessionid"));
+    }
+}
@@ -81,6 +81,21 @@ class PostTest {
         assertEquals(1, result);
     }
 
+    @Test
+    void getUpvoteAndDownvoteCounts_votesExist() throws Exception {
+        assertEquals(2, testPost.getUpvoteCount());
+        assertEquals(1, testPost.getDownvoteCount());
+    }
+
+    @Test
+    void applyVote_noVoteDoesNotChangeTotals() throws Exception {
+        testPost.applyVote(PostVoteState.NONE);
+
+        assertEquals(2, testPost.getUpvoteCount());
+        assertEquals(1, testPost.getDownvoteCount());
+        assertEquals(1, testPost.getVoteCount());
+    }
+
     @Test
     void getVoteCount_noVotes() throws Exception {
         Post testPost2 = new Post(LOREM, Date.from(Instant.now().minusSeconds(30)));
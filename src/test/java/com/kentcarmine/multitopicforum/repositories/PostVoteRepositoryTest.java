@@ -0,0 +1,97 @@
+package com.kentcarmine.multitopicforum.repositories;
+
+import com.kentcarmine.multitopicforum.helpers.BufferedVote;
+import com.kentcarmine.multitopicforum.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ActiveProfiles("test")
+@DataJpaTest(properties = "spring.jpa.properties.javax.persistence.validation.mode=none")
+class PostVoteRepositoryTest {
+
+    private static final String TEST_USERNAME = "TestUser";
+    private static final String TEST_USERNAME_2 = "TestUser2";
+
+    @Autowired
+    TestEntityManager testEntityManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    PostVoteRepository postVoteRepository;
+
+    private Post testPost;
+    private Long threadId;
+
+    @BeforeEach
+    void setUp() {
+        User testUser = testEntityManager.persist(new User(TEST_USERNAME, "password", "testuser@test.com"));
+        testEntityManager.persist(new User(TEST_USERNAME_2, "password", "testuser2@test.com"));
+
+        TopicForum testForum = testEntityManager.persist(new TopicForum("TestForum", "Test forum description"));
+        TopicThread testThread = testEntityManager.persist(new TopicThread("Test thread", testForum));
+        threadId = testThread.getId();
+
+        testPost = new Post("Test post content", Date.from(Instant.now()));
+        testPost.setThread(testThread);
+        testPost.setUser(testUser);
+        testPost = testEntityManager.persist(testPost);
+
+        testEntityManager.flush();
+    }
+
+    @Test
+    void saveBufferedVotes() throws Exception {
+        List<BufferedVote> votes = List.of(vote(testPost.getId(), TEST_USERNAME, PostVoteState.UPVOTE),
+                vote(testPost.getId(), TEST_USERNAME_2, PostVoteState.DOWNVOTE));
+
+        List<BufferedVote> result = postVoteRepository.saveBufferedVotes(votes);
+
+        assertEquals(votes, result);
+        assertEquals(2, countVotes(testPost.getId()));
+    }
+
+    @Test
+    void saveBufferedVotes_twiceHasNoFurtherEffect() throws Exception {
+        List<BufferedVote> votes = List.of(vote(testPost.getId(), TEST_USERNAME, PostVoteState.UPVOTE));
+
+        postVoteRepository.saveBufferedVotes(votes);
+        List<BufferedVote> result = postVoteRepository.saveBufferedVotes(votes);
+
+        assertTrue(result.isEmpty());
+        assertEquals(1, countVotes(testPost.getId()));
+    }
+
+    @Test
+    void saveBufferedVotes_skipsVotesOnMissingPosts() throws Exception {
+        Long missingPostId = testPost.getId() + 1000;
+        BufferedVote voteOnMissingPost = vote(missingPostId, TEST_USERNAME_2, PostVoteState.UPVOTE);
+        BufferedVote voteOnTestPost = vote(testPost.getId(), TEST_USERNAME, PostVoteState.UPVOTE);
+
+        List<BufferedVote> result = postVoteRepository.saveBufferedVotes(List.of(voteOnMissingPost, voteOnTestPost));
+
+        assertEquals(List.of(voteOnTestPost), result);
+        assertEquals(0, countVotes(missingPostId));
+        assertEquals(1, countVotes(testPost.getId()));
+    }
+
+    private BufferedVote vote(Long postId, String username, PostVoteState postVoteState) {
+        return new BufferedVote(postId, threadId, username, postVoteState, System.currentTimeMillis());
+    }
+
+    private int countVotes(Long postId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM post_vote WHERE post_id = ?", Integer.class, postId);
+    }
+}
@@ -0,0 +1,168 @@
+package com.kentcarmine.multitopicforum.repositories;
+
+import com.kentcarmine.multitopicforum.model.TopicForum;
+import com.kentcarmine.multitopicforum.model.TopicThread;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ActiveProfiles("test")
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class TopicThreadRepositoryTest {
+
+    private static final String TEST_FORUM_NAME = "TestForum";
+    private static final int THREAD_COUNT = 7;
+
+    @Autowired
+    TestEntityManager testEntityManager;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    TopicThreadRepository topicThreadRepository;
+
+    Statistics statistics;
+
+    // Titles of the threads in TEST_FORUM_NAME, most recently updated first
+    List<String> threadTitles;
+
+    @BeforeEach
+    void setUp() {
+        TopicForum testForum = testEntityManager.persist(new TopicForum(TEST_FORUM_NAME, "Test forum description"));
+        TopicForum otherForum = testEntityManager.persist(new TopicForum("OtherForum", "Other forum description"));
+
+        Instant now = Instant.now();
+        threadTitles = new ArrayList<>();
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            TopicThread thread = new TopicThread("Test thread " + i, testForum);
+            thread.setUpdatedAt(Date.from(now.minusSeconds(i)));
+            testEntityManager.persist(thread);
+            threadTitles.add(thread.getTitle());
+        }
+
+        TopicThread otherThread = new TopicThread("Test thread in other forum", otherForum);
+        otherThread.setUpdatedAt(Date.from(now));
+        testEntityManager.persist(otherThread);
+
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getAllTopicThreadsPaginated_firstFullPage() {
+        Page<TopicThread> page = topicThreadRepository.getAllTopicThreadsPaginated(TEST_FORUM_NAME,
+                PageRequest.of(0, 3));
+
+        assertEquals(threadTitles.subList(0, 3), getTitles(page));
+        assertEquals(THREAD_COUNT, page.getTotalElements());
+        assertEquals(3, page.getTotalPages());
+        assertEquals(2, statistics.getQueryExecutionCount());
+    }
+
+    @Test
+    void getAllTopicThreadsPaginated_middlePage() {
+        Page<TopicThread> page = topicThreadRepository.getAllTopicThreadsPaginated(TEST_FORUM_NAME,
+                PageRequest.of(1, 3));
+
+        assertEquals(threadTitles.subList(3, 6), getTitles(page));
+        assertEquals(THREAD_COUNT, page.getTotalElements());
+        assertEquals(2, statistics.getQueryExecutionCount());
+    }
+
+    @Test
+    void getAllTopicThreadsPaginated_partialLastPage_skipsCountQuery() {
+        Page<TopicThread> page = topicThreadRepository.getAllTopicThreadsPaginated(TEST_FORUM_NAME,
+                PageRequest.of(2, 3));
+
+        assertEquals(threadTitles.subList(6, 7), getTitles(page));
+        assertEquals(THREAD_COUNT, page.getTotalElements());
+        assertEquals(3, page.getTotalPages());
+        assertEquals(1, statistics.getQueryExecutionCount());
+    }
+
+    @Test
+    void getAllTopicThreadsPaginated_singlePartialPage_skipsCountQuery() {
+        Page<TopicThread> page = topicThreadRepository.getAllTopicThreadsPaginated(TEST_FORUM_NAME,
+                PageRequest.of(0, 25));
+
+        assertEquals(threadTitles, getTitles(page));
+        assertEquals(THREAD_COUNT, page.getTotalElements());
+        assertEquals(1, statistics.getQueryExecutionCount());
+    }
+
+    @Test
+    void getAllTopicThreadsPaginated_pagePastEnd() {
+        Page<TopicThread> page = topicThreadRepository.getAllTopicThreadsPaginated(TEST_FORUM_NAME,
+                PageRequest.of(5, 3));
+
+        assertTrue(page.getContent().isEmpty());
+        assertEquals(THREAD_COUNT, page.getTotalElements());
+        assertEquals(2, statistics.getQueryExecutionCount());
+    }
+
+    @Test
+    void searchForTopicThreadsInForum_countsOnlyMatches() {
+        Page<TopicThread> page = topicThreadRepository.searchForTopicThreadsInForum(TEST_FORUM_NAME, "THREAD test",
+                PageRequest.of(1, 2));
+
+        assertEquals(threadTitles.subList(2, 4), getTitles(page));
+        assertEquals(THREAD_COUNT, page.getTotalElements());
+        assertEquals(2, statistics.getQueryExecutionCount());
+    }
+
+    @Test
+    void searchForTopicThreadsInForum_noMatches() {
+        Page<TopicThread> page = topicThreadRepository.searchForTopicThreadsInForum(TEST_FORUM_NAME, "nomatch",
+                PageRequest.of(0, 3));
+
+        assertTrue(page.getContent().isEmpty());
+        assertEquals(0, page.getTotalElements());
+        assertEquals(1, statistics.getQueryExecutionCount());
+    }
+
+    @Test
+    void searchForTopicThreadsInForumAsSlice_hasNext_skipsCountQuery() {
+        Slice<TopicThread> slice = topicThreadRepository.searchForTopicThreadsInForumAsSlice(TEST_FORUM_NAME,
+                "thread", PageRequest.of(1, 3));
+
+        assertEquals(threadTitles.subList(3, 6), getTitles(slice));
+        assertTrue(slice.hasNext());
+        assertTrue(slice.hasPrevious());
+        assertEquals(1, statistics.getQueryExecutionCount());
+    }
+
+    @Test
+    void searchForTopicThreadsInForumAsSlice_lastFullSlice() {
+        Slice<TopicThread> slice = topicThreadRepository.searchForTopicThreadsInForumAsSlice(TEST_FORUM_NAME,
+                "thread", PageRequest.of(0, THREAD_COUNT));
+
+        assertEquals(threadTitles, getTitles(slice));
+        assertFalse(slice.hasNext());
+        assertEquals(1, statistics.getQueryExecutionCount());
+    }
+
+    private List<String> getTitles(Slice<TopicThread> page) {
+        return page.getContent().stream().map(TopicThread::getTitle).collect(Collectors.toList());
+    }
+}
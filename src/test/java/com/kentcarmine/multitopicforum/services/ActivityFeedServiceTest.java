@@ -0,0 +1,162 @@
+package com.kentcarmine.multitopicforum.services;
+
+import com.kentcarmine.multitopicforum.dtos.RecentActivityPageDto;
+import com.kentcarmine.multitopicforum.dtos.RecentPostDto;
+import com.kentcarmine.multitopicforum.model.*;
+import com.kentcarmine.multitopicforum.repositories.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ActiveProfiles("test")
+class ActivityFeedServiceTest {
+
+    private static final String TEST_TOPIC_FORUM_NAME = "TestName";
+    private static final String TEST_TOPIC_FORUM_DESC = "Description of test topic forum";
+    private static final String TEST_TOPIC_THREAD_NAME = "Test Thread Name";
+
+    ActivityFeedService activityFeedService;
+
+    @Mock
+    PostRepository postRepository;
+
+    private TopicThread testTopicThread;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.initMocks(this);
+
+        activityFeedService = new ActivityFeedServiceImpl(postRepository);
+        ReflectionTestUtils.setField(activityFeedService, "CAPACITY", 5);
+        ReflectionTestUtils.setField(activityFeedService, "PAGE_SIZE", 2);
+        ReflectionTestUtils.setField(activityFeedService, "HOME_PAGE_SIZE", 3);
+        ReflectionTestUtils.setField(activityFeedService, "ABBREVIATED_CONTENT_LENGTH", 10);
+
+        testUser = new User("TestUser", "testPassword", "testuser@test.com");
+        testUser.addAuthority(UserRole.USER);
+
+        TopicForum testTopicForum = new TopicForum(TEST_TOPIC_FORUM_NAME, TEST_TOPIC_FORUM_DESC);
+        testTopicThread = new TopicThread(TEST_TOPIC_THREAD_NAME, testTopicForum);
+        testTopicThread.setId(1L);
+    }
+
+    @Test
+    void recordPost_newestFirst() throws Exception {
+        recordPosts(3);
+
+        List<RecentPostDto> recentPosts = activityFeedService.getRecentPosts(10);
+
+        assertEquals(3, recentPosts.size());
+        assertEquals(3L, recentPosts.get(0).getPostId());
+        assertEquals(1L, recentPosts.get(2).getPostId());
+        assertEquals(TEST_TOPIC_FORUM_NAME, recentPosts.get(0).getForumName());
+        assertEquals(TEST_TOPIC_THREAD_NAME, recentPosts.get(0).getThreadTitle());
+        assertEquals(testUser.getUsername(), recentPosts.get(0).getUsername());
+        assertEquals("content of...", recentPosts.get(0).getContent());
+    }
+
+    @Test
+    void recordPost_oldestOverwrittenWhenFull() throws Exception {
+        recordPosts(7);
+
+        List<RecentPostDto> recentPosts = activityFeedService.getRecentPosts(10);
+
+        assertEquals(5, recentPosts.size());
+        assertEquals(7L, recentPosts.get(0).getPostId());
+        assertEquals(3L, recentPosts.get(4).getPostId());
+    }
+
+    @Test
+    void getRecentPosts_limited() throws Exception {
+        recordPosts(5);
+
+        List<RecentPostDto> recentPosts = activityFeedService.getRecentPosts(activityFeedService.getHomePageSize());
+
+        assertEquals(3, recentPosts.size());
+        assertEquals(5L, recentPosts.get(0).getPostId());
+    }
+
+    @Test
+    void setPostDeleted() throws Exception {
+        recordPosts(3);
+
+        activityFeedService.setPostDeleted(2L, true);
+        List<RecentPostDto> recentPosts = activityFeedService.getRecentPosts(10);
+        assertEquals(2, recentPosts.size());
+        assertTrue(recentPosts.stream().noneMatch(p -> p.getPostId() == 2L));
+
+        activityFeedService.setPostDeleted(2L, false);
+        assertEquals(3, activityFeedService.getRecentPosts(10).size());
+    }
+
+    @Test
+    void getRecentPostsPage() throws Exception {
+        recordPosts(5);
+
+        RecentActivityPageDto firstPage = activityFeedService.getRecentPostsPage(1);
+        assertEquals(2, firstPage.getPosts().size());
+        assertEquals(5L, firstPage.getPosts().get(0).getPostId());
+        assertTrue(firstPage.isHasMore());
+
+        RecentActivityPageDto lastPage = activityFeedService.getRecentPostsPage(3);
+        assertEquals(1, lastPage.getPosts().size());
+        assertEquals(1L, lastPage.getPosts().get(0).getPostId());
+        assertFalse(lastPage.isHasMore());
+
+        assertNull(activityFeedService.getRecentPostsPage(4));
+        assertNull(activityFeedService.getRecentPostsPage(0));
+    }
+
+    @Test
+    void getRecentPostsPage_emptyFeed() throws Exception {
+        RecentActivityPageDto firstPage = activityFeedService.getRecentPostsPage(1);
+
+        assertTrue(firstPage.getPosts().isEmpty());
+        assertFalse(firstPage.isHasMore());
+        assertNull(activityFeedService.getRecentPostsPage(2));
+    }
+
+    @Test
+    void warmLoad() throws Exception {
+        recordPosts(1);
+        Date now = new Date();
+        when(postRepository.findLatestPosts(eq(11), eq(PageRequest.of(0, 5)))).thenReturn(List.of(
+                new RecentPostDto(1L, 1L, TEST_TOPIC_FORUM_NAME, TEST_TOPIC_THREAD_NAME, "TestUser", "short", now),
+                new RecentPostDto(0L, 1L, TEST_TOPIC_FORUM_NAME, TEST_TOPIC_THREAD_NAME, "TestUser",
+                        "longer than ten", now)));
+
+        assertEquals(2, activityFeedService.warmLoad());
+
+        List<RecentPostDto> recentPosts = activityFeedService.getRecentPosts(10);
+        assertEquals(2, recentPosts.size());
+        assertEquals(1L, recentPosts.get(0).getPostId());
+        assertEquals(0L, recentPosts.get(1).getPostId());
+        assertEquals("longer tha...", recentPosts.get(1).getContent());
+        verify(postRepository, times(1)).findLatestPosts(eq(11), eq(PageRequest.of(0, 5)));
+    }
+
+    /**
+     * Helper method that records the given number of new posts, with IDs counting up from 1.
+     */
+    private void recordPosts(int count) {
+        for (long id = 1; id <= count; id++) {
+            Post post = new Post("content of post " + id, new Date());
+            post.setId(id);
+            post.setThread(testTopicThread);
+            post.setUser(testUser);
+            activityFeedService.recordPost(post);
+        }
+    }
+}
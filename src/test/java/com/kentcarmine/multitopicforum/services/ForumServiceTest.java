@@ -5,7 +5,9 @@ import com.kentcarmine.multitopicforum.converters.TopicForumDtoToTopicForumConve
 import com.kentcarmine.multitopicforum.dtos.*;
 import com.kentcarmine.multitopicforum.exceptions.DuplicateForumNameException;
 import com.kentcarmine.multitopicforum.model.*;
+import com.kentcarmine.multitopicforum.repositories.PostRepository;
 import com.kentcarmine.multitopicforum.repositories.TopicForumRepository;
+import com.kentcarmine.multitopicforum.repositories.TopicThreadRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -51,6 +53,12 @@ class ForumServiceTest {
     @Mock
     TopicForumRepository topicForumRepository;
 
+    @Mock
+    TopicThreadRepository topicThreadRepository;
+
+    @Mock
+    PostRepository postRepository;
+
     @Mock
     TopicForumDtoToTopicForumConverter topicForumDtoToTopicForumConverter;
 
@@ -74,7 +82,7 @@ class ForumServiceTest {
         MockitoAnnotations.initMocks(this);
 
         forumHierarchyConverter = new ForumHierarchyConverter();
-        forumService = new ForumServiceImpl(topicForumRepository, topicForumDtoToTopicForumConverter, forumHierarchyConverter, timeCalculatorService);
+        forumService = new ForumServiceImpl(topicForumRepository, topicThreadRepository, postRepository, topicForumDtoToTopicForumConverter, forumHierarchyConverter, timeCalculatorService);
 
         testUser = new User(TEST_USERNAME, TEST_USER_PASSWORD, TEST_USER_EMAIL);
         testUser.addAuthority(UserRole.USER);
@@ -90,12 +98,15 @@ class ForumServiceTest {
 
         testTopicForum = new TopicForum(TEST_TOPIC_FORUM_NAME, TEST_TOPIC_FORUM_DESC);
         testTopicThread = new TopicThread(TEST_TOPIC_THREAD_NAME, testTopicForum);
+        testTopicThread.setId(1L);
         testPost = new Post("test post content", Date.from(Instant.now()));
         testPost.setId(1L);
         testPost.setUser(testUser);
         testTopicThread.getPosts().add(testPost);
         testTopicForum.addThread(testTopicThread);
         testPost.setThread(testTopicThread);
+        testTopicForum.recordNewThread();
+        testTopicForum.recordNewPost(testPost);
 
         testTopicForum2 = new TopicForum(TEST_TOPIC_FORUM_NAME_2, TEST_TOPIC_FORUM_DESC_2);
     }
@@ -251,27 +262,27 @@ class ForumServiceTest {
 
         Pageable pageReq = PageRequest.of(0, resultsPerPage,
                 Sort.by(Sort.Order.by("name").ignoreCase()).ascending());
-        List<TopicForum> forumList = new ArrayList<>();
-        forumList.add(testTopicForum);
-        Page<TopicForum> forumPageExpected = new PageImpl<TopicForum>(forumList, pageReq, forumList.size());
+        List<TopicForumRowDto> forumList = new ArrayList<>();
+        forumList.add(toRow(testTopicForum));
+        Page<TopicForumRowDto> forumPageExpected = new PageImpl<TopicForumRowDto>(forumList, pageReq, forumList.size());
 
-        when(topicForumRepository.findAll(any(Pageable.class))).thenReturn(forumPageExpected);
+        when(topicForumRepository.findAllForumRows(any(Pageable.class))).thenReturn(forumPageExpected);
         when(timeCalculatorService.getTimeSinceForumUpdatedMessage(any())).thenReturn("testPlaceholderText");
 
-        Page<TopicForumViewDto> result = forumService.getForumsAsViewDtosPaginated(1, resultsPerPage);
+        Page<TopicForumViewDtoLight> result = forumService.getForumsAsViewDtosPaginated(1, resultsPerPage);
 
         assertEquals(1, result.getTotalElements());
         assertEquals(1, result.getTotalPages());
         assertEquals(1, result.getNumberOfElements());
         assertEquals(0, result.getNumber());
 
-        TopicForumViewDto resultContent = result.toList().get(0);
+        TopicForumViewDtoLight resultContent = result.toList().get(0);
 
         assertEquals(1, resultContent.getNumThreads());
-        assertEquals(testTopicThread.getId(), resultContent.getThreads().first().getId());
+        assertEquals(testTopicThread.getId(), resultContent.getMostRecentPost().getThread().getId());
         assertEquals(testTopicForum.getThreads().first().getPosts().first().getId(), resultContent.getMostRecentPost().getId());
 
-        verify(topicForumRepository, times(1)).findAll(any(Pageable.class));
+        verify(topicForumRepository, times(1)).findAllForumRows(any(Pageable.class));
         verify(timeCalculatorService, times(1)).getTimeSinceForumUpdatedMessage(any());
     }
 
@@ -281,14 +292,14 @@ class ForumServiceTest {
 
         Pageable pageReq = PageRequest.of(0, resultsPerPage,
                 Sort.by(Sort.Order.by("name").ignoreCase()).ascending());
-        List<TopicForum> forumList = new ArrayList<>();
-        forumList.add(testTopicForum);
-        forumList.add(testTopicForum2);
-        Page<TopicForum> forumPageExpected = new PageImpl<TopicForum>(forumList, pageReq, 2);
+        List<TopicForumRowDto> forumList = new ArrayList<>();
+        forumList.add(toRow(testTopicForum));
+        forumList.add(toRow(testTopicForum2));
+        Page<TopicForumRowDto> forumPageExpected = new PageImpl<TopicForumRowDto>(forumList, pageReq, 2);
 
-        when(topicForumRepository.findAll(pageReq)).thenReturn(forumPageExpected);
+        when(topicForumRepository.findAllForumRows(pageReq)).thenReturn(forumPageExpected);
 
-        Page<TopicForumViewDto> result = forumService.getForumsAsViewDtosPaginated(0, resultsPerPage);
+        Page<TopicForumViewDtoLight> result = forumService.getForumsAsViewDtosPaginated(0, resultsPerPage);
 
         assertNull(result);
     }
@@ -299,14 +310,46 @@ class ForumServiceTest {
 
         Pageable pageReq = PageRequest.of(0, resultsPerPage,
                 Sort.by(Sort.Order.by("name").ignoreCase()).ascending());
-        List<TopicForum> forumList = new ArrayList<>();
-        forumList.add(testTopicForum);
-        forumList.add(testTopicForum2);
-        Page<TopicForum> forumPageExpected = new PageImpl<TopicForum>(forumList, pageReq, 2);
+        List<TopicForumRowDto> forumList = new ArrayList<>();
+        forumList.add(toRow(testTopicForum));
+        forumList.add(toRow(testTopicForum2));
+        Page<TopicForumRowDto> forumPageExpected = new PageImpl<TopicForumRowDto>(forumList, pageReq, 2);
+
+        when(topicForumRepository.findAllForumRows(any(Pageable.class))).thenReturn(forumPageExpected);
+
+        Page<TopicForumViewDtoLight> result = forumService.getForumsAsViewDtosPaginated(17, resultsPerPage);
+
+        assertNull(result);
+    }
+
+    @Test
+    void searchTopicForumsForViewDtosWithCustomQuery_valid() throws Exception {
+        PageRequest pageReq = PageRequest.of(0, 2, Sort.by(Sort.Order.by("name").ignoreCase()).descending());
+        Page<TopicForumRowDto> expectedPage = new PageImpl<TopicForumRowDto>(List.of(toRow(testTopicForum)), pageReq, 1);
+
+        when(topicForumRepository.searchTopicForumRowsPaginated(anyString(), any())).thenReturn(expectedPage);
+        when(timeCalculatorService.getTimeSinceForumUpdatedMessage(any())).thenReturn("testPlaceholderText");
+
+        Page<TopicForumViewDtoLight> result = forumService.searchTopicForumsForViewDtosWithCustomQuery("test", 1, 2);
 
-        when(topicForumRepository.findAll(any(Pageable.class))).thenReturn(forumPageExpected);
+        assertEquals(1, result.getTotalElements());
+        assertEquals(1, result.getNumberOfElements());
+        assertEquals(testTopicForum.getName(), result.getContent().get(0).getName());
+        assertEquals(testTopicForum.getLastPostId(), result.getContent().get(0).getMostRecentPost().getId());
+        assertEquals("testPlaceholderText", result.getContent().get(0).getUpdateTimeDifferenceMessage());
+
+        verify(topicForumRepository, times(1)).searchTopicForumRowsPaginated(anyString(), any());
+        verify(topicForumRepository, times(0)).searchTopicForumsPaginated(anyString(), any());
+    }
+
+    @Test
+    void searchTopicForumsForViewDtosWithCustomQuery_highPageNumber() throws Exception {
+        PageRequest pageReq = PageRequest.of(0, 2, Sort.by(Sort.Order.by("name").ignoreCase()).descending());
+        Page<TopicForumRowDto> expectedPage = new PageImpl<TopicForumRowDto>(List.of(toRow(testTopicForum)), pageReq, 1);
+
+        when(topicForumRepository.searchTopicForumRowsPaginated(anyString(), any())).thenReturn(expectedPage);
 
-        Page<TopicForumViewDto> result = forumService.getForumsAsViewDtosPaginated(17, resultsPerPage);
+        Page<TopicForumViewDtoLight> result = forumService.searchTopicForumsForViewDtosWithCustomQuery("test", 17, 2);
 
         assertNull(result);
     }
@@ -329,6 +372,25 @@ class ForumServiceTest {
 
     }
 
+    @Test
+    void reconcileForumAggregates() throws Exception {
+        testTopicThread.setId(3L);
+
+        when(topicForumRepository.findForumsWithStaleAggregates()).thenReturn(List.of(testTopicForum, testTopicForum2));
+        when(topicThreadRepository.countByForum(testTopicForum)).thenReturn(1);
+        when(postRepository.countByThreadForum(testTopicForum)).thenReturn(1);
+        when(postRepository.findFirstByThreadForumOrderByPostedAtDesc(testTopicForum)).thenReturn(testPost);
+        when(postRepository.findFirstByThreadForumOrderByPostedAtDesc(testTopicForum2)).thenReturn(null);
+
+        int result = forumService.reconcileForumAggregates();
+
+        assertEquals(2, result);
+        verify(topicForumRepository, times(1)).updateAggregates(testTopicForum.getName(), 1, 1,
+                testPost.getPostedAt(), testPost.getId(), testUser.getUsername(), 3L, testTopicThread.getTitle());
+        verify(topicForumRepository, times(1)).updateAggregates(testTopicForum2.getName(), 0, 0, null, null,
+                null, null, null);
+    }
+
     @Test
     void getTopicForumViewDtoLightForTopicForum_noPosts() throws Exception {
         TopicForumViewDtoLight expected = forumHierarchyConverter.convertForumLight(testTopicForum2);
@@ -345,7 +407,9 @@ class ForumServiceTest {
         verify(timeCalculatorService, times(0)).getTimeSincePostCreationMessage(any());
     }
 
-
-
-
-}
\ No newline at end of file
+    private TopicForumRowDto toRow(TopicForum forum) {
+        return new TopicForumRowDto(forum.getName(), forum.getDescription(), forum.getNumThreads(),
+                forum.getLastActivityAt(), forum.getLastPostId(), forum.getLastPostUsername(),
+                forum.getLastPostThreadId(), forum.getLastPostThreadTitle());
+    }
+}
@@ -0,0 +1,93 @@
+package com.kentcarmine.multitopicforum.services;
+
+import com.kentcarmine.multitopicforum.helpers.CachedPage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ActiveProfiles("test")
+class PageCacheServiceTest {
+
+    private static final String TEST_FORUM_NAME = "TestForum";
+    private static final String TEST_OTHER_FORUM_NAME = "OtherForum";
+
+    PageCacheService pageCacheService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        pageCacheService = new PageCacheServiceImpl();
+        ReflectionTestUtils.setField(pageCacheService, "ENABLED", true);
+        ReflectionTestUtils.setField(pageCacheService, "MAX_ENTRIES", 2);
+        ReflectionTestUtils.setField(pageCacheService, "TTL_SECONDS", 60L);
+    }
+
+    @Test
+    void putPage_andGetPage() throws Exception {
+        CachedPage page = newPage(TEST_FORUM_NAME, 1L, System.currentTimeMillis());
+
+        assertTrue(pageCacheService.putPage("thread1", page, pageCacheService.getGeneration()));
+
+        assertEquals(page, pageCacheService.getPage("thread1"));
+        assertNull(pageCacheService.getPage("thread2"));
+    }
+
+    @Test
+    void getPage_expired() throws Exception {
+        CachedPage page = newPage(TEST_FORUM_NAME, 1L, System.currentTimeMillis() - 61 * 1000);
+        pageCacheService.putPage("thread1", page, pageCacheService.getGeneration());
+
+        assertNull(pageCacheService.getPage("thread1"));
+        assertEquals(0, pageCacheService.size());
+    }
+
+    @Test
+    void putPage_evictsLeastRecentlyUsed() throws Exception {
+        long now = System.currentTimeMillis();
+        pageCacheService.putPage("thread1", newPage(TEST_FORUM_NAME, 1L, now), pageCacheService.getGeneration());
+        pageCacheService.putPage("thread2", newPage(TEST_FORUM_NAME, 2L, now), pageCacheService.getGeneration());
+        pageCacheService.getPage("thread1");
+        pageCacheService.putPage("thread3", newPage(TEST_FORUM_NAME, 3L, now), pageCacheService.getGeneration());
+
+        assertEquals(2, pageCacheService.size());
+        assertNotNull(pageCacheService.getPage("thread1"));
+        assertNull(pageCacheService.getPage("thread2"));
+        assertNotNull(pageCacheService.getPage("thread3"));
+    }
+
+    @Test
+    void evictThread_evictsThreadAndForumPagesOnly() throws Exception {
+        long now = System.currentTimeMillis();
+        ReflectionTestUtils.setField(pageCacheService, "MAX_ENTRIES", 10);
+        pageCacheService.putPage("thread1", newPage(TEST_FORUM_NAME, 1L, now), pageCacheService.getGeneration());
+        pageCacheService.putPage("thread2", newPage(TEST_FORUM_NAME, 2L, now), pageCacheService.getGeneration());
+        pageCacheService.putPage("forum", newPage(TEST_FORUM_NAME, null, now), pageCacheService.getGeneration());
+        pageCacheService.putPage("otherForum", newPage(TEST_OTHER_FORUM_NAME, null, now),
+                pageCacheService.getGeneration());
+
+        pageCacheService.evictThread(TEST_FORUM_NAME, 1L);
+
+        assertNull(pageCacheService.getPage("thread1"));
+        assertNull(pageCacheService.getPage("forum"));
+        assertNotNull(pageCacheService.getPage("thread2"));
+        assertNotNull(pageCacheService.getPage("otherForum"));
+    }
+
+    @Test
+    void putPage_staleGeneration() throws Exception {
+        long generation = pageCacheService.getGeneration();
+        pageCacheService.evictThread(TEST_FORUM_NAME, 1L);
+
+        boolean result = pageCacheService.putPage("thread1", newPage(TEST_FORUM_NAME, 1L,
+                System.currentTimeMillis()), generation);
+
+        assertFalse(result);
+        assertNull(pageCacheService.getPage("thread1"));
+    }
+
+    private CachedPage newPage(String forumName, Long threadId, long cachedAtMillis) {
+        return new CachedPage(forumName, threadId, "text/html;charset=UTF-8", "<html></html>", cachedAtMillis, null);
+    }
+}
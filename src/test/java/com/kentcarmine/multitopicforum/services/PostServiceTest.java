@@ -2,23 +2,32 @@ package com.kentcarmine.multitopicforum.services;
 
 import com.kentcarmine.multitopicforum.converters.TopicForumDtoToTopicForumConverter;
 import com.kentcarmine.multitopicforum.dtos.PostCreationDto;
+import com.kentcarmine.multitopicforum.dtos.PostModerationResultDto;
+import com.kentcarmine.multitopicforum.events.PostChangedEvent;
+import com.kentcarmine.multitopicforum.events.ThreadContentChangedEvent;
 import com.kentcarmine.multitopicforum.model.*;
 import com.kentcarmine.multitopicforum.repositories.PostRepository;
 import com.kentcarmine.multitopicforum.repositories.PostVoteRepository;
 import com.kentcarmine.multitopicforum.repositories.TopicForumRepository;
 import com.kentcarmine.multitopicforum.repositories.TopicThreadRepository;
+import com.kentcarmine.multitopicforum.repositories.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.Date;
+import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ActiveProfiles("test")
@@ -50,6 +59,15 @@ class PostServiceTest {
     @Mock
     TopicThreadRepository topicThreadRepository;
 
+    @Mock
+    TopicForumRepository topicForumRepository;
+
+    @Mock
+    UserRepository userRepository;
+
+    @Mock
+    ApplicationEventPublisher applicationEventPublisher;
+
     PostService postService;
 
     private TopicForum testTopicForum;
@@ -65,7 +83,8 @@ class PostServiceTest {
     void setUp() {
         MockitoAnnotations.initMocks(this);
 
-        postService = new PostServiceImpl(postRepository, topicThreadRepository);
+        postService = new PostServiceImpl(postRepository, topicThreadRepository, topicForumRepository, userRepository,
+                applicationEventPublisher);
 
         testUser = new User(TEST_USERNAME, TEST_USER_PASSWORD, TEST_USER_EMAIL);
         testUser.addAuthority(UserRole.USER);
@@ -84,6 +103,7 @@ class PostServiceTest {
         testPost = new Post("test post content", Date.from(Instant.now()));
         testPost.setId(1L);
         testPost.setUser(testUser);
+        testPost.setThread(testTopicThread);
         testTopicThread.getPosts().add(testPost);
         testTopicForum.addThread(testTopicThread);
     }
@@ -95,10 +115,31 @@ class PostServiceTest {
         final User testUser = new User("testUser", "password", "test@test.com");
         testUser.addAuthority(UserRole.USER);
 
-        postService.addNewPostToThread(postCreationDto, testUser, testTopicThread);
+        when(topicThreadRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(postRepository.save(any())).thenAnswer(invocation -> {
+            Post savedPost = invocation.getArgument(0);
+            savedPost.setId(7L);
+            return savedPost;
+        });
+
+        Post result = postService.addNewPostToThread(postCreationDto, testUser, testTopicThread);
 
         verify(postRepository, times(1)).save(any());
         verify(topicThreadRepository, times(1)).save(any());
+        verify(topicThreadRepository, times(1)).recordNewPost(testTopicThread.getId(), 7L, testUser.getUsername(), result.getPostedAt());
+        assertEquals(1, testTopicThread.getPostCount());
+        assertEquals(7L, testTopicThread.getFirstPostId());
+        assertEquals(7L, testTopicThread.getLastPostId());
+        assertEquals(testUser.getUsername(), testTopicThread.getLastPostUsername());
+        verify(topicForumRepository, times(1)).recordNewPost(testTopicForum.getName(), testTopicThread.getId(),
+                testTopicThread.getTitle(), 7L, testUser.getUsername(), result.getPostedAt());
+        assertEquals(1, testTopicForum.getPostCount());
+        assertEquals(7L, testTopicForum.getLastPostId());
+        verify(userRepository, times(1)).incrementPostCount(testUser.getUsername());
+        assertEquals(1, testUser.getPostCount());
+        verify(applicationEventPublisher, times(1)).publishEvent(any(ThreadContentChangedEvent.class));
+        verify(applicationEventPublisher, times(1)).publishEvent(
+                postChangedEvent(PostChangedEvent.ChangeType.CREATED));
     }
 
     @Test
@@ -131,6 +172,9 @@ class PostServiceTest {
         assertEquals(deletedAtTimestamp, result.getDeletedAt());
 
         verify(postRepository, times(1)).save(any());
+        verify(applicationEventPublisher, times(1)).publishEvent(any(ThreadContentChangedEvent.class));
+        verify(applicationEventPublisher, times(1)).publishEvent(
+                postChangedEvent(PostChangedEvent.ChangeType.DELETED));
     }
 
     @Test
@@ -140,6 +184,8 @@ class PostServiceTest {
         postService.deletePost(testPost, testModerator);
 
         verify(postRepository, times(0)).save(any());
+        verify(applicationEventPublisher, times(0)).publishEvent(any(ThreadContentChangedEvent.class));
+        verify(applicationEventPublisher, times(0)).publishEvent(any(PostChangedEvent.class));
     }
 
     @Test
@@ -175,4 +221,103 @@ class PostServiceTest {
         verify(postRepository, times(1)).save(any());
     }
 
-}
\ No newline at end of file
+    @Test
+    void deletePosts() throws Exception {
+        testTopicThread.setId(1L);
+
+        Post moderatorPost = new Post("moderator post content", Date.from(Instant.now()));
+        moderatorPost.setId(2L);
+        moderatorPost.setUser(testModerator2);
+        moderatorPost.setThread(testTopicThread);
+
+        Post deletedPost = new Post("deleted post content", Date.from(Instant.now()));
+        deletedPost.setId(3L);
+        deletedPost.setUser(testUser);
+        deletedPost.setThread(testTopicThread);
+        deletedPost.setDeleted(true);
+
+        when(postRepository.findAllForModerationByIdIn(any())).thenReturn(List.of(testPost, moderatorPost, deletedPost));
+
+        List<PostModerationResultDto> results = postService.deletePosts(List.of(1L, 2L, 3L, 4L, 1L), testModerator);
+
+        assertEquals(4, results.size());
+        assertEquals(PostModerationResultDto.Status.DELETED, results.get(0).getStatus());
+        assertEquals(PostModerationResultDto.Status.UNAUTHORIZED, results.get(1).getStatus());
+        assertEquals(PostModerationResultDto.Status.UNCHANGED, results.get(2).getStatus());
+        assertEquals(PostModerationResultDto.Status.NOT_FOUND, results.get(3).getStatus());
+        assertEquals(4L, results.get(3).getPostId());
+
+        assertTrue(testPost.isDeleted());
+        assertEquals(testModerator, testPost.getDeletedBy());
+        assertFalse(moderatorPost.isDeleted());
+
+        verify(postRepository, times(1)).findAllForModerationByIdIn(any());
+        verify(postRepository, times(1)).markDeleted(eq(List.of(1L)), eq(testModerator), any());
+        verify(topicThreadRepository, times(1)).markAllModified(eq(Set.of(1L)), any());
+        verify(postRepository, times(0)).save(any());
+        verify(applicationEventPublisher, times(1)).publishEvent(any(ThreadContentChangedEvent.class));
+        verify(applicationEventPublisher, times(1)).publishEvent(
+                postChangedEvent(PostChangedEvent.ChangeType.DELETED));
+    }
+
+    @Test
+    void deletePosts_noneDeletable() throws Exception {
+        when(postRepository.findAllForModerationByIdIn(any())).thenReturn(List.of(testPost));
+
+        List<PostModerationResultDto> results = postService.deletePosts(List.of(1L), testUser);
+
+        assertEquals(1, results.size());
+        assertEquals(PostModerationResultDto.Status.UNAUTHORIZED, results.get(0).getStatus());
+
+        verify(postRepository, times(0)).markDeleted(any(), any(), any());
+        verify(topicThreadRepository, times(0)).markAllModified(any(), any());
+        verify(applicationEventPublisher, times(0)).publishEvent(any(ApplicationEvent.class));
+    }
+
+    @Test
+    void restorePosts() throws Exception {
+        testTopicThread.setId(1L);
+        testPost.setDeleted(true);
+        testPost.setDeletedBy(testModerator);
+        testPost.setDeletedAt(Date.from(Instant.now()));
+
+        Post adminDeletedPost = new Post("admin deleted post content", Date.from(Instant.now()));
+        adminDeletedPost.setId(2L);
+        adminDeletedPost.setUser(testUser);
+        adminDeletedPost.setThread(testTopicThread);
+        adminDeletedPost.setDeleted(true);
+        adminDeletedPost.setDeletedBy(testAdmin);
+
+        Post visiblePost = new Post("visible post content", Date.from(Instant.now()));
+        visiblePost.setId(3L);
+        visiblePost.setUser(testUser);
+        visiblePost.setThread(testTopicThread);
+
+        when(postRepository.findAllForModerationByIdIn(any())).thenReturn(List.of(testPost, adminDeletedPost, visiblePost));
+
+        List<PostModerationResultDto> results = postService.restorePosts(List.of(1L, 2L, 3L), testModerator);
+
+        assertEquals(3, results.size());
+        assertEquals(PostModerationResultDto.Status.RESTORED, results.get(0).getStatus());
+        assertEquals(PostModerationResultDto.Status.UNAUTHORIZED, results.get(1).getStatus());
+        assertEquals(PostModerationResultDto.Status.UNCHANGED, results.get(2).getStatus());
+
+        assertFalse(testPost.isDeleted());
+        assertNull(testPost.getDeletedBy());
+        assertTrue(adminDeletedPost.isDeleted());
+
+        verify(postRepository, times(1)).markRestored(eq(List.of(1L)));
+        verify(topicThreadRepository, times(1)).markAllModified(eq(Set.of(1L)), any());
+        verify(applicationEventPublisher, times(1)).publishEvent(any(ThreadContentChangedEvent.class));
+        verify(applicationEventPublisher, times(1)).publishEvent(
+                postChangedEvent(PostChangedEvent.ChangeType.RESTORED));
+    }
+
+    /**
+     * Helper method that matches a PostChangedEvent of the given type among the other events published
+     */
+    private static ApplicationEvent postChangedEvent(PostChangedEvent.ChangeType changeType) {
+        return argThat(event -> event instanceof PostChangedEvent
+                && ((PostChangedEvent) event).getChangeType() == changeType);
+    }
+}
@@ -2,7 +2,10 @@ package com.kentcarmine.multitopicforum.services;
 
 import com.kentcarmine.multitopicforum.converters.TopicForumDtoToTopicForumConverter;
 import com.kentcarmine.multitopicforum.dtos.PostVoteResponseDto;
+import com.kentcarmine.multitopicforum.dtos.PostVoteStateDto;
 import com.kentcarmine.multitopicforum.dtos.PostVoteSubmissionDto;
+import com.kentcarmine.multitopicforum.events.PostChangedEvent;
+import com.kentcarmine.multitopicforum.helpers.LongByteHashMap;
 import com.kentcarmine.multitopicforum.model.*;
 import com.kentcarmine.multitopicforum.repositories.PostRepository;
 import com.kentcarmine.multitopicforum.repositories.PostVoteRepository;
@@ -12,13 +15,22 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.util.Date;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ActiveProfiles("test")
@@ -49,6 +61,28 @@ class PostVoteServiceImplTest {
     @Mock
     PostVoteRepository postVoteRepository;
 
+    @Mock
+    PostRepository postRepository;
+
+    @Mock
+    TopicThreadRepository topicThreadRepository;
+
+    @Mock
+    ApplicationEventPublisher applicationEventPublisher;
+
+    @Mock
+    VoteBufferService voteBufferService;
+
+    @Mock
+    TransactionTemplate transactionTemplate;
+
+    @Mock
+    UserActivityService userActivityService;
+
+    VoteCounterService voteCounterService;
+
+    UserVoteIndexService userVoteIndexService;
+
     private TopicForum testTopicForum;
     private TopicThread testTopicThread;
     private Post testPost;
@@ -62,7 +96,13 @@ class PostVoteServiceImplTest {
     void setUp() {
         MockitoAnnotations.initMocks(this);
 
-        postVoteService = new PostVoteServiceImpl(postVoteRepository);
+        voteCounterService = new VoteCounterServiceImpl(postRepository, topicThreadRepository, transactionTemplate);
+        userVoteIndexService = new UserVoteIndexServiceImpl(postVoteRepository, voteBufferService);
+        ReflectionTestUtils.setField(userVoteIndexService, "ENABLED", false);
+        ReflectionTestUtils.setField(userVoteIndexService, "MAX_USERS", 10);
+        postVoteService = new PostVoteServiceImpl(postVoteRepository, postRepository, topicThreadRepository,
+                applicationEventPublisher, voteBufferService, voteCounterService, userVoteIndexService,
+                userActivityService);
 
         testUser = new User(TEST_USERNAME, TEST_USER_PASSWORD, TEST_USER_EMAIL);
         testUser.addAuthority(UserRole.USER);
@@ -78,9 +118,11 @@ class PostVoteServiceImplTest {
 
         testTopicForum = new TopicForum(TEST_TOPIC_FORUM_NAME, TEST_TOPIC_FORUM_DESC);
         testTopicThread = new TopicThread(TEST_TOPIC_THREAD_NAME, testTopicForum);
+        testTopicThread.setId(1L);
         testPost = new Post("test post content", Date.from(Instant.now()));
         testPost.setId(1L);
         testPost.setUser(testUser);
+        testPost.setThread(testTopicThread);
         testTopicThread.getPosts().add(testPost);
         testTopicForum.addThread(testTopicThread);
     }
@@ -111,6 +153,56 @@ class PostVoteServiceImplTest {
 
         verify(postVoteRepository, times(1)).findByUserAndPost(any(), any());
         verify(postVoteRepository, times(1)).save(any());
+        verify(postRepository, times(0)).incrementVoteCounts(any(), anyInt(), anyInt());
+        assertEquals(1, voteCounterService.getVoteCount(testPost));
+        verify(topicThreadRepository, times(1)).markModified(eq(testTopicThread.getId()), any());
+        verify(applicationEventPublisher, times(1)).publishEvent(argThat((PostChangedEvent event) ->
+                event.getChangeType() == PostChangedEvent.ChangeType.VOTED && event.getPost() == testPost));
+        verify(userActivityService, times(1)).recordActivity(testUser);
+    }
+
+    @Test
+    void handlePostVoteSubmission_activityRecordedAfterCommit() throws Exception {
+        PostVote postVote = new PostVote(PostVoteState.UPVOTE, testUser, testPost);
+        postVote.setId(3L);
+        PostVoteSubmissionDto submissionDto = new PostVoteSubmissionDto(testPost.getId(), PostVoteState.UPVOTE.getValue());
+
+        when(postVoteRepository.findByUserAndPost(any(), any())).thenReturn(null);
+        when(postVoteRepository.save(any())).thenReturn(postVote);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            postVoteService.handlePostVoteSubmission(testUser, testPost, submissionDto);
+            verify(userActivityService, times(0)).recordActivity(any());
+
+            TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(userActivityService, times(1)).recordActivity(testUser);
+    }
+
+    @Test
+    void handlePostVoteSubmission_activityNotRecordedOnRollback() throws Exception {
+        PostVote postVote = new PostVote(PostVoteState.UPVOTE, testUser, testPost);
+        postVote.setId(3L);
+        PostVoteSubmissionDto submissionDto = new PostVoteSubmissionDto(testPost.getId(), PostVoteState.UPVOTE.getValue());
+
+        when(postVoteRepository.findByUserAndPost(any(), any())).thenReturn(null);
+        when(postVoteRepository.save(any())).thenReturn(postVote);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            postVoteService.handlePostVoteSubmission(testUser, testPost, submissionDto);
+
+            TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                    TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(userActivityService, times(0)).recordActivity(any());
     }
 
     @Test
@@ -139,6 +231,11 @@ class PostVoteServiceImplTest {
 
         verify(postVoteRepository, times(1)).findByUserAndPost(any(), any());
         verify(postVoteRepository, times(1)).save(any());
+        verify(postRepository, times(0)).incrementVoteCounts(any(), anyInt(), anyInt());
+        assertEquals(-1, voteCounterService.getVoteCount(testPost));
+        verify(topicThreadRepository, times(1)).markModified(eq(testTopicThread.getId()), any());
+        verify(applicationEventPublisher, times(1)).publishEvent(argThat((PostChangedEvent event) ->
+                event.getChangeType() == PostChangedEvent.ChangeType.VOTED && event.getPost() == testPost));
     }
 
     @Test
@@ -169,5 +266,148 @@ class PostVoteServiceImplTest {
 
         verify(postVoteRepository, times(1)).findByUserAndPost(any(), any());
         verify(postVoteRepository, times(0)).save(any());
+        verify(postRepository, times(0)).incrementVoteCounts(any(), anyInt(), anyInt());
+        verify(userActivityService, times(0)).recordActivity(any());
+    }
+
+    @Test
+    void handlePostVoteSubmission_bufferedUpvote() throws Exception {
+        PostVoteSubmissionDto submissionDto = new PostVoteSubmissionDto(testPost.getId(), 1);
+
+        when(voteBufferService.isEnabled()).thenReturn(true);
+        when(voteBufferService.bufferVote(any(), any(), any())).thenReturn(true);
+        when(postVoteRepository.findByUserAndPost(any(), any())).thenReturn(null);
+
+        PostVoteResponseDto response = postVoteService.handlePostVoteSubmission(testUser, testPost, submissionDto);
+
+        assertTrue(response.isVoteUpdated());
+        assertTrue(response.isHasUpvote());
+        assertFalse(response.isHasDownvote());
+        assertEquals(1, response.getVoteTotal());
+        assertEquals(0, testPost.getPostVotes().size());
+
+        verify(voteBufferService, times(1)).bufferVote(eq(testUser), eq(testPost), eq(PostVoteState.UPVOTE));
+        verify(postVoteRepository, times(0)).save(any());
+        verify(postRepository, times(0)).incrementVoteCounts(any(), anyInt(), anyInt());
+        verify(topicThreadRepository, times(0)).markModified(any(), any());
+        verify(applicationEventPublisher, times(1)).publishEvent(argThat((PostChangedEvent event) ->
+                event.getChangeType() == PostChangedEvent.ChangeType.VOTED && event.getPost() == testPost));
+        verify(userActivityService, times(1)).recordActivity(testUser);
+    }
+
+    @Test
+    void handlePostVoteSubmission_alreadyBuffered() throws Exception {
+        PostVoteSubmissionDto submissionDto = new PostVoteSubmissionDto(testPost.getId(), -1);
+
+        when(voteBufferService.isEnabled()).thenReturn(true);
+        when(voteBufferService.getBufferedVoteState(TEST_USERNAME, testPost.getId())).thenReturn(PostVoteState.UPVOTE);
+        voteCounterService.recordVote(testPost, PostVoteState.UPVOTE);
+
+        PostVoteResponseDto response = postVoteService.handlePostVoteSubmission(testUser, testPost, submissionDto);
+
+        assertFalse(response.isVoteUpdated());
+        assertTrue(response.isHasUpvote());
+        assertFalse(response.isHasDownvote());
+        assertEquals(1, response.getVoteTotal());
+
+        verify(voteBufferService, times(0)).bufferVote(any(), any(), any());
+        verify(postVoteRepository, times(0)).findByUserAndPost(any(), any());
+        verify(applicationEventPublisher, times(0)).publishEvent(any());
+    }
+
+    @Test
+    void generateVoteMap_includesBufferedVotes() throws Exception {
+        List<Long> postIds = List.of(1L, 2L);
+
+        when(voteBufferService.isEnabled()).thenReturn(true);
+        when(voteBufferService.getBufferedVoteState(TEST_USERNAME, 2L)).thenReturn(PostVoteState.DOWNVOTE);
+        when(postVoteRepository.findVoteStatesByUserAndPostIds(any(), any()))
+                .thenReturn(List.of(new PostVoteStateDto(1L, PostVoteState.UPVOTE)));
+
+        LongByteHashMap voteMap = postVoteService.generateVoteMap(testUser, postIds);
+
+        assertEquals(1, voteMap.get(1L));
+        assertEquals(-1, voteMap.get(2L));
+    }
+
+    @Test
+    void generateVoteMap_singleQueryForPageOfPosts() throws Exception {
+        List<Long> postIds = List.of(1L, 2L, 3L);
+        List<PostVoteStateDto> votes = List.of(new PostVoteStateDto(1L, PostVoteState.UPVOTE),
+                new PostVoteStateDto(3L, PostVoteState.DOWNVOTE));
+
+        when(postVoteRepository.findVoteStatesByUserAndPostIds(any(), any())).thenReturn(votes);
+
+        LongByteHashMap voteMap = postVoteService.generateVoteMap(testUser, postIds);
+
+        assertEquals(1, voteMap.get(1L));
+        assertEquals(0, voteMap.get(2L));
+        assertEquals(-1, voteMap.get(3L));
+        assertEquals(0, voteMap.get(4L));
+
+        verify(postVoteRepository, times(1)).findVoteStatesByUserAndPostIds(eq(testUser), eq(postIds));
+        verify(postVoteRepository, times(0)).findByUserAndPost(any(), any());
+    }
+
+    @Test
+    void generateVoteMap_noPosts() throws Exception {
+        LongByteHashMap voteMap = postVoteService.generateVoteMap(testUser, List.of());
+
+        assertTrue(voteMap.isEmpty());
+
+        verify(postVoteRepository, times(0)).findVoteStatesByUserAndPostIds(any(), any());
+    }
+
+    @Test
+    void generateVoteMap_fromUserVoteIndex() throws Exception {
+        ReflectionTestUtils.setField(userVoteIndexService, "ENABLED", true);
+        when(postVoteRepository.findAllVoteStatesByUser(testUser)).thenReturn(List.of(
+                new PostVoteStateDto(1L, PostVoteState.UPVOTE),
+                new PostVoteStateDto(3L, PostVoteState.DOWNVOTE),
+                new PostVoteStateDto(40L, PostVoteState.UPVOTE)));
+
+        LongByteHashMap voteMap = postVoteService.generateVoteMap(testUser, List.of(1L, 2L, 3L));
+        LongByteHashMap nextPageVoteMap = postVoteService.generateVoteMap(testUser, List.of(40L, 41L));
+
+        assertEquals(1, voteMap.get(1L));
+        assertEquals(0, voteMap.get(2L));
+        assertEquals(-1, voteMap.get(3L));
+        assertEquals(2, voteMap.size());
+        assertEquals(1, nextPageVoteMap.get(40L));
+        assertEquals(0, nextPageVoteMap.get(41L));
+
+        verify(postVoteRepository, times(1)).findAllVoteStatesByUser(testUser);
+        verify(postVoteRepository, times(0)).findVoteStatesByUserAndPostIds(any(), any());
+    }
+
+    @Test
+    void handlePostVoteSubmission_recordsVoteInUserVoteIndex() throws Exception {
+        ReflectionTestUtils.setField(userVoteIndexService, "ENABLED", true);
+        when(postVoteRepository.findAllVoteStatesByUser(testUser)).thenReturn(List.of());
+        userVoteIndexService.getIndex(testUser);
+
+        PostVote postVote = new PostVote(PostVoteState.DOWNVOTE, testUser, testPost);
+        when(postVoteRepository.findByUserAndPost(any(), any())).thenReturn(null);
+        when(postVoteRepository.save(any())).thenReturn(postVote);
+
+        postVoteService.handlePostVoteSubmission(testUser, testPost,
+                new PostVoteSubmissionDto(testPost.getId(), PostVoteState.DOWNVOTE.getValue()));
+
+        LongByteHashMap voteMap = postVoteService.generateVoteMap(testUser, List.of(testPost.getId()));
+
+        assertEquals(-1, voteMap.get(testPost.getId()));
+        verify(postVoteRepository, times(1)).findAllVoteStatesByUser(testUser);
+    }
+
+    @Test
+    void reconcileVoteCounts() throws Exception {
+        when(postRepository.reconcileUpvoteAndDownvoteCounts(any(), any())).thenReturn(2);
+
+        int result = postVoteService.reconcileVoteCounts();
+
+        assertEquals(2, result);
+
+        verify(postRepository, times(1)).reconcileUpvoteAndDownvoteCounts(PostVoteState.UPVOTE, PostVoteState.DOWNVOTE);
+        verify(postRepository, times(1)).reconcileVoteScores();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,166 @@
+package com.kentcarmine.multitopicforum.services;
+
+import com.kentcarmine.multitopicforum.model.ReadMarker;
+import com.kentcarmine.multitopicforum.model.User;
+import com.kentcarmine.multitopicforum.model.UserRole;
+import com.kentcarmine.multitopicforum.repositories.ReadMarkerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ActiveProfiles("test")
+class ReadMarkerServiceTest {
+
+    ReadMarkerService readMarkerService;
+
+    @Mock
+    ReadMarkerRepository readMarkerRepository;
+
+    @Mock
+    TransactionTemplate transactionTemplate;
+
+    private User testUser;
+    private User testUser2;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.initMocks(this);
+
+        readMarkerService = new ReadMarkerServiceImpl(readMarkerRepository, transactionTemplate);
+        ReflectionTestUtils.setField(readMarkerService, "ENABLED", true);
+        ReflectionTestUtils.setField(readMarkerService, "MAX_USERS", 2);
+
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+
+        testUser = new User("TestUser", "testPassword", "testuser@test.com");
+        testUser.addAuthority(UserRole.USER);
+
+        testUser2 = new User("TestUser2", "testPassword2", "testuser2@test.com");
+        testUser2.addAuthority(UserRole.USER);
+    }
+
+    @Test
+    void markRead_coalescedToFurthestPost() throws Exception {
+        readMarkerService.markRead(testUser, 1L, 5L);
+        readMarkerService.markRead(testUser, 1L, 9L);
+        readMarkerService.markRead(testUser, 1L, 7L);
+        readMarkerService.markRead(testUser2, 1L, 3L);
+
+        assertEquals(2, readMarkerService.getPendingMarkerCount());
+        verify(readMarkerRepository, times(0)).save(any());
+        verify(readMarkerRepository, times(0)).saveAll(any());
+
+        when(readMarkerRepository.findAllByUsernameAndThreadIdIn(any(), any())).thenReturn(List.of());
+        assertEquals(9L, readMarkerService.getLastReadPostIds(testUser, List.of(1L)).get(1L));
+    }
+
+    @Test
+    void markRead_disabled() throws Exception {
+        ReflectionTestUtils.setField(readMarkerService, "ENABLED", false);
+
+        readMarkerService.markRead(testUser, 1L, 5L);
+
+        assertEquals(0, readMarkerService.getPendingMarkerCount());
+        assertTrue(readMarkerService.getLastReadPostIds(testUser, List.of(1L)).isEmpty());
+        verify(readMarkerRepository, times(0)).findAllByUsernameAndThreadIdIn(any(), any());
+    }
+
+    @Test
+    void getLastReadPostIds_mergesStoredAndPending() throws Exception {
+        when(readMarkerRepository.findAllByUsernameAndThreadIdIn(eq(testUser.getUsername()), any())).thenReturn(List.of(
+                new ReadMarker(testUser.getUsername(), 1L, 10L),
+                new ReadMarker(testUser.getUsername(), 2L, 20L)));
+
+        readMarkerService.markRead(testUser, 2L, 25L);
+        readMarkerService.markRead(testUser, 3L, 30L);
+
+        Map<Long, Long> lastReadPostIds = readMarkerService.getLastReadPostIds(testUser, List.of(1L, 2L, 3L, 4L));
+
+        assertEquals(3, lastReadPostIds.size());
+        assertEquals(10L, lastReadPostIds.get(1L));
+        assertEquals(25L, lastReadPostIds.get(2L));
+        assertEquals(30L, lastReadPostIds.get(3L));
+        verify(readMarkerRepository, times(1)).findAllByUsernameAndThreadIdIn(any(), any());
+    }
+
+    @Test
+    void flush() throws Exception {
+        ReadMarker existingAhead = new ReadMarker(testUser.getUsername(), 1L, 50L);
+        ReadMarker existingBehind = new ReadMarker(testUser.getUsername(), 2L, 10L);
+        when(readMarkerRepository.findAllByUsernameAndThreadIdIn(eq(testUser.getUsername()), any()))
+                .thenReturn(List.of(existingAhead, existingBehind));
+        when(readMarkerRepository.findAllByUsernameAndThreadIdIn(eq(testUser2.getUsername()), any()))
+                .thenReturn(List.of());
+
+        readMarkerService.markRead(testUser, 1L, 40L);
+        readMarkerService.markRead(testUser, 2L, 20L);
+        readMarkerService.markRead(testUser, 3L, 30L);
+        readMarkerService.markRead(testUser2, 1L, 5L);
+
+        assertEquals(4, readMarkerService.flush());
+        assertEquals(0, readMarkerService.getPendingMarkerCount());
+
+        assertEquals(50L, existingAhead.getLastReadPostId());
+        assertEquals(20L, existingBehind.getLastReadPostId());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ReadMarker>> captor = ArgumentCaptor.forClass(List.class);
+        verify(readMarkerRepository, times(2)).saveAll(captor.capture());
+        List<ReadMarker> saved = new ArrayList<>();
+        captor.getAllValues().forEach(saved::addAll);
+        assertEquals(3, saved.size());
+        assertTrue(saved.contains(existingBehind));
+        assertFalse(saved.contains(existingAhead));
+        verify(transactionTemplate, times(1)).execute(any());
+
+        assertEquals(0, readMarkerService.flush());
+    }
+
+    @Test
+    void flush_failureKeepsMarkers() throws Exception {
+        when(readMarkerRepository.findAllByUsernameAndThreadIdIn(any(), any()))
+                .thenThrow(new RuntimeException("Database unavailable"));
+
+        readMarkerService.markRead(testUser, 1L, 5L);
+
+        assertEquals(0, readMarkerService.flush());
+        assertEquals(1, readMarkerService.getPendingMarkerCount());
+    }
+
+    @Test
+    void deleteMarkers() throws Exception {
+        readMarkerService.markRead(testUser, 1L, 5L);
+        readMarkerService.markRead(testUser2, 1L, 3L);
+        readMarkerService.markRead(testUser, 2L, 8L);
+
+        readMarkerService.deleteMarkers(1L);
+
+        verify(readMarkerRepository, times(1)).deleteAllByThreadId(1L);
+        assertEquals(1, readMarkerService.getPendingMarkerCount());
+    }
+
+    @Test
+    void getLastMarkedAt() throws Exception {
+        Date unknown = readMarkerService.getLastMarkedAt(testUser);
+        assertEquals(unknown, readMarkerService.getLastMarkedAt(testUser));
+
+        Thread.sleep(5);
+        readMarkerService.markRead(testUser, 1L, 5L);
+
+        assertTrue(readMarkerService.getLastMarkedAt(testUser).after(unknown));
+    }
+}
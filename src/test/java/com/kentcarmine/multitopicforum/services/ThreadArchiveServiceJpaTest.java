@@ -0,0 +1,133 @@
+package com.kentcarmine.multitopicforum.services;
+
+import com.kentcarmine.multitopicforum.model.*;
+import com.kentcarmine.multitopicforum.repositories.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ActiveProfiles("test")
+@DataJpaTest(properties = "spring.jpa.properties.javax.persistence.validation.mode=none")
+@Import({ThreadArchiveServiceImpl.class, ReadMarkerServiceImpl.class})
+class ThreadArchiveServiceJpaTest {
+
+    private static final String TEST_FORUM_NAME = "TestForum";
+    private static final String TEST_USERNAME = "TestUser";
+    private static final String TEST_USERNAME_2 = "TestUser2";
+
+    @Autowired
+    TestEntityManager testEntityManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    ThreadArchiveService threadArchiveService;
+
+    @Autowired
+    TopicForumRepository topicForumRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    private Date inactiveSince;
+    private TopicThread oldThread;
+    private TopicThread activeThread;
+    private Post activeThreadPost;
+
+    @BeforeEach
+    void setUp() {
+        User testUser = testEntityManager.persist(new User(TEST_USERNAME, "password", "testuser@test.com"));
+        User testUser2 = testEntityManager.persist(new User(TEST_USERNAME_2, "password", "testuser2@test.com"));
+        TopicForum testForum = testEntityManager.persist(new TopicForum(TEST_FORUM_NAME, "Test forum description"));
+
+        Instant now = Instant.now();
+        inactiveSince = Date.from(now.minus(Duration.ofDays(365)));
+
+        activeThread = new TopicThread("Active thread", testForum);
+        activeThread.setCreatedAt(Date.from(now.minus(Duration.ofDays(600))));
+        activeThread.setUpdatedAt(Date.from(now));
+        activeThread = testEntityManager.persist(activeThread);
+        activeThreadPost = persistPost(activeThread, testUser, now.minus(Duration.ofDays(600)));
+
+        // The forum's latest post is in the old thread, so archiving it must find a new one
+        oldThread = new TopicThread("Old thread", testForum);
+        oldThread.setCreatedAt(Date.from(now.minus(Duration.ofDays(500))));
+        oldThread = testEntityManager.persist(oldThread);
+        Post oldThreadPost = persistPost(oldThread, testUser, now.minus(Duration.ofDays(500)));
+        persistPost(oldThread, testUser2, now.minus(Duration.ofDays(450)));
+        Post oldThreadLastPost = persistPost(oldThread, testUser, now.minus(Duration.ofDays(400)));
+        testEntityManager.persist(new PostVote(PostVoteState.UPVOTE, testUser2, oldThreadPost));
+        testEntityManager.persist(new ReadMarker(TEST_USERNAME_2, oldThread.getId(), oldThreadLastPost.getId()));
+        testEntityManager.persist(new ReadMarker(TEST_USERNAME_2, activeThread.getId(), activeThreadPost.getId()));
+        testEntityManager.flush();
+
+        topicForumRepository.updateAggregates(TEST_FORUM_NAME, 2, 4, oldThreadLastPost.getPostedAt(),
+                oldThreadLastPost.getId(), TEST_USERNAME, oldThread.getId(), oldThread.getTitle());
+        userRepository.reconcilePostCounts();
+        testEntityManager.clear();
+    }
+
+    @Test
+    void archiveThread() throws Exception {
+        assertTrue(threadArchiveService.archiveThread(oldThread.getId(), inactiveSince));
+        testEntityManager.clear();
+
+        assertEquals(1, count("SELECT COUNT(*) FROM archived_thread WHERE id = ?", oldThread.getId()));
+        assertEquals(3, count("SELECT COUNT(*) FROM archived_post WHERE thread_id = ?", oldThread.getId()));
+        assertEquals(0, count("SELECT COUNT(*) FROM post WHERE thread_id = ?", oldThread.getId()));
+        assertEquals(0, count("SELECT COUNT(*) FROM topic_thread WHERE id = ?", oldThread.getId()));
+        assertEquals(0, count("SELECT COUNT(*) FROM post_vote"));
+        assertEquals(0, count("SELECT COUNT(*) FROM read_marker WHERE thread_id = ?", oldThread.getId()));
+        assertEquals(1, count("SELECT COUNT(*) FROM read_marker WHERE thread_id = ?", activeThread.getId()));
+
+        TopicForum forum = testEntityManager.find(TopicForum.class, TEST_FORUM_NAME);
+        assertEquals(1, forum.getThreadCount());
+        assertEquals(1, forum.getPostCount());
+        assertEquals(activeThreadPost.getId(), forum.getLastPostId());
+        assertEquals(activeThread.getId(), forum.getLastPostThreadId());
+        assertEquals(activeThread.getTitle(), forum.getLastPostThreadTitle());
+        assertEquals(TEST_USERNAME, forum.getLastPostUsername());
+        assertEquals(activeThreadPost.getPostedAt().getTime(), forum.getLastActivityAt().getTime());
+
+        // Archived posts are still shown under their authors, so they still count towards their post counts
+        assertEquals(3, testEntityManager.find(User.class, TEST_USERNAME).getPostCount());
+        assertEquals(1, testEntityManager.find(User.class, TEST_USERNAME_2).getPostCount());
+
+        // Reconciliation counts the same threads and posts, so it has nothing to correct
+        assertTrue(topicForumRepository.findForumsWithStaleAggregates().isEmpty());
+        assertEquals(0, userRepository.reconcilePostCounts());
+    }
+
+    @Test
+    void archiveThread_updatedSinceSelected() throws Exception {
+        assertFalse(threadArchiveService.archiveThread(activeThread.getId(), inactiveSince));
+        testEntityManager.clear();
+
+        assertEquals(0, count("SELECT COUNT(*) FROM archived_thread"));
+        assertEquals(2, testEntityManager.find(TopicForum.class, TEST_FORUM_NAME).getThreadCount());
+        assertEquals(3, testEntityManager.find(User.class, TEST_USERNAME).getPostCount());
+    }
+
+    private Post persistPost(TopicThread thread, User user, Instant postedAt) {
+        Post post = new Post("Test post content", Date.from(postedAt));
+        post.setThread(thread);
+        post.setUser(user);
+        return testEntityManager.persist(post);
+    }
+
+    private int count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Integer.class, args);
+    }
+}
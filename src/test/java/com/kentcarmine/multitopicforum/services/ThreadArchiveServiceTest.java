@@ -0,0 +1,241 @@
+package com.kentcarmine.multitopicforum.services;
+
+import com.kentcarmine.multitopicforum.events.ThreadContentChangedEvent;
+import com.kentcarmine.multitopicforum.model.*;
+import com.kentcarmine.multitopicforum.repositories.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ActiveProfiles("test")
+class ThreadArchiveServiceTest {
+
+    private static final String TEST_TOPIC_FORUM_NAME = "TestName";
+    private static final String TEST_TOPIC_FORUM_DESC = "Description of test topic forum";
+    private static final String TEST_TOPIC_THREAD_NAME = "Test Thread Name";
+
+    ThreadArchiveService threadArchiveService;
+
+    @Mock
+    TopicForumRepository topicForumRepository;
+
+    @Mock
+    TopicThreadRepository topicThreadRepository;
+
+    @Mock
+    PostRepository postRepository;
+
+
+    @Mock
+    PostVoteRepository postVoteRepository;
+
+    @Mock
+    ArchivedThreadRepository archivedThreadRepository;
+
+    @Mock
+    ArchivedPostRepository archivedPostRepository;
+
+    @Mock
+    ReadMarkerService readMarkerService;
+
+    @Mock
+    TransactionTemplate transactionTemplate;
+
+    @Mock
+    ApplicationEventPublisher applicationEventPublisher;
+
+    private TopicForum testTopicForum;
+    private TopicThread testTopicThread;
+    private ArchivedThread testArchivedThread;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.initMocks(this);
+
+        threadArchiveService = new ThreadArchiveServiceImpl(topicForumRepository, topicThreadRepository, postRepository,
+                postVoteRepository, archivedThreadRepository, archivedPostRepository, readMarkerService,
+                transactionTemplate, applicationEventPublisher);
+        ReflectionTestUtils.setField(threadArchiveService, "POSTS_PER_PAGE", 10);
+        ReflectionTestUtils.setField(threadArchiveService, "ENABLED", true);
+        ReflectionTestUtils.setField(threadArchiveService, "INACTIVE_DAYS", 365);
+        ReflectionTestUtils.setField(threadArchiveService, "BATCH_SIZE", 100);
+
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+
+        testUser = new User("TestUser", "testPassword", "testuser@test.com");
+        testUser.addAuthority(UserRole.USER);
+
+        testTopicForum = new TopicForum(TEST_TOPIC_FORUM_NAME, TEST_TOPIC_FORUM_DESC);
+        testTopicThread = new TopicThread(TEST_TOPIC_THREAD_NAME, testTopicForum);
+        testTopicThread.setId(1L);
+        testTopicThread.setUpdatedAt(Date.from(Instant.now().minus(Duration.ofDays(400))));
+
+        testArchivedThread = new ArchivedThread();
+        testArchivedThread.setId(1L);
+        testArchivedThread.setTitle(TEST_TOPIC_THREAD_NAME);
+        testArchivedThread.setForum(testTopicForum);
+        testArchivedThread.setLocked(true);
+        testArchivedThread.setArchivedAt(Date.from(Instant.now()));
+    }
+
+    @Test
+    void archiveThread() throws Exception {
+        when(topicThreadRepository.findByIdForArchival(1L)).thenReturn(testTopicThread);
+        when(postRepository.deleteAllByThreadId(1L)).thenReturn(3);
+
+        Date inactiveSince = Date.from(Instant.now().minus(Duration.ofDays(365)));
+        assertTrue(threadArchiveService.archiveThread(1L, inactiveSince));
+
+        InOrder inOrder = inOrder(topicThreadRepository, archivedThreadRepository, archivedPostRepository,
+                postVoteRepository, postRepository, readMarkerService, topicForumRepository);
+        inOrder.verify(topicThreadRepository).findByIdForArchival(1L);
+        inOrder.verify(archivedThreadRepository).copyFromTopicThread(eq(1L), any());
+        inOrder.verify(archivedPostRepository).copyFromThread(1L);
+        inOrder.verify(postVoteRepository).deleteAllByThreadId(1L);
+        inOrder.verify(postRepository).deleteAllByThreadId(1L);
+        inOrder.verify(topicThreadRepository).deleteThreadById(1L);
+        inOrder.verify(readMarkerService).deleteMarkers(1L);
+        inOrder.verify(topicForumRepository).recordThreadArchived(TEST_TOPIC_FORUM_NAME, 3);
+        inOrder.verify(topicForumRepository).markModified(eq(TEST_TOPIC_FORUM_NAME), any());
+
+        verify(topicForumRepository, times(0)).updateLastPost(any(), any(), any(), any(), any(), any());
+        verify(applicationEventPublisher, times(1)).publishEvent(any(ThreadContentChangedEvent.class));
+    }
+
+    @Test
+    void archiveThread_forumLastPostInThread() throws Exception {
+        testTopicForum.setLastPostThreadId(1L);
+        TopicThread otherThread = new TopicThread("Other thread", testTopicForum);
+        otherThread.setId(2L);
+        Post otherPost = new Post("other post content", Date.from(Instant.now().minus(Duration.ofDays(500))));
+        otherPost.setId(20L);
+        otherPost.setUser(testUser);
+        otherPost.setThread(otherThread);
+
+        when(topicThreadRepository.findByIdForArchival(1L)).thenReturn(testTopicThread);
+        when(postRepository.findFirstByThreadForumOrderByPostedAtDesc(testTopicForum)).thenReturn(otherPost);
+
+        Date inactiveSince = Date.from(Instant.now().minus(Duration.ofDays(365)));
+        assertTrue(threadArchiveService.archiveThread(1L, inactiveSince));
+
+        verify(topicForumRepository, times(1)).updateLastPost(TEST_TOPIC_FORUM_NAME, otherPost.getPostedAt(), 20L,
+                testUser.getUsername(), 2L, "Other thread");
+    }
+
+    @Test
+    void archiveThread_forumLastPostInThread_noPostsLeft() throws Exception {
+        testTopicForum.setLastPostThreadId(1L);
+        when(topicThreadRepository.findByIdForArchival(1L)).thenReturn(testTopicThread);
+
+        Date inactiveSince = Date.from(Instant.now().minus(Duration.ofDays(365)));
+        assertTrue(threadArchiveService.archiveThread(1L, inactiveSince));
+
+        verify(topicForumRepository, times(1)).updateLastPost(TEST_TOPIC_FORUM_NAME, null, null, null, null, null);
+    }
+
+    @Test
+    void archiveThread_updatedSinceSelected() throws Exception {
+        testTopicThread.setUpdatedAt(Date.from(Instant.now()));
+        when(topicThreadRepository.findByIdForArchival(1L)).thenReturn(testTopicThread);
+
+        Date inactiveSince = Date.from(Instant.now().minus(Duration.ofDays(365)));
+        assertFalse(threadArchiveService.archiveThread(1L, inactiveSince));
+
+        verify(archivedThreadRepository, times(0)).copyFromTopicThread(any(), any());
+        verify(topicThreadRepository, times(0)).deleteThreadById(any());
+        verify(topicForumRepository, times(0)).recordThreadArchived(any(), anyInt());
+        verify(applicationEventPublisher, times(0)).publishEvent(any());
+    }
+
+    @Test
+    void archiveInactiveThreads() throws Exception {
+        TopicThread activeThread = new TopicThread("Active thread", testTopicForum);
+        activeThread.setId(2L);
+        activeThread.setUpdatedAt(Date.from(Instant.now()));
+
+        when(topicThreadRepository.findIdsOfThreadsInactiveSince(any(), eq(PageRequest.of(0, 100))))
+                .thenReturn(List.of(1L, 2L, 3L));
+        when(topicThreadRepository.findByIdForArchival(1L)).thenReturn(testTopicThread);
+        when(topicThreadRepository.findByIdForArchival(2L)).thenReturn(activeThread);
+        when(topicThreadRepository.findByIdForArchival(3L)).thenReturn(null);
+
+        assertEquals(1, threadArchiveService.archiveInactiveThreads());
+
+        verify(topicThreadRepository, times(1)).deleteThreadById(1L);
+        verify(topicThreadRepository, times(0)).deleteThreadById(2L);
+        verify(topicThreadRepository, times(0)).deleteThreadById(3L);
+    }
+
+    @Test
+    void getPostPageByArchivedThread() throws Exception {
+        ArchivedPost archivedPost = new ArchivedPost();
+        archivedPost.setId(5L);
+        archivedPost.setThread(testArchivedThread);
+        archivedPost.setContent("archived content");
+        archivedPost.setUser(testUser);
+        archivedPost.setPostedAt(Date.from(Instant.now().minus(Duration.ofDays(500))));
+        archivedPost.setVoteScore(4);
+
+        when(archivedPostRepository.findAllByThreadId(eq(1L), any()))
+                .thenReturn(new PageImpl<>(List.of(archivedPost), PageRequest.of(0, 10), 1));
+
+        Page<Post> page = threadArchiveService.getPostPageByArchivedThread(testArchivedThread, 1, 10);
+
+        assertEquals(1, page.getContent().size());
+        Post post = page.getContent().get(0);
+        assertEquals(5L, post.getId());
+        assertEquals("archived content", post.getContent());
+        assertEquals(testUser, post.getUser());
+        assertEquals(4, post.getVoteCount());
+        assertEquals(1L, post.getThread().getId());
+        assertEquals(TEST_TOPIC_FORUM_NAME, post.getThread().getForum().getName());
+        assertTrue(post.getThread().isLocked());
+    }
+
+    @Test
+    void getPostPageByArchivedThread_invalidPageNumber() throws Exception {
+        when(archivedPostRepository.findAllByThreadId(eq(1L), any()))
+                .thenReturn(new PageImpl<>(List.of(), PageRequest.of(4, 10), 3));
+
+        assertNull(threadArchiveService.getPostPageByArchivedThread(testArchivedThread, 5, 10));
+        assertNull(threadArchiveService.getPostPageByArchivedThread(testArchivedThread, 0, 10));
+    }
+
+    @Test
+    void getPostPageNumberOnArchivedThread() throws Exception {
+        ArchivedPost archivedPost = new ArchivedPost();
+        archivedPost.setId(25L);
+        archivedPost.setThread(testArchivedThread);
+        archivedPost.setPostedAt(Date.from(Instant.now()));
+
+        when(archivedPostRepository.findById(25L)).thenReturn(Optional.of(archivedPost));
+        when(archivedPostRepository.countPostsBeforeInThread(eq(1L), any(), eq(25L))).thenReturn(24L);
+
+        assertEquals(3, threadArchiveService.getPostPageNumberOnArchivedThread(25L));
+        assertEquals(-1, threadArchiveService.getPostPageNumberOnArchivedThread(26L));
+    }
+}
@@ -0,0 +1,130 @@
+package com.kentcarmine.multitopicforum.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ActiveProfiles("test")
+class ThreadStreamServiceTest {
+
+    private static final int STALLED_SUBSCRIBERS = 8;
+    private static final long STALLED_TIMEOUT_MILLIS = 59000L;
+
+    ThreadStreamServiceImpl threadStreamService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        threadStreamService = new ThreadStreamServiceImpl(new ObjectMapper());
+        ReflectionTestUtils.setField(threadStreamService, "MAX_SUBSCRIBERS", 2);
+        ReflectionTestUtils.setField(threadStreamService, "TIMEOUT_MILLIS", 60000L);
+        ReflectionTestUtils.setField(threadStreamService, "QUEUE_CAPACITY", 2);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        threadStreamService.shutdown();
+    }
+
+    @Test
+    void subscribe() throws Exception {
+        SseEmitter emitter = threadStreamService.subscribe(1L);
+
+        assertNotNull(emitter);
+        assertEquals(60000L, emitter.getTimeout());
+        assertEquals(1, threadStreamService.getSubscriberCount());
+    }
+
+    @Test
+    void subscribe_tooManySubscribers() throws Exception {
+        assertNotNull(threadStreamService.subscribe(1L));
+        assertNotNull(threadStreamService.subscribe(2L));
+
+        assertNull(threadStreamService.subscribe(1L));
+        assertEquals(2, threadStreamService.getSubscriberCount());
+    }
+
+    @Test
+    void publish_noSubscribers() throws Exception {
+        threadStreamService.subscribe(1L);
+
+        threadStreamService.publish(2L, "post-created", "data");
+
+        assertEquals(1, threadStreamService.getSubscriberCount());
+    }
+
+    @Test
+    void publish_slowSubscriberDropped() throws Exception {
+        SseEmitter slowEmitter = threadStreamService.subscribe(1L);
+        threadStreamService.subscribe(2L);
+
+        // Holding the emitter's lock blocks the sender writing to it, so the stream's queue fills up
+        synchronized (slowEmitter) {
+            for (int i = 0; i < 4; i++) {
+                threadStreamService.publish(1L, "post-created", "data" + i);
+            }
+
+            assertEquals(1, threadStreamService.getSubscriberCount());
+        }
+    }
+
+    @Test
+    void publish_stalledSubscribersDoNotBlockOthers() throws Exception {
+        CountDownLatch stalledSends = new CountDownLatch(STALLED_SUBSCRIBERS);
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingQueue<SseEmitter.SseEventBuilder> sentEvents = new LinkedBlockingQueue<>();
+
+        // Streams of thread 1 block in send until released, like a reader that has stopped reading
+        ThreadStreamServiceImpl service = new ThreadStreamServiceImpl(new ObjectMapper()) {
+            @Override
+            protected SseEmitter createEmitter(long timeoutMillis) {
+                return new SseEmitter(timeoutMillis) {
+                    @Override
+                    public void send(SseEventBuilder builder) throws IOException {
+                        if (getTimeout() == STALLED_TIMEOUT_MILLIS) {
+                            stalledSends.countDown();
+                            try {
+                                release.await();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        } else {
+                            sentEvents.add(builder);
+                        }
+                    }
+                };
+            }
+        };
+        ReflectionTestUtils.setField(service, "MAX_SUBSCRIBERS", STALLED_SUBSCRIBERS + 1);
+        ReflectionTestUtils.setField(service, "QUEUE_CAPACITY", 2);
+
+        try {
+            ReflectionTestUtils.setField(service, "TIMEOUT_MILLIS", STALLED_TIMEOUT_MILLIS);
+            for (int i = 0; i < STALLED_SUBSCRIBERS; i++) {
+                service.subscribe(1L);
+            }
+            ReflectionTestUtils.setField(service, "TIMEOUT_MILLIS", 60000L);
+            service.subscribe(2L);
+
+            service.publish(1L, "post-created", "data");
+            assertTrue(stalledSends.await(5, TimeUnit.SECONDS));
+
+            service.publish(2L, "post-created", "data");
+            assertNotNull(sentEvents.poll(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            service.shutdown();
+        }
+    }
+}
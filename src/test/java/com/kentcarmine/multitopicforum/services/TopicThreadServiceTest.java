@@ -1,31 +1,48 @@
 package com.kentcarmine.multitopicforum.services;
 
 import com.kentcarmine.multitopicforum.converters.ForumHierarchyConverter;
+import com.kentcarmine.multitopicforum.dtos.NewPostsResponseDto;
 import com.kentcarmine.multitopicforum.dtos.TopicThreadCreationDto;
+import com.kentcarmine.multitopicforum.dtos.TopicThreadRowDto;
 import com.kentcarmine.multitopicforum.dtos.TopicThreadViewDto;
 import com.kentcarmine.multitopicforum.dtos.TopicThreadViewDtoLight;
+import com.kentcarmine.multitopicforum.events.PostChangedEvent;
+import com.kentcarmine.multitopicforum.events.ThreadContentChangedEvent;
+import com.kentcarmine.multitopicforum.helpers.PostCursor;
 import com.kentcarmine.multitopicforum.model.*;
 import com.kentcarmine.multitopicforum.repositories.PostRepository;
 import com.kentcarmine.multitopicforum.repositories.TopicForumRepository;
 import com.kentcarmine.multitopicforum.repositories.TopicThreadRepository;
+import com.kentcarmine.multitopicforum.repositories.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.when;
 
@@ -66,6 +83,9 @@ class TopicThreadServiceTest {
     @Mock
     TopicThreadRepository topicThreadRepository;
 
+    @Mock
+    UserRepository userRepository;
+
     @Mock
     ForumService forumService;
 
@@ -74,6 +94,12 @@ class TopicThreadServiceTest {
     @Mock
     TimeCalculatorService timeCalculatorService;
 
+    @Mock
+    ApplicationEventPublisher applicationEventPublisher;
+
+    @Mock
+    ReadMarkerService readMarkerService;
+
     private TopicForum testTopicForum;
     private TopicForum testTopicForum2;
     private TopicThread testTopicThread;
@@ -91,7 +117,7 @@ class TopicThreadServiceTest {
 
         forumHierarchyConverter = new ForumHierarchyConverter();
 
-        topicThreadService = new TopicThreadServiceImpl(topicForumRepository, topicThreadRepository, postRepository, forumService, forumHierarchyConverter, timeCalculatorService);
+        topicThreadService = new TopicThreadServiceImpl(topicForumRepository, topicThreadRepository, postRepository, userRepository, forumService, forumHierarchyConverter, timeCalculatorService, applicationEventPublisher, readMarkerService);
 
         testUser = new User(TEST_USERNAME, TEST_USER_PASSWORD, TEST_USER_EMAIL);
         testUser.addAuthority(UserRole.USER);
@@ -124,11 +150,58 @@ class TopicThreadServiceTest {
         User user = new User("TestUser", "testPassword", "test@test.com");
         user.addAuthority(UserRole.USER);
 
+        when(topicThreadRepository.save(any())).thenAnswer(invocation -> {
+            TopicThread savedThread = invocation.getArgument(0);
+            savedThread.setId(3L);
+            return savedThread;
+        });
+        when(postRepository.save(any())).thenAnswer(invocation -> {
+            Post savedPost = invocation.getArgument(0);
+            savedPost.setId(5L);
+            return savedPost;
+        });
+
         TopicThreadCreationDto thread = new TopicThreadCreationDto(TEST_TOPIC_THREAD_NAME, postContent);
-        topicThreadService.createNewTopicThread(thread, user, testTopicForum);
+        TopicThread result = topicThreadService.createNewTopicThread(thread, user, testTopicForum);
 
         verify(topicThreadRepository, times(1)).save(any());
         verify(postRepository, times(1)).save(any());
+        verify(topicThreadRepository, times(1)).recordNewPost(eq(3L), eq(5L), eq(user.getUsername()), any());
+        assertEquals(1, result.getPostCount());
+        assertEquals(5L, result.getFirstPostId());
+        assertEquals(user.getUsername(), result.getFirstPostUsername());
+        assertEquals(5L, result.getLastPostId());
+        verify(topicForumRepository, times(1)).incrementThreadCount(testTopicForum.getName());
+        verify(topicForumRepository, times(1)).recordNewPost(eq(testTopicForum.getName()), eq(3L),
+                eq(TEST_TOPIC_THREAD_NAME), eq(5L), eq(user.getUsername()), any());
+        assertEquals(1, testTopicForum.getNumThreads());
+        assertEquals(1, testTopicForum.getPostCount());
+        assertEquals(3L, testTopicForum.getLastPostThreadId());
+        verify(userRepository, times(1)).incrementPostCount(user.getUsername());
+        assertEquals(1, user.getPostCount());
+        verify(applicationEventPublisher, times(1)).publishEvent(any(PostChangedEvent.class));
+    }
+
+    @Test
+    void reconcilePostSummaries() throws Exception {
+        testTopicThread.setId(1L);
+        Post firstPost = new Post("first", Date.from(Instant.now().minusSeconds(60)));
+        firstPost.setId(10L);
+        firstPost.setUser(testUser);
+        Post lastPost = new Post("last", Date.from(Instant.now()));
+        lastPost.setId(11L);
+        lastPost.setUser(testUser);
+
+        when(topicThreadRepository.findThreadsWithStalePostSummary()).thenReturn(List.of(testTopicThread));
+        when(postRepository.countByThread(any())).thenReturn(2);
+        when(postRepository.findFirstByThreadOrderByPostedAtAsc(any())).thenReturn(firstPost);
+        when(postRepository.findFirstByThreadOrderByPostedAtDesc(any())).thenReturn(lastPost);
+
+        int result = topicThreadService.reconcilePostSummaries();
+
+        assertEquals(1, result);
+        verify(topicThreadRepository, times(1)).updatePostSummary(1L, 2, 10L, testUser.getUsername(),
+                firstPost.getPostedAt(), 11L, testUser.getUsername(), lastPost.getPostedAt());
     }
 
     @Test
@@ -263,6 +336,7 @@ class TopicThreadServiceTest {
         assertTrue(testTopicThread.isLocked());
 
         verify(topicThreadRepository, times(1)).save(any());
+        verify(applicationEventPublisher, times(1)).publishEvent(any(ThreadContentChangedEvent.class));
     }
 
     @Test
@@ -273,6 +347,7 @@ class TopicThreadServiceTest {
         assertFalse(testTopicThread.isLocked());
 
         verify(topicThreadRepository, times(0)).save(any());
+        verify(applicationEventPublisher, times(0)).publishEvent(any(ThreadContentChangedEvent.class));
     }
 
     @Test
@@ -285,6 +360,7 @@ class TopicThreadServiceTest {
         assertTrue(!testTopicThread.isLocked());
 
         verify(topicThreadRepository, times(1)).save(any());
+        verify(applicationEventPublisher, times(1)).publishEvent(any(ThreadContentChangedEvent.class));
     }
 
     @Test
@@ -311,6 +387,49 @@ class TopicThreadServiceTest {
         verify(postRepository, times(1)).findAllByThread(any(), any());
     }
 
+    @Test
+    void getPostPage_concurrentRequestsShareLoad() throws Exception {
+        Page<Post> postPage = new PageImpl<Post>(testTopicThread.getPosts().stream().collect(Collectors.toList()));
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        when(postRepository.findAllByThread(any(), any())).thenAnswer(invocation -> {
+            releaseLoad.await(10, TimeUnit.SECONDS);
+            return postPage;
+        });
+        // Requests that share the load fetch the page's posts by ID themselves
+        when(postRepository.findAllById(any())).thenReturn(postPage.getContent());
+
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        List<Future<Page<Post>>> results = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            results.add(executor.submit(() -> topicThreadService.getPostPageByThread(testTopicThread, 1, 25)));
+        }
+
+        long deadline = System.currentTimeMillis() + 10000;
+        while (topicThreadService.getPostPageLoadStats().getCoalescedRequests() < 4
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        releaseLoad.countDown();
+
+        int loadedPages = 0;
+        for (Future<Page<Post>> result : results) {
+            Page<Post> page = result.get(10, TimeUnit.SECONDS);
+            if (page == postPage) {
+                loadedPages++;
+            }
+            assertEquals(postPage.getContent(), page.getContent());
+            assertEquals(postPage.getTotalElements(), page.getTotalElements());
+        }
+        executor.shutdown();
+
+        assertEquals(1, loadedPages);
+        assertEquals(1, topicThreadService.getPostPageLoadStats().getLoads());
+        assertEquals(4, topicThreadService.getPostPageLoadStats().getCoalescedRequests());
+        assertEquals(0, topicThreadService.getPostPageLoadStats().getInFlightLoads());
+        verify(postRepository, times(1)).findAllByThread(any(), any());
+        verify(postRepository, times(4)).findAllById(any());
+    }
+
     @Test
     void getPostPage_negativePageNumber() throws Exception {
         Page<Post> postPage = new PageImpl<Post>(testTopicThread.getPosts().stream().collect(Collectors.toList()));
@@ -336,6 +455,179 @@ class TopicThreadServiceTest {
 
     }
 
+    @Test
+    void getPostPageNumberOnThreadByPostId_countsPrecedingPosts() throws Exception {
+        ReflectionTestUtils.setField(topicThreadService, "POSTS_PER_PAGE", 25);
+        testTopicThread.setId(1L);
+        Post post = new Post("content", Date.from(Instant.now()));
+        post.setId(60L);
+        post.setThread(testTopicThread);
+
+        when(postRepository.findById(anyLong())).thenReturn(Optional.of(post));
+        when(postRepository.countPostsBeforeInThread(anyLong(), any(), anyLong())).thenReturn(50L);
+
+        int result = topicThreadService.getPostPageNumberOnThreadByPostId(60L);
+
+        assertEquals(3, result);
+        verify(postRepository, times(1)).countPostsBeforeInThread(1L, post.getPostedAt(), 60L);
+    }
+
+    @Test
+    void getPostPageNumberOnThreadByPostId_nonExistentPost() throws Exception {
+        when(postRepository.findById(anyLong())).thenReturn(Optional.empty());
+
+        int result = topicThreadService.getPostPageNumberOnThreadByPostId(60L);
+
+        assertEquals(-1, result);
+        verify(postRepository, times(0)).countPostsBeforeInThread(anyLong(), any(), anyLong());
+    }
+
+    @Test
+    void getPostPageByThread_shallowPageUsesOffsetPagination() throws Exception {
+        ReflectionTestUtils.setField(topicThreadService, "SEEK_PAGINATION_THRESHOLD", 5);
+        testTopicThread.setPostCount(300);
+        Page<Post> postPage = new PageImpl<Post>(testTopicThread.getPosts().stream().collect(Collectors.toList()),
+                PageRequest.of(2, 25), 300);
+        when(postRepository.findAllByThread(any(), any())).thenReturn(postPage);
+
+        Page<Post> result = topicThreadService.getPostPageByThread(testTopicThread, 3, 25,
+                new PostCursor(Date.from(Instant.now()), 50L), null);
+
+        assertNotNull(result);
+        verify(postRepository, times(1)).findAllByThread(any(), any());
+        verify(postRepository, times(0)).findPostsInThreadAfter(any(), any(), anyLong(), any());
+    }
+
+    @Test
+    void getPostPageByThread_deepPageWithAfterCursorUsesSeek() throws Exception {
+        ReflectionTestUtils.setField(topicThreadService, "SEEK_PAGINATION_THRESHOLD", 5);
+        testTopicThread.setPostCount(300);
+        PostCursor cursor = new PostCursor(Date.from(Instant.now()), 250L);
+        when(postRepository.countPostsBeforeInThread(testTopicThread.getId(), cursor.getPostedAt(), 250L))
+                .thenReturn(249L);
+        when(postRepository.findPostsInThreadAfter(any(), any(), anyLong(), any()))
+                .thenReturn(testTopicThread.getPosts().stream().collect(Collectors.toList()));
+
+        Page<Post> result = topicThreadService.getPostPageByThread(testTopicThread, 11, 25, cursor, null);
+
+        assertNotNull(result);
+        assertEquals(10, result.getNumber());
+        assertEquals(12, result.getTotalPages());
+        assertEquals(300, result.getTotalElements());
+        verify(postRepository, times(1)).findPostsInThreadAfter(testTopicThread, cursor.getPostedAt(), 250L,
+                PageRequest.of(0, 25));
+        verify(postRepository, times(0)).findAllByThread(any(), any());
+    }
+
+    @Test
+    void getPostPageByThread_deepPageWithBeforeCursorUsesSeek() throws Exception {
+        ReflectionTestUtils.setField(topicThreadService, "SEEK_PAGINATION_THRESHOLD", 5);
+        testTopicThread.setPostCount(300);
+        Post laterPost = new Post("later", Date.from(Instant.now()));
+        laterPost.setId(2L);
+        Post earlierPost = new Post("earlier", Date.from(Instant.now().minusSeconds(60)));
+        earlierPost.setId(1L);
+        PostCursor cursor = new PostCursor(Date.from(Instant.now()), 250L);
+        when(postRepository.countPostsBeforeInThread(testTopicThread.getId(), cursor.getPostedAt(), 250L))
+                .thenReturn(225L);
+        when(postRepository.findPostsInThreadBefore(any(), any(), anyLong(), any()))
+                .thenReturn(List.of(laterPost, earlierPost));
+
+        Page<Post> result = topicThreadService.getPostPageByThread(testTopicThread, 9, 25, null, cursor);
+
+        assertNotNull(result);
+        assertEquals(List.of(earlierPost, laterPost), result.getContent());
+        verify(postRepository, times(0)).findAllByThread(any(), any());
+    }
+
+    @Test
+    void getPostPageByThread_cursorNotOnPageUsesOffsetPagination() throws Exception {
+        ReflectionTestUtils.setField(topicThreadService, "SEEK_PAGINATION_THRESHOLD", 5);
+        testTopicThread.setPostCount(300);
+        PostCursor cursor = new PostCursor(Date.from(Instant.now()), 250L);
+        when(postRepository.countPostsBeforeInThread(testTopicThread.getId(), cursor.getPostedAt(), 250L))
+                .thenReturn(49L);
+        Page<Post> postPage = new PageImpl<Post>(testTopicThread.getPosts().stream().collect(Collectors.toList()),
+                PageRequest.of(10, 25), 300);
+        when(postRepository.findAllByThread(any(), any())).thenReturn(postPage);
+
+        Page<Post> result = topicThreadService.getPostPageByThread(testTopicThread, 11, 25, cursor, null);
+
+        assertSame(postPage, result);
+        verify(postRepository, times(1)).findAllByThread(testTopicThread,
+                PageRequest.of(10, 25, Sort.by("postedAt", "id").ascending()));
+        verify(postRepository, times(0)).findPostsInThreadAfter(any(), any(), anyLong(), any());
+    }
+
+    @Test
+    void getPostPageByThread_lastPageWithoutCursorUsesSeek() throws Exception {
+        ReflectionTestUtils.setField(topicThreadService, "SEEK_PAGINATION_THRESHOLD", 5);
+        testTopicThread.setPostCount(310);
+        when(postRepository.findLatestPostsInThread(any(), any()))
+                .thenReturn(testTopicThread.getPosts().stream().collect(Collectors.toList()));
+
+        Page<Post> result = topicThreadService.getPostPageByThread(testTopicThread, 13, 25, null, null);
+
+        assertNotNull(result);
+        verify(postRepository, times(1)).findLatestPostsInThread(testTopicThread, PageRequest.of(0, 10));
+        verify(postRepository, times(0)).findAllByThread(any(), any());
+    }
+
+    @Test
+    void getPostPageByThread_deepPageBeyondLastPage() throws Exception {
+        ReflectionTestUtils.setField(topicThreadService, "SEEK_PAGINATION_THRESHOLD", 5);
+        testTopicThread.setPostCount(300);
+
+        Page<Post> result = topicThreadService.getPostPageByThread(testTopicThread, 14, 25,
+                new PostCursor(Date.from(Instant.now()), 250L), null);
+
+        assertNull(result);
+        verify(postRepository, times(0)).findPostsInThreadAfter(any(), any(), anyLong(), any());
+    }
+
+    @Test
+    void getNewPostsInThread_noNewPosts() throws Exception {
+        testTopicThread.setLastPostId(testPost.getId());
+        PostCursor cursor = PostCursor.of(testPost);
+
+        NewPostsResponseDto result = topicThreadService.getNewPostsInThread(testTopicThread, cursor, 25);
+
+        assertTrue(result.getPosts().isEmpty());
+        assertFalse(result.isHasMore());
+        assertEquals(cursor.toString(), result.getCursor());
+        verify(postRepository, times(0)).findPostsInThreadAfter(any(), any(), anyLong(), any());
+    }
+
+    @Test
+    void getNewPostsInThread_newPosts() throws Exception {
+        Post newPost1 = new Post("new post 1", Date.from(Instant.now().plusSeconds(10)));
+        newPost1.setId(2L);
+        newPost1.setUser(testUser);
+        Post newPost2 = new Post("new post 2", Date.from(Instant.now().plusSeconds(20)));
+        newPost2.setId(3L);
+        newPost2.setUser(testUser);
+        newPost2.setDeleted(true);
+        Post newPost3 = new Post("new post 3", Date.from(Instant.now().plusSeconds(30)));
+        newPost3.setId(4L);
+        newPost3.setUser(testUser);
+        testTopicThread.setLastPostId(4L);
+        PostCursor cursor = PostCursor.of(testPost);
+        when(postRepository.findPostsInThreadAfter(any(), any(), anyLong(), any()))
+                .thenReturn(List.of(newPost1, newPost2, newPost3));
+
+        NewPostsResponseDto result = topicThreadService.getNewPostsInThread(testTopicThread, cursor, 2);
+
+        assertEquals(2, result.getPosts().size());
+        assertEquals(2L, result.getPosts().get(0).getId());
+        assertEquals("new post 1", result.getPosts().get(0).getContent());
+        assertTrue(result.getPosts().get(1).isDeleted());
+        assertNull(result.getPosts().get(1).getContent());
+        assertTrue(result.isHasMore());
+        assertEquals(PostCursor.of(newPost2).toString(), result.getCursor());
+        verify(postRepository, times(1)).findPostsInThreadAfter(testTopicThread, cursor.getPostedAt(), 1L,
+                PageRequest.of(0, 3));
+    }
+
     @Test
     void getTopicThreadsByForumPaginated_valid_withThreads() throws Exception {
         Page<TopicThread> expectedThreads = new PageImpl<TopicThread>(List.of(testTopicThread));
@@ -391,9 +683,9 @@ class TopicThreadServiceTest {
 
     @Test
     void getTopicThreadViewDtosLightByForumPaginated_valid_withThreads() throws Exception {
-        Page<TopicThread> expectedThreads = new PageImpl<TopicThread>(List.of(testTopicThread));
+        Page<TopicThreadRowDto> expectedRows = new PageImpl<TopicThreadRowDto>(List.of(toRow(testTopicThread)));
 
-        when(topicThreadRepository.getAllTopicThreadsPaginated(anyString(), any())).thenReturn(expectedThreads);
+        when(topicThreadRepository.findThreadRowsByForumName(anyString(), any())).thenReturn(expectedRows);
         when(timeCalculatorService.getTimeSinceThreadCreationMessage(any())).thenReturn("3 days");
         when(timeCalculatorService.getTimeSinceThreadUpdatedMessage(any())).thenReturn("3 days");
 
@@ -406,19 +698,56 @@ class TopicThreadServiceTest {
         assertEquals(0, resultThreads.getNumber());
         assertEquals(1, resultThreads.getNumberOfElements());
         assertEquals(testTopicThread.getId(), resultThreads.getContent().get(0).getId());
+        assertEquals(testTopicThread.getTitle(), resultThreads.getContent().get(0).getTitle());
+        assertEquals(testTopicThread.getPostCount(), resultThreads.getContent().get(0).getPostCount());
+        verify(topicThreadRepository, times(0)).getAllTopicThreadsPaginated(anyString(), any());
+    }
+
+    @Test
+    void getTopicThreadViewDtosLightByForumPaginated_withViewer_unreadFlags() throws Exception {
+        Date now = new Date();
+        Page<TopicThreadRowDto> expectedRows = new PageImpl<TopicThreadRowDto>(List.of(
+                new TopicThreadRowDto(1L, "Read", false, now, now, 1, 10L, TEST_USERNAME, now, 10L, TEST_USERNAME, now),
+                new TopicThreadRowDto(2L, "New posts", false, now, now, 2, 15L, TEST_USERNAME, now, 20L, TEST_USERNAME, now),
+                new TopicThreadRowDto(3L, "Never read", false, now, now, 1, 30L, TEST_USERNAME, now, 30L, TEST_USERNAME, now)));
+
+        when(topicThreadRepository.findThreadRowsByForumName(anyString(), any())).thenReturn(expectedRows);
+        when(readMarkerService.isEnabled()).thenReturn(true);
+        when(readMarkerService.getLastReadPostIds(testUser, List.of(1L, 2L, 3L))).thenReturn(Map.of(1L, 10L, 2L, 15L));
+
+        Page<TopicThreadViewDtoLight> resultThreads =
+                topicThreadService.getTopicThreadViewDtosLightByForumPaginated(testTopicForum, 1, 25, testUser);
+
+        assertFalse(resultThreads.getContent().get(0).isUnread());
+        assertTrue(resultThreads.getContent().get(1).isUnread());
+        assertTrue(resultThreads.getContent().get(2).isUnread());
+        verify(readMarkerService, times(1)).getLastReadPostIds(any(), any());
+    }
+
+    @Test
+    void getTopicThreadViewDtosLightByForumPaginated_noViewer_noReadMarkerLookup() throws Exception {
+        Page<TopicThreadRowDto> expectedRows = new PageImpl<TopicThreadRowDto>(List.of(toRow(testTopicThread)));
+
+        when(topicThreadRepository.findThreadRowsByForumName(anyString(), any())).thenReturn(expectedRows);
+
+        Page<TopicThreadViewDtoLight> resultThreads =
+                topicThreadService.getTopicThreadViewDtosLightByForumPaginated(testTopicForum, 1, 25);
+
+        assertFalse(resultThreads.getContent().get(0).isUnread());
+        verify(readMarkerService, times(0)).getLastReadPostIds(any(), any());
     }
 
     @Test
     void getTopicThreadViewDtosLightByForumPaginated_valid_noThreads() throws Exception {
-        Page<TopicThread> expectedThreads = new PageImpl<TopicThread>(new ArrayList<TopicThread>());
+        Page<TopicThreadRowDto> expectedRows = new PageImpl<TopicThreadRowDto>(new ArrayList<TopicThreadRowDto>());
 
-        when(topicThreadRepository.getAllTopicThreadsPaginated(anyString(), any())).thenReturn(expectedThreads);
+        when(topicThreadRepository.findThreadRowsByForumName(anyString(), any())).thenReturn(expectedRows);
 
         Page<TopicThreadViewDtoLight> resultThreads =
                 topicThreadService.getTopicThreadViewDtosLightByForumPaginated(testTopicForum, 1,
                         25);
 
-        assertEquals(expectedThreads.getTotalPages(), resultThreads.getTotalPages());
+        assertEquals(expectedRows.getTotalPages(), resultThreads.getTotalPages());
         assertEquals(0, resultThreads.getTotalElements());
         assertEquals(0, resultThreads.getNumber());
         assertEquals(0, resultThreads.getNumberOfElements());
@@ -427,7 +756,7 @@ class TopicThreadServiceTest {
 
     @Test
     void getTopicThreadViewDtosLightByForumPaginated_lowPageNumber() throws Exception {
-        when(topicThreadRepository.getAllTopicThreadsPaginated(anyString(), any())).thenReturn(null);
+        when(topicThreadRepository.findThreadRowsByForumName(anyString(), any())).thenReturn(null);
 
         Page<TopicThreadViewDtoLight> resultThreads =
                 topicThreadService.getTopicThreadViewDtosLightByForumPaginated(testTopicForum, 0,
@@ -435,147 +764,150 @@ class TopicThreadServiceTest {
 
         assertNull(resultThreads);
 
-        verify(topicThreadRepository, times(0)).getAllTopicThreadsPaginated(anyString(), any());
+        verify(topicThreadRepository, times(0)).findThreadRowsByForumName(anyString(), any());
     }
 
     @Test
     void getTopicThreadViewDtosLightByForumPaginated__highPageNumber() throws Exception {
-        Page<TopicThread> expectedThreads = new PageImpl<TopicThread>(List.of(testTopicThread));
+        Page<TopicThreadRowDto> expectedRows = new PageImpl<TopicThreadRowDto>(List.of(toRow(testTopicThread)));
 
-        when(topicThreadRepository.getAllTopicThreadsPaginated(anyString(), any())).thenReturn(expectedThreads);
+        when(topicThreadRepository.findThreadRowsByForumName(anyString(), any())).thenReturn(expectedRows);
 
         Page<TopicThreadViewDtoLight> resultThreads =
                 topicThreadService.getTopicThreadViewDtosLightByForumPaginated(testTopicForum, 2,
                         25);
 
         assertNull(resultThreads);
-        verify(topicThreadRepository, times(1)).getAllTopicThreadsPaginated(anyString(), any());
+        verify(topicThreadRepository, times(1)).findThreadRowsByForumName(anyString(), any());
     }
 
     @Test
     void searchTopicThreadsPaginated_valid_withResults() throws Exception {
-        Page<TopicThread> expectedThreads = new PageImpl<>(List.of(testTopicThread));
+        Slice<TopicThread> expectedThreads = new SliceImpl<>(List.of(testTopicThread), PageRequest.of(0, 25), false);
 
-        when(topicThreadRepository.searchForTopicThreadsInForum(anyString(), anyString(), any())).thenReturn(expectedThreads);
+        when(topicThreadRepository.searchForTopicThreadsInForumAsSlice(anyString(), anyString(), any())).thenReturn(expectedThreads);
 
-        Page<TopicThread> resultThreads = topicThreadService.searchTopicThreadsPaginated(testTopicForum.getName(), "Thread", 1, 25);
+        Slice<TopicThread> resultThreads = topicThreadService.searchTopicThreadsPaginated(testTopicForum.getName(), "Thread", 1, 25);
 
-        assertEquals(1, resultThreads.getTotalPages());
-        assertEquals(1, resultThreads.getTotalElements());
+        assertFalse(resultThreads.hasNext());
         assertEquals(0, resultThreads.getNumber());
         assertEquals(1, resultThreads.getNumberOfElements());
         assertEquals(testTopicThread.getId(), resultThreads.getContent().get(0).getId());
 
-        verify(topicThreadRepository, times(1)).searchForTopicThreadsInForum(anyString(), anyString(), any());
+        verify(topicThreadRepository, times(1)).searchForTopicThreadsInForumAsSlice(anyString(), anyString(), any());
     }
 
     @Test
     void searchTopicThreadsPaginated_valid_noResults() throws Exception {
-        Page<TopicThread> expectedThreads = new PageImpl<>(List.of());
+        Slice<TopicThread> expectedThreads = new SliceImpl<>(List.of(), PageRequest.of(0, 25), false);
 
-        when(topicThreadRepository.searchForTopicThreadsInForum(anyString(), anyString(), any())).thenReturn(expectedThreads);
+        when(topicThreadRepository.searchForTopicThreadsInForumAsSlice(anyString(), anyString(), any())).thenReturn(expectedThreads);
 
-        Page<TopicThread> resultThreads = topicThreadService.searchTopicThreadsPaginated(testTopicForum.getName(), "Thread", 1, 25);
+        Slice<TopicThread> resultThreads = topicThreadService.searchTopicThreadsPaginated(testTopicForum.getName(), "Thread", 1, 25);
 
-        assertEquals(1, resultThreads.getTotalPages());
-        assertEquals(0, resultThreads.getTotalElements());
+        assertFalse(resultThreads.hasNext());
         assertEquals(0, resultThreads.getNumber());
         assertEquals(0, resultThreads.getNumberOfElements());
         assertTrue(resultThreads.isEmpty());
 
-        verify(topicThreadRepository, times(1)).searchForTopicThreadsInForum(anyString(), anyString(), any());
+        verify(topicThreadRepository, times(1)).searchForTopicThreadsInForumAsSlice(anyString(), anyString(), any());
     }
 
     @Test
     void searchTopicThreadsPaginated_invalid_lowPageNumber() throws Exception {
-        Page<TopicThread> expectedThreads = new PageImpl<>(List.of(testTopicThread));
+        Slice<TopicThread> expectedThreads = new SliceImpl<>(List.of(testTopicThread), PageRequest.of(0, 25), false);
 
-        when(topicThreadRepository.searchForTopicThreadsInForum(anyString(), anyString(), any())).thenReturn(expectedThreads);
+        when(topicThreadRepository.searchForTopicThreadsInForumAsSlice(anyString(), anyString(), any())).thenReturn(expectedThreads);
 
-        Page<TopicThread> resultThreads = topicThreadService.searchTopicThreadsPaginated(testTopicForum.getName(), "Thread", 0, 25);
+        Slice<TopicThread> resultThreads = topicThreadService.searchTopicThreadsPaginated(testTopicForum.getName(), "Thread", 0, 25);
 
         assertNull(resultThreads);
-        verify(topicThreadRepository, times(0)).searchForTopicThreadsInForum(anyString(), anyString(), any());
+        verify(topicThreadRepository, times(0)).searchForTopicThreadsInForumAsSlice(anyString(), anyString(), any());
     }
 
     @Test
     void searchTopicThreadsPaginated_invalid_highPageNumber() throws Exception {
-        Page<TopicThread> expectedThreads = new PageImpl<>(List.of(testTopicThread));
+        Slice<TopicThread> expectedThreads = new SliceImpl<>(List.of(), PageRequest.of(1, 25), false);
 
-        when(topicThreadRepository.searchForTopicThreadsInForum(anyString(), anyString(), any())).thenReturn(expectedThreads);
+        when(topicThreadRepository.searchForTopicThreadsInForumAsSlice(anyString(), anyString(), any())).thenReturn(expectedThreads);
 
-        Page<TopicThread> resultThreads = topicThreadService.searchTopicThreadsPaginated(testTopicForum.getName(), "Thread", 2, 25);
+        Slice<TopicThread> resultThreads = topicThreadService.searchTopicThreadsPaginated(testTopicForum.getName(), "Thread", 2, 25);
 
         assertNull(resultThreads);
-        verify(topicThreadRepository, times(1)).searchForTopicThreadsInForum(anyString(), anyString(), any());
+        verify(topicThreadRepository, times(1)).searchForTopicThreadsInForumAsSlice(anyString(), anyString(), any());
     }
 
     @Test
     void searchTopicThreadsAsViewDtos_valid_withResults() throws Exception {
-        Page<TopicThread> expectedThreads = new PageImpl<>(List.of(testTopicThread));
+        Slice<TopicThread> expectedThreads = new SliceImpl<>(List.of(testTopicThread), PageRequest.of(0, 25), false);
 
-        when(topicThreadRepository.searchForTopicThreadsInForum(anyString(), anyString(), any())).thenReturn(expectedThreads);
+        when(topicThreadRepository.searchForTopicThreadsInForumAsSlice(anyString(), anyString(), any())).thenReturn(expectedThreads);
         when(forumService.getForumByName(anyString())).thenReturn(testTopicForum);
         when(timeCalculatorService.getTimeSinceThreadCreationMessage(any())).thenReturn("3 days");
         when(timeCalculatorService.getTimeSinceThreadUpdatedMessage(any())).thenReturn("3 days");
 
-        Page<TopicThreadViewDtoLight> resultThreads =
+        Slice<TopicThreadViewDtoLight> resultThreads =
                 topicThreadService.searchTopicThreadsAsViewDtos(testTopicForum.getName(),
                         "Thread", 1, 25);
 
-        assertEquals(1, resultThreads.getTotalPages());
-        assertEquals(1, resultThreads.getTotalElements());
+        assertFalse(resultThreads.hasNext());
         assertEquals(0, resultThreads.getNumber());
         assertEquals(1, resultThreads.getNumberOfElements());
         assertEquals(testTopicThread.getId(), resultThreads.getContent().get(0).getId());
 
-        verify(topicThreadRepository, times(1)).searchForTopicThreadsInForum(anyString(), anyString(), any());
+        verify(topicThreadRepository, times(1)).searchForTopicThreadsInForumAsSlice(anyString(), anyString(), any());
     }
 
     @Test
     void searchTopicThreadsAsViewDtos_valid_noResults() throws Exception {
-        Page<TopicThread> expectedThreads = new PageImpl<>(List.of());
+        Slice<TopicThread> expectedThreads = new SliceImpl<>(List.of(), PageRequest.of(0, 25), false);
 
-        when(topicThreadRepository.searchForTopicThreadsInForum(anyString(), anyString(), any())).thenReturn(expectedThreads);
+        when(topicThreadRepository.searchForTopicThreadsInForumAsSlice(anyString(), anyString(), any())).thenReturn(expectedThreads);
         when(forumService.getForumByName(anyString())).thenReturn(testTopicForum);
         when(timeCalculatorService.getTimeSinceThreadCreationMessage(any())).thenReturn("3 days");
         when(timeCalculatorService.getTimeSinceThreadUpdatedMessage(any())).thenReturn("3 days");
 
-        Page<TopicThreadViewDtoLight> resultThreads =
+        Slice<TopicThreadViewDtoLight> resultThreads =
                 topicThreadService.searchTopicThreadsAsViewDtos(testTopicForum.getName(),
                         "Thread", 1, 25);
 
-        assertEquals(1, resultThreads.getTotalPages());
-        assertEquals(0, resultThreads.getTotalElements());
+        assertFalse(resultThreads.hasNext());
         assertEquals(0, resultThreads.getNumber());
         assertEquals(0, resultThreads.getNumberOfElements());
         assertTrue(resultThreads.isEmpty());
 
-        verify(topicThreadRepository, times(1)).searchForTopicThreadsInForum(anyString(), anyString(), any());
+        verify(topicThreadRepository, times(1)).searchForTopicThreadsInForumAsSlice(anyString(), anyString(), any());
     }
 
     @Test
     void searchTopicThreadsAsViewDtos_invalid_lowPageNumber() throws Exception {
-        Page<TopicThreadViewDtoLight> resultThreads =
+        Slice<TopicThreadViewDtoLight> resultThreads =
                 topicThreadService.searchTopicThreadsAsViewDtos(testTopicForum.getName(),
                         "Thread", 0, 25);
         assertNull(resultThreads);
 
-        verify(topicThreadRepository, times(0)).searchForTopicThreadsInForum(anyString(), anyString(), any());
+        verify(topicThreadRepository, times(0)).searchForTopicThreadsInForumAsSlice(anyString(), anyString(), any());
     }
 
     @Test
     void searchTopicThreadsAsViewDtos_invalid_highPageNumber() throws Exception {
-        Page<TopicThread> expectedThreads = new PageImpl<>(List.of(testTopicThread));
+        Slice<TopicThread> expectedThreads = new SliceImpl<>(List.of(), PageRequest.of(1, 25), false);
 
-        when(topicThreadRepository.searchForTopicThreadsInForum(anyString(), anyString(), any())).thenReturn(expectedThreads);
+        when(topicThreadRepository.searchForTopicThreadsInForumAsSlice(anyString(), anyString(), any())).thenReturn(expectedThreads);
 
-        Page<TopicThreadViewDtoLight> resultThreads =
+        Slice<TopicThreadViewDtoLight> resultThreads =
                 topicThreadService.searchTopicThreadsAsViewDtos(testTopicForum.getName(),
                         "Thread", 2, 25);
 
         assertNull(resultThreads);
 
-        verify(topicThreadRepository, times(1)).searchForTopicThreadsInForum(anyString(), anyString(), any());
+        verify(topicThreadRepository, times(1)).searchForTopicThreadsInForumAsSlice(anyString(), anyString(), any());
+    }
+
+    private TopicThreadRowDto toRow(TopicThread thread) {
+        return new TopicThreadRowDto(thread.getId(), thread.getTitle(), thread.isLocked(), thread.getCreatedAt(),
+                thread.getUpdatedAt(), thread.getPostCount(), thread.getFirstPostId(), thread.getFirstPostUsername(),
+                thread.getFirstPostedAt(), thread.getLastPostId(), thread.getLastPostUsername(),
+                thread.getLastPostedAt());
     }
-}
\ No newline at end of file
+}
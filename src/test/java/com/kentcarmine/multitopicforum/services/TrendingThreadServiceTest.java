@@ -0,0 +1,182 @@
+package com.kentcarmine.multitopicforum.services;
+
+import com.kentcarmine.multitopicforum.dtos.ThreadActivityDto;
+import com.kentcarmine.multitopicforum.dtos.TrendingThreadDto;
+import com.kentcarmine.multitopicforum.model.Post;
+import com.kentcarmine.multitopicforum.model.TopicForum;
+import com.kentcarmine.multitopicforum.model.TopicThread;
+import com.kentcarmine.multitopicforum.repositories.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ActiveProfiles("test")
+class TrendingThreadServiceTest {
+
+    private static final String TEST_TOPIC_FORUM_NAME = "TestName";
+    private static final String TEST_TOPIC_FORUM_DESC = "Description of test topic forum";
+    private static final long HALF_LIFE_MILLIS = Duration.ofMinutes(60).toMillis();
+
+    TrendingThreadService trendingThreadService;
+
+    @Mock
+    PostRepository postRepository;
+
+    private TopicForum testTopicForum;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.initMocks(this);
+
+        trendingThreadService = new TrendingThreadServiceImpl(postRepository);
+        ReflectionTestUtils.setField(trendingThreadService, "ENABLED", true);
+        ReflectionTestUtils.setField(trendingThreadService, "HALF_LIFE_MINUTES", 60L);
+        ReflectionTestUtils.setField(trendingThreadService, "MAX_THREADS", 3);
+        ReflectionTestUtils.setField(trendingThreadService, "POST_WEIGHT", 1.0);
+        ReflectionTestUtils.setField(trendingThreadService, "VOTE_WEIGHT", 0.25);
+        ReflectionTestUtils.setField(trendingThreadService, "HOME_PAGE_SIZE", 10);
+        ReflectionTestUtils.setField(trendingThreadService, "WARM_LOAD_HOURS", 24L);
+
+        testTopicForum = new TopicForum(TEST_TOPIC_FORUM_NAME, TEST_TOPIC_FORUM_DESC);
+    }
+
+    @Test
+    void getTrendingThreads_rankedByScore() throws Exception {
+        long now = System.currentTimeMillis();
+        recordActivity(1L, 1.0, now);
+        recordActivity(2L, 1.0, now);
+        recordActivity(2L, 1.0, now);
+        recordActivity(3L, 1.0, now);
+        recordActivity(3L, 1.0, now);
+        recordActivity(3L, 1.0, now);
+
+        List<TrendingThreadDto> trendingThreads = trendingThreadService.getTrendingThreads(2);
+
+        assertEquals(2, trendingThreads.size());
+        assertEquals(3L, trendingThreads.get(0).getThreadId());
+        assertEquals(2L, trendingThreads.get(1).getThreadId());
+        assertEquals(3.0, trendingThreads.get(0).getScore(), 0.01);
+        assertEquals(TEST_TOPIC_FORUM_NAME, trendingThreads.get(0).getForumName());
+        assertEquals("Thread 3", trendingThreads.get(0).getTitle());
+    }
+
+    @Test
+    void getTrendingThreads_olderActivityDecays() throws Exception {
+        long now = System.currentTimeMillis();
+        recordActivity(1L, 1.0, now - 2 * HALF_LIFE_MILLIS);
+        recordActivity(1L, 1.0, now - 2 * HALF_LIFE_MILLIS);
+        recordActivity(1L, 1.0, now - 2 * HALF_LIFE_MILLIS);
+        recordActivity(2L, 1.0, now);
+
+        List<TrendingThreadDto> trendingThreads = trendingThreadService.getTrendingThreads(10);
+
+        assertEquals(2L, trendingThreads.get(0).getThreadId());
+        assertEquals(1.0, trendingThreads.get(0).getScore(), 0.01);
+        assertEquals(1L, trendingThreads.get(1).getThreadId());
+        assertEquals(0.75, trendingThreads.get(1).getScore(), 0.01);
+    }
+
+    @Test
+    void getTrendingThreads_fullyDecayedThreadsNotShown() throws Exception {
+        long now = System.currentTimeMillis();
+        recordActivity(1L, 1.0, now - 10 * HALF_LIFE_MILLIS);
+        recordActivity(2L, 1.0, now);
+
+        List<TrendingThreadDto> trendingThreads = trendingThreadService.getTrendingThreads(10);
+
+        assertEquals(1, trendingThreads.size());
+        assertEquals(2L, trendingThreads.get(0).getThreadId());
+        assertEquals(2, trendingThreadService.getTrackedThreadCount());
+    }
+
+    @Test
+    void recordActivity_replacesLowestScoringThreadWhenFull() throws Exception {
+        long now = System.currentTimeMillis();
+        recordActivity(1L, 1.0, now - 3 * HALF_LIFE_MILLIS);
+        recordActivity(2L, 1.0, now);
+        recordActivity(3L, 1.0, now);
+
+        recordActivity(4L, 0.1, now - 5 * HALF_LIFE_MILLIS);
+        assertEquals(3, trendingThreadService.getTrackedThreadCount());
+        assertTrue(trendingThreadService.getTrendingThreads(10).stream().noneMatch(t -> t.getThreadId() == 4L));
+
+        recordActivity(4L, 1.0, now);
+        assertEquals(3, trendingThreadService.getTrackedThreadCount());
+        List<TrendingThreadDto> trendingThreads = trendingThreadService.getTrendingThreads(10);
+        assertTrue(trendingThreads.stream().anyMatch(t -> t.getThreadId() == 4L));
+        assertTrue(trendingThreads.stream().noneMatch(t -> t.getThreadId() == 1L));
+    }
+
+    @Test
+    void recordActivity_landmarkMovedBeforeOverflow() throws Exception {
+        long now = System.currentTimeMillis();
+        recordActivity(1L, 1.0, now);
+        recordActivity(2L, 1.0, now + 300 * HALF_LIFE_MILLIS);
+        recordActivity(3L, 1.0, now + 300 * HALF_LIFE_MILLIS);
+        recordActivity(3L, 1.0, now + 300 * HALF_LIFE_MILLIS);
+
+        // Moving the landmark drops thread 1, whose score has decayed to nothing by then
+        assertEquals(2, trendingThreadService.getTrackedThreadCount());
+
+        List<TrendingThreadDto> trendingThreads = trendingThreadService.getTrendingThreads(10);
+        assertEquals(3L, trendingThreads.get(0).getThreadId());
+        assertEquals(2L, trendingThreads.get(1).getThreadId());
+        assertFalse(Double.isInfinite(trendingThreads.get(0).getScore()));
+    }
+
+    @Test
+    void recordPost_and_recordVote() throws Exception {
+        TopicThread thread = new TopicThread("Thread 1", testTopicForum);
+        thread.setId(1L);
+        Post post = new Post("content", new Date());
+        post.setThread(thread);
+
+        trendingThreadService.recordPost(post);
+        trendingThreadService.recordVote(post);
+
+        List<TrendingThreadDto> trendingThreads = trendingThreadService.getTrendingThreads(10);
+        assertEquals(1, trendingThreads.size());
+        assertEquals(1.25, trendingThreads.get(0).getScore(), 0.01);
+    }
+
+    @Test
+    void recordActivity_disabled() throws Exception {
+        ReflectionTestUtils.setField(trendingThreadService, "ENABLED", false);
+
+        recordActivity(1L, 1.0, System.currentTimeMillis());
+
+        assertEquals(0, trendingThreadService.getTrackedThreadCount());
+        assertTrue(trendingThreadService.getTrendingThreads(10).isEmpty());
+    }
+
+    @Test
+    void warmLoad() throws Exception {
+        Date now = new Date();
+        when(postRepository.findThreadActivitySince(any())).thenReturn(List.of(
+                new ThreadActivityDto(1L, TEST_TOPIC_FORUM_NAME, "Thread 1", now),
+                new ThreadActivityDto(2L, TEST_TOPIC_FORUM_NAME, "Thread 2", now),
+                new ThreadActivityDto(2L, TEST_TOPIC_FORUM_NAME, "Thread 2", now)));
+
+        assertEquals(3, trendingThreadService.warmLoad());
+
+        List<TrendingThreadDto> trendingThreads = trendingThreadService.getTrendingThreads(10);
+        assertEquals(2, trendingThreads.size());
+        assertEquals(2L, trendingThreads.get(0).getThreadId());
+        verify(postRepository, times(1)).findThreadActivitySince(any());
+    }
+
+    private void recordActivity(Long threadId, double weight, long atMillis) {
+        trendingThreadService.recordActivity(threadId, TEST_TOPIC_FORUM_NAME, "Thread " + threadId, weight, atMillis);
+    }
+}
@@ -16,6 +16,9 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
 
 import java.sql.Date;
 import java.time.Instant;
@@ -70,6 +73,9 @@ class UserAccountServiceTest {
     @Mock
     PasswordEncoder passwordEncoder;
 
+    @Mock
+    UsernameIndexService usernameIndexService;
+
     private UserDtoToUserConverter userDtoToUserConverter;
 
     private User testUser;
@@ -84,7 +90,8 @@ class UserAccountServiceTest {
         userDtoToUserConverter = new UserDtoToUserConverter();
 
         userAccountService = new UserAccountServiceImpl(userRepository, userDtoToUserConverter, passwordEncoder,
-                verificationTokenRepository, passwordResetTokenRepository, authorityRepository, messageService, userService);
+                verificationTokenRepository, passwordResetTokenRepository, authorityRepository, messageService, userService,
+                usernameIndexService);
 
         testUser = new User(TEST_USERNAME, TEST_USER_PASSWORD, TEST_USER_EMAIL);
         testUser.addAuthority(UserRole.USER);
@@ -128,6 +135,45 @@ class UserAccountServiceTest {
         userAccountService.createUser(testUser);
 
         verify(userRepository, times(1)).save(any());
+        verify(usernameIndexService, times(1)).addUsername(testUser.getUsername());
+    }
+
+    @Test
+    void createUser_validUser_indexedAfterCommit() throws Exception {
+        when(userRepository.save(any())).thenReturn(testUser);
+        when(userService.usernameExists(anyString())).thenReturn(false);
+        when(userService.emailExists(anyString())).thenReturn(false);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userAccountService.createUser(testUser);
+            verify(usernameIndexService, times(0)).addUsername(any());
+
+            TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(usernameIndexService, times(1)).addUsername(testUser.getUsername());
+    }
+
+    @Test
+    void createUser_validUser_notIndexedOnRollback() throws Exception {
+        when(userRepository.save(any())).thenReturn(testUser);
+        when(userService.usernameExists(anyString())).thenReturn(false);
+        when(userService.emailExists(anyString())).thenReturn(false);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userAccountService.createUser(testUser);
+
+            TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                    TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(usernameIndexService, times(0)).addUsername(any());
     }
 
     @Test
@@ -150,6 +196,7 @@ class UserAccountServiceTest {
         assertThrows(DuplicateUsernameException.class, () -> userAccountService.createUser(testUser));
 
         verify(userRepository, times(0)).save(any());
+        verify(usernameIndexService, times(0)).addUsername(any());
     }
 
     @Test
@@ -0,0 +1,96 @@
+package com.kentcarmine.multitopicforum.services;
+
+import com.kentcarmine.multitopicforum.model.User;
+import com.kentcarmine.multitopicforum.model.UserRole;
+import com.kentcarmine.multitopicforum.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ActiveProfiles("test")
+class UserActivityServiceTest {
+
+    UserActivityService userActivityService;
+
+    @Mock
+    UserRepository userRepository;
+
+    @Mock
+    TransactionTemplate transactionTemplate;
+
+    private User testUser;
+    private User testUser2;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.initMocks(this);
+
+        userActivityService = new UserActivityServiceImpl(userRepository, transactionTemplate);
+
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+
+        testUser = new User("TestUser", "testPassword", "testuser@test.com");
+        testUser.addAuthority(UserRole.USER);
+
+        testUser2 = new User("TestUser2", "testPassword2", "testuser2@test.com");
+        testUser2.addAuthority(UserRole.USER);
+    }
+
+    @Test
+    void recordActivity_coalescedToLatestTime() throws Exception {
+        Date earlier = Date.from(Instant.now().minus(Duration.ofMinutes(10)));
+        Date later = Date.from(Instant.now().minus(Duration.ofMinutes(5)));
+
+        userActivityService.recordActivity(testUser, earlier);
+        userActivityService.recordActivity(testUser, later);
+        userActivityService.recordActivity(testUser, earlier);
+        userActivityService.recordActivity(testUser2, earlier);
+
+        assertEquals(2, userActivityService.getPendingUserCount());
+        verify(userRepository, times(0)).updateLastActiveAt(any(), any());
+
+        assertEquals(2, userActivityService.flush());
+        assertEquals(0, userActivityService.getPendingUserCount());
+
+        verify(userRepository, times(1)).updateLastActiveAt(testUser.getUsername(), later);
+        verify(userRepository, times(1)).updateLastActiveAt(testUser2.getUsername(), earlier);
+        verify(transactionTemplate, times(1)).execute(any());
+    }
+
+    @Test
+    void recordActivity_nullUser() throws Exception {
+        userActivityService.recordActivity(null);
+
+        assertEquals(0, userActivityService.getPendingUserCount());
+    }
+
+    @Test
+    void flush_nothingPending() throws Exception {
+        assertEquals(0, userActivityService.flush());
+
+        verify(transactionTemplate, times(0)).execute(any());
+    }
+
+    @Test
+    void flush_failureKeepsActivity() throws Exception {
+        when(userRepository.updateLastActiveAt(any(), any())).thenThrow(new RuntimeException("Database unavailable"));
+
+        userActivityService.recordActivity(testUser);
+
+        assertEquals(0, userActivityService.flush());
+        assertEquals(1, userActivityService.getPendingUserCount());
+    }
+}
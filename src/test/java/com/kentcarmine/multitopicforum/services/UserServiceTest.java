@@ -83,6 +83,9 @@ class UserServiceTest {
     @Mock
     TimeCalculatorService timeCalculatorService;
 
+    @Mock
+    UsernameIndexService usernameIndexService;
+
     private UserToUserRankAdjustmentDtoConverter userToUserRankAdjustmentDtoConverter;
 
     private User testUser;
@@ -98,7 +101,7 @@ class UserServiceTest {
         userToUserRankAdjustmentDtoConverter = new UserToUserRankAdjustmentDtoConverter();
 
         userService = new UserServiceImpl(userRepository, authenticationService, authorityRepository,
-                userToUserRankAdjustmentDtoConverter, messageService, timeCalculatorService);
+                userToUserRankAdjustmentDtoConverter, messageService, timeCalculatorService, usernameIndexService);
 
         testUser = new User(TEST_USERNAME, TEST_USER_PASSWORD, TEST_USER_EMAIL);
         testUser.addAuthority(UserRole.USER);
@@ -243,6 +246,36 @@ class UserServiceTest {
         verify(userRepository, times(1)).findAllUsersByUsernamesLikeIgnoreCaseCustom(anyString(), any());
     }
 
+    @Test
+    void searchForUserDtosPaginated_usernameIndexLoaded() throws Exception {
+        when(usernameIndexService.isLoaded()).thenReturn(true);
+        when(usernameIndexService.searchUsernames("user")).thenReturn(List.of(testUser2.getUsername(),
+                testUser.getUsername(), testModerator.getUsername()));
+        when(userRepository.findAllByUsernameIn(List.of(testModerator.getUsername())))
+                .thenReturn(List.of(testModerator));
+
+        Page<UserSearchResultDto> results = userService.searchForUserDtosPaginated("user", 2, 2);
+
+        assertEquals(2, results.getTotalPages());
+        assertEquals(1, results.getNumber());
+        assertEquals(1, results.getNumberOfElements());
+        assertEquals(3, results.getTotalElements());
+        assertEquals(testModerator.getUsername(), results.getContent().get(0).getUsername());
+
+        verify(userRepository, times(0)).findAllUsersByUsernamesLikeIgnoreCaseCustom(anyString(), any());
+    }
+
+    @Test
+    void searchForUserDtosPaginated_usernameIndexLoaded_pageNumTooHigh() throws Exception {
+        when(usernameIndexService.isLoaded()).thenReturn(true);
+        when(usernameIndexService.searchUsernames("user")).thenReturn(List.of(testUser.getUsername()));
+
+        assertNull(userService.searchForUserDtosPaginated("user", 2, 25));
+
+        verify(userRepository, times(0)).findAllByUsernameIn(any());
+        verify(userRepository, times(0)).findAllUsersByUsernamesLikeIgnoreCaseCustom(anyString(), any());
+    }
+
     @Test
     void promoteUser() throws Exception {
         assertEquals(testUser.getHighestAuthority(), UserRole.USER);
@@ -394,4 +427,14 @@ class UserServiceTest {
         assertFalse(dto.isDemotableByLoggedInUser());
     }
 
-}
\ No newline at end of file
+    @Test
+    void reconcilePostCounts() throws Exception {
+        when(userRepository.reconcilePostCounts()).thenReturn(2);
+
+        int result = userService.reconcilePostCounts();
+
+        assertEquals(2, result);
+        verify(userRepository, times(1)).reconcilePostCounts();
+    }
+
+}
@@ -0,0 +1,209 @@
+package com.kentcarmine.multitopicforum.services;
+
+import com.kentcarmine.multitopicforum.dtos.PostVoteStateDto;
+import com.kentcarmine.multitopicforum.dtos.UserVoteIndexStatsDto;
+import com.kentcarmine.multitopicforum.helpers.UserVoteIndex;
+import com.kentcarmine.multitopicforum.model.*;
+import com.kentcarmine.multitopicforum.repositories.PostVoteRepository;
+import com.kentcarmine.multitopicforum.repositories.TopicThreadRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ActiveProfiles("test")
+class UserVoteIndexServiceTest {
+
+    private static final byte NO_VOTE = (byte) PostVoteState.NONE.getValue();
+
+    UserVoteIndexService userVoteIndexService;
+
+    VoteBufferServiceImpl voteBufferService;
+
+    @Mock
+    PostVoteRepository postVoteRepository;
+
+    @Mock
+    TopicThreadRepository topicThreadRepository;
+
+    @Mock
+    TransactionTemplate transactionTemplate;
+
+    private User testUser;
+    private User testUser2;
+    private User testUser3;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.initMocks(this);
+
+        voteBufferService = new VoteBufferServiceImpl(postVoteRepository, topicThreadRepository, transactionTemplate);
+        ReflectionTestUtils.setField(voteBufferService, "ENABLED", true);
+        ReflectionTestUtils.setField(voteBufferService, "FLUSH_SIZE", 100);
+        ReflectionTestUtils.setField(voteBufferService, "MAX_BUFFERED_VOTES", 1000);
+        ReflectionTestUtils.setField(voteBufferService, "JOURNAL_PATH", "");
+
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+
+        userVoteIndexService = new UserVoteIndexServiceImpl(postVoteRepository, voteBufferService);
+        ReflectionTestUtils.setField(userVoteIndexService, "ENABLED", true);
+        ReflectionTestUtils.setField(userVoteIndexService, "MAX_USERS", 2);
+
+        testUser = new User("TestUser", "testPassword", "testuser@test.com");
+        testUser.addAuthority(UserRole.USER);
+
+        testUser2 = new User("TestUser2", "testPassword2", "testuser2@test.com");
+        testUser2.addAuthority(UserRole.USER);
+
+        testUser3 = new User("TestUser3", "testPassword3", "testuser3@test.com");
+        testUser3.addAuthority(UserRole.USER);
+    }
+
+    @Test
+    void getIndex_loadsOnce() throws Exception {
+        when(postVoteRepository.findAllVoteStatesByUser(testUser)).thenReturn(List.of(
+                new PostVoteStateDto(9L, PostVoteState.DOWNVOTE),
+                new PostVoteStateDto(2L, PostVoteState.UPVOTE),
+                new PostVoteStateDto(5L, PostVoteState.NONE)));
+
+        UserVoteIndex index = userVoteIndexService.getIndex(testUser);
+
+        assertEquals(2, index.size());
+        assertEquals(1, index.getVoteState(2L, NO_VOTE));
+        assertEquals(-1, index.getVoteState(9L, NO_VOTE));
+        assertEquals(NO_VOTE, index.getVoteState(5L, NO_VOTE));
+        assertFalse(index.containsVote(5L));
+
+        assertSame(index, userVoteIndexService.getIndex(testUser));
+        verify(postVoteRepository, times(1)).findAllVoteStatesByUser(any());
+    }
+
+    @Test
+    void recordVote_updatesLoadedIndex() throws Exception {
+        when(postVoteRepository.findAllVoteStatesByUser(testUser)).thenReturn(List.of(
+                new PostVoteStateDto(2L, PostVoteState.UPVOTE),
+                new PostVoteStateDto(9L, PostVoteState.UPVOTE)));
+        userVoteIndexService.getIndex(testUser);
+
+        userVoteIndexService.recordVote(testUser, 5L, PostVoteState.DOWNVOTE);
+        userVoteIndexService.recordVote(testUser, 1L, PostVoteState.UPVOTE);
+
+        UserVoteIndex index = userVoteIndexService.getIndex(testUser);
+        assertEquals(4, index.size());
+        assertEquals(1, index.getVoteState(1L, NO_VOTE));
+        assertEquals(1, index.getVoteState(2L, NO_VOTE));
+        assertEquals(-1, index.getVoteState(5L, NO_VOTE));
+        assertEquals(1, index.getVoteState(9L, NO_VOTE));
+        verify(postVoteRepository, times(1)).findAllVoteStatesByUser(any());
+    }
+
+    @Test
+    void recordVote_indexNotLoaded() throws Exception {
+        userVoteIndexService.recordVote(testUser, 5L, PostVoteState.DOWNVOTE);
+
+        assertEquals(0, userVoteIndexService.getStats().getIndexedUsers());
+        verify(postVoteRepository, times(0)).findAllVoteStatesByUser(any());
+    }
+
+    @Test
+    void recordVote_duringLoad() throws Exception {
+        when(postVoteRepository.findAllVoteStatesByUser(testUser)).thenAnswer(invocation -> {
+            // A vote committed after the load read the user's votes
+            userVoteIndexService.recordVote(testUser, 5L, PostVoteState.DOWNVOTE);
+            return List.of(new PostVoteStateDto(2L, PostVoteState.UPVOTE));
+        });
+
+        UserVoteIndex index = userVoteIndexService.getIndex(testUser);
+
+        assertEquals(2, index.size());
+        assertEquals(1, index.getVoteState(2L, NO_VOTE));
+        assertEquals(-1, index.getVoteState(5L, NO_VOTE));
+    }
+
+    @Test
+    void getIndex_includesBufferedVotes() throws Exception {
+        List<PostVoteStateDto> storedVotes = new ArrayList<>(List.of(new PostVoteStateDto(2L, PostVoteState.UPVOTE)));
+        when(postVoteRepository.findAllVoteStatesByUser(testUser)).thenAnswer(invocation -> new ArrayList<>(storedVotes));
+        when(postVoteRepository.saveBufferedVotes(anyList())).thenAnswer(invocation -> {
+            storedVotes.add(new PostVoteStateDto(5L, PostVoteState.DOWNVOTE));
+            return invocation.getArgument(0);
+        });
+
+        TopicThread testThread = new TopicThread("Test Thread Name", new TopicForum("TestName", "Description"));
+        testThread.setId(7L);
+        Post testPost = new Post("test post content", Date.from(Instant.now()));
+        testPost.setId(5L);
+        testPost.setThread(testThread);
+        assertTrue(voteBufferService.bufferVote(testUser, testPost, PostVoteState.DOWNVOTE));
+
+        UserVoteIndex index = userVoteIndexService.getIndex(testUser);
+
+        assertEquals(2, index.size());
+        assertEquals(1, index.getVoteState(2L, NO_VOTE));
+        assertEquals(-1, index.getVoteState(5L, NO_VOTE));
+
+        // Once flushed, the vote is loaded from the database instead
+        assertEquals(1, voteBufferService.flush());
+        assertEquals(0, voteBufferService.getBufferedVoteCount());
+        userVoteIndexService.clear();
+
+        index = userVoteIndexService.getIndex(testUser);
+
+        assertEquals(2, index.size());
+        assertEquals(1, index.getVoteState(2L, NO_VOTE));
+        assertEquals(-1, index.getVoteState(5L, NO_VOTE));
+    }
+
+    @Test
+    void getIndex_evictsLeastRecentlyUsedUser() throws Exception {
+        when(postVoteRepository.findAllVoteStatesByUser(any())).thenReturn(List.of());
+
+        userVoteIndexService.getIndex(testUser);
+        userVoteIndexService.getIndex(testUser2);
+        userVoteIndexService.getIndex(testUser);
+        userVoteIndexService.getIndex(testUser3);
+        userVoteIndexService.getIndex(testUser);
+
+        assertEquals(2, userVoteIndexService.getStats().getIndexedUsers());
+        verify(postVoteRepository, times(1)).findAllVoteStatesByUser(testUser);
+
+        userVoteIndexService.getIndex(testUser2);
+        verify(postVoteRepository, times(2)).findAllVoteStatesByUser(testUser2);
+    }
+
+    @Test
+    void getStats() throws Exception {
+        when(postVoteRepository.findAllVoteStatesByUser(testUser)).thenReturn(List.of(
+                new PostVoteStateDto(1L, PostVoteState.UPVOTE),
+                new PostVoteStateDto(2L, PostVoteState.DOWNVOTE)));
+        when(postVoteRepository.findAllVoteStatesByUser(testUser2)).thenReturn(List.of(
+                new PostVoteStateDto(1L, PostVoteState.UPVOTE)));
+
+        userVoteIndexService.getIndex(testUser);
+        userVoteIndexService.getIndex(testUser2);
+
+        UserVoteIndexStatsDto stats = userVoteIndexService.getStats();
+
+        assertEquals(2, stats.getIndexedUsers());
+        assertEquals(3, stats.getIndexedVotes());
+        assertEquals(2, stats.getLoads());
+        assertEquals(userVoteIndexService.getIndex(testUser).getMemoryFootprintBytes()
+                + userVoteIndexService.getIndex(testUser2).getMemoryFootprintBytes(), stats.getMemoryFootprintBytes());
+        assertTrue(stats.getMemoryFootprintBytes() > 0);
+    }
+}
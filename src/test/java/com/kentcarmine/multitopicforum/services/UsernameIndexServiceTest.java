@@ -0,0 +1,96 @@
+package com.kentcarmine.multitopicforum.services;
+
+import com.kentcarmine.multitopicforum.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ActiveProfiles("test")
+class UsernameIndexServiceTest {
+
+    UsernameIndexService usernameIndexService;
+
+    @Mock
+    UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.initMocks(this);
+
+        usernameIndexService = new UsernameIndexServiceImpl(userRepository);
+        ReflectionTestUtils.setField(usernameIndexService, "ENABLED", true);
+        ReflectionTestUtils.setField(usernameIndexService, "AUTOCOMPLETE_SIZE", 10);
+
+        when(userRepository.findAllUsernames()).thenReturn(List.of("TestUser", "testuser2", "Moderator", "admin",
+                "superadmin", "AdminTwo", "bob_smith", "Bobby"));
+    }
+
+    @Test
+    void searchUsernames() throws Exception {
+        assertFalse(usernameIndexService.isLoaded());
+        assertEquals(8, usernameIndexService.warmLoad());
+        assertTrue(usernameIndexService.isLoaded());
+
+        assertEquals(List.of("testuser2", "TestUser"), usernameIndexService.searchUsernames("user"));
+        assertEquals(List.of("superadmin", "AdminTwo", "admin"), usernameIndexService.searchUsernames("ADMIN"));
+        assertEquals(List.of("AdminTwo"), usernameIndexService.searchUsernames("admin two"));
+        assertEquals(List.of("Moderator"), usernameIndexService.searchUsernames("od"));
+        assertEquals(List.of("bob_smith"), usernameIndexService.searchUsernames("b_s"));
+        assertTrue(usernameIndexService.searchUsernames("nosuchuser").isEmpty());
+        assertTrue(usernameIndexService.searchUsernames("admin zzz").isEmpty());
+
+        verify(userRepository, times(0)).findAllUsersByUsernamesLikeIgnoreCaseCustom(anyString(), any());
+    }
+
+    @Test
+    void autocompleteUsernames() throws Exception {
+        usernameIndexService.warmLoad();
+
+        assertEquals(List.of("admin", "AdminTwo"), usernameIndexService.autocompleteUsernames("ad", 10));
+        assertEquals(List.of("bob_smith", "Bobby"), usernameIndexService.autocompleteUsernames("BOB", 10));
+        assertEquals(List.of("TestUser"), usernameIndexService.autocompleteUsernames("testuser", 1));
+        assertTrue(usernameIndexService.autocompleteUsernames("zz", 10).isEmpty());
+        assertTrue(usernameIndexService.autocompleteUsernames("", 10).isEmpty());
+
+        verify(userRepository, times(0)).findUsernamesLikeIgnoreCase(anyString(), any());
+    }
+
+    @Test
+    void autocompleteUsernames_notLoaded() throws Exception {
+        when(userRepository.findUsernamesLikeIgnoreCase("bob\\_%", PageRequest.of(0, 5)))
+                .thenReturn(List.of("bob_smith"));
+
+        assertEquals(List.of("bob_smith"), usernameIndexService.autocompleteUsernames("Bob_", 5));
+    }
+
+    @Test
+    void addUsername() throws Exception {
+        usernameIndexService.warmLoad();
+
+        usernameIndexService.addUsername("NewUser");
+        usernameIndexService.addUsername("NewUser");
+
+        assertEquals(List.of("testuser2", "TestUser", "NewUser"), usernameIndexService.searchUsernames("user"));
+        assertEquals(List.of("NewUser"), usernameIndexService.autocompleteUsernames("new", 10));
+    }
+
+    @Test
+    void disabled() throws Exception {
+        ReflectionTestUtils.setField(usernameIndexService, "ENABLED", false);
+
+        assertEquals(0, usernameIndexService.warmLoad());
+        assertFalse(usernameIndexService.isLoaded());
+        verify(userRepository, times(0)).findAllUsernames();
+    }
+}
@@ -0,0 +1,166 @@
+package com.kentcarmine.multitopicforum.services;
+
+import com.kentcarmine.multitopicforum.helpers.BufferedVote;
+import com.kentcarmine.multitopicforum.model.*;
+import com.kentcarmine.multitopicforum.repositories.PostVoteRepository;
+import com.kentcarmine.multitopicforum.repositories.TopicThreadRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class VoteBufferServiceTest {
+
+    private static final String TEST_USERNAME = "TestUser";
+    private static final String TEST_USERNAME_2 = "TestUser2";
+
+    VoteBufferServiceImpl voteBufferService;
+
+    @Mock
+    PostVoteRepository postVoteRepository;
+
+    @Mock
+    TopicThreadRepository topicThreadRepository;
+
+    @Mock
+    TransactionTemplate transactionTemplate;
+
+    @TempDir
+    Path tempDir;
+
+    private User testUser;
+    private User testUser2;
+    private Post testPost;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.initMocks(this);
+
+        voteBufferService = new VoteBufferServiceImpl(postVoteRepository, topicThreadRepository, transactionTemplate);
+        ReflectionTestUtils.setField(voteBufferService, "ENABLED", true);
+        ReflectionTestUtils.setField(voteBufferService, "FLUSH_SIZE", 100);
+        ReflectionTestUtils.setField(voteBufferService, "MAX_BUFFERED_VOTES", 1000);
+        ReflectionTestUtils.setField(voteBufferService, "JOURNAL_PATH", "");
+
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+        when(postVoteRepository.saveBufferedVotes(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        testUser = new User(TEST_USERNAME, "testPassword", "testuser@test.com");
+        testUser2 = new User(TEST_USERNAME_2, "testPassword2", "testuser2@test.com");
+
+        TopicThread testTopicThread = new TopicThread("Test Thread Name", new TopicForum("TestName", "Description"));
+        testTopicThread.setId(7L);
+        testPost = new Post("test post content", Date.from(Instant.now()));
+        testPost.setId(1L);
+        testPost.setThread(testTopicThread);
+    }
+
+    @Test
+    void bufferVote_coalescesVotesByUserAndPost() throws Exception {
+        assertTrue(voteBufferService.bufferVote(testUser, testPost, PostVoteState.UPVOTE));
+        assertFalse(voteBufferService.bufferVote(testUser, testPost, PostVoteState.DOWNVOTE));
+        assertTrue(voteBufferService.bufferVote(testUser2, testPost, PostVoteState.UPVOTE));
+
+        assertEquals(2, voteBufferService.getBufferedVoteCount());
+        assertEquals(PostVoteState.UPVOTE, voteBufferService.getBufferedVoteState(TEST_USERNAME, testPost.getId()));
+        assertNull(voteBufferService.getBufferedVoteState(TEST_USERNAME, 2L));
+    }
+
+    @Test
+    void bufferVote_bufferFull() throws Exception {
+        ReflectionTestUtils.setField(voteBufferService, "MAX_BUFFERED_VOTES", 1);
+
+        assertTrue(voteBufferService.bufferVote(testUser, testPost, PostVoteState.UPVOTE));
+        assertFalse(voteBufferService.bufferVote(testUser2, testPost, PostVoteState.UPVOTE));
+
+        assertEquals(1, voteBufferService.getBufferedVoteCount());
+        assertNull(voteBufferService.getBufferedVoteState(TEST_USERNAME_2, testPost.getId()));
+    }
+
+    @Test
+    void flush_writesBatchAndEmptiesBuffer() throws Exception {
+        voteBufferService.bufferVote(testUser, testPost, PostVoteState.UPVOTE);
+        voteBufferService.bufferVote(testUser2, testPost, PostVoteState.DOWNVOTE);
+
+        int result = voteBufferService.flush();
+
+        assertEquals(2, result);
+        assertEquals(0, voteBufferService.getBufferedVoteCount());
+
+        verify(postVoteRepository, times(1)).saveBufferedVotes(argThat(votes -> votes.size() == 2));
+        verify(topicThreadRepository, times(1)).markModified(eq(7L), any());
+    }
+
+    @Test
+    void flush_failureKeepsVotesBuffered() throws Exception {
+        when(postVoteRepository.saveBufferedVotes(anyList())).thenThrow(new RuntimeException("database unavailable"));
+
+        voteBufferService.bufferVote(testUser, testPost, PostVoteState.UPVOTE);
+
+        assertEquals(0, voteBufferService.flush());
+        assertEquals(1, voteBufferService.getBufferedVoteCount());
+        assertEquals(PostVoteState.UPVOTE, voteBufferService.getBufferedVoteState(TEST_USERNAME, testPost.getId()));
+    }
+
+    @Test
+    void flush_dropsVoteThatCannotBeWritten() throws Exception {
+        when(postVoteRepository.saveBufferedVotes(anyList())).thenAnswer(invocation -> {
+            List<BufferedVote> votes = invocation.getArgument(0);
+            if (votes.stream().anyMatch(vote -> vote.getUsername().equals(TEST_USERNAME_2))) {
+                throw new DataIntegrityViolationException("foreign key violation");
+            }
+            return votes;
+        });
+
+        voteBufferService.bufferVote(testUser, testPost, PostVoteState.UPVOTE);
+        voteBufferService.bufferVote(testUser2, testPost, PostVoteState.DOWNVOTE);
+
+        assertEquals(1, voteBufferService.flush());
+        assertEquals(0, voteBufferService.getBufferedVoteCount());
+        verify(postVoteRepository, times(3)).saveBufferedVotes(anyList());
+    }
+
+    @Test
+    void replayJournal_writesJournaledVotes() throws Exception {
+        Path journalPath = tempDir.resolve("votes.journal");
+        ReflectionTestUtils.setField(voteBufferService, "JOURNAL_PATH", journalPath.toString());
+
+        voteBufferService.bufferVote(testUser, testPost, PostVoteState.UPVOTE);
+        assertEquals(1, Files.readAllLines(journalPath, StandardCharsets.UTF_8).size());
+
+        VoteBufferServiceImpl restartedVoteBufferService = new VoteBufferServiceImpl(postVoteRepository,
+                topicThreadRepository, transactionTemplate);
+        ReflectionTestUtils.setField(restartedVoteBufferService, "ENABLED", true);
+        ReflectionTestUtils.setField(restartedVoteBufferService, "FLUSH_SIZE", 100);
+        ReflectionTestUtils.setField(restartedVoteBufferService, "MAX_BUFFERED_VOTES", 1000);
+        ReflectionTestUtils.setField(restartedVoteBufferService, "JOURNAL_PATH", journalPath.toString());
+
+        int result = restartedVoteBufferService.replayJournal();
+
+        assertEquals(1, result);
+        assertEquals(0, restartedVoteBufferService.getBufferedVoteCount());
+        assertTrue(Files.readAllLines(journalPath, StandardCharsets.UTF_8).isEmpty());
+        verify(postVoteRepository, times(1)).saveBufferedVotes(argThat((List<BufferedVote> votes) ->
+                votes.size() == 1 && votes.get(0).getUsername().equals(TEST_USERNAME)));
+        verify(topicThreadRepository, times(1)).markModified(eq(7L), any());
+    }
+}
@@ -0,0 +1,187 @@
+package com.kentcarmine.multitopicforum.services;
+
+import com.kentcarmine.multitopicforum.dtos.PostVoteCountsDto;
+import com.kentcarmine.multitopicforum.model.Post;
+import com.kentcarmine.multitopicforum.model.PostVoteState;
+import com.kentcarmine.multitopicforum.repositories.PostRepository;
+import com.kentcarmine.multitopicforum.repositories.TopicThreadRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class VoteCounterServiceTest {
+
+    VoteCounterServiceImpl voteCounterService;
+
+    @Mock
+    PostRepository postRepository;
+
+    @Mock
+    TopicThreadRepository topicThreadRepository;
+
+    @Mock
+    TransactionTemplate transactionTemplate;
+
+    private Post testPost;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.initMocks(this);
+
+        voteCounterService = new VoteCounterServiceImpl(postRepository, topicThreadRepository, transactionTemplate);
+        ReflectionTestUtils.setField(voteCounterService, "WARM_LOAD_THREADS", 10);
+
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+
+        testPost = new Post("test post content", Date.from(Instant.now()));
+        testPost.setId(1L);
+        testPost.setUpvoteCount(3);
+        testPost.setDownvoteCount(1);
+        testPost.setVoteCount(2);
+    }
+
+    @Test
+    void recordVote_concurrentVotesOnSamePost() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1000; i++) {
+            PostVoteState voteState = i % 4 == 0 ? PostVoteState.DOWNVOTE : PostVoteState.UPVOTE;
+            executor.execute(() -> voteCounterService.recordVote(testPost, voteState));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(2 + 750 - 250, voteCounterService.getVoteCount(testPost));
+        assertEquals(1, voteCounterService.getCounterCount());
+    }
+
+    @Test
+    void recordVote_appliedAfterCommit() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertEquals(3, voteCounterService.recordVote(testPost, PostVoteState.UPVOTE));
+            assertEquals(0, voteCounterService.getCounterCount());
+
+            TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(1, voteCounterService.getCounterCount());
+        assertEquals(3, voteCounterService.getVoteCount(testPost));
+    }
+
+    @Test
+    void recordVote_notAppliedOnRollback() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            voteCounterService.recordVote(testPost, PostVoteState.UPVOTE);
+
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                    TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(0, voteCounterService.getCounterCount());
+        assertEquals(2, voteCounterService.getVoteCount(testPost));
+    }
+
+    @Test
+    void getVoteCounts_postWithoutCounterUsesStoredTotal() throws Exception {
+        Post otherPost = new Post("other post content", Date.from(Instant.now()));
+        otherPost.setId(2L);
+        otherPost.setVoteCount(5);
+
+        voteCounterService.recordVote(testPost, PostVoteState.UPVOTE);
+
+        Map<Long, Integer> voteCounts = voteCounterService.getVoteCounts(List.of(testPost, otherPost));
+
+        assertEquals(3, voteCounts.get(1L));
+        assertEquals(5, voteCounts.get(2L));
+    }
+
+    @Test
+    void checkpoint_writesPendingVotesOnce() throws Exception {
+        voteCounterService.recordVote(testPost, PostVoteState.UPVOTE);
+        voteCounterService.recordVote(testPost, PostVoteState.UPVOTE);
+        voteCounterService.recordVote(testPost, PostVoteState.DOWNVOTE);
+
+        assertEquals(1, voteCounterService.checkpoint());
+        assertEquals(0, voteCounterService.checkpoint());
+
+        verify(postRepository, times(1)).incrementVoteCounts(eq(1L), eq(2), eq(1));
+        assertEquals(3, voteCounterService.getVoteCount(testPost));
+    }
+
+    @Test
+    void checkpoint_failureKeepsPendingVotes() throws Exception {
+        when(postRepository.incrementVoteCounts(any(), anyInt(), anyInt()))
+                .thenThrow(new RuntimeException("database unavailable")).thenReturn(1);
+
+        voteCounterService.recordVote(testPost, PostVoteState.UPVOTE);
+
+        assertEquals(0, voteCounterService.checkpoint());
+        assertEquals(1, voteCounterService.checkpoint());
+
+        verify(postRepository, times(2)).incrementVoteCounts(eq(1L), eq(1), eq(0));
+    }
+
+    @Test
+    void reconcile_checkpointsThenDropsCounters() throws Exception {
+        voteCounterService.recordVote(testPost, PostVoteState.UPVOTE);
+
+        int result = voteCounterService.reconcile(() -> 4);
+
+        assertEquals(4, result);
+        assertEquals(0, voteCounterService.getCounterCount());
+        verify(postRepository, times(1)).incrementVoteCounts(eq(1L), eq(1), eq(0));
+    }
+
+    @Test
+    void reconcile_keepsVotesRecordedDuringReconciliation() throws Exception {
+        voteCounterService.recordVote(testPost, PostVoteState.UPVOTE);
+
+        voteCounterService.reconcile(() -> {
+            voteCounterService.recordVote(testPost, PostVoteState.DOWNVOTE);
+            return 0;
+        });
+
+        assertEquals(1, voteCounterService.getCounterCount());
+        assertEquals(1, voteCounterService.checkpoint());
+        verify(postRepository, times(1)).incrementVoteCounts(eq(1L), eq(1), eq(0));
+        verify(postRepository, times(1)).incrementVoteCounts(eq(1L), eq(0), eq(1));
+    }
+
+    @Test
+    void warmLoad() throws Exception {
+        when(topicThreadRepository.findRecentlyModifiedThreadIds(any())).thenReturn(List.of(7L));
+        when(postRepository.findVoteCountsByThreadIds(any())).thenReturn(List.of(new PostVoteCountsDto(1L, 10, 4)));
+
+        assertEquals(1, voteCounterService.warmLoad());
+
+        assertEquals(6, voteCounterService.getVoteCount(testPost));
+        verify(postRepository, times(1)).findVoteCountsByThreadIds(eq(List.of(7L)));
+    }
+}